@@ -3,6 +3,8 @@ package fin.c3po.admin.web;
 import fin.c3po.admin.dto.PlatformMetricsResponse;
 import fin.c3po.approval.ApprovalRequestRepository;
 import fin.c3po.approval.ApprovalStatus;
+import fin.c3po.common.cache.CacheStats;
+import fin.c3po.common.cache.SingleFlightCache;
 import fin.c3po.common.web.ApiResponse;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.course.CourseStatus;
@@ -14,6 +16,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/admin/metrics")
 @Validated
@@ -25,6 +29,7 @@ public class AdminMetricsController {
     private final CourseRepository courseRepository;
     private final fin.c3po.assignment.AssignmentRepository assignmentRepository;
     private final ApprovalRequestRepository approvalRequestRepository;
+    private final List<SingleFlightCache<?>> readCaches;
 
     @GetMapping
     public ApiResponse<PlatformMetricsResponse> metrics() {
@@ -37,6 +42,16 @@ public class AdminMetricsController {
                 .build();
         return ApiResponse.success(response);
     }
+
+    /**
+     * 读接口合并计算缓存的命中、未命中与合并等待次数
+     */
+    @GetMapping("/caches")
+    public ApiResponse<List<CacheStats>> caches() {
+        return ApiResponse.success(readCaches.stream()
+                .map(SingleFlightCache::stats)
+                .toList());
+    }
 }
 
 
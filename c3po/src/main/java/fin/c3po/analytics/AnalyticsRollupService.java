@@ -0,0 +1,321 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.AnalyticsRollupEntry;
+import fin.c3po.analytics.dto.AnalyticsRollupResponse;
+import fin.c3po.analytics.dto.RollupScoreSummary;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.score.ScoreHistogram;
+import fin.c3po.score.dto.ScoreDistributionBucket;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 全校按学期、院系汇总的学情
+ * 课程按固定大小分片，在独立的 fork-join 线程池中并行扫描得到课程级统计，再合并到 (学期, 院系) 单元格；
+ * 结果缓存到下一次刷新，查询只在内存中合并单元格，不触发逐课程计算
+ */
+@Slf4j
+@Service
+public class AnalyticsRollupService {
+
+    /** 课程未填学期或任课教师未登记院系时的归类 */
+    public static final String UNASSIGNED = "UNASSIGNED";
+
+    private static final List<String> ROLLUP_STATUSES = List.of(
+            CourseStatus.PUBLISHED.name(), CourseStatus.ARCHIVED.name());
+
+    private final CourseRollupLoader courseRollupLoader;
+    private final int partitionSize;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot;
+
+    public AnalyticsRollupService(CourseRollupLoader courseRollupLoader,
+                                  @Value("${analytics.rollup.partition-size:200}") int partitionSize,
+                                  @Value("${analytics.rollup.parallelism:4}") int parallelism) {
+        this.courseRollupLoader = courseRollupLoader;
+        this.partitionSize = Math.max(partitionSize, 1);
+        // 每个分片任务都会占用数据库连接，并行度不应超过连接池大小
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+    }
+
+    /**
+     * 按学期、院系筛选的汇总；尚无缓存结果时同步计算一次
+     */
+    public AnalyticsRollupResponse rollups(String semester, String department) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (refreshLock) {
+                current = snapshot;
+                if (current == null) {
+                    current = refreshSnapshot();
+                }
+            }
+        }
+        return toResponse(current, semester, department);
+    }
+
+    /**
+     * 同步重新计算并替换缓存
+     *
+     * @return 本次计算的时间点
+     */
+    public Instant refresh() {
+        return refreshSnapshot().getRefreshedAt();
+    }
+
+    private Snapshot refreshSnapshot() {
+        Snapshot refreshed = pool.invoke(new RefreshTask(false));
+        snapshot = refreshed;
+        return refreshed;
+    }
+
+    /**
+     * 定时刷新，在 fork-join 线程池中异步执行，上一轮未结束时跳过；刷新期间继续返回旧结果
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollup.refresh-interval-ms:900000}",
+            initialDelayString = "${analytics.rollup.refresh-initial-delay-ms:180000}")
+    public void scheduledRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            log.debug("Previous analytics rollup refresh still running, skipping");
+            return;
+        }
+        try {
+            pool.execute(new RefreshTask(true));
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("Failed to start analytics rollup refresh: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private AnalyticsRollupResponse toResponse(Snapshot current, String semester, String department) {
+        CourseRollupPartial total = new CourseRollupPartial();
+        Map<String, CourseRollupPartial> bySemester = new TreeMap<>();
+        Map<String, CourseRollupPartial> byDepartment = new TreeMap<>();
+        List<AnalyticsRollupEntry> cells = new ArrayList<>();
+        current.getCells().entrySet().stream()
+                .filter(entry -> semester == null || semester.equals(entry.getKey().getSemester()))
+                .filter(entry -> department == null || department.equals(entry.getKey().getDepartment()))
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(CellKey::getSemester)
+                        .thenComparing(CellKey::getDepartment)))
+                .forEach(entry -> {
+                    CellKey key = entry.getKey();
+                    CourseRollupPartial partial = entry.getValue();
+                    total.merge(partial);
+                    bySemester.computeIfAbsent(key.getSemester(), ignored -> new CourseRollupPartial()).merge(partial);
+                    byDepartment.computeIfAbsent(key.getDepartment(), ignored -> new CourseRollupPartial()).merge(partial);
+                    cells.add(toEntry(key.getSemester(), key.getDepartment(), partial));
+                });
+
+        return AnalyticsRollupResponse.builder()
+                .refreshedAt(current.getRefreshedAt())
+                .total(toEntry(semester, department, total))
+                .semesters(bySemester.entrySet().stream()
+                        .map(entry -> toEntry(entry.getKey(), department, entry.getValue()))
+                        .toList())
+                .departments(byDepartment.entrySet().stream()
+                        .map(entry -> toEntry(semester, entry.getKey(), entry.getValue()))
+                        .toList())
+                .cells(cells)
+                .build();
+    }
+
+    private AnalyticsRollupEntry toEntry(String semester, String department, CourseRollupPartial partial) {
+        return AnalyticsRollupEntry.builder()
+                .semester(semester)
+                .department(department)
+                .courseCount(partial.courseCount())
+                .enrolledStudents(partial.enrolledStudents())
+                .assignmentCount(partial.assignments())
+                .expectedSubmissions(partial.expectedSubmissions())
+                .submittedSubmissions(partial.submittedSubmissions())
+                .gradedSubmissions(partial.gradedSubmissions())
+                .submissionRate(ratio(partial.submittedSubmissions(), partial.expectedSubmissions()))
+                .completionRate(ratio(partial.gradedSubmissions(), partial.expectedSubmissions()))
+                .overdueRate(ratio(partial.overdueCells(), partial.pastDeadlineCells()))
+                .atRiskEnrollments(partial.atRiskEnrollments())
+                .overdueEnrollments(partial.overdueEnrollments())
+                .submissionScores(summarize(partial.submissionScores()))
+                .courseScores(summarize(partial.courseScores()))
+                .build();
+    }
+
+    private RollupScoreSummary summarize(ScoreHistogram histogram) {
+        return RollupScoreSummary.builder()
+                .count(histogram.count())
+                .average(roundOrNull(histogram.average()))
+                .median(roundOrNull(histogram.median()))
+                .p25(roundOrNull(histogram.percentile(25)))
+                .p75(roundOrNull(histogram.percentile(75)))
+                .p90(roundOrNull(histogram.percentile(90)))
+                .min(histogram.min())
+                .max(histogram.max())
+                .distribution(ScoreDistributionBucket.standard(histogram))
+                .build();
+    }
+
+    private static double ratio(long numerator, long denominator) {
+        if (denominator <= 0) {
+            return 0.0;
+        }
+        return Math.round(numerator * 10000.0 / denominator) / 10000.0;
+    }
+
+    private static Double roundOrNull(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+
+    private Snapshot compute() {
+        long startedAt = System.nanoTime();
+        Instant now = Instant.now();
+        List<CourseRollupLoader.CourseDimension> dimensions = courseRollupLoader.loadDimensions(ROLLUP_STATUSES);
+        List<UUID> courseIds = dimensions.stream().map(CourseRollupLoader.CourseDimension::getCourseId).toList();
+
+        Map<UUID, CourseRollupPartial> partials = new PartitionTask(courseIds, now).invoke();
+
+        Map<CellKey, CourseRollupPartial> cells = new HashMap<>();
+        for (CourseRollupLoader.CourseDimension dimension : dimensions) {
+            CourseRollupPartial partial = partials.get(dimension.getCourseId());
+            if (partial == null) {
+                continue;
+            }
+            CellKey key = new CellKey(label(dimension.getSemester()), label(dimension.getDepartment()));
+            cells.computeIfAbsent(key, ignored -> new CourseRollupPartial()).merge(partial);
+        }
+        log.info("Analytics rollup refreshed: {} courses in {} cells, {} ms", courseIds.size(), cells.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        return new Snapshot(now, Map.copyOf(cells));
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? UNASSIGNED : value.trim();
+    }
+
+    private final class RefreshTask extends RecursiveTask<Snapshot> {
+        private final boolean scheduled;
+
+        private RefreshTask(boolean scheduled) {
+            this.scheduled = scheduled;
+        }
+
+        @Override
+        protected Snapshot compute() {
+            try {
+                Snapshot refreshed = AnalyticsRollupService.this.compute();
+                if (scheduled) {
+                    snapshot = refreshed;
+                }
+                return refreshed;
+            } catch (RuntimeException e) {
+                if (!scheduled) {
+                    throw e;
+                }
+                // 保留旧结果，下一轮重试
+                log.warn("Analytics rollup refresh failed: {}", e.getMessage());
+                return null;
+            } finally {
+                if (scheduled) {
+                    refreshing.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * 课程数超过分片大小时对半拆分，叶子任务查询一个分片内的课程统计
+     */
+    private final class PartitionTask extends RecursiveTask<Map<UUID, CourseRollupPartial>> {
+        private final List<UUID> courseIds;
+        private final Instant now;
+
+        private PartitionTask(List<UUID> courseIds, Instant now) {
+            this.courseIds = courseIds;
+            this.now = now;
+        }
+
+        @Override
+        protected Map<UUID, CourseRollupPartial> compute() {
+            if (courseIds.size() <= partitionSize) {
+                return courseRollupLoader.loadPartials(courseIds, now);
+            }
+            int middle = courseIds.size() / 2;
+            PartitionTask left = new PartitionTask(courseIds.subList(0, middle), now);
+            PartitionTask right = new PartitionTask(courseIds.subList(middle, courseIds.size()), now);
+            left.fork();
+            Map<UUID, CourseRollupPartial> merged = right.compute();
+            merged.putAll(left.join());
+            return merged;
+        }
+    }
+
+    private static final class CellKey {
+        private final String semester;
+        private final String department;
+
+        private CellKey(String semester, String department) {
+            this.semester = semester;
+            this.department = department;
+        }
+
+        private String getSemester() {
+            return semester;
+        }
+
+        private String getDepartment() {
+            return department;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CellKey key
+                    && semester.equals(key.semester)
+                    && department.equals(key.department);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(semester, department);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Instant refreshedAt;
+        private final Map<CellKey, CourseRollupPartial> cells;
+
+        private Snapshot(Instant refreshedAt, Map<CellKey, CourseRollupPartial> cells) {
+            this.refreshedAt = refreshedAt;
+            this.cells = cells;
+        }
+
+        private Instant getRefreshedAt() {
+            return refreshedAt;
+        }
+
+        private Map<CellKey, CourseRollupPartial> getCells() {
+            return cells;
+        }
+    }
+}
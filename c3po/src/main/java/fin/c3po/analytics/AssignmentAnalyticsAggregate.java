@@ -0,0 +1,59 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.score.ScoreHistogram;
+import fin.c3po.score.ScoreHistogramConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 单项作业的物化统计，只统计选课学生的最新提交
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "assignment_analytics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_assignment_analytics_assignment", columnNames = "assignment_id")
+}, indexes = {
+        @Index(name = "idx_assignment_analytics_course", columnList = "course_id, ordinal")
+})
+public class AssignmentAnalyticsAggregate extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    /**
+     * 作业在课程中的序号，对应学生位图中的位置
+     */
+    private int ordinal;
+
+    @Column(length = 128)
+    private String title;
+
+    private Instant deadline;
+
+    private int submittedCount;
+
+    private int gradedCount;
+
+    /**
+     * 已评分提交的分数分布，计数、总分和中位数都由它得出
+     */
+    @Convert(converter = ScoreHistogramConverter.class)
+    @Column(length = 1024)
+    private ScoreHistogram scoreHistogram = new ScoreHistogram();
+}
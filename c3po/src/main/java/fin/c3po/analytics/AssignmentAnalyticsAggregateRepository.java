@@ -0,0 +1,21 @@
+package fin.c3po.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AssignmentAnalyticsAggregateRepository extends JpaRepository<AssignmentAnalyticsAggregate, UUID> {
+
+    List<AssignmentAnalyticsAggregate> findByCourseIdOrderByOrdinalAsc(UUID courseId);
+
+    Optional<AssignmentAnalyticsAggregate> findByAssignmentId(UUID assignmentId);
+
+    @Modifying
+    @Query("DELETE FROM AssignmentAnalyticsAggregate a WHERE a.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
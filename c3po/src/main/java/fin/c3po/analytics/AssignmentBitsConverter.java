@@ -0,0 +1,27 @@
+package fin.c3po.analytics;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+/**
+ * 按作业序号编址的位图，以 Base64 保存
+ */
+@Converter
+public class AssignmentBitsConverter implements AttributeConverter<BitSet, String> {
+
+    @Override
+    public String convertToDatabaseColumn(BitSet bits) {
+        return bits == null ? null : Base64.getEncoder().encodeToString(bits.toByteArray());
+    }
+
+    @Override
+    public BitSet convertToEntityAttribute(String value) {
+        if (value == null || value.isEmpty()) {
+            return new BitSet();
+        }
+        return BitSet.valueOf(Base64.getDecoder().decode(value));
+    }
+}
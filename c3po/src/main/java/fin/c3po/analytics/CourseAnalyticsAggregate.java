@@ -0,0 +1,70 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.score.ScoreHistogram;
+import fin.c3po.score.ScoreHistogramConverter;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 课程学习分析的物化汇总，每门课程一行
+ * 提交变化时按差量更新；选课、作业变化或有作业跨过截止时间后标记为过期，下次读取时整体重建
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "course_analytics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_analytics_course", columnNames = "course_id")
+})
+public class CourseAnalyticsAggregate extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    private int enrolledStudents;
+
+    private int totalAssignments;
+
+    /**
+     * 有提交记录的 (作业, 学生) 单元格数
+     */
+    private int submittedCells;
+
+    private int gradedSubmissions;
+
+    /**
+     * 截止时间早于 refreshedAt 且没有提交的单元格数
+     */
+    private int missingPastDeadline;
+
+    /**
+     * 已评分提交的分数分布，计数、总分和中位数都由它得出
+     */
+    @Convert(converter = ScoreHistogramConverter.class)
+    @Column(length = 1024)
+    private ScoreHistogram scoreHistogram = new ScoreHistogram();
+
+    /**
+     * 重建时尚未到期的最早截止时间，到达后缺交统计需要重建
+     */
+    private Instant nextDeadlineAt;
+
+    private boolean stale;
+
+    private Instant refreshedAt;
+
+    /**
+     * 重建扫描读到的提交中最晚的 updated_at；不晚于它的提交变化已包含在重建结果中，差量更新时跳过
+     */
+    private Instant sourceWatermark;
+}
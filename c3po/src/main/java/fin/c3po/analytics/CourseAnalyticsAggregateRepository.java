@@ -0,0 +1,31 @@
+package fin.c3po.analytics;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CourseAnalyticsAggregateRepository extends JpaRepository<CourseAnalyticsAggregate, UUID> {
+
+    Optional<CourseAnalyticsAggregate> findByCourseId(UUID courseId);
+
+    /**
+     * 锁定课程汇总行，差量更新、重建与对账都先获取该锁，保证同一课程的写入串行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM CourseAnalyticsAggregate a WHERE a.courseId = :courseId")
+    Optional<CourseAnalyticsAggregate> findByCourseIdForUpdate(@Param("courseId") UUID courseId);
+
+    @Query("SELECT a.courseId FROM CourseAnalyticsAggregate a")
+    List<UUID> findAllCourseIds();
+
+    @Modifying
+    @Query("UPDATE CourseAnalyticsAggregate a SET a.stale = true WHERE a.courseId = :courseId AND a.stale = false")
+    int markStale(@Param("courseId") UUID courseId);
+}
@@ -0,0 +1,168 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.dto.CourseAnalyticsResponse;
+import fin.c3po.score.ScoreHistogram;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 课程学习分析
+ * 读取 {@link CourseAnalyticsMaterializer} 维护的物化统计（课程汇总行 + 作业行 + 学生行），
+ * 物化结果缺失或过期时先用单次扫描重建
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseAnalyticsEngine {
+
+    private static final int REBUILD_ATTEMPTS = 2;
+
+    private final CourseAnalyticsMaterializer materializer;
+
+    public CourseAnalyticsResponse analyze(UUID courseId) {
+        Instant now = Instant.now();
+        return summarize(view(courseId, now), now);
+    }
+
+    /**
+     * 读取最新的物化统计，缺失或过期时先重建
+     */
+    public CourseAnalyticsView view(UUID courseId, Instant now) {
+        Optional<CourseAnalyticsView> view = materializer.readIfFresh(courseId, now);
+        for (int attempt = 0; view.isEmpty() && attempt < REBUILD_ATTEMPTS; attempt++) {
+            try {
+                materializer.rebuild(courseId);
+            } catch (DataIntegrityViolationException e) {
+                // 并发请求同时创建了汇总行，读取对方的重建结果
+                log.debug("Concurrent analytics rebuild for course {}", courseId);
+            }
+            view = materializer.read(courseId);
+        }
+        return view.orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Course analytics is being rebuilt"));
+    }
+
+    /**
+     * 学业风险：已评分作业均分低于 60，或未提交的作业超过总数的三分之一
+     */
+    static boolean isAtRisk(StudentCourseAnalyticsAggregate student, int assignmentCount) {
+        double average = student.getScoreCount() > 0
+                ? student.getScoreSum() / (double) student.getScoreCount()
+                : 0;
+        int missing = assignmentCount - student.getSubmittedCount();
+        return average < 60 || missing > Math.max(1, assignmentCount / 3);
+    }
+
+    /**
+     * 基于物化统计生成分析结果
+     */
+    public CourseAnalyticsResponse summarize(CourseAnalyticsView view, Instant now) {
+        CourseAnalyticsAggregate course = view.getCourse();
+        int studentCount = course.getEnrolledStudents();
+        int assignmentCount = course.getTotalAssignments();
+        if (studentCount == 0 || assignmentCount == 0) {
+            return CourseAnalyticsResponse.builder()
+                    .completionRate(0.0)
+                    .averageScore(null)
+                    .medianScore(null)
+                    .enrolledStudents(studentCount)
+                    .totalAssignments(assignmentCount)
+                    .gradedSubmissions(0)
+                    .pendingSubmissions(0)
+                    .overdueStudents(List.of())
+                    .difficultAssignments(List.of())
+                    .atRiskStudents(List.of())
+                    .insights(assignmentCount == 0
+                            ? List.of("当前课程尚未创建任何作业，暂无可计算的学习分析指标。")
+                            : List.of("暂无选课学生，暂不生成学习分析结果。"))
+                    .build();
+        }
+
+        int gradedSubmissions = course.getGradedSubmissions();
+        int pendingSubmissions = course.getSubmittedCells() - gradedSubmissions + course.getMissingPastDeadline();
+
+        List<String> difficultAssignments = new ArrayList<>();
+        for (AssignmentAnalyticsAggregate assignment : view.getAssignments()) {
+            boolean difficult = !assignment.getScoreHistogram().isEmpty()
+                    ? assignment.getScoreHistogram().average() < 60
+                    : assignment.getDeadline() != null && assignment.getDeadline().isBefore(now);
+            if (difficult) {
+                difficultAssignments.add(assignment.getTitle() != null
+                        ? assignment.getTitle()
+                        : "Assignment-" + assignment.getAssignmentId());
+            }
+        }
+
+        List<String> atRiskStudents = new ArrayList<>();
+        List<StudentCourseAnalyticsAggregate> overdue = new ArrayList<>();
+        for (StudentCourseAnalyticsAggregate student : view.getStudents()) {
+            if (isAtRisk(student, assignmentCount)) {
+                atRiskStudents.add(student.getStudentId().toString());
+            }
+            if (!student.getOverdueAssignments().isEmpty()) {
+                overdue.add(student);
+            }
+        }
+        // 与逐作业扫描的顺序一致：按首个逾期作业排序，同一作业内按选课名单顺序
+        overdue.sort(Comparator
+                .comparingInt((StudentCourseAnalyticsAggregate student) -> student.getOverdueAssignments().nextSetBit(0))
+                .thenComparingInt(StudentCourseAnalyticsAggregate::getOrdinal));
+        List<String> overdueStudents = overdue.stream()
+                .map(student -> student.getStudentId().toString())
+                .toList();
+
+        double completionRate = round(gradedSubmissions / (double) (studentCount * assignmentCount));
+        Double averageScore = null;
+        Double medianScore = null;
+        List<String> insights = new ArrayList<>();
+        ScoreHistogram scores = course.getScoreHistogram();
+        if (!scores.isEmpty()) {
+            double average = scores.average();
+            averageScore = round(average);
+            medianScore = round(scores.median());
+            if (average >= 90) {
+                insights.add("整体得分表现优异，建议进一步挖掘拔尖内容。");
+            } else if (average < 65) {
+                insights.add("整体得分偏低，可适当安排跟进辅导。");
+            }
+        }
+        if (!overdueStudents.isEmpty()) {
+            insights.add("存在 " + overdueStudents.size() + " 名学生存在逾期或延迟提交，建议发送提醒。");
+        }
+        if (!difficultAssignments.isEmpty()) {
+            insights.add("建议复盘以下难度较高的作业：" + String.join("、", difficultAssignments));
+        }
+        if (!atRiskStudents.isEmpty()) {
+            insights.add("共 " + atRiskStudents.size() + " 名学生处于学业风险区间。");
+        }
+
+        return CourseAnalyticsResponse.builder()
+                .completionRate(completionRate)
+                .averageScore(averageScore)
+                .medianScore(medianScore)
+                .enrolledStudents(studentCount)
+                .totalAssignments(assignmentCount)
+                .gradedSubmissions(gradedSubmissions)
+                .pendingSubmissions(pendingSubmissions)
+                .overdueStudents(overdueStudents)
+                .difficultAssignments(difficultAssignments)
+                .atRiskStudents(atRiskStudents)
+                .insights(insights)
+                .build();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
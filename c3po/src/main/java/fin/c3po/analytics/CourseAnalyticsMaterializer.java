@@ -0,0 +1,395 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentSummary;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.score.ScoreHistogram;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.SubmissionChangedEvent;
+import fin.c3po.submission.SubmissionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 维护课程学习分析的物化表
+ * 提交变化按差量写入；整体重建与对账复用 {@link SubmissionMatrixLoader} 的单次扫描。
+ * 所有写入先锁定课程汇总行，同一课程的差量、重建和对账因此串行执行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseAnalyticsMaterializer {
+
+    private final CourseAnalyticsAggregateRepository courseAggregateRepository;
+    private final AssignmentAnalyticsAggregateRepository assignmentAggregateRepository;
+    private final StudentCourseAnalyticsAggregateRepository studentAggregateRepository;
+    private final CourseRepository courseRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final SubmissionMatrixLoader submissionMatrixLoader;
+
+    /**
+     * 读取物化统计；尚未生成、已标记过期或有作业在上次重建后跨过截止时间时返回空
+     */
+    @Transactional(readOnly = true)
+    public Optional<CourseAnalyticsView> readIfFresh(UUID courseId, Instant now) {
+        return courseAggregateRepository.findByCourseId(courseId)
+                .filter(course -> !course.isStale())
+                .filter(course -> course.getNextDeadlineAt() == null || !course.getNextDeadlineAt().isBefore(now))
+                .map(this::view);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CourseAnalyticsView> read(UUID courseId) {
+        return courseAggregateRepository.findByCourseId(courseId).map(this::view);
+    }
+
+    /**
+     * 从原始提交整体重建一门课程的物化统计
+     */
+    @Transactional
+    public void rebuild(UUID courseId) {
+        CourseAnalyticsAggregate stored = courseAggregateRepository.findByCourseIdForUpdate(courseId).orElse(null);
+        if (stored == null) {
+            if (!courseRepository.existsById(courseId)) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+            }
+            stored = new CourseAnalyticsAggregate();
+            stored.setCourseId(courseId);
+            stored = courseAggregateRepository.saveAndFlush(stored);
+        }
+        write(stored, compute(courseId, Instant.now()));
+    }
+
+    /**
+     * 重新计算并与物化结果比对，存在偏差时覆盖
+     *
+     * @return 是否发现偏差
+     */
+    @Transactional
+    public boolean reconcile(UUID courseId) {
+        CourseAnalyticsAggregate stored = courseAggregateRepository.findByCourseIdForUpdate(courseId).orElse(null);
+        if (stored == null) {
+            return false;
+        }
+        if (!courseRepository.existsById(courseId)) {
+            assignmentAggregateRepository.deleteByCourseId(courseId);
+            studentAggregateRepository.deleteByCourseId(courseId);
+            courseAggregateRepository.delete(stored);
+            return false;
+        }
+        Instant now = Instant.now();
+        boolean expired = stored.isStale()
+                || (stored.getNextDeadlineAt() != null && stored.getNextDeadlineAt().isBefore(now));
+        Materialized fresh = compute(courseId, now);
+        if (expired) {
+            write(stored, fresh);
+            return false;
+        }
+        if (matches(stored, fresh)) {
+            return false;
+        }
+        log.warn("Course analytics for {} drifted from submissions, rewriting materialized rows", courseId);
+        write(stored, fresh);
+        return true;
+    }
+
+    /**
+     * 标记过期，下次读取时重建
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markStale(UUID courseId) {
+        courseAggregateRepository.markStale(courseId);
+    }
+
+    /**
+     * 按修改前后的状态差量更新课程、作业和学生三级统计
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void apply(SubmissionChangedEvent event) {
+        CourseAnalyticsAggregate course = courseAggregateRepository.findByCourseIdForUpdate(event.getCourseId())
+                .orElse(null);
+        if (course == null || course.isStale()) {
+            return;
+        }
+        AssignmentAnalyticsAggregate assignment = assignmentAggregateRepository
+                .findByAssignmentId(event.getAssignmentId())
+                .filter(row -> row.getCourseId().equals(event.getCourseId()))
+                .orElse(null);
+        if (assignment == null) {
+            // 作业在上次重建之后创建，等待重建
+            course.setStale(true);
+            return;
+        }
+
+        Map<UUID, StudentCourseAnalyticsAggregate> students = studentAggregateRepository
+                .findByCourseIdAndStudentIdIn(event.getCourseId(), event.getChanges().stream()
+                        .map(SubmissionChangedEvent.Change::getStudentId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(StudentCourseAnalyticsAggregate::getStudentId, Function.identity()));
+
+        Cell cell = new Cell(course, assignment);
+        for (SubmissionChangedEvent.Change change : event.getChanges()) {
+            StudentCourseAnalyticsAggregate student = students.get(change.getStudentId());
+            // 数据库只保存到微秒，按相同精度与水位比较
+            Instant changedAt = change.getAfter().getUpdatedAt() != null
+                    ? change.getAfter().getUpdatedAt().truncatedTo(ChronoUnit.MICROS)
+                    : null;
+            if (student == null || (changedAt != null && course.getSourceWatermark() != null
+                    && !changedAt.isAfter(course.getSourceWatermark()))) {
+                // 未选课学生不计入统计；早于上次重建的修改已包含在重建结果中
+                continue;
+            }
+            cell.apply(student, change.getBefore(), -1);
+            cell.apply(student, change.getAfter(), 1);
+        }
+        cell.flush();
+    }
+
+    private CourseAnalyticsView view(CourseAnalyticsAggregate course) {
+        return new CourseAnalyticsView(course,
+                assignmentAggregateRepository.findByCourseIdOrderByOrdinalAsc(course.getCourseId()),
+                studentAggregateRepository.findByCourseIdOrderByOrdinalAsc(course.getCourseId()));
+    }
+
+    private Materialized compute(UUID courseId, Instant now) {
+        List<UUID> studentIds = courseSelectionRepository
+                .findByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED)
+                .stream()
+                .map(CourseSelection::getStudentId)
+                .distinct()
+                .toList();
+        List<AssignmentSummary> assignments = assignmentRepository.findSummariesByCourseId(courseId);
+        SubmissionMatrix matrix = submissionMatrixLoader.load(courseId, studentIds, assignments);
+        long nowNanos = SubmissionMatrix.toNanos(now);
+
+        CourseAnalyticsAggregate course = new CourseAnalyticsAggregate();
+        course.setCourseId(courseId);
+        course.setEnrolledStudents(studentIds.size());
+        course.setTotalAssignments(assignments.size());
+        course.setRefreshedAt(now);
+        // 以扫描实际读到的数据为准，而不是扫描开始前的时钟
+        course.setSourceWatermark(matrix.watermark());
+
+        List<StudentCourseAnalyticsAggregate> students = new ArrayList<>(studentIds.size());
+        for (int s = 0; s < studentIds.size(); s++) {
+            StudentCourseAnalyticsAggregate student = new StudentCourseAnalyticsAggregate();
+            student.setCourseId(courseId);
+            student.setStudentId(studentIds.get(s));
+            student.setOrdinal(s);
+            students.add(student);
+        }
+
+        List<AssignmentAnalyticsAggregate> assignmentRows = new ArrayList<>(assignments.size());
+        ScoreHistogram courseHistogram = new ScoreHistogram();
+        for (int a = 0; a < assignments.size(); a++) {
+            AssignmentSummary summary = assignments.get(a);
+            AssignmentAnalyticsAggregate row = new AssignmentAnalyticsAggregate();
+            row.setCourseId(courseId);
+            row.setAssignmentId(summary.getId());
+            row.setOrdinal(a);
+            row.setTitle(summary.getTitle());
+            row.setDeadline(summary.getDeadline());
+            ScoreHistogram histogram = row.getScoreHistogram();
+
+            long deadline = matrix.deadline(a);
+            boolean deadlinePassed = deadline != SubmissionMatrix.NO_TIME && deadline < nowNanos;
+            if (deadline != SubmissionMatrix.NO_TIME && !deadlinePassed
+                    && (course.getNextDeadlineAt() == null || summary.getDeadline().isBefore(course.getNextDeadlineAt()))) {
+                course.setNextDeadlineAt(summary.getDeadline());
+            }
+
+            for (int s = 0; s < studentIds.size(); s++) {
+                int cell = matrix.cell(a, s);
+                StudentCourseAnalyticsAggregate student = students.get(s);
+                if (!matrix.hasSubmission(cell)) {
+                    if (deadlinePassed) {
+                        course.setMissingPastDeadline(course.getMissingPastDeadline() + 1);
+                        student.getOverdueAssignments().set(a);
+                    }
+                    continue;
+                }
+                course.setSubmittedCells(course.getSubmittedCells() + 1);
+                row.setSubmittedCount(row.getSubmittedCount() + 1);
+                student.setSubmittedCount(student.getSubmittedCount() + 1);
+                if (matrix.isGraded(cell)) {
+                    course.setGradedSubmissions(course.getGradedSubmissions() + 1);
+                    row.setGradedCount(row.getGradedCount() + 1);
+                }
+                int score = matrix.score(cell);
+                if (score != SubmissionMatrix.NO_SCORE) {
+                    student.setScoreCount(student.getScoreCount() + 1);
+                    student.setScoreSum(student.getScoreSum() + score);
+                    courseHistogram.add(score);
+                    histogram.add(score);
+                }
+                long submittedAt = matrix.submittedAt(cell);
+                if (deadline != SubmissionMatrix.NO_TIME
+                        && (submittedAt == SubmissionMatrix.NO_TIME || submittedAt > deadline)) {
+                    student.getOverdueAssignments().set(a);
+                }
+            }
+            assignmentRows.add(row);
+        }
+        course.setScoreHistogram(courseHistogram);
+        return new Materialized(course, assignmentRows, students);
+    }
+
+    private void write(CourseAnalyticsAggregate stored, Materialized fresh) {
+        CourseAnalyticsAggregate source = fresh.course;
+        stored.setEnrolledStudents(source.getEnrolledStudents());
+        stored.setTotalAssignments(source.getTotalAssignments());
+        stored.setSubmittedCells(source.getSubmittedCells());
+        stored.setGradedSubmissions(source.getGradedSubmissions());
+        stored.setMissingPastDeadline(source.getMissingPastDeadline());
+        stored.setScoreHistogram(source.getScoreHistogram());
+        stored.setNextDeadlineAt(source.getNextDeadlineAt());
+        stored.setRefreshedAt(source.getRefreshedAt());
+        stored.setSourceWatermark(source.getSourceWatermark());
+        stored.setStale(false);
+
+        assignmentAggregateRepository.deleteByCourseId(stored.getCourseId());
+        studentAggregateRepository.deleteByCourseId(stored.getCourseId());
+        assignmentAggregateRepository.saveAll(fresh.assignments);
+        studentAggregateRepository.saveAll(fresh.students);
+    }
+
+    private boolean matches(CourseAnalyticsAggregate stored, Materialized fresh) {
+        CourseAnalyticsAggregate course = fresh.course;
+        if (stored.getEnrolledStudents() != course.getEnrolledStudents()
+                || stored.getTotalAssignments() != course.getTotalAssignments()
+                || stored.getSubmittedCells() != course.getSubmittedCells()
+                || stored.getGradedSubmissions() != course.getGradedSubmissions()
+                || stored.getMissingPastDeadline() != course.getMissingPastDeadline()
+                || !stored.getScoreHistogram().equals(course.getScoreHistogram())) {
+            return false;
+        }
+
+        Map<UUID, AssignmentAnalyticsAggregate> assignments = assignmentAggregateRepository
+                .findByCourseIdOrderByOrdinalAsc(stored.getCourseId()).stream()
+                .collect(Collectors.toMap(AssignmentAnalyticsAggregate::getAssignmentId, Function.identity()));
+        if (assignments.size() != fresh.assignments.size()) {
+            return false;
+        }
+        for (AssignmentAnalyticsAggregate expected : fresh.assignments) {
+            AssignmentAnalyticsAggregate actual = assignments.get(expected.getAssignmentId());
+            if (actual == null
+                    || actual.getOrdinal() != expected.getOrdinal()
+                    || actual.getSubmittedCount() != expected.getSubmittedCount()
+                    || actual.getGradedCount() != expected.getGradedCount()
+                    || !actual.getScoreHistogram().equals(expected.getScoreHistogram())
+                    || !Objects.equals(actual.getDeadline(), expected.getDeadline())
+                    || !Objects.equals(actual.getTitle(), expected.getTitle())) {
+                return false;
+            }
+        }
+
+        Map<UUID, StudentCourseAnalyticsAggregate> students = studentAggregateRepository
+                .findByCourseIdOrderByOrdinalAsc(stored.getCourseId()).stream()
+                .collect(Collectors.toMap(StudentCourseAnalyticsAggregate::getStudentId, Function.identity()));
+        if (students.size() != fresh.students.size()) {
+            return false;
+        }
+        for (StudentCourseAnalyticsAggregate expected : fresh.students) {
+            StudentCourseAnalyticsAggregate actual = students.get(expected.getStudentId());
+            if (actual == null
+                    || actual.getOrdinal() != expected.getOrdinal()
+                    || actual.getSubmittedCount() != expected.getSubmittedCount()
+                    || actual.getScoreCount() != expected.getScoreCount()
+                    || actual.getScoreSum() != expected.getScoreSum()
+                    || !actual.getOverdueAssignments().equals(expected.getOverdueAssignments())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Materialized {
+        private final CourseAnalyticsAggregate course;
+        private final List<AssignmentAnalyticsAggregate> assignments;
+        private final List<StudentCourseAnalyticsAggregate> students;
+
+        private Materialized(CourseAnalyticsAggregate course,
+                             List<AssignmentAnalyticsAggregate> assignments,
+                             List<StudentCourseAnalyticsAggregate> students) {
+            this.course = course;
+            this.assignments = assignments;
+            this.students = students;
+        }
+    }
+
+    /**
+     * 一次事件内对同一作业的差量累加，直方图和位图改为写入新对象，确保持久化上下文识别到变更
+     */
+    private static final class Cell {
+        private final CourseAnalyticsAggregate course;
+        private final AssignmentAnalyticsAggregate assignment;
+        private final ScoreHistogram courseHistogram;
+        private final ScoreHistogram assignmentHistogram;
+
+        private Cell(CourseAnalyticsAggregate course, AssignmentAnalyticsAggregate assignment) {
+            this.course = course;
+            this.assignment = assignment;
+            this.courseHistogram = course.getScoreHistogram().copy();
+            this.assignmentHistogram = assignment.getScoreHistogram().copy();
+        }
+
+        private void apply(StudentCourseAnalyticsAggregate student, SubmissionChangedEvent.State state, int sign) {
+            Instant deadline = assignment.getDeadline();
+            boolean overdue;
+            if (state == null) {
+                overdue = deadline != null && deadline.isBefore(course.getRefreshedAt());
+                if (overdue) {
+                    course.setMissingPastDeadline(course.getMissingPastDeadline() + sign);
+                }
+            } else {
+                course.setSubmittedCells(course.getSubmittedCells() + sign);
+                assignment.setSubmittedCount(assignment.getSubmittedCount() + sign);
+                student.setSubmittedCount(student.getSubmittedCount() + sign);
+                if (state.getStatus() == SubmissionStatus.GRADED) {
+                    course.setGradedSubmissions(course.getGradedSubmissions() + sign);
+                    assignment.setGradedCount(assignment.getGradedCount() + sign);
+                }
+                Integer score = state.getScore();
+                if (score != null) {
+                    student.setScoreCount(student.getScoreCount() + sign);
+                    student.setScoreSum(student.getScoreSum() + (long) sign * score);
+                    courseHistogram.add(score, sign);
+                    assignmentHistogram.add(score, sign);
+                }
+                overdue = deadline != null
+                        && (state.getSubmittedAt() == null || state.getSubmittedAt().isAfter(deadline));
+            }
+            if (sign > 0) {
+                BitSet bits = (BitSet) student.getOverdueAssignments().clone();
+                bits.set(assignment.getOrdinal(), overdue);
+                student.setOverdueAssignments(bits);
+            }
+        }
+
+        private void flush() {
+            course.setScoreHistogram(courseHistogram);
+            assignment.setScoreHistogram(assignmentHistogram);
+        }
+    }
+}
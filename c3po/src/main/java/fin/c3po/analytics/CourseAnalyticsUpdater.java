@@ -0,0 +1,73 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.submission.SubmissionChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * 把提交、选课和作业变化同步到课程分析物化表，并定期对账修复偏差
+ * 同步失败不影响业务请求，只把课程标记为过期，下次读取时重建
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseAnalyticsUpdater {
+
+    private final CourseAnalyticsMaterializer materializer;
+    private final CourseAnalyticsAggregateRepository courseAggregateRepository;
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        try {
+            materializer.apply(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply submission changes to analytics of course {}: {}",
+                    event.getCourseId(), e.getMessage());
+            markStale(event.getCourseId());
+        }
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        // 选课名单或作业（标题、截止时间、数量）变化后，序号和缺交统计都需要重建
+        if (event.getChange() == CourseChangedEvent.Change.ENROLLMENT_CHANGED
+                || event.getChange() == CourseChangedEvent.Change.ASSIGNMENTS_CHANGED) {
+            markStale(event.getCourseId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.course.reconcile-interval-ms:900000}",
+            initialDelayString = "${analytics.course.reconcile-initial-delay-ms:300000}")
+    public void reconcileAll() {
+        int drifted = 0;
+        for (UUID courseId : courseAggregateRepository.findAllCourseIds()) {
+            try {
+                if (materializer.reconcile(courseId)) {
+                    drifted++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Course analytics reconciliation for {} failed: {}", courseId, e.getMessage());
+            }
+        }
+        if (drifted > 0) {
+            log.info("Course analytics reconciliation repaired {} courses", drifted);
+        }
+    }
+
+    private void markStale(UUID courseId) {
+        try {
+            materializer.markStale(courseId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to mark analytics of course {} stale: {}", courseId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package fin.c3po.analytics;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 一门课程的物化统计：课程汇总行、按序号排列的作业行和学生行
+ */
+@Value
+public class CourseAnalyticsView {
+    CourseAnalyticsAggregate course;
+    List<AssignmentAnalyticsAggregate> assignments;
+    List<StudentCourseAnalyticsAggregate> students;
+}
@@ -0,0 +1,55 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * 课程每日学情快照，每门课程每天一行，用于绘制学期内的趋势
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "course_daily_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_daily_snapshots_course_date", columnNames = {"course_id", "snapshot_date"})
+})
+public class CourseDailySnapshot extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private LocalDate snapshotDate;
+
+    private int enrolledStudents;
+
+    private int totalAssignments;
+
+    private int gradedSubmissions;
+
+    private double completionRate;
+
+    private Double averageScore;
+
+    private Double medianScore;
+
+    /**
+     * 存在逾期提交或过了截止时间仍未提交作业的学生数
+     */
+    private int overdueStudents;
+
+    private int atRiskStudents;
+
+    @Column(nullable = false)
+    private Instant capturedAt;
+}
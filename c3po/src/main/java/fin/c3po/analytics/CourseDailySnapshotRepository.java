@@ -0,0 +1,17 @@
+package fin.c3po.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseDailySnapshotRepository extends JpaRepository<CourseDailySnapshot, UUID> {
+
+    List<CourseDailySnapshot> findByCourseIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(UUID courseId,
+                                                                                         LocalDate from,
+                                                                                         LocalDate to);
+
+    List<CourseDailySnapshot> findBySnapshotDateAndCourseIdIn(LocalDate snapshotDate, Collection<UUID> courseIds);
+}
@@ -0,0 +1,167 @@
+package fin.c3po.analytics;
+
+import fin.c3po.score.ComponentScoreHistogram;
+import fin.c3po.score.ComponentScoreHistogramRepository;
+import fin.c3po.submission.SubmissionStatus;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 按课程分片扫描选课、作业、提交、成绩与风险记录，得到每门课程的 {@link CourseRollupPartial}
+ * 提交只统计选课学生在每份作业上的最新一条，与课程学情的口径一致；数据库端完成分组计数，
+ * 返回的行数只与课程数和分数取值有关，与提交量无关
+ */
+@Component
+public class CourseRollupLoader {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String COURSE_DIMENSIONS_SQL = """
+            SELECT c.id, c.semester,
+                   (SELECT MIN(tp.department) FROM teacher_profiles tp WHERE tp.user_id = c.teacher_id) AS department
+            FROM courses c
+            WHERE c.status IN (:statuses)
+            """;
+
+    private static final String ENROLLED_SQL = """
+            SELECT course_id, COUNT(*) AS total
+            FROM course_selections
+            WHERE course_id IN (:courseIds) AND status = 'ENROLLED'
+            GROUP BY course_id
+            """;
+
+    private static final String ASSIGNMENTS_SQL = """
+            SELECT course_id, COUNT(*) AS total,
+                   SUM(CASE WHEN deadline < :now THEN 1 ELSE 0 END) AS past_deadline
+            FROM assignments
+            WHERE course_id IN (:courseIds)
+            GROUP BY course_id
+            """;
+
+    private static final String LATEST_SUBMISSIONS_SQL = """
+            SELECT course_id, status, score, past_deadline, late, COUNT(*) AS total
+            FROM (
+                SELECT a.course_id, s.status, s.score,
+                       CASE WHEN a.deadline < :now THEN 1 ELSE 0 END AS past_deadline,
+                       CASE WHEN a.deadline IS NOT NULL
+                                 AND (s.submitted_at IS NULL OR s.submitted_at > a.deadline)
+                            THEN 1 ELSE 0 END AS late,
+                       ROW_NUMBER() OVER (
+                           PARTITION BY s.assignment_id, s.student_id
+                           ORDER BY COALESCE(s.submitted_at, s.updated_at, s.created_at) DESC, s.id DESC
+                       ) AS rn
+                FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                JOIN course_selections cs ON cs.course_id = a.course_id
+                                         AND cs.student_id = s.student_id
+                                         AND cs.status = 'ENROLLED'
+                WHERE a.course_id IN (:courseIds)
+            ) latest
+            WHERE latest.rn = 1
+            GROUP BY course_id, status, score, past_deadline, late
+            """;
+
+    private static final String RISKS_SQL = """
+            SELECT course_id,
+                   SUM(CASE WHEN at_risk THEN 1 ELSE 0 END) AS at_risk,
+                   SUM(CASE WHEN overdue THEN 1 ELSE 0 END) AS overdue
+            FROM student_risk_records
+            WHERE course_id IN (:courseIds)
+            GROUP BY course_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ComponentScoreHistogramRepository componentScoreHistogramRepository;
+
+    public CourseRollupLoader(DataSource dataSource,
+                              ComponentScoreHistogramRepository componentScoreHistogramRepository) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.jdbcTemplate.getJdbcTemplate().setFetchSize(FETCH_SIZE);
+        this.componentScoreHistogramRepository = componentScoreHistogramRepository;
+    }
+
+    /**
+     * 指定状态课程的学期与院系（取任课教师档案中的院系）
+     */
+    @Transactional(readOnly = true)
+    public List<CourseDimension> loadDimensions(Collection<String> statuses) {
+        return jdbcTemplate.query(COURSE_DIMENSIONS_SQL, new MapSqlParameterSource("statuses", statuses),
+                (rs, rowNum) -> new CourseDimension(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("semester"),
+                        rs.getString("department")));
+    }
+
+    /**
+     * 一个分片内每门课程的统计量
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, CourseRollupPartial> loadPartials(List<UUID> courseIds, Instant now) {
+        Map<UUID, CourseRollupPartial> partials = new HashMap<>(courseIds.size() * 2);
+        if (courseIds.isEmpty()) {
+            return partials;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseIds", courseIds)
+                .addValue("now", Timestamp.from(now));
+
+        Map<UUID, Long> enrolled = new HashMap<>();
+        jdbcTemplate.query(ENROLLED_SQL, params, rs -> {
+            enrolled.put(rs.getObject("course_id", UUID.class), rs.getLong("total"));
+        });
+        Map<UUID, long[]> assignments = new HashMap<>();
+        jdbcTemplate.query(ASSIGNMENTS_SQL, params, rs -> {
+            assignments.put(rs.getObject("course_id", UUID.class),
+                    new long[]{rs.getLong("total"), rs.getLong("past_deadline")});
+        });
+        for (UUID courseId : courseIds) {
+            long[] counts = assignments.getOrDefault(courseId, new long[2]);
+            partials.put(courseId, CourseRollupPartial.forCourse(enrolled.getOrDefault(courseId, 0L), counts[0], counts[1]));
+        }
+
+        jdbcTemplate.query(LATEST_SUBMISSIONS_SQL, params, rs -> {
+            CourseRollupPartial partial = partials.get(rs.getObject("course_id", UUID.class));
+            if (partial != null) {
+                partial.acceptSubmissions(
+                        rs.getLong("total"),
+                        SubmissionStatus.valueOf(rs.getString("status")) == SubmissionStatus.GRADED,
+                        (Integer) rs.getObject("score"),
+                        rs.getInt("past_deadline") == 1,
+                        rs.getInt("late") == 1);
+            }
+        });
+        jdbcTemplate.query(RISKS_SQL, params, rs -> {
+            CourseRollupPartial partial = partials.get(rs.getObject("course_id", UUID.class));
+            if (partial != null) {
+                partial.acceptRisks(rs.getLong("at_risk"), rs.getLong("overdue"));
+            }
+        });
+        // 成绩分布直接合并发布成绩时维护的各组成项直方图，不再扫描 scores 表
+        for (ComponentScoreHistogram histogram : componentScoreHistogramRepository.findByCourseIdIn(courseIds)) {
+            CourseRollupPartial partial = partials.get(histogram.getCourseId());
+            if (partial != null) {
+                partial.acceptCourseScores(histogram.getHistogram());
+            }
+        }
+        return partials;
+    }
+
+    @Value
+    public static class CourseDimension {
+        UUID courseId;
+        String semester;
+        String department;
+    }
+}
@@ -0,0 +1,141 @@
+package fin.c3po.analytics;
+
+import fin.c3po.score.ScoreHistogram;
+
+/**
+ * 一门或多门课程的可合并统计量
+ * 只保存计数与分数直方图，院系、学期等任意层级的汇总都由课程级结果直接相加得到
+ */
+public final class CourseRollupPartial {
+
+    private int courseCount;
+    private long enrolledStudents;
+    private long assignments;
+    /** 选课学生 × 作业 的单元格数 */
+    private long expectedSubmissions;
+    private long submittedSubmissions;
+    private long gradedSubmissions;
+    /** 截止时间已过的单元格数，逾期率的分母 */
+    private long pastDeadlineCells;
+    /** 截止时间已过且未提交或迟交的单元格数 */
+    private long overdueCells;
+    private long atRiskEnrollments;
+    private long overdueEnrollments;
+    private final ScoreHistogram submissionScores;
+    private final ScoreHistogram courseScores;
+
+    public CourseRollupPartial() {
+        this.submissionScores = new ScoreHistogram();
+        this.courseScores = new ScoreHistogram();
+    }
+
+    /**
+     * 单门课程的初始统计：选课人数与作业数决定应交与已过截止的单元格数
+     */
+    static CourseRollupPartial forCourse(long enrolledStudents, long assignments, long pastDeadlineAssignments) {
+        CourseRollupPartial partial = new CourseRollupPartial();
+        partial.courseCount = 1;
+        partial.enrolledStudents = enrolledStudents;
+        partial.assignments = assignments;
+        partial.expectedSubmissions = enrolledStudents * assignments;
+        partial.pastDeadlineCells = enrolledStudents * pastDeadlineAssignments;
+        // 先假定已过截止的单元格全部缺交，扫描到按时提交时再扣除
+        partial.overdueCells = partial.pastDeadlineCells;
+        return partial;
+    }
+
+    /**
+     * 计入同一分组下的若干条最新提交
+     *
+     * @param pastDeadline 作业截止时间已过
+     * @param late         未记录提交时间或晚于截止时间提交
+     */
+    void acceptSubmissions(long count, boolean graded, Integer score, boolean pastDeadline, boolean late) {
+        submittedSubmissions += count;
+        if (graded) {
+            gradedSubmissions += count;
+        }
+        if (score != null) {
+            submissionScores.add(score, count);
+        }
+        if (pastDeadline && !late) {
+            overdueCells -= count;
+        }
+    }
+
+    void acceptRisks(long atRisk, long overdue) {
+        atRiskEnrollments += atRisk;
+        overdueEnrollments += overdue;
+    }
+
+    void acceptCourseScores(ScoreHistogram histogram) {
+        courseScores.merge(histogram);
+    }
+
+    /**
+     * 把另一份统计累加到当前对象
+     */
+    public CourseRollupPartial merge(CourseRollupPartial other) {
+        courseCount += other.courseCount;
+        enrolledStudents += other.enrolledStudents;
+        assignments += other.assignments;
+        expectedSubmissions += other.expectedSubmissions;
+        submittedSubmissions += other.submittedSubmissions;
+        gradedSubmissions += other.gradedSubmissions;
+        pastDeadlineCells += other.pastDeadlineCells;
+        overdueCells += other.overdueCells;
+        atRiskEnrollments += other.atRiskEnrollments;
+        overdueEnrollments += other.overdueEnrollments;
+        submissionScores.merge(other.submissionScores);
+        courseScores.merge(other.courseScores);
+        return this;
+    }
+
+    public int courseCount() {
+        return courseCount;
+    }
+
+    public long enrolledStudents() {
+        return enrolledStudents;
+    }
+
+    public long assignments() {
+        return assignments;
+    }
+
+    public long expectedSubmissions() {
+        return expectedSubmissions;
+    }
+
+    public long submittedSubmissions() {
+        return submittedSubmissions;
+    }
+
+    public long gradedSubmissions() {
+        return gradedSubmissions;
+    }
+
+    public long pastDeadlineCells() {
+        return pastDeadlineCells;
+    }
+
+    public long overdueCells() {
+        return overdueCells;
+    }
+
+    public long atRiskEnrollments() {
+        return atRiskEnrollments;
+    }
+
+    public long overdueEnrollments() {
+        return overdueEnrollments;
+    }
+
+    public ScoreHistogram submissionScores() {
+        return submissionScores;
+    }
+
+    public ScoreHistogram courseScores() {
+        return courseScores;
+    }
+}
@@ -0,0 +1,221 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.score.ScoreHistogram;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 每晚为所有已发布课程生成当日学情快照；快照读取的是执行时刻的物化统计，
+ * 因此按实际读取时刻所在的日期记录，并保存读取时刻 capturedAt
+ * 课程按批次划分，批次之间并行；批内每门课程一个 fork-join 子任务读取物化统计，
+ * 全部完成后在一个事务中批量写入
+ */
+@Slf4j
+@Component
+public class CourseSnapshotJob {
+
+    private final CourseAnalyticsEngine courseAnalyticsEngine;
+    private final CourseRepository courseRepository;
+    private final CourseSnapshotService courseSnapshotService;
+    private final int batchSize;
+    private final ZoneId zone;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CourseSnapshotJob(CourseAnalyticsEngine courseAnalyticsEngine,
+                             CourseRepository courseRepository,
+                             CourseSnapshotService courseSnapshotService,
+                             @Value("${analytics.snapshot.batch-size:100}") int batchSize,
+                             @Value("${analytics.snapshot.parallelism:4}") int parallelism,
+                             @Value("${analytics.snapshot.zone:}") String zone) {
+        this.courseAnalyticsEngine = courseAnalyticsEngine;
+        this.courseRepository = courseRepository;
+        this.courseSnapshotService = courseSnapshotService;
+        this.batchSize = Math.max(batchSize, 1);
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        // 每个子任务都会占用数据库连接，并行度不应超过连接池大小
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+    }
+
+    /**
+     * 临近午夜执行，快照记为读取时刻所在的日期；在 fork-join 线程池中异步执行，上一轮未结束时跳过
+     */
+    @Scheduled(cron = "${analytics.snapshot.cron:0 50 23 * * *}", zone = "${analytics.snapshot.zone:}")
+    public void nightly() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Previous course snapshot job still running, skipping");
+            return;
+        }
+        try {
+            Instant capturedAt = Instant.now();
+            pool.execute(new SnapshotCoursesTask(courseRepository.findIdsByStatus(CourseStatus.PUBLISHED),
+                    capturedAt, true));
+        } catch (RuntimeException e) {
+            running.set(false);
+            log.warn("Failed to start course snapshot job: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 同步为所有已发布课程生成当前时刻的快照，记为当天的数据
+     *
+     * @return 写入成功的课程数
+     */
+    public int snapshotAll() {
+        return pool.invoke(new SnapshotCoursesTask(courseRepository.findIdsByStatus(CourseStatus.PUBLISHED),
+                Instant.now(), false));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private CourseDailySnapshot capture(UUID courseId, Instant now) {
+        CourseAnalyticsView view = courseAnalyticsEngine.view(courseId, now);
+        CourseAnalyticsAggregate course = view.getCourse();
+        int studentCount = course.getEnrolledStudents();
+        int assignmentCount = course.getTotalAssignments();
+
+        CourseDailySnapshot snapshot = new CourseDailySnapshot();
+        snapshot.setCourseId(courseId);
+        snapshot.setEnrolledStudents(studentCount);
+        snapshot.setTotalAssignments(assignmentCount);
+        snapshot.setCapturedAt(now);
+        if (studentCount == 0 || assignmentCount == 0) {
+            return snapshot;
+        }
+        snapshot.setGradedSubmissions(course.getGradedSubmissions());
+        snapshot.setCompletionRate(round(course.getGradedSubmissions() / (double) (studentCount * assignmentCount)));
+        ScoreHistogram scores = course.getScoreHistogram();
+        if (!scores.isEmpty()) {
+            snapshot.setAverageScore(round(scores.average()));
+            snapshot.setMedianScore(round(scores.median()));
+        }
+        int overdue = 0;
+        int atRisk = 0;
+        for (StudentCourseAnalyticsAggregate student : view.getStudents()) {
+            if (!student.getOverdueAssignments().isEmpty()) {
+                overdue++;
+            }
+            if (CourseAnalyticsEngine.isAtRisk(student, assignmentCount)) {
+                atRisk++;
+            }
+        }
+        snapshot.setOverdueStudents(overdue);
+        snapshot.setAtRiskStudents(atRisk);
+        return snapshot;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /**
+     * 按批次派生子任务并等待全部完成，返回写入成功的课程数
+     */
+    private final class SnapshotCoursesTask extends RecursiveTask<Integer> {
+        private final List<UUID> courseIds;
+        private final Instant now;
+        private final LocalDate snapshotDate;
+        private final boolean scheduled;
+
+        private SnapshotCoursesTask(List<UUID> courseIds, Instant capturedAt, boolean scheduled) {
+            this.courseIds = courseIds;
+            this.now = capturedAt;
+            this.snapshotDate = LocalDate.ofInstant(capturedAt, zone);
+            this.scheduled = scheduled;
+        }
+
+        @Override
+        protected Integer compute() {
+            try {
+                long startedAt = System.nanoTime();
+                List<SnapshotBatchTask> batches = new ArrayList<>();
+                for (int from = 0; from < courseIds.size(); from += batchSize) {
+                    batches.add(new SnapshotBatchTask(
+                            courseIds.subList(from, Math.min(from + batchSize, courseIds.size())), snapshotDate, now));
+                }
+                invokeAll(batches);
+                int written = batches.stream().mapToInt(SnapshotBatchTask::join).sum();
+                if (scheduled) {
+                    log.info("Course snapshots for {} written: {}/{} courses in {} ms", snapshotDate, written,
+                            courseIds.size(), (System.nanoTime() - startedAt) / 1_000_000);
+                }
+                return written;
+            } finally {
+                if (scheduled) {
+                    running.set(false);
+                }
+            }
+        }
+    }
+
+    private final class SnapshotBatchTask extends RecursiveTask<Integer> {
+        private final List<UUID> courseIds;
+        private final LocalDate snapshotDate;
+        private final Instant now;
+
+        private SnapshotBatchTask(List<UUID> courseIds, LocalDate snapshotDate, Instant now) {
+            this.courseIds = courseIds;
+            this.snapshotDate = snapshotDate;
+            this.now = now;
+        }
+
+        @Override
+        protected Integer compute() {
+            List<CaptureTask> tasks = courseIds.stream().map(courseId -> new CaptureTask(courseId, now)).toList();
+            invokeAll(tasks);
+            List<CourseDailySnapshot> snapshots = tasks.stream()
+                    .map(CaptureTask::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+            try {
+                courseSnapshotService.writeBatch(snapshotDate, snapshots);
+                return snapshots.size();
+            } catch (RuntimeException e) {
+                // 下一次执行时重新生成
+                log.warn("Writing {} course snapshots for {} failed: {}", snapshots.size(), snapshotDate,
+                        e.getMessage());
+                return 0;
+            }
+        }
+    }
+
+    private final class CaptureTask extends RecursiveTask<CourseDailySnapshot> {
+        private final UUID courseId;
+        private final Instant now;
+
+        private CaptureTask(UUID courseId, Instant now) {
+            this.courseId = courseId;
+            this.now = now;
+        }
+
+        @Override
+        protected CourseDailySnapshot compute() {
+            try {
+                return capture(courseId, now);
+            } catch (RuntimeException e) {
+                log.warn("Capturing snapshot for course {} failed: {}", courseId, e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package fin.c3po.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 课程每日快照的存储；同一天重复执行时覆盖当天已有的行
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseSnapshotService {
+
+    private final CourseDailySnapshotRepository courseDailySnapshotRepository;
+
+    /**
+     * 在一个事务中写入一批课程的快照，Hibernate 按 jdbc.batch_size 合并成批量语句
+     */
+    @Transactional
+    public void writeBatch(LocalDate snapshotDate, List<CourseDailySnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        Map<UUID, CourseDailySnapshot> existing = courseDailySnapshotRepository
+                .findBySnapshotDateAndCourseIdIn(snapshotDate,
+                        snapshots.stream().map(CourseDailySnapshot::getCourseId).toList())
+                .stream()
+                .collect(Collectors.toMap(CourseDailySnapshot::getCourseId, Function.identity()));
+        List<CourseDailySnapshot> toSave = snapshots.stream()
+                .map(snapshot -> {
+                    CourseDailySnapshot stored = existing.get(snapshot.getCourseId());
+                    if (stored == null) {
+                        snapshot.setSnapshotDate(snapshotDate);
+                        return snapshot;
+                    }
+                    copy(snapshot, stored);
+                    return stored;
+                })
+                .toList();
+        courseDailySnapshotRepository.saveAll(toSave);
+    }
+
+    private static void copy(CourseDailySnapshot source, CourseDailySnapshot target) {
+        target.setEnrolledStudents(source.getEnrolledStudents());
+        target.setTotalAssignments(source.getTotalAssignments());
+        target.setGradedSubmissions(source.getGradedSubmissions());
+        target.setCompletionRate(source.getCompletionRate());
+        target.setAverageScore(source.getAverageScore());
+        target.setMedianScore(source.getMedianScore());
+        target.setOverdueStudents(source.getOverdueStudents());
+        target.setAtRiskStudents(source.getAtRiskStudents());
+        target.setCapturedAt(source.getCapturedAt());
+    }
+}
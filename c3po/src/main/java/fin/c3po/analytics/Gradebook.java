@@ -0,0 +1,19 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.AssignmentSummary;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 一门课程的成绩册：选课学生、按截止时间排序的作业以及两者构成的最新提交矩阵
+ */
+@Value
+public class Gradebook {
+    UUID courseId;
+    List<UUID> studentIds;
+    List<String> studentNames;
+    List<AssignmentSummary> assignments;
+    SubmissionMatrix matrix;
+}
@@ -0,0 +1,62 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentSummary;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserAccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 组装课程成绩册：一次查询扫描全部提交填充 {@link SubmissionMatrix}，不按作业逐个查询
+ */
+@Service
+@RequiredArgsConstructor
+public class GradebookService {
+
+    private static final Comparator<AssignmentSummary> ASSIGNMENT_ORDER = Comparator
+            .comparing(AssignmentSummary::getDeadline, Comparator.nullsLast(Comparator.<Instant>naturalOrder()))
+            .thenComparing(AssignmentSummary::getTitle, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+            .thenComparing(AssignmentSummary::getId);
+
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final UserAccountRepository userAccountRepository;
+    private final SubmissionMatrixLoader submissionMatrixLoader;
+
+    public Gradebook load(UUID courseId) {
+        List<UUID> enrolled = courseSelectionRepository
+                .findByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED)
+                .stream()
+                .map(CourseSelection::getStudentId)
+                .distinct()
+                .toList();
+        Map<UUID, String> usernames = userAccountRepository.findAllById(enrolled).stream()
+                .collect(Collectors.toMap(UserAccount::getId, UserAccount::getUsername));
+        // 按用户名排列行，矩阵按同一顺序编号
+        List<UUID> studentIds = enrolled.stream()
+                .sorted(Comparator.<UUID, String>comparing(usernames::get, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Function.identity()))
+                .toList();
+        List<String> studentNames = studentIds.stream()
+                .map(usernames::get)
+                .toList();
+
+        List<AssignmentSummary> assignments = assignmentRepository.findSummariesByCourseId(courseId).stream()
+                .sorted(ASSIGNMENT_ORDER)
+                .toList();
+        SubmissionMatrix matrix = submissionMatrixLoader.load(courseId, studentIds, assignments);
+        return new Gradebook(courseId, studentIds, studentNames, assignments, matrix);
+    }
+}
@@ -0,0 +1,305 @@
+package fin.c3po.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按题目累计测验作答情况，计数都存放在按题目序号编址的基本类型数组中
+ * 作答 JSON 用流式解析器逐个读取字段，不绑定成对象树；一次作答先解析到暂存数组，整体解析成功后才计入，
+ * 格式错误的作答不会只计入一部分
+ */
+final class QuizItemAccumulator {
+
+    /** 每道题最多单独统计的选项数，超出部分计入 other */
+    static final int MAX_OPTIONS = 16;
+    static final int MAX_OPTION_LENGTH = 64;
+
+    private final JsonFactory jsonFactory;
+    private final Map<String, Integer> questionOrdinals = new HashMap<>();
+
+    private String[] questionIds = new String[16];
+    private long[] answered = new long[16];
+    private long[] scored = new long[16];
+    private long[] correct = new long[16];
+    private double[] scoreSum = new double[16];
+    private Options[] options = new Options[16];
+    private int questionCount;
+    private long attempts;
+
+    // 一次作答的暂存区
+    private int[] pendingQuestions = new int[16];
+    private String[] pendingAnswers = new String[16];
+    private double[] pendingScores = new double[16];
+    private int pendingCount;
+
+    QuizItemAccumulator(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * 计入（sign = 1）或撤销（sign = -1）一次作答
+     *
+     * @return 作答格式正确并已处理
+     */
+    boolean accept(String answersJson, int sign) {
+        if (answersJson == null || answersJson.isBlank()) {
+            attempts += sign;
+            return true;
+        }
+        pendingCount = 0;
+        try (JsonParser parser = jsonFactory.createParser(answersJson)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return false;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                readAnswer(parser);
+            }
+            if (token != JsonToken.END_ARRAY) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        attempts += sign;
+        for (int i = 0; i < pendingCount; i++) {
+            int q = pendingQuestions[i];
+            answered[q] += sign;
+            double score = pendingScores[i];
+            if (!Double.isNaN(score)) {
+                scored[q] += sign;
+                scoreSum[q] += sign * score;
+                if (score > 0) {
+                    correct[q] += sign;
+                }
+            }
+            if (pendingAnswers[i] != null) {
+                options[q].add(pendingAnswers[i], sign);
+            }
+        }
+        return true;
+    }
+
+    private void readAnswer(JsonParser parser) throws IOException {
+        String questionId = null;
+        String answer = null;
+        double score = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (field) {
+                case "questionId" -> questionId = parser.getValueAsString();
+                case "answer" -> answer = normalize(parser.getValueAsString());
+                case "score" -> {
+                    if (value.isNumeric()) {
+                        score = parser.getDoubleValue();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (questionId == null || questionId.isBlank()) {
+            return;
+        }
+        if (pendingCount == pendingQuestions.length) {
+            int capacity = pendingCount * 2;
+            pendingQuestions = Arrays.copyOf(pendingQuestions, capacity);
+            pendingAnswers = Arrays.copyOf(pendingAnswers, capacity);
+            pendingScores = Arrays.copyOf(pendingScores, capacity);
+        }
+        pendingQuestions[pendingCount] = ordinal(questionId);
+        pendingAnswers[pendingCount] = answer;
+        pendingScores[pendingCount] = score;
+        pendingCount++;
+    }
+
+    /**
+     * 从已保存的统计恢复，题目序号与保存的顺序一致
+     */
+    static QuizItemAccumulator restore(JsonFactory jsonFactory, QuizItemAnalysis analysis, List<QuizItemStat> stats) {
+        QuizItemAccumulator accumulator = new QuizItemAccumulator(jsonFactory);
+        accumulator.attempts = analysis.getGradedAttempts();
+        for (QuizItemStat stat : stats) {
+            accumulator.restore(stat.getQuestionId(), stat.getAnsweredCount(), stat.getScoredCount(),
+                    stat.getCorrectCount(), stat.getScoreSum(), stat.getOptionCounts(), stat.getOtherCount());
+        }
+        return accumulator;
+    }
+
+    /**
+     * 载入已保存的一道题的统计
+     */
+    private void restore(String questionId, long answeredCount, long scoredCount, long correctCount, double sum,
+                 String optionCounts, long otherCount) {
+        int q = ordinal(questionId);
+        answered[q] = answeredCount;
+        scored[q] = scoredCount;
+        correct[q] = correctCount;
+        scoreSum[q] = sum;
+        options[q].restore(optionCounts, otherCount);
+    }
+
+    long attempts() {
+        return attempts;
+    }
+
+    int questionCount() {
+        return questionCount;
+    }
+
+    String questionId(int q) {
+        return questionIds[q];
+    }
+
+    long answered(int q) {
+        return answered[q];
+    }
+
+    long scored(int q) {
+        return scored[q];
+    }
+
+    long correct(int q) {
+        return correct[q];
+    }
+
+    double scoreSum(int q) {
+        return scoreSum[q];
+    }
+
+    long otherOptions(int q) {
+        return options[q].other;
+    }
+
+    /**
+     * 选项计数序列化为 JSON 对象，省略计数为 0 的选项
+     */
+    String optionCountsJson(int q) {
+        Options counts = options[q];
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.writeStartObject();
+            for (int i = 0; i < counts.size; i++) {
+                if (counts.counts[i] != 0) {
+                    generator.writeNumberField(counts.labels[i], counts.counts[i]);
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * 按题目序号列出选项及计数，供响应使用
+     */
+    List<Map.Entry<String, Long>> optionCounts(int q) {
+        Options counts = options[q];
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.size);
+        for (int i = 0; i < counts.size; i++) {
+            if (counts.counts[i] != 0) {
+                entries.add(Map.entry(counts.labels[i], counts.counts[i]));
+            }
+        }
+        return entries;
+    }
+
+    private int ordinal(String questionId) {
+        Integer existing = questionOrdinals.get(questionId);
+        if (existing != null) {
+            return existing;
+        }
+        if (questionCount == questionIds.length) {
+            int capacity = questionCount * 2;
+            questionIds = Arrays.copyOf(questionIds, capacity);
+            answered = Arrays.copyOf(answered, capacity);
+            scored = Arrays.copyOf(scored, capacity);
+            correct = Arrays.copyOf(correct, capacity);
+            scoreSum = Arrays.copyOf(scoreSum, capacity);
+            options = Arrays.copyOf(options, capacity);
+        }
+        int q = questionCount++;
+        questionIds[q] = questionId;
+        options[q] = new Options();
+        questionOrdinals.put(questionId, q);
+        return q;
+    }
+
+    private static String normalize(String answer) {
+        if (answer == null) {
+            return null;
+        }
+        String trimmed = answer.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        return trimmed.length() > MAX_OPTION_LENGTH ? trimmed.substring(0, MAX_OPTION_LENGTH) : trimmed;
+    }
+
+    /**
+     * 一道题的选项计数：前 {@link #MAX_OPTIONS} 个不同答案单独计数，其余合计
+     */
+    private final class Options {
+        private final String[] labels = new String[MAX_OPTIONS];
+        private final long[] counts = new long[MAX_OPTIONS];
+        private int size;
+        private long other;
+
+        void add(String label, int sign) {
+            for (int i = 0; i < size; i++) {
+                if (labels[i].equals(label)) {
+                    counts[i] += sign;
+                    return;
+                }
+            }
+            if (sign > 0 && size < MAX_OPTIONS) {
+                labels[size] = label;
+                counts[size] = sign;
+                size++;
+            } else {
+                other += sign;
+            }
+        }
+
+        void restore(String json, long otherCount) {
+            other = otherCount;
+            if (json == null || json.isBlank()) {
+                return;
+            }
+            try (JsonParser parser = jsonFactory.createParser(json)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME && size < MAX_OPTIONS) {
+                    String label = parser.currentName();
+                    parser.nextToken();
+                    labels[size] = label;
+                    counts[size] = parser.getLongValue();
+                    size++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
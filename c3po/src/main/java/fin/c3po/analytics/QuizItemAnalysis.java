@@ -0,0 +1,37 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 一份测验的逐题分析汇总行；按题目的统计见 {@link QuizItemStat}
+ * 更新逐题统计前先锁定这一行，全量重建与逐次评分的差量更新因此串行执行
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_item_analyses", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_item_analyses_assignment", columnNames = "assignment_id")
+})
+public class QuizItemAnalysis extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    /**
+     * 计入统计的已评分作答次数
+     */
+    private long gradedAttempts;
+
+    private Instant rebuiltAt;
+}
@@ -0,0 +1,111 @@
+package fin.c3po.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.analytics.dto.QuizItemAnalysisResponse;
+import fin.c3po.analytics.dto.QuizItemResponse;
+import fin.c3po.analytics.dto.QuizOptionCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 测验逐题分析
+ * 读取 {@link QuizItemAnalysisService} 维护的逐题统计，尚无统计时先全量重建
+ */
+@Slf4j
+@Service
+public class QuizItemAnalysisEngine {
+
+    private static final int REBUILD_ATTEMPTS = 2;
+    private static final int MOST_MISSED_LIMIT = 5;
+
+    private final QuizItemAnalysisService quizItemAnalysisService;
+    private final QuizItemAnalysisRepository analysisRepository;
+    private final QuizItemStatRepository statRepository;
+    private final JsonFactory jsonFactory;
+
+    public QuizItemAnalysisEngine(QuizItemAnalysisService quizItemAnalysisService,
+                                  QuizItemAnalysisRepository analysisRepository,
+                                  QuizItemStatRepository statRepository,
+                                  ObjectMapper objectMapper) {
+        this.quizItemAnalysisService = quizItemAnalysisService;
+        this.analysisRepository = analysisRepository;
+        this.statRepository = statRepository;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public QuizItemAnalysisResponse analyze(UUID assignmentId) {
+        Optional<QuizItemAnalysis> analysis = analysisRepository.findByAssignmentId(assignmentId);
+        for (int attempt = 0; analysis.isEmpty() && attempt < REBUILD_ATTEMPTS; attempt++) {
+            try {
+                quizItemAnalysisService.rebuild(assignmentId);
+            } catch (DataIntegrityViolationException e) {
+                // 并发请求同时创建了汇总行，读取对方的重建结果
+                log.debug("Concurrent item analysis rebuild for assignment {}", assignmentId);
+            }
+            analysis = analysisRepository.findByAssignmentId(assignmentId);
+        }
+        QuizItemAnalysis current = analysis.orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Item analysis is being rebuilt"));
+
+        QuizItemAccumulator accumulator = QuizItemAccumulator.restore(jsonFactory, current,
+                statRepository.findByAssignmentIdOrderByOrdinalAsc(assignmentId));
+        List<QuizItemResponse> items = new ArrayList<>(accumulator.questionCount());
+        for (int q = 0; q < accumulator.questionCount(); q++) {
+            items.add(toItem(accumulator, q));
+        }
+        List<String> mostMissed = items.stream()
+                .filter(item -> item.getCorrectRate() != null)
+                .sorted(Comparator.comparing(QuizItemResponse::getCorrectRate)
+                        .thenComparing(QuizItemResponse::getScoredCount, Comparator.reverseOrder()))
+                .limit(MOST_MISSED_LIMIT)
+                .map(QuizItemResponse::getQuestionId)
+                .toList();
+
+        return QuizItemAnalysisResponse.builder()
+                .assignmentId(assignmentId)
+                .gradedAttempts(current.getGradedAttempts())
+                .updatedAt(current.getUpdatedAt())
+                .items(items)
+                .mostMissed(mostMissed)
+                .build();
+    }
+
+    private static QuizItemResponse toItem(QuizItemAccumulator accumulator, int q) {
+        long answered = accumulator.answered(q);
+        long scored = accumulator.scored(q);
+        List<QuizOptionCount> options = accumulator.optionCounts(q).stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<String, Long>comparingByKey()))
+                .map(entry -> QuizOptionCount.builder()
+                        .answer(entry.getKey())
+                        .count(entry.getValue())
+                        .ratio(answered > 0 ? round(entry.getValue() / (double) answered, 10000.0) : 0.0)
+                        .build())
+                .toList();
+        return QuizItemResponse.builder()
+                .questionId(accumulator.questionId(q))
+                .answeredCount(answered)
+                .scoredCount(scored)
+                .correctCount(accumulator.correct(q))
+                .correctRate(scored > 0 ? round(accumulator.correct(q) / (double) scored, 10000.0) : null)
+                .averageScore(scored > 0 ? round(accumulator.scoreSum(q) / scored, 100.0) : null)
+                .options(options)
+                .otherCount(accumulator.otherOptions(q))
+                .build();
+    }
+
+    private static double round(double value, double scale) {
+        return Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,19 @@
+package fin.c3po.analytics;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface QuizItemAnalysisRepository extends JpaRepository<QuizItemAnalysis, UUID> {
+
+    Optional<QuizItemAnalysis> findByAssignmentId(UUID assignmentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM QuizItemAnalysis a WHERE a.assignmentId = :assignmentId")
+    Optional<QuizItemAnalysis> findForUpdate(@Param("assignmentId") UUID assignmentId);
+}
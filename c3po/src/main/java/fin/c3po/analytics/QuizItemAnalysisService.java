@@ -0,0 +1,261 @@
+package fin.c3po.analytics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.submission.QuizAttemptChangedEvent;
+import fin.c3po.submission.QuizAttemptStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 测验逐题分析的维护：全量重建时流式读取已评分作答，评分或改答后按单次作答差量更新
+ * 每次作答计入了哪个版本记录在 quiz_attempts.analyzed_at（计入时的 updated_at），
+ * 差量更新只在事件携带的修改前版本正是已计入的版本时撤销旧内容，否则留给定时重建，
+ * 两者交错执行也不会重复计数
+ */
+@Slf4j
+@Service
+public class QuizItemAnalysisService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String ATTEMPTS_SQL = """
+            SELECT id, status, answers, updated_at, analyzed_at FROM quiz_attempts
+            WHERE assignment_id = ?
+            """;
+
+    private static final String ATTEMPT_SQL = """
+            SELECT status, answers, updated_at, analyzed_at FROM quiz_attempts WHERE id = ?
+            """;
+
+    private static final String UPDATE_ANALYZED_SQL = """
+            UPDATE quiz_attempts SET analyzed_at = ? WHERE id = ?
+            """;
+
+    /** 已计入的版本与当前状态不一致的测验，以及超过最长间隔未重建的测验 */
+    private static final String DRIFTED_SQL = """
+            SELECT assignment_id FROM quiz_attempts
+            WHERE (status = 'GRADED' AND (analyzed_at IS NULL OR analyzed_at <> updated_at))
+               OR (status <> 'GRADED' AND analyzed_at IS NOT NULL)
+            UNION
+            SELECT assignment_id FROM quiz_item_analyses
+            WHERE rebuilt_at IS NULL OR rebuilt_at < ?
+            """;
+
+    private final QuizItemAnalysisRepository analysisRepository;
+    private final QuizItemStatRepository statRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+
+    public QuizItemAnalysisService(QuizItemAnalysisRepository analysisRepository,
+                                   QuizItemStatRepository statRepository,
+                                   DataSource dataSource,
+                                   ObjectMapper objectMapper) {
+        this.analysisRepository = analysisRepository;
+        this.statRepository = statRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * 需要全量重建的测验：存在未计入或计入版本已过期的作答，或上次重建早于 rebuiltBefore
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findDrifted(Instant rebuiltBefore) {
+        return jdbcTemplate.queryForList(DRIFTED_SQL, UUID.class, Timestamp.from(rebuiltBefore));
+    }
+
+    /**
+     * 全量重建一份测验的逐题统计
+     */
+    @Transactional
+    public QuizItemAnalysis rebuild(UUID assignmentId) {
+        return rebuildLocked(lockOrCreate(assignmentId));
+    }
+
+    /**
+     * 按一次作答的当前状态更新统计：撤销此前计入的内容，若已评分再计入当前内容
+     * 尚无统计时直接全量重建；无法确定此前计入的内容时跳过，由定时重建修复
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void applyAttempt(QuizAttemptChangedEvent event) {
+        UUID assignmentId = event.getAssignmentId();
+        UUID attemptId = event.getAttemptId();
+        Optional<QuizItemAnalysis> locked = analysisRepository.findForUpdate(assignmentId);
+        if (locked.isEmpty()) {
+            rebuildLocked(lockOrCreate(assignmentId));
+            return;
+        }
+        QuizItemAnalysis analysis = locked.get();
+        List<AttemptRow> rows = jdbcTemplate.query(ATTEMPT_SQL, (rs, rowNum) -> AttemptRow.read(rs), attemptId);
+        if (rows.isEmpty()) {
+            return;
+        }
+        AttemptRow row = rows.get(0);
+        Instant desired = row.desiredVersion();
+        if (Objects.equals(desired, row.getAnalyzedAt())) {
+            return;
+        }
+        String counted = null;
+        if (row.getAnalyzedAt() != null) {
+            Instant previous = event.getPreviousUpdatedAt() != null
+                    ? event.getPreviousUpdatedAt().truncatedTo(ChronoUnit.MICROS) : null;
+            if (!row.getAnalyzedAt().equals(previous) || event.getPreviousAnswers() == null) {
+                log.debug("Analyzed version of quiz attempt {} is unknown, leaving it to the rebuild", attemptId);
+                return;
+            }
+            counted = event.getPreviousAnswers();
+        }
+
+        List<QuizItemStat> stats = statRepository.findByAssignmentIdOrderByOrdinalAsc(assignmentId);
+        QuizItemAccumulator accumulator = QuizItemAccumulator.restore(jsonFactory, analysis, stats);
+        if (counted != null && !accumulator.accept(counted, -1)) {
+            log.debug("Previously analyzed answers of quiz attempt {} are malformed", attemptId);
+        }
+        if (desired != null && !accumulator.accept(row.countedAnswers(), 1)) {
+            log.debug("Answers of quiz attempt {} are malformed, skipping item analysis", attemptId);
+        }
+        // 记下读到的版本而非当前时间：读取之后又被修改的作答，其事件的修改前版本正是这里记下的版本
+        jdbcTemplate.update(UPDATE_ANALYZED_SQL, timestamp(desired), attemptId);
+
+        Map<String, QuizItemStat> existing = stats.stream()
+                .collect(Collectors.toMap(QuizItemStat::getQuestionId, Function.identity()));
+        List<QuizItemStat> changed = new ArrayList<>();
+        List<QuizItemStat> emptied = new ArrayList<>();
+        for (int q = 0; q < accumulator.questionCount(); q++) {
+            QuizItemStat stat = existing.get(accumulator.questionId(q));
+            if (accumulator.answered(q) <= 0) {
+                if (stat != null) {
+                    emptied.add(stat);
+                }
+                continue;
+            }
+            if (stat == null) {
+                stat = new QuizItemStat();
+                stat.setAssignmentId(assignmentId);
+                stat.setQuestionId(accumulator.questionId(q));
+            }
+            fill(stat, accumulator, q);
+            changed.add(stat);
+        }
+        statRepository.deleteAll(emptied);
+        statRepository.saveAll(changed);
+        analysis.setGradedAttempts(accumulator.attempts());
+        analysisRepository.save(analysis);
+    }
+
+    private QuizItemAnalysis lockOrCreate(UUID assignmentId) {
+        return analysisRepository.findForUpdate(assignmentId).orElseGet(() -> {
+            QuizItemAnalysis analysis = new QuizItemAnalysis();
+            analysis.setAssignmentId(assignmentId);
+            return analysisRepository.saveAndFlush(analysis);
+        });
+    }
+
+    private QuizItemAnalysis rebuildLocked(QuizItemAnalysis analysis) {
+        UUID assignmentId = analysis.getAssignmentId();
+        QuizItemAccumulator accumulator = new QuizItemAccumulator(jsonFactory);
+        long[] malformed = new long[1];
+        List<Object[]> marks = new ArrayList<>();
+        jdbcTemplate.query(ATTEMPTS_SQL, rs -> {
+            AttemptRow row = AttemptRow.read(rs);
+            Instant desired = row.desiredVersion();
+            if (desired != null && !accumulator.accept(row.countedAnswers(), 1)) {
+                malformed[0]++;
+            }
+            // 只改写计入版本有变化的作答；记下读到的版本，读取之后的修改由其事件差量更新
+            if (!Objects.equals(desired, row.getAnalyzedAt())) {
+                marks.add(new Object[]{timestamp(desired), rs.getObject("id", UUID.class)});
+            }
+        }, assignmentId);
+        if (malformed[0] > 0) {
+            log.warn("Skipped {} malformed quiz attempts of assignment {}", malformed[0], assignmentId);
+        }
+        if (!marks.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_ANALYZED_SQL, marks);
+        }
+
+        statRepository.deleteByAssignmentId(assignmentId);
+        statRepository.flush();
+        List<QuizItemStat> stats = new ArrayList<>(accumulator.questionCount());
+        for (int q = 0; q < accumulator.questionCount(); q++) {
+            if (accumulator.answered(q) <= 0) {
+                continue;
+            }
+            QuizItemStat stat = new QuizItemStat();
+            stat.setAssignmentId(assignmentId);
+            stat.setQuestionId(accumulator.questionId(q));
+            fill(stat, accumulator, q);
+            stats.add(stat);
+        }
+        statRepository.saveAll(stats);
+        analysis.setGradedAttempts(accumulator.attempts());
+        analysis.setRebuiltAt(Instant.now());
+        return analysisRepository.save(analysis);
+    }
+
+    private static void fill(QuizItemStat stat, QuizItemAccumulator accumulator, int q) {
+        stat.setOrdinal(q);
+        stat.setAnsweredCount(accumulator.answered(q));
+        stat.setScoredCount(accumulator.scored(q));
+        stat.setCorrectCount(accumulator.correct(q));
+        stat.setScoreSum(accumulator.scoreSum(q));
+        stat.setOptionCounts(accumulator.optionCountsJson(q));
+        stat.setOtherCount(accumulator.otherOptions(q));
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    /**
+     * quiz_attempts 中与逐题分析相关的列
+     */
+    @lombok.Value
+    private static class AttemptRow {
+        boolean graded;
+        String answers;
+        Instant updatedAt;
+        Instant analyzedAt;
+
+        static AttemptRow read(ResultSet rs) throws SQLException {
+            return new AttemptRow(QuizAttemptStatus.GRADED.name().equals(rs.getString("status")),
+                    rs.getString("answers"), instant(rs, "updated_at"), instant(rs, "analyzed_at"));
+        }
+
+        /** 应计入的版本，未评分时为空 */
+        Instant desiredVersion() {
+            return graded ? updatedAt : null;
+        }
+
+        /** 没有作答内容的已评分作答记为空数组 */
+        String countedAnswers() {
+            return Objects.requireNonNullElse(answers, "[]");
+        }
+
+        private static Instant instant(ResultSet rs, String column) throws SQLException {
+            OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+            return value != null ? value.toInstant() : null;
+        }
+    }
+}
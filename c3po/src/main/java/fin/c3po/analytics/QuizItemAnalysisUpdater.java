@@ -0,0 +1,70 @@
+package fin.c3po.analytics;
+
+import fin.c3po.submission.QuizAttemptChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 测验作答修改或评分后差量更新逐题分析，并定期只重建出现偏差或过久未重建的测验
+ * 更新失败不影响业务请求，遗漏的作答在下一次定时重建时计入
+ */
+@Slf4j
+@Component
+public class QuizItemAnalysisUpdater {
+
+    private final QuizItemAnalysisService quizItemAnalysisService;
+    private final Duration maxAge;
+
+    public QuizItemAnalysisUpdater(QuizItemAnalysisService quizItemAnalysisService,
+                                   @Value("${analytics.quiz.rebuild-max-age-ms:86400000}") long maxAgeMillis) {
+        this.quizItemAnalysisService = quizItemAnalysisService;
+        this.maxAge = Duration.ofMillis(maxAgeMillis);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuizAttemptChanged(QuizAttemptChangedEvent event) {
+        try {
+            quizItemAnalysisService.applyAttempt(event);
+        } catch (DataIntegrityViolationException e) {
+            // 并发请求同时创建了汇总行，对方提交后重试一次
+            retry(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply quiz attempt {} to item analysis: {}", event.getAttemptId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.quiz.rebuild-interval-ms:3600000}",
+            initialDelayString = "${analytics.quiz.rebuild-initial-delay-ms:600000}")
+    public void rebuildAll() {
+        long startedAt = System.nanoTime();
+        int rebuilt = 0;
+        for (UUID assignmentId : quizItemAnalysisService.findDrifted(Instant.now().minus(maxAge))) {
+            try {
+                quizItemAnalysisService.rebuild(assignmentId);
+                rebuilt++;
+            } catch (RuntimeException e) {
+                log.warn("Item analysis rebuild for assignment {} failed: {}", assignmentId, e.getMessage());
+            }
+        }
+        if (rebuilt > 0) {
+            log.info("Item analysis rebuilt for {} quizzes in {} ms", rebuilt,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private void retry(QuizAttemptChangedEvent event) {
+        try {
+            quizItemAnalysisService.applyAttempt(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply quiz attempt {} to item analysis: {}", event.getAttemptId(), e.getMessage());
+        }
+    }
+}
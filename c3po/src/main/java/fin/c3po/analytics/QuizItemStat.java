@@ -0,0 +1,52 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 测验中一道题的作答统计；题目的得分大于 0 视为答对
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "quiz_item_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_quiz_item_stats_assignment_question", columnNames = {"assignment_id", "question_id"})
+})
+public class QuizItemStat extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID assignmentId;
+
+    @Column(nullable = false, length = 64)
+    private String questionId;
+
+    /**
+     * 题目首次出现的顺序
+     */
+    private int ordinal;
+
+    private long answeredCount;
+
+    private long scoredCount;
+
+    private long correctCount;
+
+    private double scoreSum;
+
+    /**
+     * 各答案的选择次数，JSON 对象；超出单独统计上限的答案计入 otherCount
+     */
+    @Column(length = 4096)
+    private String optionCounts;
+
+    private long otherCount;
+}
@@ -0,0 +1,18 @@
+package fin.c3po.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface QuizItemStatRepository extends JpaRepository<QuizItemStat, UUID> {
+
+    List<QuizItemStat> findByAssignmentIdOrderByOrdinalAsc(UUID assignmentId);
+
+    @Modifying
+    @Query("DELETE FROM QuizItemStat s WHERE s.assignmentId = :assignmentId")
+    int deleteByAssignmentId(@Param("assignmentId") UUID assignmentId);
+}
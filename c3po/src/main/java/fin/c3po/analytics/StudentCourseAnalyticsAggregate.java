@@ -0,0 +1,54 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * 选课学生在一门课程中的物化统计
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "course_student_analytics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_student_analytics", columnNames = {"course_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_course_student_analytics_course", columnList = "course_id, ordinal")
+})
+public class StudentCourseAnalyticsAggregate extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    /**
+     * 学生在选课名单中的序号
+     */
+    private int ordinal;
+
+    private int submittedCount;
+
+    private int scoreCount;
+
+    private long scoreSum;
+
+    /**
+     * 逾期的作业序号：迟交，或已过截止时间仍未提交
+     */
+    @Convert(converter = AssignmentBitsConverter.class)
+    @Column(length = 2048)
+    private BitSet overdueAssignments = new BitSet();
+}
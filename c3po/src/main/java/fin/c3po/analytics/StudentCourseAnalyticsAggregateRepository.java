@@ -0,0 +1,22 @@
+package fin.c3po.analytics;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface StudentCourseAnalyticsAggregateRepository
+        extends JpaRepository<StudentCourseAnalyticsAggregate, UUID> {
+
+    List<StudentCourseAnalyticsAggregate> findByCourseIdOrderByOrdinalAsc(UUID courseId);
+
+    List<StudentCourseAnalyticsAggregate> findByCourseIdAndStudentIdIn(UUID courseId, Collection<UUID> studentIds);
+
+    @Modifying
+    @Query("DELETE FROM StudentCourseAnalyticsAggregate a WHERE a.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
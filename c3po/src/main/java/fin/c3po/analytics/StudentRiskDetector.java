@@ -0,0 +1,211 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.submission.SubmissionChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 后台检测所有已发布课程中的学业风险与逾期学生
+ * 定时全量检测时每门课程一个 fork-join 子任务并行执行；提交、评分和选课变化只记录待检测课程，
+ * 由短周期任务合并处理。结果保存在 {@link StudentRiskRecord}，同一课程同一时刻只有一个检测任务
+ */
+@Slf4j
+@Component
+public class StudentRiskDetector {
+
+    private final CourseAnalyticsEngine courseAnalyticsEngine;
+    private final CourseRepository courseRepository;
+    private final StudentRiskService studentRiskService;
+    private final ForkJoinPool pool;
+
+    private final Set<UUID> pendingCourses = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> runningCourses = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    public StudentRiskDetector(CourseAnalyticsEngine courseAnalyticsEngine,
+                               CourseRepository courseRepository,
+                               StudentRiskService studentRiskService,
+                               @Value("${analytics.risk.parallelism:4}") int parallelism) {
+        this.courseAnalyticsEngine = courseAnalyticsEngine;
+        this.courseRepository = courseRepository;
+        this.studentRiskService = studentRiskService;
+        // 每个子任务都会占用数据库连接，并行度不应超过连接池大小
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        pendingCourses.add(event.getCourseId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() != CourseChangedEvent.Change.CREATED) {
+            pendingCourses.add(event.getCourseId());
+        }
+    }
+
+    /**
+     * 定时全量检测，在 fork-join 线程池中异步执行，上一轮未结束时跳过
+     */
+    @Scheduled(fixedDelayString = "${analytics.risk.sweep-interval-ms:3600000}",
+            initialDelayString = "${analytics.risk.sweep-initial-delay-ms:120000}")
+    public void sweepAll() {
+        if (!sweeping.compareAndSet(false, true)) {
+            log.debug("Previous student risk sweep still running, skipping");
+            return;
+        }
+        try {
+            studentRiskService.purgeInactiveCourses();
+            pool.execute(new DetectCoursesTask(courseRepository.findIdsByStatus(CourseStatus.PUBLISHED), true));
+        } catch (RuntimeException e) {
+            sweeping.set(false);
+            log.warn("Failed to start student risk sweep: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 同步检测所有已发布课程
+     *
+     * @return 检测成功的课程数
+     */
+    public int detectAll() {
+        studentRiskService.purgeInactiveCourses();
+        return pool.invoke(new DetectCoursesTask(courseRepository.findIdsByStatus(CourseStatus.PUBLISHED), false));
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.risk.event-interval-ms:5000}")
+    public void detectPending() {
+        if (pendingCourses.isEmpty()) {
+            return;
+        }
+        List<UUID> batch = new ArrayList<>(pendingCourses);
+        pendingCourses.removeAll(batch);
+        pool.execute(new DetectCoursesTask(batch, false));
+    }
+
+    /**
+     * 检测一门课程并替换其结果；该课程正在检测时推迟到下一轮
+     */
+    public boolean detect(UUID courseId) {
+        if (!runningCourses.add(courseId)) {
+            pendingCourses.add(courseId);
+            return false;
+        }
+        try {
+            List<StudentRiskRecord> records = List.of();
+            // 未发布、已结课或已删除的课程清空结果
+            if (courseRepository.existsByIdAndStatus(courseId, CourseStatus.PUBLISHED)) {
+                Instant now = Instant.now();
+                records = assess(courseAnalyticsEngine.view(courseId, now), now);
+            }
+            studentRiskService.replace(courseId, records);
+            return true;
+        } finally {
+            runningCourses.remove(courseId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private List<StudentRiskRecord> assess(CourseAnalyticsView view, Instant now) {
+        CourseAnalyticsAggregate course = view.getCourse();
+        int assignmentCount = course.getTotalAssignments();
+        List<StudentRiskRecord> records = new ArrayList<>();
+        if (course.getEnrolledStudents() == 0 || assignmentCount == 0) {
+            return records;
+        }
+        for (StudentCourseAnalyticsAggregate student : view.getStudents()) {
+            boolean atRisk = CourseAnalyticsEngine.isAtRisk(student, assignmentCount);
+            boolean overdue = !student.getOverdueAssignments().isEmpty();
+            if (!atRisk && !overdue) {
+                continue;
+            }
+            StudentRiskRecord record = new StudentRiskRecord();
+            record.setCourseId(course.getCourseId());
+            record.setStudentId(student.getStudentId());
+            record.setAtRisk(atRisk);
+            record.setOverdue(overdue);
+            record.setAverageScore(student.getScoreCount() > 0
+                    ? Math.round(student.getScoreSum() * 100.0 / student.getScoreCount()) / 100.0
+                    : null);
+            record.setSubmittedAssignments(student.getSubmittedCount());
+            record.setTotalAssignments(assignmentCount);
+            record.setOverdueAssignments(student.getOverdueAssignments().cardinality());
+            record.setDetectedAt(now);
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * 为每门课程派生一个子任务并等待全部完成，返回成功的课程数
+     */
+    private final class DetectCoursesTask extends RecursiveTask<Integer> {
+        private final List<UUID> courseIds;
+        private final boolean sweep;
+
+        private DetectCoursesTask(List<UUID> courseIds, boolean sweep) {
+            this.courseIds = courseIds;
+            this.sweep = sweep;
+        }
+
+        @Override
+        protected Integer compute() {
+            try {
+                long startedAt = System.nanoTime();
+                List<CourseRiskTask> tasks = courseIds.stream().map(CourseRiskTask::new).toList();
+                invokeAll(tasks);
+                int succeeded = (int) tasks.stream().filter(CourseRiskTask::join).count();
+                if (sweep) {
+                    log.info("Student risk sweep finished: {}/{} courses in {} ms", succeeded, courseIds.size(),
+                            (System.nanoTime() - startedAt) / 1_000_000);
+                }
+                return succeeded;
+            } finally {
+                if (sweep) {
+                    sweeping.set(false);
+                }
+            }
+        }
+    }
+
+    private final class CourseRiskTask extends RecursiveTask<Boolean> {
+        private final UUID courseId;
+
+        private CourseRiskTask(UUID courseId) {
+            this.courseId = courseId;
+        }
+
+        @Override
+        protected Boolean compute() {
+            try {
+                return detect(courseId);
+            } catch (RuntimeException e) {
+                // 下一次事件或全量检测时重试
+                log.warn("Student risk detection for course {} failed: {}", courseId, e.getMessage());
+                return false;
+            }
+        }
+    }
+}
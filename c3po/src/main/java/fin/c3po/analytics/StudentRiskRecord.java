@@ -0,0 +1,56 @@
+package fin.c3po.analytics;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 后台检测出的学业风险或逾期学生，每门课程每名学生最多一行；未被标记的学生不保存
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "student_risk_records", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_student_risk_records_course_student", columnNames = {"course_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_student_risk_records_student", columnList = "student_id")
+})
+public class StudentRiskRecord extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    private boolean atRisk;
+
+    private boolean overdue;
+
+    /**
+     * 已评分作业均分，没有评分时为 null
+     */
+    private Double averageScore;
+
+    private int submittedAssignments;
+
+    private int totalAssignments;
+
+    /**
+     * 逾期提交或过了截止时间仍未提交的作业数
+     */
+    private int overdueAssignments;
+
+    @Column(nullable = false)
+    private Instant detectedAt;
+}
@@ -0,0 +1,26 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.CourseStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.UUID;
+
+public interface StudentRiskRecordRepository extends JpaRepository<StudentRiskRecord, UUID>,
+        JpaSpecificationExecutor<StudentRiskRecord> {
+
+    @Modifying
+    @Query("DELETE FROM StudentRiskRecord r WHERE r.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * 清理已结课、撤回或删除课程的检测结果
+     */
+    @Modifying
+    @Query("DELETE FROM StudentRiskRecord r WHERE r.courseId NOT IN "
+            + "(SELECT c.id FROM Course c WHERE c.status = :status)")
+    int deleteByCourseStatusNot(@Param("status") CourseStatus status);
+}
@@ -0,0 +1,31 @@
+package fin.c3po.analytics;
+
+import fin.c3po.course.CourseStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 学业风险检测结果的存储，按课程整体替换
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentRiskService {
+
+    private final StudentRiskRecordRepository studentRiskRecordRepository;
+
+    @Transactional
+    public void replace(UUID courseId, List<StudentRiskRecord> records) {
+        studentRiskRecordRepository.deleteByCourseId(courseId);
+        studentRiskRecordRepository.flush();
+        studentRiskRecordRepository.saveAll(records);
+    }
+
+    @Transactional
+    public int purgeInactiveCourses() {
+        return studentRiskRecordRepository.deleteByCourseStatusNot(CourseStatus.PUBLISHED);
+    }
+}
@@ -0,0 +1,6 @@
+package fin.c3po.analytics;
+
+public enum StudentRiskType {
+    AT_RISK,
+    OVERDUE
+}
@@ -0,0 +1,182 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.AssignmentSummary;
+import fin.c3po.submission.SubmissionStatus;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 一门课程的 (作业 × 学生) 最新提交矩阵
+ * 学生和作业按序号编址，单元格下标为 assignmentOrdinal * studentCount + studentOrdinal，
+ * 状态、分数和时间都存放在基本类型数组中，统计时不产生装箱对象
+ */
+public final class SubmissionMatrix {
+
+    /**
+     * 时间为空时的占位值；时间以纪元纳秒保存，保持与 {@link Instant} 比较一致的精度
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+    public static final int NO_SCORE = Integer.MIN_VALUE;
+
+    private static final byte NO_SUBMISSION = -1;
+    private static final SubmissionStatus[] STATUSES = SubmissionStatus.values();
+
+    private final List<UUID> studentIds;
+    private final List<AssignmentSummary> assignments;
+    private final Map<UUID, Integer> studentOrdinals;
+    private final Map<UUID, Integer> assignmentOrdinals;
+    private final long[] deadlines;
+
+    private final byte[] statuses;
+    private final int[] scores;
+    private final long[] submittedAt;
+    private final long[] latestAt;
+    private int scoredCells;
+    private Instant watermark;
+
+    SubmissionMatrix(List<UUID> studentIds, List<AssignmentSummary> assignments) {
+        this.studentIds = studentIds;
+        this.assignments = assignments;
+        this.studentOrdinals = ordinals(studentIds);
+        this.assignmentOrdinals = ordinals(assignments.stream().map(AssignmentSummary::getId).toList());
+        this.deadlines = new long[assignments.size()];
+        for (int a = 0; a < deadlines.length; a++) {
+            deadlines[a] = toNanos(assignments.get(a).getDeadline());
+        }
+
+        int cells = studentIds.size() * assignments.size();
+        this.statuses = new byte[cells];
+        this.scores = new int[cells];
+        this.submittedAt = new long[cells];
+        this.latestAt = new long[cells];
+        Arrays.fill(statuses, NO_SUBMISSION);
+    }
+
+    /**
+     * 记录一条提交；同一单元格只保留最新的一条
+     * 新旧比较沿用原有规则：以 submittedAt / updatedAt / createdAt 中第一个非空值为准，时间相同保留先到的记录
+     */
+    void accept(UUID assignmentId, UUID studentId, SubmissionStatus status, Integer score,
+                Instant submitted, Instant resolvedAt) {
+        Integer a = assignmentOrdinals.get(assignmentId);
+        Integer s = studentOrdinals.get(studentId);
+        if (a == null || s == null) {
+            return;
+        }
+        int cell = a * studentIds.size() + s;
+        long candidate = toNanos(resolvedAt);
+        if (statuses[cell] != NO_SUBMISSION) {
+            long current = latestAt[cell];
+            if (candidate == NO_TIME || (current != NO_TIME && candidate <= current)) {
+                return;
+            }
+            if (scores[cell] != NO_SCORE) {
+                scoredCells--;
+            }
+        }
+        statuses[cell] = (byte) status.ordinal();
+        scores[cell] = score != null ? score : NO_SCORE;
+        submittedAt[cell] = toNanos(submitted);
+        latestAt[cell] = candidate;
+        if (score != null) {
+            scoredCells++;
+        }
+    }
+
+    /**
+     * 记录扫描读到的一行提交的修改时间，包括不属于矩阵的行
+     */
+    void observe(Instant updatedAt) {
+        if (updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+            watermark = updatedAt;
+        }
+    }
+
+    /**
+     * 扫描读到的最晚修改时间，没有读到任何提交时为空
+     */
+    public Instant watermark() {
+        return watermark;
+    }
+
+    public int studentCount() {
+        return studentIds.size();
+    }
+
+    public int assignmentCount() {
+        return assignments.size();
+    }
+
+    public UUID studentId(int studentOrdinal) {
+        return studentIds.get(studentOrdinal);
+    }
+
+    public AssignmentSummary assignment(int assignmentOrdinal) {
+        return assignments.get(assignmentOrdinal);
+    }
+
+    public int cell(int assignmentOrdinal, int studentOrdinal) {
+        return assignmentOrdinal * studentIds.size() + studentOrdinal;
+    }
+
+    /**
+     * 作业截止时间（纪元纳秒），未设置时为 {@link #NO_TIME}
+     */
+    public long deadline(int assignmentOrdinal) {
+        return deadlines[assignmentOrdinal];
+    }
+
+    public boolean hasSubmission(int cell) {
+        return statuses[cell] != NO_SUBMISSION;
+    }
+
+    public SubmissionStatus status(int cell) {
+        byte status = statuses[cell];
+        return status == NO_SUBMISSION ? null : STATUSES[status];
+    }
+
+    public boolean isGraded(int cell) {
+        return statuses[cell] == SubmissionStatus.GRADED.ordinal();
+    }
+
+    /**
+     * 分数，未评分时为 {@link #NO_SCORE}
+     */
+    public int score(int cell) {
+        return scores[cell];
+    }
+
+    /**
+     * 提交时间（纪元纳秒），为空时为 {@link #NO_TIME}
+     */
+    public long submittedAt(int cell) {
+        return submittedAt[cell];
+    }
+
+    /**
+     * 带分数的单元格数量，用于一次性分配分数数组
+     */
+    public int scoredCells() {
+        return scoredCells;
+    }
+
+    public static long toNanos(Instant instant) {
+        if (instant == null) {
+            return NO_TIME;
+        }
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static Map<UUID, Integer> ordinals(List<UUID> ids) {
+        Map<UUID, Integer> ordinals = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            ordinals.putIfAbsent(ids.get(i), i);
+        }
+        return ordinals;
+    }
+}
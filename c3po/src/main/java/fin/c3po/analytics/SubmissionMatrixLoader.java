@@ -0,0 +1,70 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.AssignmentSummary;
+import fin.c3po.submission.SubmissionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 一次流式查询取出课程全部作业的提交记录并填充 {@link SubmissionMatrix}
+ * 逐行回调处理，不在内存中构造提交实体；在只读事务中执行，PostgreSQL 驱动才会按 fetchSize 分批读取
+ */
+@Component
+public class SubmissionMatrixLoader {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String COURSE_SUBMISSIONS_SQL = """
+            SELECT s.assignment_id, s.student_id, s.status, s.score,
+                   s.submitted_at, s.updated_at, s.created_at
+            FROM submissions s
+            JOIN assignments a ON a.id = s.assignment_id
+            WHERE a.course_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubmissionMatrixLoader(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Transactional(readOnly = true)
+    public SubmissionMatrix load(UUID courseId, List<UUID> studentIds, List<AssignmentSummary> assignments) {
+        SubmissionMatrix matrix = new SubmissionMatrix(studentIds, assignments);
+        if (studentIds.isEmpty() || assignments.isEmpty()) {
+            return matrix;
+        }
+        jdbcTemplate.query(COURSE_SUBMISSIONS_SQL, rs -> {
+            Instant submittedAt = toInstant(rs.getTimestamp("submitted_at"));
+            Instant updatedAt = toInstant(rs.getTimestamp("updated_at"));
+            matrix.observe(updatedAt);
+            Instant resolvedAt = submittedAt;
+            if (resolvedAt == null) {
+                resolvedAt = updatedAt;
+            }
+            if (resolvedAt == null) {
+                resolvedAt = toInstant(rs.getTimestamp("created_at"));
+            }
+            matrix.accept(
+                    rs.getObject("assignment_id", UUID.class),
+                    rs.getObject("student_id", UUID.class),
+                    SubmissionStatus.valueOf(rs.getString("status")),
+                    (Integer) rs.getObject("score"),
+                    submittedAt,
+                    resolvedAt);
+        }, courseId);
+        return matrix;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
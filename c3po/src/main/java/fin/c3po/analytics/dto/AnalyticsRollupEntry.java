@@ -0,0 +1,28 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class AnalyticsRollupEntry {
+    /** 汇总所有学期时为空 */
+    String semester;
+    /** 汇总所有院系时为空 */
+    String department;
+    int courseCount;
+    long enrolledStudents;
+    long assignmentCount;
+    long expectedSubmissions;
+    long submittedSubmissions;
+    long gradedSubmissions;
+    double submissionRate;
+    double completionRate;
+    double overdueRate;
+    long atRiskEnrollments;
+    long overdueEnrollments;
+    /** 作业提交的评分分布 */
+    RollupScoreSummary submissionScores;
+    /** 已发布课程成绩的分布 */
+    RollupScoreSummary courseScores;
+}
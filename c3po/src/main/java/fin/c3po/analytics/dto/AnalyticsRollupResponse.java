@@ -0,0 +1,17 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+@Value
+@Builder
+public class AnalyticsRollupResponse {
+    Instant refreshedAt;
+    AnalyticsRollupEntry total;
+    List<AnalyticsRollupEntry> semesters;
+    List<AnalyticsRollupEntry> departments;
+    List<AnalyticsRollupEntry> cells;
+}
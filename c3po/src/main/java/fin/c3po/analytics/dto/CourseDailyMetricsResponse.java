@@ -0,0 +1,23 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Value
+@Builder
+public class CourseDailyMetricsResponse {
+    LocalDate date;
+    /** 快照实际读取数据的时刻 */
+    Instant capturedAt;
+    int enrolledStudents;
+    int totalAssignments;
+    int gradedSubmissions;
+    double completionRate;
+    Double averageScore;
+    Double medianScore;
+    int overdueStudents;
+    int atRiskStudents;
+}
@@ -0,0 +1,35 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 列式成绩册：学生与作业各一组平行数组，单元格按学生行优先展开，
+ * 第 s 名学生第 a 份作业位于 scores[s * assignmentIds.size() + a]
+ */
+@Value
+@Builder
+public class GradebookResponse {
+
+    /**
+     * scores / statuses 中表示未提交或未评分的占位值
+     */
+    public static final int MISSING = -1;
+
+    UUID courseId;
+    List<UUID> studentIds;
+    List<String> studentNames;
+    List<UUID> assignmentIds;
+    List<String> assignmentTitles;
+    List<Instant> assignmentDeadlines;
+    /** 最新提交的分数，未提交或未评分为 {@link #MISSING} */
+    int[] scores;
+    /** 最新提交的状态在 statusValues 中的下标，未提交为 {@link #MISSING} */
+    int[] statuses;
+    /** 状态下标对应的状态名 */
+    List<String> statusValues;
+}
@@ -0,0 +1,20 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Value
+@Builder
+public class QuizItemAnalysisResponse {
+    UUID assignmentId;
+    long gradedAttempts;
+    Instant updatedAt;
+    /** 按题目首次出现的顺序 */
+    List<QuizItemResponse> items;
+    /** 答对率最低的题目，最多 5 道 */
+    List<String> mostMissed;
+}
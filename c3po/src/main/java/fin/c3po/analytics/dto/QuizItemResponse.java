@@ -0,0 +1,21 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class QuizItemResponse {
+    String questionId;
+    long answeredCount;
+    long scoredCount;
+    long correctCount;
+    /** 答对数 / 已评分数，没有评分时为空 */
+    Double correctRate;
+    Double averageScore;
+    /** 按选择次数从多到少，次数相同时按答案排序 */
+    List<QuizOptionCount> options;
+    long otherCount;
+}
@@ -0,0 +1,12 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class QuizOptionCount {
+    String answer;
+    long count;
+    double ratio;
+}
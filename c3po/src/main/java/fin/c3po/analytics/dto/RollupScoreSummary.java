@@ -0,0 +1,21 @@
+package fin.c3po.analytics.dto;
+
+import fin.c3po.score.dto.ScoreDistributionBucket;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class RollupScoreSummary {
+    long count;
+    Double average;
+    Double median;
+    Double p25;
+    Double p75;
+    Double p90;
+    Integer min;
+    Integer max;
+    List<ScoreDistributionBucket> distribution;
+}
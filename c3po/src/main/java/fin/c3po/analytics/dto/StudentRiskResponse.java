@@ -0,0 +1,23 @@
+package fin.c3po.analytics.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class StudentRiskResponse {
+    UUID courseId;
+    String courseName;
+    UUID studentId;
+    String studentName;
+    boolean atRisk;
+    boolean overdue;
+    Double averageScore;
+    int submittedAssignments;
+    int totalAssignments;
+    int overdueAssignments;
+    Instant detectedAt;
+}
@@ -0,0 +1,48 @@
+package fin.c3po.analytics.web;
+
+import fin.c3po.analytics.AnalyticsRollupService;
+import fin.c3po.analytics.dto.AnalyticsRollupResponse;
+import fin.c3po.common.web.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 全校学期、院系维度的学情汇总；返回缓存结果，刷新时间见 refreshedAt
+ */
+@RestController
+@RequestMapping("/api/v1/admin/analytics/rollups")
+@Validated
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsRollupController {
+
+    private final AnalyticsRollupService analyticsRollupService;
+
+    @GetMapping
+    public ApiResponse<AnalyticsRollupResponse> rollups(
+            @RequestParam(name = "semester", required = false) String semester,
+            @RequestParam(name = "department", required = false) String department) {
+        return ApiResponse.success(analyticsRollupService.rollups(blankToNull(semester), blankToNull(department)));
+    }
+
+    /**
+     * 立即重新计算，完成后返回最新结果
+     */
+    @PostMapping("/refresh")
+    public ApiResponse<AnalyticsRollupResponse> refresh(
+            @RequestParam(name = "semester", required = false) String semester,
+            @RequestParam(name = "department", required = false) String department) {
+        analyticsRollupService.refresh();
+        return ApiResponse.success(analyticsRollupService.rollups(blankToNull(semester), blankToNull(department)));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
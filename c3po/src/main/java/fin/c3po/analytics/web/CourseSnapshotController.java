@@ -0,0 +1,92 @@
+package fin.c3po.analytics.web;
+
+import fin.c3po.analytics.CourseDailySnapshot;
+import fin.c3po.analytics.CourseDailySnapshotRepository;
+import fin.c3po.analytics.dto.CourseDailyMetricsResponse;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程每日学情快照的时间序列；直接读取夜间任务写入的快照，不做实时计算
+ */
+@RestController
+@RequestMapping("/api/v1/courses/{courseId}/analytics/daily")
+@Validated
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+public class CourseSnapshotController {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+
+    private final CourseDailySnapshotRepository courseDailySnapshotRepository;
+    private final CourseRepository courseRepository;
+
+    /**
+     * 闭区间 [from, to] 内的快照，按日期升序；默认最近 30 天
+     */
+    @GetMapping
+    public ApiResponse<List<CourseDailyMetricsResponse>> dailyMetrics(
+            @PathVariable UUID courseId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (currentUser.getRole() != UserRole.ADMIN && !currentUser.getId().equals(course.getTeacherId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this course");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range must not exceed " + MAX_DAYS + " days");
+        }
+
+        List<CourseDailyMetricsResponse> series = courseDailySnapshotRepository
+                .findByCourseIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(courseId, start, end)
+                .stream()
+                .map(this::toResponse)
+                .toList();
+        return ApiResponse.success(series);
+    }
+
+    private CourseDailyMetricsResponse toResponse(CourseDailySnapshot snapshot) {
+        return CourseDailyMetricsResponse.builder()
+                .date(snapshot.getSnapshotDate())
+                .capturedAt(snapshot.getCapturedAt())
+                .enrolledStudents(snapshot.getEnrolledStudents())
+                .totalAssignments(snapshot.getTotalAssignments())
+                .gradedSubmissions(snapshot.getGradedSubmissions())
+                .completionRate(snapshot.getCompletionRate())
+                .averageScore(snapshot.getAverageScore())
+                .medianScore(snapshot.getMedianScore())
+                .overdueStudents(snapshot.getOverdueStudents())
+                .atRiskStudents(snapshot.getAtRiskStudents())
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package fin.c3po.analytics.web;
+
+import fin.c3po.analytics.Gradebook;
+import fin.c3po.analytics.GradebookService;
+import fin.c3po.analytics.SubmissionMatrix;
+import fin.c3po.analytics.dto.GradebookResponse;
+import fin.c3po.assignment.AssignmentSummary;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程成绩册（学生 × 作业）；JSON 为列式布局，CSV 逐行流式写出
+ */
+@RestController
+@RequestMapping("/api/v1/courses/{courseId}/gradebook")
+@Validated
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+public class GradebookController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final List<String> STATUS_VALUES = Arrays.stream(SubmissionStatus.values())
+            .map(SubmissionStatus::name)
+            .toList();
+
+    private final GradebookService gradebookService;
+    private final CourseRepository courseRepository;
+
+    @GetMapping
+    public ApiResponse<GradebookResponse> gradebook(@PathVariable UUID courseId,
+                                                    @AuthenticationPrincipal UserAccount currentUser) {
+        ensureCourseAccess(currentUser, courseId);
+        Gradebook gradebook = gradebookService.load(courseId);
+        SubmissionMatrix matrix = gradebook.getMatrix();
+        int students = matrix.studentCount();
+        int assignments = matrix.assignmentCount();
+
+        // 基本类型数组 + 占位值，整张矩阵不产生装箱对象
+        int[] scores = new int[students * assignments];
+        int[] statuses = new int[students * assignments];
+        Arrays.fill(scores, GradebookResponse.MISSING);
+        Arrays.fill(statuses, GradebookResponse.MISSING);
+        for (int s = 0; s < students; s++) {
+            for (int a = 0; a < assignments; a++) {
+                int cell = matrix.cell(a, s);
+                if (!matrix.hasSubmission(cell)) {
+                    continue;
+                }
+                int index = s * assignments + a;
+                statuses[index] = matrix.status(cell).ordinal();
+                if (matrix.score(cell) != SubmissionMatrix.NO_SCORE) {
+                    scores[index] = matrix.score(cell);
+                }
+            }
+        }
+
+        return ApiResponse.success(GradebookResponse.builder()
+                .courseId(courseId)
+                .studentIds(gradebook.getStudentIds())
+                .studentNames(gradebook.getStudentNames())
+                .assignmentIds(gradebook.getAssignments().stream().map(AssignmentSummary::getId).toList())
+                .assignmentTitles(gradebook.getAssignments().stream().map(AssignmentSummary::getTitle).toList())
+                .assignmentDeadlines(gradebook.getAssignments().stream().map(AssignmentSummary::getDeadline).toList())
+                .scores(scores)
+                .statuses(statuses)
+                .statusValues(STATUS_VALUES)
+                .build());
+    }
+
+    /**
+     * CSV 导出：每名学生一行，单元格为分数，已提交未评分时为状态，未提交为空
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportGradebook(@PathVariable UUID courseId,
+                                                                 @AuthenticationPrincipal UserAccount currentUser) {
+        ensureCourseAccess(currentUser, courseId);
+        Gradebook gradebook = gradebookService.load(courseId);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writeCsv(gradebook, writer);
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("gradebook-" + courseId + ".csv")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private void writeCsv(Gradebook gradebook, Writer writer) throws IOException {
+        SubmissionMatrix matrix = gradebook.getMatrix();
+        // UTF-8 BOM，Excel 打开中文标题时不乱码
+        writer.write('\uFEFF');
+        writer.write("student_id,student_name");
+        for (AssignmentSummary assignment : gradebook.getAssignments()) {
+            writer.write(',');
+            writer.write(csvField(assignment.getTitle()));
+        }
+        writer.write("\r\n");
+        for (int s = 0; s < matrix.studentCount(); s++) {
+            writer.write(matrix.studentId(s).toString());
+            writer.write(',');
+            writer.write(csvField(gradebook.getStudentNames().get(s)));
+            for (int a = 0; a < matrix.assignmentCount(); a++) {
+                writer.write(',');
+                int cell = matrix.cell(a, s);
+                if (!matrix.hasSubmission(cell)) {
+                    continue;
+                }
+                int score = matrix.score(cell);
+                if (score != SubmissionMatrix.NO_SCORE) {
+                    writer.write(Integer.toString(score));
+                } else {
+                    writer.write(matrix.status(cell).name());
+                }
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * 按 RFC 4180 转义；以公式字符（含制表符、回车）开头的文本加单引号，避免在表格软件中被当作公式执行
+     */
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String text = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private void ensureCourseAccess(UserAccount user, UUID courseId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (user.getRole() != UserRole.ADMIN && !user.getId().equals(course.getTeacherId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this course");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package fin.c3po.analytics.web;
+
+import fin.c3po.analytics.QuizItemAnalysisEngine;
+import fin.c3po.analytics.dto.QuizItemAnalysisResponse;
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+/**
+ * 测验逐题分析：每道题的答对率、平均分与各答案的选择次数
+ */
+@RestController
+@RequestMapping("/api/v1/assignments/{assignmentId}/item-analysis")
+@Validated
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+public class QuizItemAnalysisController {
+
+    private final QuizItemAnalysisEngine quizItemAnalysisEngine;
+    private final AssignmentRepository assignmentRepository;
+    private final CourseRepository courseRepository;
+
+    @GetMapping
+    public ApiResponse<QuizItemAnalysisResponse> itemAnalysis(@PathVariable UUID assignmentId,
+                                                              @AuthenticationPrincipal UserAccount currentUser) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
+        if (assignment.getType() != AssignmentType.QUIZ) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Assignment is not a quiz");
+        }
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            Course course = courseRepository.findById(assignment.getCourseId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+            if (!currentUser.getId().equals(course.getTeacherId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this quiz");
+            }
+        }
+        return ApiResponse.success(quizItemAnalysisEngine.analyze(assignmentId));
+    }
+}
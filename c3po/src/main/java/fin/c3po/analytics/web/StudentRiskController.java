@@ -0,0 +1,132 @@
+package fin.c3po.analytics.web;
+
+import fin.c3po.analytics.StudentRiskRecord;
+import fin.c3po.analytics.StudentRiskRecordRepository;
+import fin.c3po.analytics.StudentRiskType;
+import fin.c3po.analytics.dto.StudentRiskResponse;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.PageMeta;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserAccountRepository;
+import fin.c3po.user.UserRole;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 后台检测出的学业风险与逾期学生；教师只能查看自己任教课程的结果，管理员可查看全部
+ */
+@RestController
+@RequestMapping("/api/v1/analytics/student-risks")
+@Validated
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+public class StudentRiskController {
+
+    private static final Sort DEFAULT_SORT = Sort.by(
+            Sort.Order.desc("atRisk"),
+            Sort.Order.desc("overdueAssignments"),
+            Sort.Order.asc("averageScore"),
+            Sort.Order.asc("id"));
+
+    private final StudentRiskRecordRepository studentRiskRecordRepository;
+    private final CourseRepository courseRepository;
+    private final UserAccountRepository userAccountRepository;
+
+    @GetMapping
+    public ApiResponse<List<StudentRiskResponse>> listStudentRisks(
+            @RequestParam(name = "page", defaultValue = "1") @Min(1) int page,
+            @RequestParam(name = "pageSize", defaultValue = "20") @Min(1) @Max(100) int pageSize,
+            @RequestParam(name = "courseId", required = false) UUID courseId,
+            @RequestParam(name = "type", required = false) StudentRiskType type,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        Specification<StudentRiskRecord> specification = (root, query, cb) -> cb.conjunction();
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            Set<UUID> taughtCourseIds = courseRepository.findByTeacherId(currentUser.getId()).stream()
+                    .map(Course::getId)
+                    .collect(Collectors.toSet());
+            if (courseId != null && !taughtCourseIds.contains(courseId)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this course");
+            }
+            if (taughtCourseIds.isEmpty()) {
+                return ApiResponse.success(List.of(), toPageMeta(page, pageSize, 0));
+            }
+            specification = specification.and((root, query, cb) -> root.get("courseId").in(taughtCourseIds));
+        }
+        if (courseId != null) {
+            specification = specification.and((root, query, cb) -> cb.equal(root.get("courseId"), courseId));
+        }
+        if (type == StudentRiskType.AT_RISK) {
+            specification = specification.and((root, query, cb) -> cb.isTrue(root.get("atRisk")));
+        } else if (type == StudentRiskType.OVERDUE) {
+            specification = specification.and((root, query, cb) -> cb.isTrue(root.get("overdue")));
+        }
+
+        Page<StudentRiskRecord> result = studentRiskRecordRepository.findAll(specification,
+                PageRequest.of(page - 1, pageSize, DEFAULT_SORT));
+        List<StudentRiskRecord> records = result.getContent();
+        Map<UUID, Course> courses = courseRepository.findAllById(records.stream()
+                        .map(StudentRiskRecord::getCourseId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        Map<UUID, UserAccount> students = userAccountRepository.findAllById(records.stream()
+                        .map(StudentRiskRecord::getStudentId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(UserAccount::getId, Function.identity()));
+
+        List<StudentRiskResponse> responses = records.stream()
+                .map(record -> toResponse(record, courses.get(record.getCourseId()), students.get(record.getStudentId())))
+                .toList();
+        return ApiResponse.success(responses, toPageMeta(page, pageSize, result.getTotalElements()));
+    }
+
+    private StudentRiskResponse toResponse(StudentRiskRecord record, Course course, UserAccount student) {
+        return StudentRiskResponse.builder()
+                .courseId(record.getCourseId())
+                .courseName(course != null ? course.getName() : null)
+                .studentId(record.getStudentId())
+                .studentName(student != null ? student.getUsername() : null)
+                .atRisk(record.isAtRisk())
+                .overdue(record.isOverdue())
+                .averageScore(record.getAverageScore())
+                .submittedAssignments(record.getSubmittedAssignments())
+                .totalAssignments(record.getTotalAssignments())
+                .overdueAssignments(record.getOverdueAssignments())
+                .detectedAt(record.getDetectedAt())
+                .build();
+    }
+
+    private PageMeta toPageMeta(int page, int pageSize, long total) {
+        return PageMeta.builder()
+                .page(page)
+                .pageSize(pageSize)
+                .total(total)
+                .sort("atRisk,desc;overdueAssignments,desc;averageScore,asc")
+                .build();
+    }
+}
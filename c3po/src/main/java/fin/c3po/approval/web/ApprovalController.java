@@ -9,13 +9,17 @@ import fin.c3po.approval.ApprovalType;
 import fin.c3po.approval.dto.ApprovalDecisionRequest;
 import fin.c3po.approval.dto.ApprovalResponse;
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.KeysetPagination;
+import fin.c3po.common.web.KeysetSlice;
 import fin.c3po.common.web.PageMeta;
 import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.course.CourseStatus;
 import fin.c3po.user.UserAccount;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -37,6 +41,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -47,9 +52,11 @@ import java.util.UUID;
 public class ApprovalController {
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("createdAt");
 
     private final ApprovalRequestRepository approvalRequestRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
 
     @GetMapping
@@ -57,7 +64,9 @@ public class ApprovalController {
             @RequestParam(name = "page", defaultValue = "1") int page,
             @RequestParam(name = "pageSize", defaultValue = "20") int pageSize,
             @RequestParam(name = "status", required = false) ApprovalStatus status,
-            @RequestParam(name = "type", required = false) ApprovalType type) {
+            @RequestParam(name = "type", required = false) ApprovalType type,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
 
         Pageable pageable = PageRequest.of(Math.max(page, 1) - 1,
                 Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)),
@@ -71,16 +80,24 @@ public class ApprovalController {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("type"), type));
         }
 
-        Page<ApprovalRequest> pageResult = approvalRequestRepository.findAll(spec, pageable);
+        KeysetSlice<ApprovalRequest> pageResult;
+        if (cursor != null) {
+            pageResult = KeysetPagination.fetch(approvalRequestRepository, spec, pageable.getSort(),
+                    KEYSET_SORT_PROPERTIES, cursor, pageable.getPageSize(), withTotal);
+        } else {
+            Page<ApprovalRequest> offsetPage = approvalRequestRepository.findAll(spec, pageable);
+            pageResult = new KeysetSlice<>(offsetPage.getContent(), null, offsetPage.getTotalElements());
+        }
         List<ApprovalResponse> data = pageResult.getContent().stream()
                 .map(this::toResponse)
                 .toList();
 
         PageMeta meta = PageMeta.builder()
-                .page(pageResult.getNumber() + 1)
-                .pageSize(pageResult.getSize())
-                .total(pageResult.getTotalElements())
+                .page(cursor == null ? pageable.getPageNumber() + 1 : null)
+                .pageSize(pageable.getPageSize())
+                .total(pageResult.getTotal())
                 .sort("createdAt,desc")
+                .nextCursor(pageResult.getNextCursor())
                 .build();
         return ApiResponse.success(data, meta);
     }
@@ -142,6 +159,7 @@ public class ApprovalController {
         }
 
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.STATUS_CHANGED));
     }
 
     private ApprovalResponse toResponse(ApprovalRequest approval) {
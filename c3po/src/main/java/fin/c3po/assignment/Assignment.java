@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import lombok.Getter;
@@ -25,7 +26,9 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments", indexes = {
+        @Index(name = "idx_assignments_course", columnList = "course_id")
+})
 public class Assignment extends BaseEntity {
 
     @Column(nullable = false)
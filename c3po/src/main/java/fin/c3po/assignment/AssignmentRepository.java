@@ -1,7 +1,11 @@
 package fin.c3po.assignment;
 
+import fin.c3po.course.CourseCount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,7 +13,13 @@ import java.util.UUID;
 public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
     List<Assignment> findByCourseId(UUID courseId);
 
+    List<AssignmentSummary> findSummariesByCourseId(UUID courseId);
+
     Optional<Assignment> findWithTagsById(UUID id);
 
     long countByCourseId(UUID courseId);
+
+    @Query("SELECT a.courseId AS courseId, COUNT(a) AS total FROM Assignment a "
+            + "WHERE a.courseId IN :courseIds GROUP BY a.courseId")
+    List<CourseCount> countGroupedByCourseIdIn(@Param("courseIds") Collection<UUID> courseIds);
 }
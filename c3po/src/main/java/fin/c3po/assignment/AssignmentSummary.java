@@ -0,0 +1,15 @@
+package fin.c3po.assignment;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 统计分析用的作业投影，不加载可见性标签等集合
+ */
+public interface AssignmentSummary {
+    UUID getId();
+
+    String getTitle();
+
+    Instant getDeadline();
+}
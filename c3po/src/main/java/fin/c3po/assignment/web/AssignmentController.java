@@ -11,11 +11,13 @@ import fin.c3po.assignment.dto.DuplicateAssignmentRequest;
 import fin.c3po.assignment.dto.UpdateAssignmentRequest;
 import fin.c3po.common.web.ApiResponse;
 import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.notify.NotificationService;
 import fin.c3po.user.UserAccount;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -45,6 +47,7 @@ public class AssignmentController {
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final TypeReference<List<CreateAssignmentRequest.RubricItem>> RUBRIC_TYPE = new TypeReference<>() {
     };
@@ -92,6 +95,7 @@ public class AssignmentController {
         }
 
         Assignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.ASSIGNMENTS_CHANGED));
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -140,6 +144,7 @@ public class AssignmentController {
         }
 
         Assignment saved = assignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getCourseId(), CourseChangedEvent.Change.ASSIGNMENTS_CHANGED));
 
         // 如果作业已发布且截止时间修改，通知选课学生
         if (Boolean.TRUE.equals(saved.getPublished()) && deadlineChanged) {
@@ -214,6 +219,7 @@ public class AssignmentController {
         clone.setVisibilityTags(new ArrayList<>(assignment.getVisibilityTags()));
 
         Assignment saved = assignmentRepository.save(clone);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getCourseId(), CourseChangedEvent.Change.ASSIGNMENTS_CHANGED));
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -0,0 +1,17 @@
+package fin.c3po.common.cache;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CacheStats {
+    String name;
+    int size;
+    long hits;
+    long misses;
+    /**
+     * 等待进行中计算而未重复计算的请求数
+     */
+    long coalesced;
+}
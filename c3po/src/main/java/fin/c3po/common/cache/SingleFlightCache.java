@@ -0,0 +1,158 @@
+package fin.c3po.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 读接口的合并计算 + 短时结果缓存
+ * 相同键的并发请求只计算一次，其余请求等待同一个结果；结果在 ttl 内复用，条目数不超过 maxEntries。
+ * 键由分组（课程、学生等失效单位）和请求参数组成，数据变化时按分组失效。
+ * 加载在调用线程中执行，沿用调用方的安全上下文；加载失败不缓存，异常原样抛给所有等待者
+ */
+@Slf4j
+public class SingleFlightCache<V> {
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Key, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightCache(String name, Duration ttl, int maxEntries) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(Object group, String key, Supplier<V> loader) {
+        Key cacheKey = new Key(group, key);
+        while (true) {
+            Entry<V> existing = entries.get(cacheKey);
+            if (existing != null) {
+                if (!existing.future.isDone()) {
+                    coalesced.increment();
+                    return await(existing);
+                }
+                if (!existing.future.isCompletedExceptionally() && existing.expiresAt - System.nanoTime() > 0) {
+                    hits.increment();
+                    return await(existing);
+                }
+                entries.remove(cacheKey, existing);
+                continue;
+            }
+
+            Entry<V> mine = new Entry<>();
+            boolean retain = reserveCapacity();
+            if (entries.putIfAbsent(cacheKey, mine) != null) {
+                continue;
+            }
+            misses.increment();
+            return load(cacheKey, mine, retain, loader);
+        }
+    }
+
+    /**
+     * 失效某一分组下的全部条目，正在进行的计算不再被后来的请求复用
+     */
+    public void invalidate(Object group) {
+        entries.keySet().removeIf(key -> key.group.equals(group));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public CacheStats stats() {
+        return CacheStats.builder()
+                .name(name)
+                .size(entries.size())
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .coalesced(coalesced.sum())
+                .build();
+    }
+
+    private V load(Key cacheKey, Entry<V> entry, boolean retain, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            entries.remove(cacheKey, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.nanoTime() + ttlNanos;
+        entry.future.complete(value);
+        if (!retain) {
+            // 缓存已满：只让并发请求共享本次结果，不保留
+            entries.remove(cacheKey, entry);
+        }
+        return value;
+    }
+
+    private V await(Entry<V> entry) {
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 条目已满时先清理过期结果，仍然满则本次结果不保留
+     */
+    private boolean reserveCapacity() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.future.isDone() && entry.expiresAt - now <= 0);
+        if (entries.size() >= maxEntries) {
+            log.debug("Single-flight cache {} is full, result will not be retained", name);
+            return false;
+        }
+        return true;
+    }
+
+    private static final class Key {
+        private final Object group;
+        private final String key;
+
+        private Key(Object group, String key) {
+            this.group = Objects.requireNonNull(group);
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other || (other instanceof Key that && group.equals(that.group) && key.equals(that.key));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * group.hashCode() + key.hashCode();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long expiresAt;
+    }
+}
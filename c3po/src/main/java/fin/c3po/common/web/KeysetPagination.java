@@ -0,0 +1,145 @@
+package fin.c3po.common.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 游标（keyset）分页：按排序键 + id 定位上一页最后一行，用 WHERE 条件跳过已读数据，不使用 OFFSET
+ * 游标是排序键取值的 Base64 编码，对客户端不透明；排序键必须是非空列，id 作为最后的决胜键保证顺序唯一
+ */
+public final class KeysetPagination {
+
+    private static final String ID = "id";
+    private static final ObjectMapper CURSOR_MAPPER = new ObjectMapper();
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * 查询一页数据。cursor 为空表示第一页；withTotal 为 false 时不执行 count 查询
+     *
+     * @param keysetProperties 允许作为游标排序键的属性（必须非空）
+     */
+    public static <T> KeysetSlice<T> fetch(JpaSpecificationExecutor<T> repository,
+                                           Specification<T> spec,
+                                           Sort sort,
+                                           Set<String> keysetProperties,
+                                           String cursor,
+                                           int pageSize,
+                                           boolean withTotal) {
+        List<Sort.Order> orders = keyOrders(sort, keysetProperties);
+        Specification<T> filtered = spec;
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> values = decode(cursor, orders.size());
+            filtered = spec.and((root, query, cb) -> seek(root, cb, orders, values));
+        }
+
+        Sort keyset = Sort.by(orders);
+        List<T> rows = repository.findBy(filtered, query -> query.sortBy(keyset).limit(pageSize + 1).all());
+
+        String nextCursor = null;
+        List<T> content = rows;
+        if (rows.size() > pageSize) {
+            content = rows.subList(0, pageSize);
+            nextCursor = encode(content.get(pageSize - 1), orders);
+        }
+        Long total = withTotal ? repository.count(spec) : null;
+        return new KeysetSlice<>(List.copyOf(content), nextCursor, total);
+    }
+
+    private static List<Sort.Order> keyOrders(Sort sort, Set<String> keysetProperties) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction lastDirection = Sort.Direction.DESC;
+        for (Sort.Order order : sort) {
+            if (!keysetProperties.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cursor pagination is not supported for sort property: " + order.getProperty());
+            }
+            orders.add(order);
+            lastDirection = order.getDirection();
+        }
+        orders.add(new Sort.Order(lastDirection, ID));
+        return orders;
+    }
+
+    /**
+     * 构造 (k1, k2, ..., id) 的字典序比较：k1 越过游标，或 k1 相等且 k2 越过游标，依此类推
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Predicate seek(Root<T> root, CriteriaBuilder cb, List<Sort.Order> orders, List<String> values) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            Path<Comparable> path = root.get(order.getProperty());
+            Comparable value = (Comparable) convert(values.get(i), path.getJavaType());
+
+            Predicate beyond = order.isAscending() ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+            List<Predicate> conjunction = new ArrayList<>(equalPrefix);
+            conjunction.add(beyond);
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+            equalPrefix.add(cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static String encode(Object row, List<Sort.Order> orders) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<String> values = new ArrayList<>(orders.size());
+        for (Sort.Order order : orders) {
+            Object value = wrapper.getPropertyValue(order.getProperty());
+            values.add(value instanceof Enum<?> e ? e.name() : String.valueOf(value));
+        }
+        try {
+            byte[] json = CURSOR_MAPPER.writeValueAsBytes(values);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    private static List<String> decode(String cursor, int expectedSize) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            List<String> values = CURSOR_MAPPER.readValue(
+                    new String(json, StandardCharsets.UTF_8), new TypeReference<List<String>>() { });
+            if (values.size() != expectedSize || values.contains(null)) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+            return values;
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        try {
+            if (type == Instant.class) {
+                return Instant.parse(value);
+            }
+            return DefaultConversionService.getSharedInstance().convert(value, type);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
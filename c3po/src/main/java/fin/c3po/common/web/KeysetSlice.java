@@ -0,0 +1,15 @@
+package fin.c3po.common.web;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * 游标分页的一页结果
+ */
+@Value
+public class KeysetSlice<T> {
+    List<T> content;
+    String nextCursor;
+    Long total;
+}
@@ -6,10 +6,18 @@ import lombok.Value;
 @Value
 @Builder
 public class PageMeta {
-    int page;
+    /**
+     * 页码；游标分页时为 null
+     */
+    Integer page;
     int pageSize;
-    long total;
+    /**
+     * 总条数；游标分页且未请求总数时为 null
+     */
+    Long total;
     String sort;
+    /**
+     * 游标分页时下一页的游标，已到最后一页或使用页码分页时为 null
+     */
+    String nextCursor;
 }
-
-
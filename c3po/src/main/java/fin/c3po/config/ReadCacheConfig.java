@@ -0,0 +1,44 @@
+package fin.c3po.config;
+
+import fin.c3po.common.cache.SingleFlightCache;
+import fin.c3po.course.dto.CourseAnalyticsResponse;
+import fin.c3po.score.dto.CourseScoresResponse;
+import fin.c3po.score.dto.StudentScoresResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 教师看板等重读接口的合并计算缓存，结果只保留几秒，数据变化时由 {@link ReadCacheInvalidator} 按课程或学生失效
+ * 缓存和失效都只作用于本实例，多实例部署时其他实例读到旧结果的时间以 ttl 为上限，因此 ttl 不宜调大
+ */
+@Configuration
+public class ReadCacheConfig {
+
+    @Value("${cache.read.ttl-ms:3000}")
+    private long ttlMillis;
+
+    @Value("${cache.read.max-entries:512}")
+    private int maxEntries;
+
+    @Bean
+    public SingleFlightCache<CourseAnalyticsResponse> courseAnalyticsCache() {
+        return create("courseAnalytics");
+    }
+
+    @Bean
+    public SingleFlightCache<CourseScoresResponse> courseScoresCache() {
+        return create("courseScores");
+    }
+
+    @Bean
+    public SingleFlightCache<StudentScoresResponse> studentScoresCache() {
+        return create("studentScores");
+    }
+
+    private <V> SingleFlightCache<V> create(String name) {
+        return new SingleFlightCache<>(name, Duration.ofMillis(Math.max(ttlMillis, 0)), Math.max(maxEntries, 1));
+    }
+}
@@ -0,0 +1,54 @@
+package fin.c3po.config;
+
+import fin.c3po.common.cache.SingleFlightCache;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.dto.CourseAnalyticsResponse;
+import fin.c3po.score.ScoresPublishedEvent;
+import fin.c3po.score.dto.CourseScoresResponse;
+import fin.c3po.score.dto.StudentScoresResponse;
+import fin.c3po.submission.SubmissionChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 数据变化提交后失效对应课程、学生的读缓存，避免修改者在 ttl 内读到旧结果
+ * 排在其他监听器之后执行，确保失效时物化统计等派生数据已经更新
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadCacheInvalidator {
+
+    private final SingleFlightCache<CourseAnalyticsResponse> courseAnalyticsCache;
+    private final SingleFlightCache<CourseScoresResponse> courseScoresCache;
+    private final SingleFlightCache<StudentScoresResponse> studentScoresCache;
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        courseAnalyticsCache.invalidate(event.getCourseId());
+        // 学生成绩页包含各课程的作业完成进度
+        event.getChanges().forEach(change -> studentScoresCache.invalidate(change.getStudentId()));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        courseAnalyticsCache.invalidate(event.getCourseId());
+        // 课程成绩的完成率以选课人数为分母
+        courseScoresCache.invalidate(event.getCourseId());
+        // 课程名称等信息出现在所有选课学生的成绩页中；作业变化只影响完成进度，随 ttl 刷新
+        if (event.getChange() == CourseChangedEvent.Change.UPDATED) {
+            studentScoresCache.invalidateAll();
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresPublished(ScoresPublishedEvent event) {
+        courseScoresCache.invalidate(event.getCourseId());
+        event.getStudentIds().forEach(studentScoresCache::invalidate);
+    }
+}
@@ -0,0 +1,12 @@
+package fin.c3po.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 启用定时任务（抢课凭证清理等）
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
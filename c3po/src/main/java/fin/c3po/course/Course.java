@@ -1,14 +1,19 @@
 package fin.c3po.course;
 
 import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.course.search.CourseNameTokenizer;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.UUID;
 
@@ -16,7 +21,9 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_status_enrolled_count", columnList = "status, enrolled_count")
+})
 public class Course extends BaseEntity {
 
     @Column(nullable = false, length = 128)
@@ -33,8 +40,34 @@ public class Course extends BaseEntity {
 
     private Integer enrollLimit;
 
+    /**
+     * 已选课人数（冗余计数），由选课/退课通过原子更新维护，用于课程广场按热度排序
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer enrolledCount = 0;
+
     @Column(nullable = false)
     private UUID teacherId;
+
+    /**
+     * 抢课模式：开启后选课请求先进入排队队列，由后台批量处理
+     */
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean rushMode = false;
+
+    /**
+     * 课程名分词结果（空格分隔），供全文检索索引使用，随课程名自动维护
+     */
+    @Column(length = 2048)
+    private String searchTokens;
+
+    @PrePersist
+    @PreUpdate
+    public void refreshSearchTokens() {
+        this.searchTokens = CourseNameTokenizer.join(CourseNameTokenizer.documentTokens(name));
+    }
 }
 
 
@@ -0,0 +1,40 @@
+package fin.c3po.course;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程数据发生变化时发布的应用事件，供课程广场缓存等派生数据失效或增量更新
+ */
+@Value
+@AllArgsConstructor
+public class CourseChangedEvent {
+    UUID courseId;
+    Change change;
+    /**
+     * 选课变化涉及的学生；其余变化为空列表，表示影响整门课程
+     */
+    List<UUID> studentIds;
+
+    public CourseChangedEvent(UUID courseId, Change change) {
+        this(courseId, change, List.of());
+    }
+
+    public static CourseChangedEvent enrollmentChanged(UUID courseId, List<UUID> studentIds) {
+        return new CourseChangedEvent(courseId, Change.ENROLLMENT_CHANGED, List.copyOf(studentIds));
+    }
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        ENROLLMENT_CHANGED,
+        /**
+         * 作业增删改；只影响学情统计和学生汇总，课程广场、检索索引和联想不订阅
+         */
+        ASSIGNMENTS_CHANGED
+    }
+}
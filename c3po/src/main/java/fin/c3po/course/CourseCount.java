@@ -0,0 +1,12 @@
+package fin.c3po.course;
+
+import java.util.UUID;
+
+/**
+ * Projection for per-course aggregate counts returned by grouped repository queries.
+ */
+public interface CourseCount {
+    UUID getCourseId();
+
+    long getTotal();
+}
@@ -1,13 +1,18 @@
 package fin.c3po.course;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface CourseModuleRepository extends JpaRepository<CourseModule, UUID> {
     List<CourseModule> findByCourseIdOrderByDisplayOrderAsc(UUID courseId);
     long countByCourseId(UUID courseId);
-}
-
 
+    @Query("SELECT m.courseId AS courseId, COUNT(m) AS total FROM CourseModule m "
+            + "WHERE m.courseId IN :courseIds GROUP BY m.courseId")
+    List<CourseCount> countGroupedByCourseIdIn(@Param("courseIds") Collection<UUID> courseIds);
+}
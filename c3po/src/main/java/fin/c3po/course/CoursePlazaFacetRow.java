@@ -0,0 +1,14 @@
+package fin.c3po.course;
+
+/**
+ * Projection for one (department, semester, credit) group of the course plaza facet aggregation.
+ */
+public interface CoursePlazaFacetRow {
+    String getDepartment();
+
+    String getSemester();
+
+    Integer getCredit();
+
+    long getTotal();
+}
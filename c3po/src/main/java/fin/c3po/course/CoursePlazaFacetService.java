@@ -0,0 +1,98 @@
+package fin.c3po.course;
+
+import fin.c3po.course.dto.CoursePlazaFacetsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 课程广场侧边栏的分面统计（院系 / 学期 / 学分）
+ * 每个关键字只执行一次分组聚合，结果短暂缓存，各分面计数在内存中按其余筛选条件组合得出
+ */
+@Service
+public class CoursePlazaFacetService {
+
+    private static final int MAX_CACHED_KEYWORDS = 256;
+
+    private final CourseRepository courseRepository;
+    private final Duration ttl;
+    private final Map<String, CachedRows> cache = new ConcurrentHashMap<>();
+
+    public CoursePlazaFacetService(CourseRepository courseRepository,
+                                   @Value("${course.plaza.facets-ttl-seconds:30}") long ttlSeconds) {
+        this.courseRepository = courseRepository;
+        this.ttl = Duration.ofSeconds(Math.max(ttlSeconds, 0));
+    }
+
+    /**
+     * 计算分面计数：每个分面忽略自身的筛选条件，只应用其余两个条件，方便侧边栏展示可切换的选项
+     */
+    public CoursePlazaFacetsResponse facets(String keyword, String semester, Integer credit, String department) {
+        List<CoursePlazaFacetRow> rows = loadRows(keyword);
+
+        Predicate<CoursePlazaFacetRow> semesterFilter = row -> semester == null || semester.isBlank()
+                || semester.equals(row.getSemester());
+        Predicate<CoursePlazaFacetRow> creditFilter = row -> credit == null || credit.equals(row.getCredit());
+        Predicate<CoursePlazaFacetRow> departmentFilter = row -> department == null || department.isBlank()
+                || (row.getDepartment() != null && row.getDepartment().toLowerCase(Locale.ROOT)
+                .contains(department.toLowerCase(Locale.ROOT)));
+
+        return CoursePlazaFacetsResponse.builder()
+                .departments(count(rows, semesterFilter.and(creditFilter), CoursePlazaFacetRow::getDepartment))
+                .semesters(count(rows, creditFilter.and(departmentFilter), CoursePlazaFacetRow::getSemester))
+                .credits(count(rows, semesterFilter.and(departmentFilter),
+                        row -> row.getCredit() != null ? row.getCredit().toString() : null))
+                .build();
+    }
+
+    private List<CoursePlazaFacetRow> loadRows(String keyword) {
+        String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        long now = System.nanoTime();
+        CachedRows cached = cache.get(normalized);
+        if (cached != null && now - cached.getLoadedAt() < ttl.toNanos()) {
+            return cached.getRows();
+        }
+
+        List<CoursePlazaFacetRow> rows = courseRepository.aggregatePlazaFacets(
+                CourseStatus.PUBLISHED, "%" + normalized + "%");
+        if (cache.size() >= MAX_CACHED_KEYWORDS) {
+            cache.clear();
+        }
+        cache.put(normalized, new CachedRows(rows, now));
+        return rows;
+    }
+
+    private List<CoursePlazaFacetsResponse.FacetCount> count(List<CoursePlazaFacetRow> rows,
+                                                              Predicate<CoursePlazaFacetRow> filter,
+                                                              Function<CoursePlazaFacetRow, String> dimension) {
+        Map<String, Long> counts = new HashMap<>();
+        for (CoursePlazaFacetRow row : rows) {
+            if (filter.test(row)) {
+                counts.merge(dimension.apply(row), row.getTotal(), Long::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry::getKey, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(entry -> CoursePlazaFacetsResponse.FacetCount.builder()
+                        .value(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .toList();
+    }
+
+    @lombok.Value
+    private static class CachedRows {
+        List<CoursePlazaFacetRow> rows;
+        long loadedAt;
+    }
+}
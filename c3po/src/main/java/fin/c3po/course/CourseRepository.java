@@ -1,17 +1,74 @@
 package fin.c3po.course;
 
+import fin.c3po.course.search.CourseSearchEntry;
+import fin.c3po.selection.SelectionStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface CourseRepository extends JpaRepository<Course, UUID>, JpaSpecificationExecutor<Course> {
     Page<Course> findByNameContainingIgnoreCase(String keyword, Pageable pageable);
     long countByStatus(CourseStatus status);
+    boolean existsByIdAndStatus(UUID id, CourseStatus status);
     List<Course> findByTeacherId(UUID teacherId);
+    List<Course> findByStatus(CourseStatus status);
+
+    @Query("SELECT c.id FROM Course c WHERE c.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") CourseStatus status);
+
+    List<CourseSearchEntry> findAllProjectedBy();
+    List<Course> findBySearchTokensIsNull();
+
+    @Query("SELECT tp.department AS department, c.semester AS semester, c.credit AS credit, COUNT(c) AS total "
+            + "FROM Course c LEFT JOIN TeacherProfile tp ON tp.userId = c.teacherId "
+            + "WHERE c.status = :status AND LOWER(c.name) LIKE :namePattern "
+            + "GROUP BY tp.department, c.semester, c.credit")
+    List<CoursePlazaFacetRow> aggregatePlazaFacets(@Param("status") CourseStatus status,
+                                                   @Param("namePattern") String namePattern);
+
+    /**
+     * 原子占用一个名额：只有课程处于指定状态、未满员且没有学生在候补时计数才会加一，
+     * 返回受影响行数（0 表示占位失败）；有人候补时空出的名额留给候补队列
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount + 1 "
+            + "WHERE c.id = :courseId AND c.status = :status "
+            + "AND (c.enrollLimit IS NULL OR c.enrolledCount < c.enrollLimit) "
+            + "AND NOT EXISTS (SELECT s.id FROM CourseSelection s "
+            + "WHERE s.courseId = c.id AND s.status = :waitlisted)")
+    int reserveSeat(@Param("courseId") UUID courseId,
+                    @Param("status") CourseStatus status,
+                    @Param("waitlisted") SelectionStatus waitlisted);
+
+    /**
+     * 抢课批处理使用：锁定课程行，同一课程的批次串行执行
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :courseId")
+    Optional<Course> findByIdForUpdate(@Param("courseId") UUID courseId);
+
+    @Query("SELECT c.rushMode FROM Course c WHERE c.id = :courseId")
+    Optional<Boolean> findRushModeById(@Param("courseId") UUID courseId);
+
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount + :delta WHERE c.id = :courseId")
+    int addEnrolledCount(@Param("courseId") UUID courseId, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Course c SET c.enrolledCount = c.enrolledCount - 1 WHERE c.id = :courseId AND c.enrolledCount > 0")
+    int decrementEnrolledCount(@Param("courseId") UUID courseId);
 }
 
 
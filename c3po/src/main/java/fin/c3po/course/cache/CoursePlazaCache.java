@@ -0,0 +1,94 @@
+package fin.c3po.course.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.dto.CoursePlazaPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+/**
+ * 课程广场分页缓存：按（规范化后的筛选条件, 排序, 分页）缓存与用户无关的页面内容
+ * 课程更新、发布审批、选课、退课都会发布 {@link CourseChangedEvent}，事务提交后整体失效；
+ * 作业变化不触发失效，页面中的作业数量随 ttl 刷新
+ */
+@Slf4j
+public class CoursePlazaCache {
+
+    private final CoursePlazaPageStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public CoursePlazaCache(CoursePlazaPageStore store, ObjectMapper objectMapper, Duration ttl) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    /**
+     * 筛选条件由调用方规范化后传入，键中直接使用与查询相同的取值
+     */
+    public static String key(String keyword, String semester, Integer credit, String department,
+                             String sort, int page, int pageSize, String cursor, boolean withTotal) {
+        return "kw=" + nullToEmpty(keyword)
+                + "|sem=" + nullToEmpty(semester)
+                + "|cr=" + (credit == null ? "" : credit)
+                + "|dept=" + nullToEmpty(department)
+                + "|sort=" + sort
+                + "|p=" + page
+                + "|s=" + pageSize
+                + "|c=" + (cursor == null ? "-" : cursor)
+                + "|t=" + withTotal;
+    }
+
+    public CoursePlazaPage getOrLoad(String key, Supplier<CoursePlazaPage> loader) {
+        OptionalLong generation = store.generation();
+        if (generation.isEmpty()) {
+            return loader.get();
+        }
+        Optional<CoursePlazaPage> cached = store.get(generation.getAsLong(), key).flatMap(this::deserialize);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        CoursePlazaPage page = loader.get();
+        // 代次在存储中共享：加载期间任一实例处理了课程变化，写入都会被存储拒绝
+        serialize(page).ifPresent(json -> store.put(generation.getAsLong(), key, json, ttl));
+        return page;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() == CourseChangedEvent.Change.ASSIGNMENTS_CHANGED) {
+            return;
+        }
+        store.invalidateAll();
+    }
+
+    private Optional<CoursePlazaPage> deserialize(String json) {
+        try {
+            return Optional.of(objectMapper.readValue(json, CoursePlazaPage.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable course plaza cache entry: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> serialize(CoursePlazaPage page) {
+        try {
+            return Optional.of(objectMapper.writeValueAsString(page));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize course plaza page: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,30 @@
+package fin.c3po.course.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * 课程广场共享分页结果的存储（序列化后的 JSON），页面按失效代次分组：
+ * 任一课程变化时推进代次，旧代次的页面不再被读取并随各自的 ttl 过期；
+ * 写入只在代次仍与加载前读到的一致时生效，加载期间发生的失效不会被旧页面覆盖
+ */
+public interface CoursePlazaPageStore {
+
+    /**
+     * 当前代次；存储不可用时为空，调用方直接查询数据库
+     */
+    OptionalLong generation();
+
+    Optional<String> get(long generation, String key);
+
+    /**
+     * 仅当当前代次仍为 generation 时写入
+     */
+    void put(long generation, String key, String value, Duration ttl);
+
+    /**
+     * 推进代次，使已缓存的页面全部失效
+     */
+    void invalidateAll();
+}
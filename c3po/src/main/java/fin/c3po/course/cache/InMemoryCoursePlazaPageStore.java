@@ -0,0 +1,63 @@
+package fin.c3po.course.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内实现，用于未配置 Redis 的开发和测试环境，语义与 Redis 实现一致
+ */
+public class InMemoryCoursePlazaPageStore implements CoursePlazaPageStore {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile long generation;
+
+    @Override
+    public OptionalLong generation() {
+        return OptionalLong.of(generation);
+    }
+
+    @Override
+    public Optional<String> get(long generation, String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.getGeneration() != generation) {
+            return Optional.empty();
+        }
+        if (entry.getExpiresAt() - System.nanoTime() < 0) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.getValue());
+    }
+
+    /**
+     * 与 {@link #invalidateAll()} 互斥，代次比较与写入之间不会插入失效
+     */
+    @Override
+    public synchronized void put(long generation, String key, String value, Duration ttl) {
+        if (generation != this.generation) {
+            return;
+        }
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(key, new Entry(value, generation, System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @lombok.Value
+    private static class Entry {
+        String value;
+        long generation;
+        long expiresAt;
+    }
+}
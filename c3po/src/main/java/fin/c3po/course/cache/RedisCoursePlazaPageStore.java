@@ -0,0 +1,85 @@
+package fin.c3po.course.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * 基于 Redis 的实现：代次保存在一个计数 key 中，由所有实例共享；每个页面单独一个 key，
+ * 键名带上代次并按配置的 ttl 用 SET PX 写入。失效时 INCR 代次，旧代次的页面随各自的 ttl 过期
+ * 所有 key 共用 {course-plaza} 哈希标签，集群模式下也落在同一个槽，写入脚本可以同时访问
+ * Redis 不可用时降级为缓存未命中，不影响接口可用性
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RedisCoursePlazaPageStore implements CoursePlazaPageStore {
+
+    static final String GENERATION_KEY = "c3po:{course-plaza}:generation";
+    static final String PAGE_KEY_PREFIX = "c3po:{course-plaza}:page:";
+
+    /**
+     * 代次仍为 ARGV[1] 时才写入页面；代次 key 不存在时视为 0
+     */
+    private static final RedisScript<Long> PUT_IF_CURRENT = new DefaultRedisScript<>("""
+            local current = redis.call('GET', KEYS[1]) or '0'
+            if current ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public OptionalLong generation() {
+        try {
+            String value = redisTemplate.opsForValue().get(GENERATION_KEY);
+            return OptionalLong.of(value == null ? 0 : Long.parseLong(value));
+        } catch (DataAccessException | NumberFormatException e) {
+            log.warn("Course plaza cache generation read failed, falling back to database: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> get(long generation, String key) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(pageKey(generation, key)));
+        } catch (DataAccessException e) {
+            log.warn("Course plaza cache read failed, falling back to database: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(long generation, String key, String value, Duration ttl) {
+        try {
+            redisTemplate.execute(PUT_IF_CURRENT, List.of(GENERATION_KEY, pageKey(generation, key)),
+                    Long.toString(generation), value, Long.toString(Math.max(ttl.toMillis(), 1)));
+        } catch (DataAccessException e) {
+            log.warn("Course plaza cache write failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        try {
+            redisTemplate.opsForValue().increment(GENERATION_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Course plaza cache invalidation failed: {}", e.getMessage());
+        }
+    }
+
+    static String pageKey(long generation, String key) {
+        return PAGE_KEY_PREFIX + generation + ":" + key;
+    }
+}
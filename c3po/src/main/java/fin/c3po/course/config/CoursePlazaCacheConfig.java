@@ -0,0 +1,45 @@
+package fin.c3po.course.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.course.cache.CoursePlazaCache;
+import fin.c3po.course.cache.CoursePlazaPageStore;
+import fin.c3po.course.cache.InMemoryCoursePlazaPageStore;
+import fin.c3po.course.cache.RedisCoursePlazaPageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 课程广场缓存配置
+ * course.plaza.cache.store=redis 且存在 Redis 连接时使用 Redis，否则使用进程内存储
+ */
+@Slf4j
+@Configuration
+public class CoursePlazaCacheConfig {
+
+    @Bean
+    public CoursePlazaPageStore coursePlazaPageStore(
+            @Value("${course.plaza.cache.store:memory}") String store,
+            ObjectProvider<StringRedisTemplate> redisTemplate) {
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if ("redis".equalsIgnoreCase(store) && template != null) {
+            log.info("Course plaza page cache backed by Redis");
+            return new RedisCoursePlazaPageStore(template);
+        }
+        log.info("Course plaza page cache backed by in-process store");
+        return new InMemoryCoursePlazaPageStore();
+    }
+
+    @Bean
+    public CoursePlazaCache coursePlazaCache(
+            CoursePlazaPageStore coursePlazaPageStore,
+            ObjectMapper objectMapper,
+            @Value("${course.plaza.cache.ttl-seconds:60}") long ttlSeconds) {
+        return new CoursePlazaCache(coursePlazaPageStore, objectMapper, Duration.ofSeconds(Math.max(ttlSeconds, 1)));
+    }
+}
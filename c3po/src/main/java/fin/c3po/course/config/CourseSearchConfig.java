@@ -0,0 +1,49 @@
+package fin.c3po.course.config;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.search.CourseSearchIndex;
+import fin.c3po.course.search.InMemoryCourseSearchIndex;
+import fin.c3po.course.search.PostgresCourseSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 课程检索索引配置
+ * course.search.engine=auto 时按数据库类型选择：PostgreSQL 使用 tsvector + GIN，其余数据库使用进程内倒排索引
+ */
+@Slf4j
+@Configuration
+public class CourseSearchConfig {
+
+    @Bean
+    public CourseSearchIndex courseSearchIndex(
+            @Value("${course.search.engine:auto}") String engine,
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            CourseRepository courseRepository) {
+        boolean postgres = "postgres".equalsIgnoreCase(engine)
+                || ("auto".equalsIgnoreCase(engine) && isPostgres(dataSource));
+        if (postgres) {
+            log.info("Course search backed by PostgreSQL tsvector index");
+            return new PostgresCourseSearchIndex(jdbcTemplate);
+        }
+        log.info("Course search backed by in-memory n-gram index");
+        return new InMemoryCourseSearchIndex(courseRepository);
+    }
+
+    private boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not detect database product, falling back to in-memory course search: {}", e.getMessage());
+            return false;
+        }
+    }
+}
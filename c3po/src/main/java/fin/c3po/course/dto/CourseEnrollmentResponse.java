@@ -15,6 +15,14 @@ public class CourseEnrollmentResponse {
     UUID studentId;
     SelectionStatus status;
     Instant selectedAt;
+    /**
+     * 抢课模式下返回的排队凭证，通过凭证查询接口轮询最终结果
+     */
+    UUID ticketId;
+    /**
+     * 进入候补时的排位（从 1 开始），已选上时为空
+     */
+    Long waitlistPosition;
 }
 
 
@@ -0,0 +1,21 @@
+package fin.c3po.course.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class CoursePlazaFacetsResponse {
+    List<FacetCount> departments;
+    List<FacetCount> semesters;
+    List<FacetCount> credits;
+
+    @Value
+    @Builder
+    public static class FacetCount {
+        String value; // null 表示未设置
+        long count;
+    }
+}
@@ -0,0 +1,19 @@
+package fin.c3po.course.dto;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * 课程广场一页中与当前用户无关的共享部分，可整体缓存
+ */
+@Value
+@Builder
+@Jacksonized
+public class CoursePlazaPage {
+    List<CoursePlazaResponse> items;
+    Long total;
+    String nextCursor;
+}
@@ -3,12 +3,14 @@ package fin.c3po.course.dto;
 import fin.c3po.course.CourseStatus;
 import lombok.Builder;
 import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Value
-@Builder
+@Builder(toBuilder = true)
+@Jacksonized
 public class CoursePlazaResponse {
     UUID id;
     String name;
@@ -31,6 +33,7 @@ public class CoursePlazaResponse {
 
     @Value
     @Builder
+    @Jacksonized
     public static class TeacherInfo {
         UUID id;
         String username;
@@ -40,6 +43,7 @@ public class CoursePlazaResponse {
 
     @Value
     @Builder
+    @Jacksonized
     public static class EnrollmentStatus {
         boolean enrolled;
         boolean canEnroll;
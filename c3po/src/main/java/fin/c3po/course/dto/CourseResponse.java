@@ -16,6 +16,7 @@ public class CourseResponse {
     Integer credit;
     CourseStatus status;
     Integer enrollLimit;
+    boolean rushMode;
     UUID teacherId;
     Instant createdAt;
     Instant updatedAt;
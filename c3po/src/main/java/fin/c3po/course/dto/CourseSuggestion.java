@@ -0,0 +1,14 @@
+package fin.c3po.course.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+@Builder
+public class CourseSuggestion {
+    UUID id;
+    String name;
+    Integer enrolledCount;
+}
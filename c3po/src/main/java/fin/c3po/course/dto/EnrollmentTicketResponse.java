@@ -0,0 +1,23 @@
+package fin.c3po.course.dto;
+
+import fin.c3po.selection.rush.EnrollmentTicketStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class EnrollmentTicketResponse {
+    UUID ticketId;
+    UUID courseId;
+    UUID studentId;
+    EnrollmentTicketStatus status;
+    // 排队中时前面还有多少个请求
+    long position;
+    UUID selectionId;
+    String reason;
+    Instant submittedAt;
+    Instant processedAt;
+}
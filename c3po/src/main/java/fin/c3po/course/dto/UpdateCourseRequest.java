@@ -19,6 +19,8 @@ public class UpdateCourseRequest {
     private Integer credit;
 
     private Integer enrollLimit;
+
+    private Boolean rushMode;
 }
 
 
@@ -0,0 +1,121 @@
+package fin.c3po.course.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 课程名分词：中日韩文字按单字 + 二元组切分，字母数字按单词切成三元组
+ * 文档侧额外保留单词的 1~2 字符前缀，使较短的关键字也能命中；数据库和内存索引共用同一套规则
+ */
+public final class CourseNameTokenizer {
+
+    private static final int WORD_GRAM = 3;
+
+    private CourseNameTokenizer() {
+    }
+
+    /**
+     * 建索引时使用的词元集合
+     */
+    public static Set<String> documentTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        forEachRun(text, (run, cjk) -> {
+            if (cjk) {
+                addCodePointGrams(run, 1, tokens);
+                addCodePointGrams(run, 2, tokens);
+            } else {
+                addWordGrams(run, tokens);
+                for (int length = 1; length < WORD_GRAM && length < run.length(); length++) {
+                    tokens.add(run.substring(0, length));
+                }
+            }
+        });
+        return tokens;
+    }
+
+    /**
+     * 查询时使用的词元集合，文档必须包含全部查询词元才算命中
+     */
+    public static Set<String> queryTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        forEachRun(text, (run, cjk) -> {
+            if (cjk) {
+                addCodePointGrams(run, run.codePointCount(0, run.length()) == 1 ? 1 : 2, tokens);
+            } else {
+                addWordGrams(run, tokens);
+            }
+        });
+        return tokens;
+    }
+
+    /**
+     * 词元之间用空格分隔的形式，保存在 courses.search_tokens 列中
+     */
+    public static String join(Set<String> tokens) {
+        return String.join(" ", tokens);
+    }
+
+    private static void addWordGrams(String word, Set<String> tokens) {
+        if (word.length() <= WORD_GRAM) {
+            tokens.add(word);
+            return;
+        }
+        for (int i = 0; i + WORD_GRAM <= word.length(); i++) {
+            tokens.add(word.substring(i, i + WORD_GRAM));
+        }
+    }
+
+    private static void addCodePointGrams(String run, int size, Set<String> tokens) {
+        int[] codePoints = run.codePoints().toArray();
+        for (int i = 0; i + size <= codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, size));
+        }
+    }
+
+    private static void forEachRun(String text, RunConsumer consumer) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder run = new StringBuilder();
+        boolean runIsCjk = false;
+        for (int i = 0; i < lower.length(); ) {
+            int codePoint = lower.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            boolean cjk = isCjk(codePoint);
+            boolean word = !cjk && Character.isLetterOrDigit(codePoint);
+            if (!cjk && !word) {
+                flush(run, runIsCjk, consumer);
+                continue;
+            }
+            if (run.length() > 0 && cjk != runIsCjk) {
+                flush(run, runIsCjk, consumer);
+            }
+            runIsCjk = cjk;
+            run.appendCodePoint(codePoint);
+        }
+        flush(run, runIsCjk, consumer);
+    }
+
+    private static void flush(StringBuilder run, boolean cjk, RunConsumer consumer) {
+        if (run.length() > 0) {
+            consumer.accept(run.toString(), cjk);
+            run.setLength(0);
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    @FunctionalInterface
+    private interface RunConsumer {
+        void accept(String run, boolean cjk);
+    }
+}
@@ -0,0 +1,8 @@
+package fin.c3po.course.search;
+
+import java.util.UUID;
+
+public interface CourseSearchEntry {
+    UUID getId();
+    String getName();
+}
@@ -0,0 +1,13 @@
+package fin.c3po.course.search;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程名全文检索索引，返回按相关度排序的课程ID
+ * 排序规则：名称完全相同 > 名称以关键字开头 > 其余命中；同档内名称词元越少（覆盖率越高）越靠前，再按名称长度
+ */
+public interface CourseSearchIndex {
+
+    List<UUID> search(String keyword, int limit);
+}
@@ -0,0 +1,112 @@
+package fin.c3po.course.search;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 课程相关度检索：索引给出按相关度排序的候选，其余筛选条件仍由数据库执行
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseSearchService {
+
+    /**
+     * 每次按筛选条件过滤的候选数，控制 IN 列表的长度
+     */
+    public static final int FILTER_BATCH_SIZE = 1000;
+
+    private final CourseSearchIndex courseSearchIndex;
+    private final CourseRepository courseRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * 按相关度分页检索，filters 为关键字以外的筛选条件
+     * 索引给出全部命中的ID，按相关度顺序分批交给数据库过滤，总数与分页都基于过滤后的完整结果；
+     * 只加载当前页的课程
+     */
+    public Page<Course> search(String keyword, Specification<Course> filters, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        List<UUID> ranked = courseSearchIndex.search(keyword, Integer.MAX_VALUE);
+        if (ranked.isEmpty()) {
+            return Page.empty(unsorted);
+        }
+
+        long offset = unsorted.getOffset();
+        List<UUID> pageIds = new ArrayList<>(unsorted.getPageSize());
+        long total = 0;
+        for (int from = 0; from < ranked.size(); from += FILTER_BATCH_SIZE) {
+            List<UUID> window = ranked.subList(from, Math.min(from + FILTER_BATCH_SIZE, ranked.size()));
+            Set<UUID> matching = new HashSet<>(findMatchingIds(filters, window));
+            for (UUID id : window) {
+                if (!matching.contains(id)) {
+                    continue;
+                }
+                if (total >= offset && pageIds.size() < unsorted.getPageSize()) {
+                    pageIds.add(id);
+                }
+                total++;
+            }
+        }
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), unsorted, total);
+        }
+
+        Map<UUID, Course> courses = courseRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        List<Course> content = pageIds.stream()
+                .map(courses::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, unsorted, total);
+    }
+
+    private List<UUID> findMatchingIds(Specification<Course> filters, List<UUID> candidates) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Course> root = query.from(Course.class);
+        Specification<Course> spec = filters.and((course, q, b) -> course.get("id").in(candidates));
+        query.select(root.<UUID>get("id")).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * 为检索列上线之前创建的课程补齐分词结果
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillSearchTokens() {
+        List<Course> missing = courseRepository.findBySearchTokensIsNull();
+        if (missing.isEmpty()) {
+            return;
+        }
+        missing.forEach(Course::refreshSearchTokens);
+        courseRepository.saveAll(missing);
+        log.info("Backfilled search tokens for {} courses", missing.size());
+    }
+}
@@ -0,0 +1,189 @@
+package fin.c3po.course.search;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CourseSuggestion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程名输入联想的内存前缀树，只收录已发布课程，按选课人数加权
+ * 每个节点预先保存其子树中权重最高的若干课程，查询只需沿前缀走到对应节点后复制结果
+ * 启动时全量构建，课程创建、更新、发布审批、选课退课事件到达时增量更新单门课程
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator.comparingInt(Entry::getWeight).reversed()
+            .thenComparing(Entry::getName)
+            .thenComparing(Entry::getId);
+
+    private final CourseRepository courseRepository;
+
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Course> published = courseRepository.findByStatus(CourseStatus.PUBLISHED);
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            entries.clear();
+            published.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built course suggest index with {} published courses", published.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() == CourseChangedEvent.Change.ASSIGNMENTS_CHANGED) {
+            return;
+        }
+        Course course = courseRepository.findById(event.getCourseId()).orElse(null);
+        lock.writeLock().lock();
+        try {
+            remove(event.getCourseId());
+            if (course != null && course.getStatus() == CourseStatus.PUBLISHED) {
+                insert(course);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CourseSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            return node.top.stream()
+                    .limit(size)
+                    .map(entry -> CourseSuggestion.builder()
+                            .id(entry.getId())
+                            .name(entry.getName())
+                            .enrolledCount(entry.getWeight())
+                            .build())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Course course) {
+        String key = normalize(course.getName());
+        if (key.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(course.getId(), course.getName(), key,
+                course.getEnrolledCount() != null ? course.getEnrolledCount() : 0);
+        entries.put(entry.getId(), entry);
+
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.push(node);
+        }
+        node.terminals.put(entry.getId(), entry);
+        path.forEach(Node::recomputeTop);
+    }
+
+    private void remove(UUID courseId) {
+        Entry entry = entries.remove(courseId);
+        if (entry == null) {
+            return;
+        }
+
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < entry.getKey().length() && node != null; i++) {
+            node = node.children.get(entry.getKey().charAt(i));
+            if (node != null) {
+                path.push(node);
+            }
+        }
+        if (node != null) {
+            node.terminals.remove(courseId);
+        }
+
+        // 自底向上重算，并剪掉已经没有任何课程的分支
+        int depth = path.size() - 1;
+        Node child = null;
+        for (Node current : path) {
+            if (child != null && child.isEmpty()) {
+                current.children.remove(entry.getKey().charAt(depth));
+            }
+            current.recomputeTop();
+            child = current;
+            depth--;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Map<UUID, Entry> terminals = new HashMap<>();
+        private List<Entry> top = List.of();
+
+        private void recomputeTop() {
+            List<Entry> candidates = new ArrayList<>(terminals.values());
+            children.values().forEach(child -> candidates.addAll(child.top));
+            candidates.sort(BY_WEIGHT);
+            top = List.copyOf(candidates.subList(0, Math.min(candidates.size(), MAX_SUGGESTIONS)));
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && terminals.isEmpty();
+        }
+    }
+
+    @lombok.Value
+    private static class Entry {
+        UUID id;
+        String name;
+        String key;
+        int weight;
+    }
+}
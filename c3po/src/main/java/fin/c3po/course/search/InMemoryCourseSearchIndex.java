@@ -0,0 +1,155 @@
+package fin.c3po.course.search;
+
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 进程内 n-gram 倒排索引，用于 H2 等不支持 tsvector 的数据库
+ * 启动时全量构建，之后根据课程创建 / 更新事件增量维护
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class InMemoryCourseSearchIndex implements CourseSearchIndex {
+
+    private final CourseRepository courseRepository;
+
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final Map<UUID, IndexedCourse> courses = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<CourseSearchEntry> entries = courseRepository.findAllProjectedBy();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            courses.clear();
+            entries.forEach(entry -> add(entry.getId(), entry.getName()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built in-memory course search index with {} courses", entries.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() != CourseChangedEvent.Change.CREATED
+                && event.getChange() != CourseChangedEvent.Change.UPDATED) {
+            return;
+        }
+        String name = courseRepository.findById(event.getCourseId())
+                .map(course -> course.getName())
+                .orElse(null);
+        lock.writeLock().lock();
+        try {
+            remove(event.getCourseId());
+            if (name != null) {
+                add(event.getCourseId(), name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UUID> search(String keyword, int limit) {
+        Set<String> tokens = CourseNameTokenizer.queryTokens(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+
+        List<IndexedCourse> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Set<UUID>> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Set<UUID> posting = postings.get(token);
+                if (posting == null) {
+                    return List.of();
+                }
+                lists.add(posting);
+            }
+            // 从最短的倒排表开始求交集
+            lists.sort(Comparator.comparingInt(Set::size));
+            for (UUID candidate : lists.get(0)) {
+                boolean all = true;
+                for (int i = 1; i < lists.size() && all; i++) {
+                    all = lists.get(i).contains(candidate);
+                }
+                if (all) {
+                    matches.add(courses.get(candidate));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.stream()
+                .sorted(Comparator.<IndexedCourse>comparingInt(course -> tier(course, normalized))
+                        .thenComparingInt(course -> course.getTokens().size())
+                        .thenComparingInt(course -> course.getName().length())
+                        .thenComparing(IndexedCourse::getId))
+                .limit(limit)
+                .map(IndexedCourse::getId)
+                .toList();
+    }
+
+    private int tier(IndexedCourse course, String keyword) {
+        if (course.getName().equals(keyword)) {
+            return 0;
+        }
+        return course.getName().startsWith(keyword) ? 1 : 2;
+    }
+
+    private void add(UUID id, String name) {
+        if (name == null) {
+            return;
+        }
+        Set<String> tokens = CourseNameTokenizer.documentTokens(name);
+        courses.put(id, new IndexedCourse(id, name.toLowerCase(Locale.ROOT), tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(UUID id) {
+        IndexedCourse existing = courses.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String token : existing.getTokens()) {
+            Set<UUID> posting = postings.get(token);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class IndexedCourse {
+        UUID id;
+        String name;
+        Set<String> tokens;
+    }
+}
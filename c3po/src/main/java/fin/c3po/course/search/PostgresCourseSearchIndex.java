@@ -0,0 +1,50 @@
+package fin.c3po.course.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 基于 PostgreSQL tsvector 的实现，courses.search_tokens 上的 GIN 索引见 db/course-search-index.sql
+ * 词元在 Java 侧生成，直接转换为 tsvector / tsquery，不依赖数据库的分词配置
+ */
+@RequiredArgsConstructor
+public class PostgresCourseSearchIndex implements CourseSearchIndex {
+
+    private static final String SEARCH_SQL = """
+            SELECT c.id
+            FROM courses c
+            WHERE CAST(c.search_tokens AS tsvector) @@ CAST(? AS tsquery)
+            ORDER BY CASE
+                         WHEN lower(c.name) = ? THEN 0
+                         WHEN starts_with(lower(c.name), ?) THEN 1
+                         ELSE 2
+                     END,
+                     length(CAST(c.search_tokens AS tsvector)),
+                     length(c.name),
+                     c.id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UUID> search(String keyword, int limit) {
+        Set<String> tokens = CourseNameTokenizer.queryTokens(keyword);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String tsQuery = tokens.stream()
+                .map(token -> "'" + token + "'")
+                .collect(Collectors.joining(" & "));
+        String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+        return jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> rs.getObject(1, UUID.class),
+                tsQuery, normalized, normalized, limit);
+    }
+}
@@ -2,38 +2,58 @@ package fin.c3po.course.web;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.analytics.CourseAnalyticsEngine;
 import fin.c3po.approval.ApprovalRequest;
 import fin.c3po.approval.ApprovalRequestRepository;
 import fin.c3po.approval.ApprovalType;
+import fin.c3po.common.cache.SingleFlightCache;
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.KeysetPagination;
+import fin.c3po.common.web.KeysetSlice;
 import fin.c3po.common.web.PageMeta;
 import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseCount;
+import fin.c3po.course.CourseMetricsLoader;
+import fin.c3po.course.CoursePlazaFacetService;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.course.CourseStatus;
+import fin.c3po.course.cache.CoursePlazaCache;
+import fin.c3po.course.search.CourseSearchService;
+import fin.c3po.course.search.CourseSuggestIndex;
 import fin.c3po.course.dto.CourseAnalyticsResponse;
 import fin.c3po.course.dto.CourseEnrollmentResponse;
 import fin.c3po.course.dto.CoursePublishResponse;
 import fin.c3po.course.dto.CourseResponse;
+import fin.c3po.course.dto.CoursePlazaFacetsResponse;
+import fin.c3po.course.dto.CoursePlazaPage;
 import fin.c3po.course.dto.CoursePlazaResponse;
 import fin.c3po.course.dto.CreateCourseRequest;
 import fin.c3po.course.dto.StudentCourseResponse;
+import fin.c3po.course.dto.CourseSuggestion;
 import fin.c3po.course.dto.UpdateCourseRequest;
+import fin.c3po.course.dto.EnrollmentTicketResponse;
 import fin.c3po.course.dto.CourseStudentResponse;
 import fin.c3po.profile.TeacherProfile;
 import fin.c3po.profile.TeacherProfileRepository;
+import fin.c3po.selection.CourseEnrollmentService;
 import fin.c3po.selection.CourseSelection;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
-import fin.c3po.assignment.Assignment;
+import fin.c3po.selection.rush.EnrollmentAdmissionQueue;
+import fin.c3po.selection.rush.EnrollmentTicket;
+import fin.c3po.selection.rush.RushModePolicy;
 import fin.c3po.assignment.AssignmentRepository;
-import fin.c3po.course.CourseModuleRepository;
-import fin.c3po.submission.Submission;
-import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.LatestSubmission;
+import fin.c3po.submission.LatestSubmissionLoader;
 import fin.c3po.submission.SubmissionStatus;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserAccountRepository;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -55,15 +75,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Instant;
 import java.util.ArrayList;
-import java.util.DoubleSummaryStatistics;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -75,15 +90,27 @@ import java.util.stream.Collectors;
 public class CourseController {
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final String RELEVANCE_SORT = "relevance";
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("createdAt", "updatedAt", "name", "enrolledCount");
 
     private final CourseRepository courseRepository;
-    private final CourseModuleRepository courseModuleRepository;
     private final AssignmentRepository assignmentRepository;
     private final CourseSelectionRepository courseSelectionRepository;
-    private final SubmissionRepository submissionRepository;
+    private final LatestSubmissionLoader latestSubmissionLoader;
     private final ApprovalRequestRepository approvalRequestRepository;
     private final UserAccountRepository userAccountRepository;
     private final TeacherProfileRepository teacherProfileRepository;
+    private final CourseMetricsLoader courseMetricsLoader;
+    private final CourseAnalyticsEngine courseAnalyticsEngine;
+    private final SingleFlightCache<CourseAnalyticsResponse> courseAnalyticsCache;
+    private final CoursePlazaFacetService coursePlazaFacetService;
+    private final CoursePlazaCache coursePlazaCache;
+    private final CourseSearchService courseSearchService;
+    private final CourseSuggestIndex courseSuggestIndex;
+    private final CourseEnrollmentService courseEnrollmentService;
+    private final RushModePolicy rushModePolicy;
+    private final EnrollmentAdmissionQueue enrollmentAdmissionQueue;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/courses")
@@ -93,15 +120,13 @@ public class CourseController {
             @RequestParam(name = "keyword", required = false) String keyword,
             @RequestParam(name = "teacherId", required = false) UUID teacherId,
             @RequestParam(name = "status", required = false) CourseStatus status,
-            @RequestParam(name = "sort", defaultValue = "createdAt,desc") String sort) {
+            @RequestParam(name = "sort", defaultValue = "createdAt,desc") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
 
         Pageable pageable = buildPageable(page, pageSize, sort);
         Specification<Course> spec = (root, query, cb) -> cb.conjunction();
 
-        if (keyword != null && !keyword.isBlank()) {
-            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
-            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern));
-        }
         if (teacherId != null) {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("teacherId"), teacherId));
         }
@@ -109,19 +134,19 @@ public class CourseController {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
         }
 
-        Page<Course> coursePage = courseRepository.findAll(spec, pageable);
+        KeysetSlice<Course> coursePage = findCourses(spec, keyword, sort, pageable, cursor, withTotal);
+        Map<UUID, CourseResponse.CourseSummaryMetrics> metrics = courseMetricsLoader.load(coursePage.getContent());
         List<CourseResponse> responses = coursePage.getContent()
                 .stream()
-                .map(this::toCourseResponse)
+                .map(course -> toCourseResponse(course, metrics.get(course.getId())))
                 .toList();
 
         PageMeta meta = PageMeta.builder()
-                .page(pageable.getPageNumber() + 1)
+                .page(cursor == null ? pageable.getPageNumber() + 1 : null)
                 .pageSize(pageable.getPageSize())
-                .total(coursePage.getTotalElements())
-                .sort(pageable.getSort().stream()
-                        .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
-                        .collect(Collectors.joining(";")))
+                .total(coursePage.getTotal())
+                .sort(sortLabel(keyword, sort, pageable))
+                .nextCursor(coursePage.getNextCursor())
                 .build();
 
         return ApiResponse.success(responses, meta);
@@ -140,98 +165,95 @@ public class CourseController {
             @RequestParam(name = "credit", required = false) Integer credit,
             @RequestParam(name = "department", required = false) String department,
             @RequestParam(name = "sort", defaultValue = "enrolledCount,desc") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal,
             @AuthenticationPrincipal UserAccount currentUser) {
 
+        // 筛选条件只规范化一次，缓存键与查询使用同一份取值，避免等价键命中不同查询结果
+        String plazaKeyword = normalizeFilter(keyword, true);
+        String plazaSemester = normalizeFilter(semester, false);
+        String plazaDepartment = normalizeFilter(department, true);
+
         Pageable pageable = buildPageable(page, pageSize, sort);
         Specification<Course> spec = (root, query, cb) -> 
                 cb.equal(root.get("status"), CourseStatus.PUBLISHED); // 只显示已发布的课程
 
-        if (keyword != null && !keyword.isBlank()) {
-            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
-            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern));
-        }
-        if (semester != null && !semester.isBlank()) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("semester"), semester));
+        if (plazaSemester != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("semester"), plazaSemester));
         }
         if (credit != null) {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("credit"), credit));
         }
-
-        Page<Course> coursePage = courseRepository.findAll(spec, pageable);
-        List<Course> courses = coursePage.getContent();
-
-        // 收集所有教师ID
-        Set<UUID> teacherIds = courses.stream()
-                .map(Course::getTeacherId)
-                .collect(Collectors.toSet());
-
-        // 批量查询教师信息
-        Map<UUID, TeacherProfile> teacherProfileMap = teacherProfileRepository.findByUserIdIn(teacherIds)
-                .stream()
-                .collect(Collectors.toMap(TeacherProfile::getUserId, profile -> profile));
-
-        // 批量查询用户信息
-        Map<UUID, UserAccount> teacherAccountMap = userAccountRepository.findAllById(teacherIds)
-                .stream()
-                .collect(Collectors.toMap(UserAccount::getId, account -> account));
-
-        // 如果按部门筛选，需要过滤
-        if (department != null && !department.isBlank()) {
-            courses = courses.stream()
-                    .filter(course -> {
-                        TeacherProfile profile = teacherProfileMap.get(course.getTeacherId());
-                        return profile != null && profile.getDepartment() != null
-                                && profile.getDepartment().toLowerCase(Locale.ROOT)
-                                .contains(department.toLowerCase(Locale.ROOT));
-                    })
-                    .toList();
+        if (plazaDepartment != null) {
+            // 通过教师档案子查询筛选院系，保证分页和总数在数据库侧就是正确的
+            String departmentPattern = "%" + plazaDepartment + "%";
+            spec = spec.and((root, query, cb) -> {
+                Subquery<UUID> teacherIds = query.subquery(UUID.class);
+                Root<TeacherProfile> profile = teacherIds.from(TeacherProfile.class);
+                teacherIds.select(profile.get("userId"))
+                        .where(cb.like(cb.lower(profile.get("department")), departmentPattern));
+                return root.get("teacherId").in(teacherIds);
+            });
         }
 
-        // 获取当前学生的选课信息（如果已登录）
-        final Map<UUID, CourseSelection> studentSelections;
+        // 与用户无关的页面内容走共享缓存，学生的选课状态在每次请求时单独叠加
+        final Specification<Course> plazaSpec = spec;
+        String cacheKey = CoursePlazaCache.key(plazaKeyword, plazaSemester, credit, plazaDepartment,
+                sortLabel(plazaKeyword, sort, pageable), pageable.getPageNumber(), pageable.getPageSize(), cursor, withTotal);
+        CoursePlazaPage plazaPage = coursePlazaCache.getOrLoad(cacheKey,
+                () -> loadCoursePlazaPage(findCourses(plazaSpec, plazaKeyword, sort, pageable, cursor, withTotal)));
+
+        List<CoursePlazaResponse> responses = plazaPage.getItems();
         if (currentUser != null && currentUser.getRole() == fin.c3po.user.UserRole.STUDENT) {
-            List<CourseSelection> selections = courseSelectionRepository.findByStudentId(currentUser.getId());
-            studentSelections = selections.stream()
+            Map<UUID, CourseSelection> studentSelections = courseSelectionRepository.findByStudentId(currentUser.getId())
+                    .stream()
                     .collect(Collectors.toMap(CourseSelection::getCourseId, selection -> selection));
-        } else {
-            studentSelections = new HashMap<>();
-        }
-
-        // 转换为响应
-        final List<Course> finalCourses = courses;
-        List<CoursePlazaResponse> responses = finalCourses.stream()
-                .map(course -> toCoursePlazaResponse(course, teacherProfileMap, teacherAccountMap, 
-                        studentSelections, currentUser))
-                .toList();
-
-        // 如果按选课人数排序，需要在内存中排序
-        if (sort != null && sort.startsWith("enrolledCount")) {
-            boolean ascending = sort.contains(",asc");
             responses = responses.stream()
-                    .sorted((a, b) -> {
-                        int comparison = Integer.compare(a.getEnrolledCount(), b.getEnrolledCount());
-                        return ascending ? comparison : -comparison;
-                    })
+                    .map(item -> item.toBuilder()
+                            .enrollmentStatus(toEnrollmentStatus(item, studentSelections.get(item.getId())))
+                            .build())
                     .toList();
         }
 
         PageMeta meta = PageMeta.builder()
-                .page(pageable.getPageNumber() + 1)
+                .page(cursor == null ? pageable.getPageNumber() + 1 : null)
                 .pageSize(pageable.getPageSize())
-                .total(coursePage.getTotalElements())
-                .sort(pageable.getSort().stream()
-                        .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
-                        .collect(Collectors.joining(";")))
+                .total(plazaPage.getTotal())
+                .sort(sortLabel(plazaKeyword, sort, pageable))
+                .nextCursor(plazaPage.getNextCursor())
                 .build();
 
         return ApiResponse.success(responses, meta);
     }
 
+    /**
+     * 课程广场分面统计 - 返回各院系、学期、学分下的已发布课程数量
+     */
+    @GetMapping("/courses/plaza/facets")
+    public ApiResponse<CoursePlazaFacetsResponse> coursePlazaFacets(
+            @RequestParam(name = "keyword", required = false) String keyword,
+            @RequestParam(name = "semester", required = false) String semester,
+            @RequestParam(name = "credit", required = false) Integer credit,
+            @RequestParam(name = "department", required = false) String department) {
+        return ApiResponse.success(coursePlazaFacetService.facets(normalizeFilter(keyword, true),
+                normalizeFilter(semester, false), credit, normalizeFilter(department, true)));
+    }
+
+    /**
+     * 课程名输入联想 - 按前缀返回选课人数最多的已发布课程，由内存前缀树直接提供
+     */
+    @GetMapping("/courses/suggest")
+    public ApiResponse<List<CourseSuggestion>> suggestCourses(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ApiResponse.success(courseSuggestIndex.suggest(prefix, limit));
+    }
+
     @GetMapping("/courses/{courseId}")
     public ApiResponse<CourseResponse> getCourse(@PathVariable UUID courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
-        return ApiResponse.success(toCourseResponse(course));
+        return ApiResponse.success(toCourseResponse(course, courseMetricsLoader.load(course)));
     }
 
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
@@ -289,7 +311,9 @@ public class CourseController {
         course.setStatus(CourseStatus.DRAFT);
 
         Course saved = courseRepository.save(course);
-        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toCourseResponse(saved)));
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), CourseChangedEvent.Change.CREATED));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(
+                toCourseResponse(saved, courseMetricsLoader.load(saved))));
     }
 
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
@@ -319,9 +343,13 @@ public class CourseController {
         if (request.getEnrollLimit() != null) {
             course.setEnrollLimit(request.getEnrollLimit());
         }
+        if (request.getRushMode() != null) {
+            course.setRushMode(request.getRushMode());
+        }
 
         Course saved = courseRepository.save(course);
-        return ApiResponse.success(toCourseResponse(saved));
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), CourseChangedEvent.Change.UPDATED));
+        return ApiResponse.success(toCourseResponse(saved, courseMetricsLoader.load(saved)));
     }
 
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
@@ -340,6 +368,7 @@ public class CourseController {
 
         course.setStatus(CourseStatus.PENDING_REVIEW);
         courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.STATUS_CHANGED));
 
         ApprovalRequest approvalRequest = new ApprovalRequest();
         approvalRequest.setType(ApprovalType.COURSE_PUBLISH);
@@ -356,52 +385,69 @@ public class CourseController {
         return ApiResponse.success(response);
     }
 
+    /**
+     * 选课 - 抢课模式下立即返回 202 和排队凭证，结果通过凭证查询接口轮询；
+     * 课程已满时进入候补并返回 202，有空位后由后台自动递补
+     */
     @PreAuthorize("hasRole('STUDENT')")
     @PostMapping("/courses/{courseId}/enroll")
-    public ApiResponse<CourseEnrollmentResponse> enrollCourse(
+    public ResponseEntity<ApiResponse<CourseEnrollmentResponse>> enrollCourse(
             @PathVariable UUID courseId,
             @AuthenticationPrincipal UserAccount currentUser) {
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
-
-        if (course.getStatus() != CourseStatus.PUBLISHED) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Course is not open for enrollment");
+        if (rushModePolicy.isActive(courseId)) {
+            EnrollmentTicket ticket = enrollmentAdmissionQueue.submit(courseId, currentUser.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success(
+                    CourseEnrollmentResponse.builder()
+                            .courseId(courseId)
+                            .studentId(currentUser.getId())
+                            .ticketId(ticket.getId())
+                            .build()));
         }
 
-        UUID studentId = currentUser.getId();
-        CourseSelection selection = courseSelectionRepository.findByCourseIdAndStudentId(courseId, studentId)
-                .orElseGet(() -> {
-                    CourseSelection s = new CourseSelection();
-                    s.setCourseId(courseId);
-                    s.setStudentId(studentId);
-                    return s;
-                });
-
-        if (selection.getId() != null && selection.getStatus() == SelectionStatus.ENROLLED) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already enrolled");
-        }
-
-        if (course.getEnrollLimit() != null) {
-            long enrolledCount = courseSelectionRepository.countByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED);
-            boolean incrementsCapacity = selection.getId() == null || selection.getStatus() != SelectionStatus.ENROLLED;
-            if (incrementsCapacity && enrolledCount >= course.getEnrollLimit()) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT, "Course capacity reached");
-            }
-        }
-
-        selection.setStatus(SelectionStatus.ENROLLED);
-        selection.setSelectedAt(Instant.now());
-
-        CourseSelection saved = courseSelectionRepository.save(selection);
+        CourseSelection saved = courseEnrollmentService.enroll(courseId, currentUser.getId());
+        boolean waitlisted = saved.getStatus() == SelectionStatus.WAITLISTED;
         CourseEnrollmentResponse response = CourseEnrollmentResponse.builder()
                 .selectionId(saved.getId())
                 .courseId(saved.getCourseId())
                 .studentId(saved.getStudentId())
                 .status(saved.getStatus())
                 .selectedAt(saved.getSelectedAt())
+                .waitlistPosition(waitlisted ? courseEnrollmentService.waitlistPosition(saved) : null)
                 .build();
-        return ApiResponse.success(response);
+        return ResponseEntity.status(waitlisted ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                .body(ApiResponse.success(response));
+    }
+
+    /**
+     * 查询抢课排队凭证的处理结果
+     */
+    @PreAuthorize("hasAnyRole('STUDENT','ADMIN')")
+    @GetMapping("/courses/{courseId}/enroll/tickets/{ticketId}")
+    public ApiResponse<EnrollmentTicketResponse> enrollmentTicket(
+            @PathVariable UUID courseId,
+            @PathVariable UUID ticketId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        EnrollmentTicket ticket = enrollmentAdmissionQueue.find(ticketId)
+                .filter(t -> t.getCourseId().equals(courseId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment ticket not found"));
+        if (currentUser.getRole() != fin.c3po.user.UserRole.ADMIN
+                && !ticket.getStudentId().equals(currentUser.getId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view this enrollment ticket");
+        }
+
+        return ApiResponse.success(EnrollmentTicketResponse.builder()
+                .ticketId(ticket.getId())
+                .courseId(ticket.getCourseId())
+                .studentId(ticket.getStudentId())
+                .status(ticket.getStatus())
+                .position(enrollmentAdmissionQueue.position(ticket))
+                .selectionId(ticket.getSelectionId())
+                .reason(ticket.getReason())
+                .submittedAt(ticket.getSubmittedAt())
+                .processedAt(ticket.getProcessedAt())
+                .build());
     }
 
     @PreAuthorize("hasRole('STUDENT')")
@@ -410,16 +456,7 @@ public class CourseController {
             @PathVariable UUID courseId,
             @AuthenticationPrincipal UserAccount currentUser) {
 
-        CourseSelection selection = courseSelectionRepository.findByCourseIdAndStudentId(courseId, currentUser.getId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment not found"));
-
-        if (selection.getStatus() != SelectionStatus.ENROLLED) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Enrollment is not active");
-        }
-
-        selection.setStatus(SelectionStatus.DROPPED);
-        selection.setSelectedAt(Instant.now());
-        courseSelectionRepository.save(selection);
+        courseEnrollmentService.drop(courseId, currentUser.getId());
         return ResponseEntity.noContent().build();
     }
 
@@ -438,236 +475,99 @@ public class CourseController {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view courses");
         }
 
+        // 固定 4 条查询：选课记录、课程、各课程作业数、各作业最新提交，与所选课程数量无关
         List<CourseSelection> selections = courseSelectionRepository.findByStudentId(studentId);
+        if (selections.isEmpty()) {
+            return ApiResponse.success(List.of());
+        }
+        Set<UUID> courseIds = selections.stream()
+                .map(CourseSelection::getCourseId)
+                .collect(Collectors.toSet());
+        Map<UUID, Course> courses = courseRepository.findAllById(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, course -> course));
+        Map<UUID, Long> assignmentCounts = assignmentRepository.countGroupedByCourseIdIn(courseIds).stream()
+                .collect(Collectors.toMap(CourseCount::getCourseId, CourseCount::getTotal));
+        Map<UUID, Long> gradedCounts = latestSubmissionLoader.loadByCourses(courseIds, List.of(studentId)).stream()
+                .filter(submission -> submission.getStatus() == SubmissionStatus.GRADED)
+                .collect(Collectors.groupingBy(LatestSubmission::getCourseId, Collectors.counting()));
+
         List<StudentCourseResponse> responses = new ArrayList<>();
         for (CourseSelection selection : selections) {
-            courseRepository.findById(selection.getCourseId()).ifPresent(course -> {
-                List<Submission> submissions = selectionSubmissions(course.getId(), studentId);
-                List<Assignment> assignments = assignmentRepository.findByCourseId(course.getId());
-                int totalAssignments = assignments.size();
-                int completedAssignments = (int) assignments.stream()
-                        .filter(assignment -> submissions.stream()
-                                .anyMatch(submission -> submission.getAssignmentId().equals(assignment.getId())))
-                        .count();
-                int gradedAssignments = (int) submissions.stream()
-                        .filter(submission -> submission.getStatus() == SubmissionStatus.GRADED)
-                        .map(Submission::getAssignmentId)
-                        .distinct()
-                        .count();
-                int pendingAssignments = Math.max(totalAssignments - gradedAssignments, 0);
-
-                responses.add(StudentCourseResponse.builder()
-                        .courseId(course.getId())
-                        .name(course.getName())
-                        .status(course.getStatus())
-                        .selectionStatus(selection.getStatus())
-                        .selectedAt(selection.getSelectedAt())
-                        .pendingAssignments(pendingAssignments)
-                        .completedAssignments(gradedAssignments)
-                        .totalAssignments(totalAssignments)
-                        .build());
-            });
+            Course course = courses.get(selection.getCourseId());
+            if (course == null) {
+                continue;
+            }
+            int totalAssignments = assignmentCounts.getOrDefault(course.getId(), 0L).intValue();
+            int gradedAssignments = gradedCounts.getOrDefault(course.getId(), 0L).intValue();
+            int pendingAssignments = Math.max(totalAssignments - gradedAssignments, 0);
+
+            responses.add(StudentCourseResponse.builder()
+                    .courseId(course.getId())
+                    .name(course.getName())
+                    .status(course.getStatus())
+                    .selectionStatus(selection.getStatus())
+                    .selectedAt(selection.getSelectedAt())
+                    .pendingAssignments(pendingAssignments)
+                    .completedAssignments(gradedAssignments)
+                    .totalAssignments(totalAssignments)
+                    .build());
         }
         return ApiResponse.success(responses);
     }
 
     @GetMapping("/courses/{courseId}/analytics/overview")
     public ApiResponse<CourseAnalyticsResponse> courseAnalytics(@PathVariable UUID courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
-
-        List<CourseSelection> enrolledSelections = courseSelectionRepository.findByCourseIdAndStatus(courseId,
-                SelectionStatus.ENROLLED);
-        List<UUID> enrolledStudents = enrolledSelections.stream()
-                .map(CourseSelection::getStudentId)
-                .toList();
-
-        List<Assignment> assignments = assignmentRepository.findByCourseId(courseId);
-        int totalAssignments = assignments.size();
-        int enrolledCount = enrolledStudents.size();
-
-        if (enrolledStudents.isEmpty() || assignments.isEmpty()) {
-            CourseAnalyticsResponse response = CourseAnalyticsResponse.builder()
-                    .completionRate(0.0)
-                    .averageScore(null)
-                    .medianScore(null)
-                    .enrolledStudents(enrolledCount)
-                    .totalAssignments(totalAssignments)
-                    .gradedSubmissions(0)
-                    .pendingSubmissions(0)
-                    .overdueStudents(List.of())
-                    .difficultAssignments(List.of())
-                    .atRiskStudents(List.of())
-                    .insights(assignments.isEmpty()
-                            ? List.of("当前课程尚未创建任何作业，暂无可计算的学习分析指标。")
-                            : List.of("暂无选课学生，暂不生成学习分析结果。"))
-                    .build();
-            return ApiResponse.success(response);
-        }
-
-        Instant now = Instant.now();
-        int gradedSubmissions = 0;
-        int pendingSubmissions = 0;
-        List<Double> allScores = new ArrayList<>();
-        List<String> difficultAssignments = new ArrayList<>();
-        List<String> insights = new ArrayList<>();
-        Set<UUID> overdueStudents = new LinkedHashSet<>();
-        Map<UUID, DoubleSummaryStatistics> scoreStatsByStudent = new HashMap<>();
-        Map<UUID, Integer> missingAssignmentsByStudent = new HashMap<>();
-
-        for (Assignment assignment : assignments) {
-            List<Submission> assignmentSubmissions = submissionRepository.findByAssignmentId(assignment.getId());
-            Map<UUID, Submission> latestByStudent = new HashMap<>();
-            for (Submission submission : assignmentSubmissions) {
-                Submission current = latestByStudent.get(submission.getStudentId());
-                if (current == null || isLater(submission, current)) {
-                    latestByStudent.put(submission.getStudentId(), submission);
-                }
-            }
-
-            double assignmentScoreTotal = 0;
-            int assignmentScoreCount = 0;
-
-            for (UUID studentId : enrolledStudents) {
-                Submission submission = latestByStudent.get(studentId);
-                DoubleSummaryStatistics studentStats = scoreStatsByStudent
-                        .computeIfAbsent(studentId, key -> new DoubleSummaryStatistics());
-
-                if (submission != null) {
-                    if (submission.getStatus() == SubmissionStatus.GRADED) {
-                        gradedSubmissions++;
-                    } else {
-                        pendingSubmissions++;
-                    }
-                    Integer score = submission.getScore();
-                    if (score != null) {
-                        studentStats.accept(score);
-                        assignmentScoreTotal += score;
-                        assignmentScoreCount++;
-                        allScores.add(score.doubleValue());
-                    }
-
-                    Instant deadline = assignment.getDeadline();
-                    if (deadline != null) {
-                        Instant submittedAt = submission.getSubmittedAt();
-                        if (submittedAt == null || submittedAt.isAfter(deadline)) {
-                            overdueStudents.add(studentId);
-                        }
-                    }
-                } else {
-                    missingAssignmentsByStudent.merge(studentId, 1, Integer::sum);
-                    Instant deadline = assignment.getDeadline();
-                    if (deadline != null && deadline.isBefore(now)) {
-                        overdueStudents.add(studentId);
-                        pendingSubmissions++;
-                    }
-                }
-            }
-
-            if (assignmentScoreCount > 0) {
-                double average = assignmentScoreTotal / assignmentScoreCount;
-                if (average < 60) {
-                    difficultAssignments.add(assignment.getTitle() != null
-                            ? assignment.getTitle()
-                            : "Assignment-" + assignment.getId());
-                }
-            } else if (assignment.getDeadline() != null && assignment.getDeadline().isBefore(now)) {
-                difficultAssignments.add(assignment.getTitle() != null
-                        ? assignment.getTitle()
-                        : "Assignment-" + assignment.getId());
-            }
-        }
-
-        Set<UUID> atRiskStudents = new LinkedHashSet<>();
-        for (UUID studentId : enrolledStudents) {
-            DoubleSummaryStatistics stats = scoreStatsByStudent.get(studentId);
-            double average = stats != null && stats.getCount() > 0 ? stats.getAverage() : 0;
-            int missing = missingAssignmentsByStudent.getOrDefault(studentId, 0);
-            if (average < 60 || missing > Math.max(1, totalAssignments / 3)) {
-                atRiskStudents.add(studentId);
-            }
-        }
-
-        double completionRate = enrolledCount == 0 || totalAssignments == 0
-                ? 0.0
-                : round(gradedSubmissions / (double) (enrolledCount * totalAssignments));
+        return ApiResponse.success(courseAnalyticsCache.get(courseId, "overview",
+                () -> courseAnalyticsEngine.analyze(courseId)));
+    }
 
-        if (!allScores.isEmpty()) {
-            double avg = allScores.stream().mapToDouble(Double::doubleValue).average().orElse(0);
-            if (avg >= 90) {
-                insights.add("整体得分表现优异，建议进一步挖掘拔尖内容。");
-            } else if (avg < 65) {
-                insights.add("整体得分偏低，可适当安排跟进辅导。");
+    /**
+     * 关键字查询：sort=relevance 时走全文检索索引并按相关度排序，否则按名称模糊匹配并由数据库排序
+     * 传入 cursor（第一页传空字符串）时使用游标分页，只有 withTotal=true 才额外统计总数
+     */
+    private KeysetSlice<Course> findCourses(Specification<Course> spec, String keyword, String sort,
+                                            Pageable pageable, String cursor, boolean withTotal) {
+        boolean hasKeyword = keyword != null && !keyword.isBlank();
+        if (hasKeyword && isRelevanceSort(sort)) {
+            if (cursor != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Cursor pagination is not supported for relevance sort");
             }
+            Page<Course> ranked = courseSearchService.search(keyword, spec, pageable);
+            return new KeysetSlice<>(ranked.getContent(), null, ranked.getTotalElements());
         }
-
-        if (!overdueStudents.isEmpty()) {
-            insights.add("存在 " + overdueStudents.size() + " 名学生存在逾期或延迟提交，建议发送提醒。");
-        }
-        if (!difficultAssignments.isEmpty()) {
-            insights.add("建议复盘以下难度较高的作业：" + String.join("、", difficultAssignments));
+        if (hasKeyword) {
+            String pattern = "%" + keyword.toLowerCase(Locale.ROOT) + "%";
+            spec = spec.and((root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern));
         }
-        if (!atRiskStudents.isEmpty()) {
-            insights.add("共 " + atRiskStudents.size() + " 名学生处于学业风险区间。");
+        if (cursor != null) {
+            return KeysetPagination.fetch(courseRepository, spec, pageable.getSort(), KEYSET_SORT_PROPERTIES,
+                    cursor, pageable.getPageSize(), withTotal);
         }
-
-        CourseAnalyticsResponse response = CourseAnalyticsResponse.builder()
-                .completionRate(completionRate)
-                .averageScore(allScores.isEmpty() ? null
-                        : round(allScores.stream().mapToDouble(Double::doubleValue).average().orElse(0)))
-                .medianScore(allScores.isEmpty() ? null : computeMedian(allScores))
-                .enrolledStudents(enrolledCount)
-                .totalAssignments(totalAssignments)
-                .gradedSubmissions(gradedSubmissions)
-                .pendingSubmissions(pendingSubmissions)
-                .overdueStudents(overdueStudents.stream().map(UUID::toString).toList())
-                .difficultAssignments(difficultAssignments)
-                .atRiskStudents(atRiskStudents.stream().map(UUID::toString).toList())
-                .insights(insights)
-                .build();
-        return ApiResponse.success(response);
+        Page<Course> coursePage = courseRepository.findAll(spec, pageable);
+        return new KeysetSlice<>(coursePage.getContent(), null, coursePage.getTotalElements());
     }
 
-    private boolean isLater(Submission candidate, Submission current) {
-        Instant candidateTs = resolveSubmissionTimestamp(candidate);
-        Instant currentTs = resolveSubmissionTimestamp(current);
-        if (candidateTs == null) {
-            return false;
-        }
-        if (currentTs == null) {
-            return true;
+    /**
+     * 去掉首尾空白，空白值视为未筛选；关键字和院系按不区分大小写匹配，因此统一转成小写
+     */
+    private static String normalizeFilter(String value, boolean caseInsensitive) {
+        if (value == null || value.isBlank()) {
+            return null;
         }
-        return candidateTs.isAfter(currentTs);
+        String trimmed = value.trim();
+        return caseInsensitive ? trimmed.toLowerCase(Locale.ROOT) : trimmed;
     }
 
-    private Instant resolveSubmissionTimestamp(Submission submission) {
-        if (submission.getSubmittedAt() != null) {
-            return submission.getSubmittedAt();
-        }
-        if (submission.getUpdatedAt() != null) {
-            return submission.getUpdatedAt();
-        }
-        return submission.getCreatedAt();
+    private boolean isRelevanceSort(String sort) {
+        return sort != null && sort.trim().toLowerCase(Locale.ROOT).startsWith(RELEVANCE_SORT);
     }
 
-    private Double computeMedian(List<Double> values) {
-        if (values.isEmpty()) {
-            return null;
-        }
-        List<Double> sorted = values.stream()
-                .sorted()
-                .toList();
-        int size = sorted.size();
-        if (size % 2 == 1) {
-            return round(sorted.get(size / 2));
+    private String sortLabel(String keyword, String sort, Pageable pageable) {
+        if (keyword != null && !keyword.isBlank() && isRelevanceSort(sort)) {
+            return RELEVANCE_SORT;
         }
-        double left = sorted.get(size / 2 - 1);
-        double right = sorted.get(size / 2);
-        return round((left + right) / 2.0);
-    }
-
-    private double round(double value) {
-        return Math.round(value * 100.0) / 100.0;
+        return formatSort(pageable.getSort());
     }
 
     private Pageable buildPageable(int page, int pageSize, String sort) {
@@ -677,6 +577,12 @@ public class CourseController {
         return PageRequest.of(sanitizedPage, sanitizedSize, sortObj);
     }
 
+    private String formatSort(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(";"));
+    }
+
     private Sort parseSort(String sort) {
         if (sort == null || sort.isBlank()) {
             return Sort.by(Sort.Direction.DESC, "createdAt");
@@ -687,21 +593,21 @@ public class CourseController {
         if (parts.length > 1) {
             direction = "asc".equalsIgnoreCase(parts[1]) ? Sort.Direction.ASC : Sort.Direction.DESC;
         }
-        
-        // 对于enrolledCount排序，需要在内存中排序，因为这是计算字段
-        // 这里先返回默认排序，后续在coursePlaza方法中处理
+
+        // 没有关键字时相关度排序无意义，退化为按创建时间排序
+        if (RELEVANCE_SORT.equalsIgnoreCase(property.trim())) {
+            return Sort.by(Sort.Direction.DESC, "createdAt");
+        }
+
+        // 选课人数为冗余计数列，可直接在数据库中排序；以创建时间作为次级排序保证分页稳定
         if ("enrolledCount".equals(property)) {
-            return Sort.by(Sort.Direction.DESC, "createdAt"); // 临时排序，后续会重新排序
+            return Sort.by(direction, "enrolledCount").and(Sort.by(Sort.Direction.DESC, "createdAt"));
         }
-        
+
         return Sort.by(direction, property);
     }
 
-    private CourseResponse toCourseResponse(Course course) {
-        long enrolled = courseSelectionRepository.countByCourseIdAndStatus(course.getId(), SelectionStatus.ENROLLED);
-        long assignments = assignmentRepository.countByCourseId(course.getId());
-        long modules = courseModuleRepository.countByCourseId(course.getId());
-
+    private CourseResponse toCourseResponse(Course course, CourseResponse.CourseSummaryMetrics metrics) {
         return CourseResponse.builder()
                 .id(course.getId())
                 .name(course.getName())
@@ -709,26 +615,52 @@ public class CourseController {
                 .credit(course.getCredit())
                 .status(course.getStatus())
                 .enrollLimit(course.getEnrollLimit())
+                .rushMode(course.isRushMode())
                 .teacherId(course.getTeacherId())
                 .createdAt(course.getCreatedAt())
                 .updatedAt(course.getUpdatedAt())
-                .metrics(CourseResponse.CourseSummaryMetrics.builder()
-                        .enrolledCount((int) Math.min(enrolled, Integer.MAX_VALUE))
-                        .assignments((int) Math.min(assignments, Integer.MAX_VALUE))
-                        .modules((int) Math.min(modules, Integer.MAX_VALUE))
-                        .build())
+                .metrics(metrics)
                 .build();
     }
 
-    private CoursePlazaResponse toCoursePlazaResponse(Course course, 
-                                                      Map<UUID, TeacherProfile> teacherProfileMap,
-                                                      Map<UUID, UserAccount> teacherAccountMap,
-                                                      Map<UUID, CourseSelection> studentSelections,
-                                                      UserAccount currentUser) {
-        long enrolledCount = courseSelectionRepository.countByCourseIdAndStatus(course.getId(), SelectionStatus.ENROLLED);
-        long assignments = assignmentRepository.countByCourseId(course.getId());
-        long modules = courseModuleRepository.countByCourseId(course.getId());
+    private CoursePlazaPage loadCoursePlazaPage(KeysetSlice<Course> coursePage) {
+        List<Course> courses = coursePage.getContent();
+
+        // 收集所有教师ID
+        Set<UUID> teacherIds = courses.stream()
+                .map(Course::getTeacherId)
+                .collect(Collectors.toSet());
+
+        // 批量查询教师信息
+        Map<UUID, TeacherProfile> teacherProfileMap = teacherProfileRepository.findByUserIdIn(teacherIds)
+                .stream()
+                .collect(Collectors.toMap(TeacherProfile::getUserId, profile -> profile));
+
+        // 批量查询用户信息
+        Map<UUID, UserAccount> teacherAccountMap = userAccountRepository.findAllById(teacherIds)
+                .stream()
+                .collect(Collectors.toMap(UserAccount::getId, account -> account));
+
+        // 批量加载选课人数、作业数、章节数
+        Map<UUID, CourseResponse.CourseSummaryMetrics> metrics = courseMetricsLoader.load(courses);
 
+        // 转换为响应（选课人数排序已在数据库中完成）
+        List<CoursePlazaResponse> items = courses.stream()
+                .map(course -> toCoursePlazaResponse(course, metrics.get(course.getId()), teacherProfileMap,
+                        teacherAccountMap))
+                .toList();
+
+        return CoursePlazaPage.builder()
+                .items(items)
+                .total(coursePage.getTotal())
+                .nextCursor(coursePage.getNextCursor())
+                .build();
+    }
+
+    private CoursePlazaResponse toCoursePlazaResponse(Course course,
+                                                      CourseResponse.CourseSummaryMetrics metrics,
+                                                      Map<UUID, TeacherProfile> teacherProfileMap,
+                                                      Map<UUID, UserAccount> teacherAccountMap) {
         // 构建教师信息
         CoursePlazaResponse.TeacherInfo teacherInfo = null;
         UserAccount teacherAccount = teacherAccountMap.get(course.getTeacherId());
@@ -742,33 +674,6 @@ public class CourseController {
                     .build();
         }
 
-        // 构建选课状态（仅当学生已登录时）
-        CoursePlazaResponse.EnrollmentStatus enrollmentStatus = null;
-        if (currentUser != null && currentUser.getRole() == fin.c3po.user.UserRole.STUDENT) {
-            CourseSelection selection = studentSelections.get(course.getId());
-            boolean enrolled = selection != null && selection.getStatus() == SelectionStatus.ENROLLED;
-            boolean canEnroll = !enrolled && course.getStatus() == CourseStatus.PUBLISHED;
-            String reason = null;
-            
-            if (!canEnroll && !enrolled) {
-                if (course.getStatus() != CourseStatus.PUBLISHED) {
-                    reason = "课程未开放选课";
-                } else if (course.getEnrollLimit() != null) {
-                    long currentEnrolledCount = courseSelectionRepository.countByCourseIdAndStatus(
-                            course.getId(), SelectionStatus.ENROLLED);
-                    if (currentEnrolledCount >= course.getEnrollLimit()) {
-                        reason = "课程名额已满";
-                    }
-                }
-            }
-            
-            enrollmentStatus = CoursePlazaResponse.EnrollmentStatus.builder()
-                    .enrolled(enrolled)
-                    .canEnroll(canEnroll && reason == null)
-                    .reason(reason)
-                    .build();
-        }
-
         return CoursePlazaResponse.builder()
                 .id(course.getId())
                 .name(course.getName())
@@ -776,22 +681,42 @@ public class CourseController {
                 .credit(course.getCredit())
                 .status(course.getStatus())
                 .enrollLimit(course.getEnrollLimit())
-                .enrolledCount((int) Math.min(enrolledCount, Integer.MAX_VALUE))
-                .assignments((int) Math.min(assignments, Integer.MAX_VALUE))
-                .modules((int) Math.min(modules, Integer.MAX_VALUE))
+                .enrolledCount(metrics.getEnrolledCount())
+                .assignments(metrics.getAssignments())
+                .modules(metrics.getModules())
                 .teacher(teacherInfo)
-                .enrollmentStatus(enrollmentStatus)
                 .createdAt(course.getCreatedAt())
                 .updatedAt(course.getUpdatedAt())
                 .build();
     }
 
-    private List<Submission> selectionSubmissions(UUID courseId, UUID studentId) {
-        return assignmentRepository.findByCourseId(courseId).stream()
-                .map(assignment -> submissionRepository
-                        .findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(assignment.getId(), studentId))
-                .flatMap(Optional::stream)
-                .toList();
+    /**
+     * 构建当前学生对某门课程的选课状态，只依赖缓存页中的课程字段和学生自己的选课记录
+     */
+    private CoursePlazaResponse.EnrollmentStatus toEnrollmentStatus(CoursePlazaResponse item,
+                                                                     CourseSelection selection) {
+        boolean enrolled = selection != null && selection.getStatus() == SelectionStatus.ENROLLED;
+        boolean waitlisted = selection != null && selection.getStatus() == SelectionStatus.WAITLISTED;
+        boolean canEnroll = !enrolled && !waitlisted && item.getStatus() == CourseStatus.PUBLISHED;
+        String reason = null;
+
+        if (waitlisted) {
+            reason = "已在候补名单中";
+        } else if (!canEnroll && !enrolled) {
+            if (item.getStatus() != CourseStatus.PUBLISHED) {
+                reason = "课程未开放选课";
+            } else if (item.getEnrollLimit() != null) {
+                if (item.getEnrolledCount() >= item.getEnrollLimit()) {
+                    reason = "课程名额已满";
+                }
+            }
+        }
+
+        return CoursePlazaResponse.EnrollmentStatus.builder()
+                .enrolled(enrolled)
+                .canEnroll(canEnroll && reason == null)
+                .reason(reason)
+                .build();
     }
 
     private String toJson(Object payload) {
@@ -10,6 +10,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -68,6 +69,20 @@ public class NotificationService {
         log.info("Created notification {} for student {}", notification.getId(), studentId);
     }
 
+    /**
+     * 一次性通知一批学生，只生成一条通知
+     */
+    @Transactional
+    public void notifyStudents(Collection<UUID> studentIds, String targetType, String title, String content) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        List<NotificationChannel> channels = List.of(NotificationChannel.INBOX);
+        Notification notification = createAndSendNotification(targetType, title, content, channels);
+
+        log.info("Created notification {} for {} students", notification.getId(), studentIds.size());
+    }
+
     /**
      * 通知教师
      */
@@ -1,6 +1,8 @@
 package fin.c3po.notify.web;
 
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.KeysetPagination;
+import fin.c3po.common.web.KeysetSlice;
 import fin.c3po.common.web.PageMeta;
 import fin.c3po.notify.Notification;
 import fin.c3po.notify.NotificationRepository;
@@ -29,6 +31,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -37,6 +40,7 @@ import java.util.Locale;
 public class NotificationController {
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> KEYSET_SORT_PROPERTIES = Set.of("createdAt");
     private final NotificationRepository notificationRepository;
 
     @Transactional(readOnly = true)
@@ -45,7 +49,9 @@ public class NotificationController {
             @RequestParam(name = "page", defaultValue = "1") int page,
             @RequestParam(name = "pageSize", defaultValue = "20") int pageSize,
             @RequestParam(name = "targetType", required = false) String targetType,
-            @RequestParam(name = "status", required = false) NotificationStatus status) {
+            @RequestParam(name = "status", required = false) NotificationStatus status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
 
         Pageable pageable = PageRequest.of(Math.max(page, 1) - 1,
                 Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE)),
@@ -59,7 +65,14 @@ public class NotificationController {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), status));
         }
 
-        Page<Notification> pageResult = notificationRepository.findAll(spec, pageable);
+        KeysetSlice<Notification> pageResult;
+        if (cursor != null) {
+            pageResult = KeysetPagination.fetch(notificationRepository, spec, pageable.getSort(),
+                    KEYSET_SORT_PROPERTIES, cursor, pageable.getPageSize(), withTotal);
+        } else {
+            Page<Notification> offsetPage = notificationRepository.findAll(spec, pageable);
+            pageResult = new KeysetSlice<>(offsetPage.getContent(), null, offsetPage.getTotalElements());
+        }
         List<Notification> notifications = pageResult.getContent();
         // 在事务内触发懒加载集合的加载，确保在 Session 关闭前加载
         notifications.forEach(n -> {
@@ -71,10 +84,11 @@ public class NotificationController {
                 .toList();
 
         PageMeta meta = PageMeta.builder()
-                .page(pageResult.getNumber() + 1)
-                .pageSize(pageResult.getSize())
-                .total(pageResult.getTotalElements())
+                .page(cursor == null ? pageable.getPageNumber() + 1 : null)
+                .pageSize(pageable.getPageSize())
+                .total(pageResult.getTotal())
                 .sort("createdAt,desc")
+                .nextCursor(pageResult.getNextCursor())
                 .build();
         return ApiResponse.success(data, meta);
     }
@@ -7,8 +7,8 @@ import fin.c3po.course.CourseRepository;
 import fin.c3po.profile.dto.ProfileResponse;
 import fin.c3po.profile.dto.ProfileStatsResponse;
 import fin.c3po.profile.dto.UpdateProfileRequest;
-import fin.c3po.score.Score;
-import fin.c3po.score.ScoreRepository;
+import fin.c3po.score.StudentAcademicSummary;
+import fin.c3po.score.StudentAcademicSummaryEngine;
 import fin.c3po.selection.CourseSelection;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
@@ -39,7 +39,7 @@ public class ProfileService {
     private final TeacherProfileRepository teacherProfileRepository;
     private final CourseSelectionRepository courseSelectionRepository;
     private final SubmissionRepository submissionRepository;
-    private final ScoreRepository scoreRepository;
+    private final StudentAcademicSummaryEngine academicSummaryEngine;
     private final CourseRepository courseRepository;
     private final AssignmentRepository assignmentRepository;
 
@@ -97,84 +97,17 @@ public class ProfileService {
         return ProfileStatsResponse.builder().build();
     }
 
+    /**
+     * 学生统计读取物化的学业汇总，平均分与绩点的口径与成绩页一致
+     */
     private ProfileStatsResponse getStudentStats(UUID studentId) {
-        // 已选课程数
-        List<CourseSelection> enrolledSelections = courseSelectionRepository.findByStudentId(studentId)
-                .stream()
-                .filter(selection -> selection.getStatus() == SelectionStatus.ENROLLED)
-                .toList();
-        int enrolledCoursesCount = enrolledSelections.size();
-
-        // 获取所有已选课程的ID
-        Set<UUID> enrolledCourseIds = enrolledSelections.stream()
-                .map(CourseSelection::getCourseId)
-                .collect(Collectors.toSet());
-
-        // 获取所有已选课程的作业
-        List<Assignment> allAssignments = enrolledCourseIds.stream()
-                .flatMap(courseId -> assignmentRepository.findByCourseId(courseId).stream())
-                .toList();
-
-        // 获取学生的所有提交
-        List<Submission> allSubmissions = submissionRepository.findByStudentId(studentId);
-
-        // 已完成作业数（已提交或已批改）
-        int completedAssignmentsCount = (int) allAssignments.stream()
-                .filter(assignment -> allSubmissions.stream()
-                        .anyMatch(submission -> submission.getAssignmentId().equals(assignment.getId())
-                                && (submission.getStatus() == SubmissionStatus.SUBMITTED
-                                        || submission.getStatus() == SubmissionStatus.GRADED)))
-                .count();
-
-        // 待完成作业数（未提交的作业）
-        int pendingAssignmentsCount = (int) allAssignments.stream()
-                .filter(assignment -> allSubmissions.stream()
-                        .noneMatch(submission -> submission.getAssignmentId().equals(assignment.getId())
-                                && (submission.getStatus() == SubmissionStatus.SUBMITTED
-                                        || submission.getStatus() == SubmissionStatus.GRADED)))
-                .count();
-
-        // 平均成绩（从Score表或Submission表计算）
-        List<Score> scores = scoreRepository.findByStudentId(studentId);
-        double averageScore = 0.0;
-        if (!scores.isEmpty()) {
-            averageScore = scores.stream()
-                    .mapToInt(Score::getValue)
-                    .average()
-                    .orElse(0.0);
-        } else {
-            // 如果没有Score记录，从已批改的Submission计算
-            List<Submission> gradedSubmissions = allSubmissions.stream()
-                    .filter(s -> s.getStatus() == SubmissionStatus.GRADED && s.getScore() != null)
-                    .toList();
-            if (!gradedSubmissions.isEmpty()) {
-                averageScore = gradedSubmissions.stream()
-                        .mapToInt(Submission::getScore)
-                        .average()
-                        .orElse(0.0);
-            }
-        }
-
-        // GPA计算（简化版：90-100=4.0, 80-89=3.0, 70-79=2.0, 60-69=1.0, <60=0.0）
-        double gpa = 0.0;
-        if (averageScore > 0) {
-            if (averageScore >= 90) {
-                gpa = 4.0;
-            } else if (averageScore >= 80) {
-                gpa = 3.0;
-            } else if (averageScore >= 70) {
-                gpa = 2.0;
-            } else if (averageScore >= 60) {
-                gpa = 1.0;
-            }
-        }
-
+        StudentAcademicSummary summary = academicSummaryEngine.summary(studentId);
         return ProfileStatsResponse.builder()
-                .enrolledCoursesCount(enrolledCoursesCount)
-                .completedAssignmentsCount(completedAssignmentsCount)
-                .pendingAssignmentsCount(pendingAssignmentsCount)
-                .averageScore(Math.round(averageScore * 100.0) / 100.0)
-                .gpa(Math.round(gpa * 100.0) / 100.0)
+                .enrolledCoursesCount(summary.getEnrolledCourses())
+                .completedAssignmentsCount(summary.getEnrolledCompletedAssignments())
+                .pendingAssignmentsCount(summary.getEnrolledAssignments() - summary.getEnrolledCompletedAssignments())
+                .averageScore(summary.getAverageScore() != null ? summary.getAverageScore() : 0.0)
+                .gpa(summary.getGpa() != null ? summary.getGpa() : 0.0)
                 .build();
     }
 
@@ -0,0 +1,36 @@
+package fin.c3po.score;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 课程某一成绩组成项的分数分布，发布成绩时差量维护；跨课程汇总时直接合并直方图
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "course_score_histograms", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_score_histograms_course_component", columnNames = {"course_id", "component"})
+})
+public class ComponentScoreHistogram extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false, length = 64)
+    private String component;
+
+    @Convert(converter = ScoreHistogramConverter.class)
+    @Column(length = 2048)
+    private ScoreHistogram histogram = new ScoreHistogram();
+}
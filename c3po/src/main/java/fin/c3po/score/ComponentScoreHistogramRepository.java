@@ -0,0 +1,22 @@
+package fin.c3po.score;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ComponentScoreHistogramRepository extends JpaRepository<ComponentScoreHistogram, UUID> {
+
+    List<ComponentScoreHistogram> findByCourseIdIn(Collection<UUID> courseIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ComponentScoreHistogram h WHERE h.courseId = :courseId AND h.component = :component")
+    Optional<ComponentScoreHistogram> findForUpdate(@Param("courseId") UUID courseId,
+                                                    @Param("component") String component);
+}
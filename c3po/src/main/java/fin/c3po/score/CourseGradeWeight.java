@@ -0,0 +1,34 @@
+package fin.c3po.score;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 课程成绩组成项的权重；权重是相对值，总评时按已配置权重之和归一化
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "course_grade_weights", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_grade_weights_course_component", columnNames = {"course_id", "component"})
+})
+public class CourseGradeWeight extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false, length = 64)
+    private String component;
+
+    @Column(nullable = false)
+    private double weight;
+}
@@ -0,0 +1,17 @@
+package fin.c3po.score;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseGradeWeightRepository extends JpaRepository<CourseGradeWeight, UUID> {
+    List<CourseGradeWeight> findByCourseIdOrderByComponentAsc(UUID courseId);
+
+    @Modifying
+    @Query("DELETE FROM CourseGradeWeight w WHERE w.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
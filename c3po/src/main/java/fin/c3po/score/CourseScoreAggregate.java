@@ -0,0 +1,36 @@
+package fin.c3po.score;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 课程成绩（可按组成项、学生筛选）的数据库端聚合结果，大小与成绩行数无关
+ */
+@Value
+@Builder
+public class CourseScoreAggregate {
+    ScoreHistogram histogram;
+    /** 按组成项名称排序 */
+    Map<String, Double> componentAverages;
+    int studentCount;
+    /** 平均分最高的学生，从高到低 */
+    List<UUID> topPerformers;
+    /** 平均分低于 60 的学生，从低到高，条数有上限 */
+    List<UUID> needsAttention;
+    int needsAttentionCount;
+
+    public static CourseScoreAggregate empty() {
+        return CourseScoreAggregate.builder()
+                .histogram(new ScoreHistogram())
+                .componentAverages(Map.of())
+                .studentCount(0)
+                .topPerformers(List.of())
+                .needsAttention(List.of())
+                .needsAttentionCount(0)
+                .build();
+    }
+}
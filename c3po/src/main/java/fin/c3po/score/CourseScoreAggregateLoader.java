@@ -0,0 +1,133 @@
+package fin.c3po.score;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 课程成绩列表的统计部分，全部在数据库端分组聚合
+ * 筛选条件都落在 (course_id, component, student_id) 组合索引上；返回的行数只与分值取值、组成项数和名单上限有关
+ */
+@Component
+public class CourseScoreAggregateLoader {
+
+    private static final String COMPONENTS_SQL = """
+            SELECT DISTINCT component FROM scores WHERE course_id = :courseId
+            """;
+
+    private static final String HISTOGRAM_SQL = """
+            SELECT "value" AS score, COUNT(*) AS total FROM scores %s GROUP BY "value"
+            """;
+
+    private static final String COMPONENT_AVERAGES_SQL = """
+            SELECT component, AVG(CAST("value" AS DOUBLE PRECISION)) AS average
+            FROM scores %s
+            GROUP BY component
+            ORDER BY component
+            """;
+
+    private static final String STUDENT_COUNTS_SQL = """
+            SELECT COUNT(*) AS students, COALESCE(SUM(CASE WHEN average < 60 THEN 1 ELSE 0 END), 0) AS low
+            FROM (
+                SELECT student_id, AVG(CAST("value" AS DOUBLE PRECISION)) AS average
+                FROM scores %s
+                GROUP BY student_id
+            ) per_student
+            """;
+
+    private static final String TOP_PERFORMERS_SQL = """
+            SELECT student_id, AVG(CAST("value" AS DOUBLE PRECISION)) AS average
+            FROM scores %s
+            GROUP BY student_id
+            ORDER BY average DESC, student_id
+            LIMIT :topLimit
+            """;
+
+    private static final String NEEDS_ATTENTION_SQL = """
+            SELECT student_id, AVG(CAST("value" AS DOUBLE PRECISION)) AS average
+            FROM scores %s
+            GROUP BY student_id
+            HAVING AVG(CAST("value" AS DOUBLE PRECISION)) < 60
+            ORDER BY average, student_id
+            LIMIT :lowLimit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CourseScoreAggregateLoader(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * 课程中与给定名称（不区分大小写）匹配的组成项，用于把筛选条件转换为索引上的等值匹配
+     */
+    @Transactional(readOnly = true)
+    public List<String> matchingComponents(UUID courseId, String component) {
+        String expected = component.toLowerCase(Locale.ROOT);
+        return jdbcTemplate.queryForList(COMPONENTS_SQL, new MapSqlParameterSource("courseId", courseId), String.class)
+                .stream()
+                .filter(name -> name != null && name.toLowerCase(Locale.ROOT).equals(expected))
+                .toList();
+    }
+
+    /**
+     * @param components 只统计这些组成项，为 null 时不限
+     * @param studentId  只统计该学生，为 null 时不限
+     * @param topLimit   topPerformers 的最大条数
+     * @param lowLimit   needsAttention 的最大条数
+     */
+    @Transactional(readOnly = true)
+    public CourseScoreAggregate load(UUID courseId, Collection<String> components, UUID studentId,
+                                     int topLimit, int lowLimit) {
+        if (components != null && components.isEmpty()) {
+            return CourseScoreAggregate.empty();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("topLimit", topLimit)
+                .addValue("lowLimit", lowLimit);
+        StringBuilder where = new StringBuilder("WHERE course_id = :courseId AND \"value\" IS NOT NULL");
+        if (components != null) {
+            where.append(" AND component IN (:components)");
+            params.addValue("components", components);
+        }
+        if (studentId != null) {
+            where.append(" AND student_id = :studentId");
+            params.addValue("studentId", studentId);
+        }
+        String filter = where.toString();
+
+        ScoreHistogram histogram = new ScoreHistogram();
+        jdbcTemplate.query(HISTOGRAM_SQL.formatted(filter), params, rs -> {
+            histogram.add(rs.getInt("score"), rs.getLong("total"));
+        });
+        Map<String, Double> componentAverages = new LinkedHashMap<>();
+        jdbcTemplate.query(COMPONENT_AVERAGES_SQL.formatted(filter), params, rs -> {
+            componentAverages.put(rs.getString("component"), rs.getDouble("average"));
+        });
+        int[] counts = jdbcTemplate.queryForObject(STUDENT_COUNTS_SQL.formatted(filter), params,
+                (rs, rowNum) -> new int[]{rs.getInt("students"), rs.getInt("low")});
+        List<UUID> topPerformers = jdbcTemplate.query(TOP_PERFORMERS_SQL.formatted(filter), params,
+                (rs, rowNum) -> rs.getObject("student_id", UUID.class));
+        List<UUID> needsAttention = jdbcTemplate.query(NEEDS_ATTENTION_SQL.formatted(filter), params,
+                (rs, rowNum) -> rs.getObject("student_id", UUID.class));
+
+        return CourseScoreAggregate.builder()
+                .histogram(histogram)
+                .componentAverages(componentAverages)
+                .studentCount(counts[0])
+                .topPerformers(topPerformers)
+                .needsAttention(needsAttention)
+                .needsAttentionCount(counts[1])
+                .build();
+    }
+}
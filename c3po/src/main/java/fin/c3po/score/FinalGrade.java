@@ -0,0 +1,55 @@
+package fin.c3po.score;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 按课程组成项权重计算出的学生总评，每门课程每名学生一行，由 {@link FinalGradeEngine} 维护
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "final_grades", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_final_grades_course_student", columnNames = {"course_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_final_grades_student", columnList = "student_id")
+})
+public class FinalGrade extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    /**
+     * 已有成绩的组成项按权重加权的平均分；带权重的组成项都没有成绩时为 null
+     */
+    private Double finalScore;
+
+    private Double gradePoint;
+
+    /**
+     * 已有成绩的组成项权重占全部权重的比例，0 到 1
+     */
+    private double gradedWeight;
+
+    /**
+     * 所有带权重的组成项都已有成绩
+     */
+    private boolean complete;
+
+    @Column(nullable = false)
+    private Instant computedAt;
+}
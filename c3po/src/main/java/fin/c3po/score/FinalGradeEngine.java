@@ -0,0 +1,140 @@
+package fin.c3po.score;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 学生总评的重算
+ * 修改权重后课程内所有有成绩的学生按固定大小分片，在独立的 fork-join 线程池中并行重算；
+ * 成绩发布后只重算成绩有变化的学生。重算结果保存在 {@link FinalGrade}，读取时按 (课程, 学生) 直接查询
+ */
+@Slf4j
+@Component
+public class FinalGradeEngine {
+
+    private static final int RECOMPUTE_ATTEMPTS = 2;
+
+    private final FinalGradeService finalGradeService;
+    private final ScoreRepository scoreRepository;
+    private final int partitionSize;
+    private final ForkJoinPool pool;
+
+    public FinalGradeEngine(FinalGradeService finalGradeService,
+                            ScoreRepository scoreRepository,
+                            @Value("${score.final-grade.partition-size:500}") int partitionSize,
+                            @Value("${score.final-grade.parallelism:4}") int parallelism) {
+        this.finalGradeService = finalGradeService;
+        this.scoreRepository = scoreRepository;
+        this.partitionSize = Math.max(partitionSize, 1);
+        // 每个子任务都会占用数据库连接，并行度不应超过连接池大小
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresPublished(ScoresPublishedEvent event) {
+        try {
+            recompute(event.getCourseId(), event.getStudentIds());
+        } catch (RuntimeException e) {
+            // 下一次修改权重或发布该学生成绩时重算
+            log.warn("Final grade recompute for course {} failed: {}", event.getCourseId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 替换课程权重并重算课程内所有有成绩的学生
+     *
+     * @return 总评有变化的学生数
+     */
+    public int updateWeights(UUID courseId, Map<String, Double> weights) {
+        finalGradeService.replaceWeights(courseId, weights);
+        if (weights.isEmpty()) {
+            return 0;
+        }
+        return recompute(courseId, scoreRepository.findStudentIdsByCourseId(courseId));
+    }
+
+    /**
+     * 重算给定学生，超过一个分片时在 fork-join 线程池中并行执行
+     *
+     * @return 总评有变化的学生数
+     */
+    public int recompute(UUID courseId, List<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        if (studentIds.size() <= partitionSize) {
+            return recomputePartition(courseId, studentIds, now);
+        }
+        long startedAt = System.nanoTime();
+        int changed = pool.invoke(new PartitionTask(courseId, studentIds, now));
+        log.info("Final grades recomputed for course {}: {} students, {} changed in {} ms", courseId,
+                studentIds.size(), changed, (System.nanoTime() - startedAt) / 1_000_000);
+        return changed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private int recomputePartition(UUID courseId, List<UUID> studentIds, Instant now) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return finalGradeService.recompute(courseId, studentIds, now);
+            } catch (DataIntegrityViolationException e) {
+                // 并发重算同时新建了同一学生的总评行，对方提交后重试即可锁定该行
+                if (attempt >= RECOMPUTE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent final grade recompute for course {}", courseId);
+            }
+        }
+    }
+
+    /**
+     * 学生数超过分片大小时对半拆分，叶子任务在一个事务中重算一个分片
+     */
+    private final class PartitionTask extends RecursiveTask<Integer> {
+        private final UUID courseId;
+        private final List<UUID> studentIds;
+        private final Instant now;
+
+        private PartitionTask(UUID courseId, List<UUID> studentIds, Instant now) {
+            this.courseId = courseId;
+            this.studentIds = studentIds;
+            this.now = now;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (studentIds.size() <= partitionSize) {
+                try {
+                    return recomputePartition(courseId, studentIds, now);
+                } catch (RuntimeException e) {
+                    // 一个分片失败不影响其他分片
+                    log.warn("Final grade recompute for course {} failed for {} students: {}", courseId,
+                            studentIds.size(), e.getMessage());
+                    return 0;
+                }
+            }
+            int middle = studentIds.size() / 2;
+            PartitionTask left = new PartitionTask(courseId, studentIds.subList(0, middle), now);
+            PartitionTask right = new PartitionTask(courseId, studentIds.subList(middle, studentIds.size()), now);
+            left.fork();
+            int changed = right.compute();
+            return changed + left.join();
+        }
+    }
+}
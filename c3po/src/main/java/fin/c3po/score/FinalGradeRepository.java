@@ -0,0 +1,34 @@
+package fin.c3po.score;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface FinalGradeRepository extends JpaRepository<FinalGrade, UUID> {
+    Optional<FinalGrade> findByCourseIdAndStudentId(UUID courseId, UUID studentId);
+
+    Page<FinalGrade> findByCourseId(UUID courseId, Pageable pageable);
+
+    /**
+     * 锁定一批学生的总评行，按学生排序加锁以免并发重算互相死锁
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM FinalGrade g WHERE g.courseId = :courseId AND g.studentId IN :studentIds "
+            + "ORDER BY g.studentId")
+    List<FinalGrade> findForUpdate(@Param("courseId") UUID courseId,
+                                   @Param("studentIds") Collection<UUID> studentIds);
+
+    @Modifying
+    @Query("DELETE FROM FinalGrade g WHERE g.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
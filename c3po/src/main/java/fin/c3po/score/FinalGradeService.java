@@ -0,0 +1,155 @@
+package fin.c3po.score;
+
+import fin.c3po.course.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * 课程组成项权重与学生总评的存储
+ * 重算一批学生时先锁定他们已有的总评行再读取成绩，并发重算同一学生时后者一定读到前者之后提交的成绩；
+ * 结果与已保存的总评相同时不写入
+ */
+@Service
+@RequiredArgsConstructor
+public class FinalGradeService {
+
+    private final CourseGradeWeightRepository weightRepository;
+    private final FinalGradeRepository finalGradeRepository;
+    private final ScoreRepository scoreRepository;
+    private final CourseRepository courseRepository;
+
+    @Transactional(readOnly = true)
+    public List<CourseGradeWeight> weights(UUID courseId) {
+        return weightRepository.findByCourseIdOrderByComponentAsc(courseId);
+    }
+
+    /**
+     * 整体替换课程的组成项权重；清空权重时一并删除课程的总评
+     */
+    @Transactional
+    public List<CourseGradeWeight> replaceWeights(UUID courseId, Map<String, Double> weights) {
+        courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        weightRepository.deleteByCourseId(courseId);
+        weightRepository.flush();
+        if (weights.isEmpty()) {
+            finalGradeRepository.deleteByCourseId(courseId);
+            return List.of();
+        }
+        List<CourseGradeWeight> rows = new ArrayList<>(weights.size());
+        weights.forEach((component, weight) -> {
+            CourseGradeWeight row = new CourseGradeWeight();
+            row.setCourseId(courseId);
+            row.setComponent(component);
+            row.setWeight(weight);
+            rows.add(row);
+        });
+        return weightRepository.saveAll(rows);
+    }
+
+    /**
+     * 按当前权重重算一批学生的总评
+     *
+     * 在成绩发布的事件监听器中调用，使用独立事务
+     *
+     * @return 总评有变化（含新建）的学生数
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recompute(UUID courseId, Collection<UUID> studentIds, Instant now) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, FinalGrade> existing = new HashMap<>();
+        for (FinalGrade grade : finalGradeRepository.findForUpdate(courseId, studentIds)) {
+            existing.put(grade.getStudentId(), grade);
+        }
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (CourseGradeWeight weight : weightRepository.findByCourseIdOrderByComponentAsc(courseId)) {
+            weights.put(weight.getComponent(), weight.getWeight());
+        }
+        if (weights.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, Map<String, Integer>> scores = new HashMap<>();
+        for (Score score : scoreRepository.findByCourseIdAndStudentIdIn(courseId, studentIds)) {
+            if (score.getValue() != null) {
+                scores.computeIfAbsent(score.getStudentId(), key -> new HashMap<>())
+                        .put(score.getComponent(), score.getValue());
+            }
+        }
+
+        List<FinalGrade> toSave = new ArrayList<>();
+        for (UUID studentId : studentIds) {
+            FinalGrade computed = compute(weights, scores.getOrDefault(studentId, Map.of()));
+            FinalGrade stored = existing.get(studentId);
+            if (stored == null) {
+                computed.setCourseId(courseId);
+                computed.setStudentId(studentId);
+                computed.setComputedAt(now);
+                toSave.add(computed);
+            } else if (!sameResult(stored, computed)) {
+                stored.setFinalScore(computed.getFinalScore());
+                stored.setGradePoint(computed.getGradePoint());
+                stored.setGradedWeight(computed.getGradedWeight());
+                stored.setComplete(computed.isComplete());
+                stored.setComputedAt(now);
+                toSave.add(stored);
+            }
+        }
+        finalGradeRepository.saveAll(toSave);
+        return toSave.size();
+    }
+
+    /**
+     * 只统计带权重的组成项；没有成绩的组成项不计入分母，完整程度由 gradedWeight 和 complete 表示
+     */
+    static FinalGrade compute(Map<String, Double> weights, Map<String, Integer> scores) {
+        double totalWeight = 0;
+        double gradedWeight = 0;
+        double weightedSum = 0;
+        int graded = 0;
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            totalWeight += weight.getValue();
+            Integer value = scores.get(weight.getKey());
+            if (value != null) {
+                gradedWeight += weight.getValue();
+                weightedSum += weight.getValue() * value;
+                graded++;
+            }
+        }
+        FinalGrade grade = new FinalGrade();
+        if (graded > 0) {
+            double finalScore = round(weightedSum / gradedWeight);
+            grade.setFinalScore(finalScore);
+            grade.setGradePoint(GradePointScale.of(finalScore));
+        }
+        grade.setGradedWeight(totalWeight > 0 ? Math.round(gradedWeight / totalWeight * 10000.0) / 10000.0 : 0.0);
+        grade.setComplete(graded == weights.size());
+        return grade;
+    }
+
+    private static boolean sameResult(FinalGrade stored, FinalGrade computed) {
+        return Objects.equals(stored.getFinalScore(), computed.getFinalScore())
+                && Objects.equals(stored.getGradePoint(), computed.getGradePoint())
+                && stored.getGradedWeight() == computed.getGradedWeight()
+                && stored.isComplete() == computed.isComplete();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,31 @@
+package fin.c3po.score;
+
+/**
+ * 百分制成绩到 4 分制绩点的换算
+ */
+public final class GradePointScale {
+
+    private GradePointScale() {
+    }
+
+    public static double of(double score) {
+        if (score >= 90) {
+            return 4.0;
+        } else if (score >= 85) {
+            return 3.7;
+        } else if (score >= 80) {
+            return 3.3;
+        } else if (score >= 75) {
+            return 3.0;
+        } else if (score >= 70) {
+            return 2.7;
+        } else if (score >= 65) {
+            return 2.3;
+        } else if (score >= 60) {
+            return 2.0;
+        } else if (score >= 50) {
+            return 1.0;
+        }
+        return 0.0;
+    }
+}
@@ -3,7 +3,9 @@ package fin.c3po.score;
 import fin.c3po.common.domain.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,7 +17,12 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "scores")
+@Table(name = "scores", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_scores_student_course_component",
+                columnNames = {"student_id", "course_id", "component"})
+}, indexes = {
+        @Index(name = "idx_scores_course_component_student", columnList = "course_id, component, student_id")
+})
 public class Score extends BaseEntity {
 
     @Column(nullable = false)
@@ -0,0 +1,185 @@
+package fin.c3po.score;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 0~100 分的计数直方图
+ * 分数是有界整数，按分值计数即可在 O(1) 内增删、按位相加合并，
+ * 并精确得到中位数、分位数、均值、最值和分段人数，不需要保留或排序原始分数。
+ * 非线程安全；作为实体属性时按值替换（先 {@link #copy()} 再修改），确保脏检查识别到变更
+ */
+public final class ScoreHistogram implements Serializable {
+
+    public static final int MIN_SCORE = 0;
+    public static final int MAX_SCORE = 100;
+    public static final int BUCKETS = MAX_SCORE - MIN_SCORE + 1;
+
+    private static final long serialVersionUID = 1L;
+
+    private final long[] counts;
+    private long count;
+    private long sum;
+
+    public ScoreHistogram() {
+        this.counts = new long[BUCKETS];
+    }
+
+    private ScoreHistogram(long[] counts) {
+        this.counts = counts;
+        for (int score = MIN_SCORE; score <= MAX_SCORE; score++) {
+            count += counts[score];
+            sum += counts[score] * score;
+        }
+    }
+
+    /**
+     * 统计一组分数，忽略空值
+     */
+    public static ScoreHistogram of(Collection<Integer> values) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (Integer value : values) {
+            if (value != null) {
+                histogram.add(value);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * 由按分值排列的计数还原，下标即分数
+     */
+    public static ScoreHistogram fromCounts(long[] counts) {
+        return new ScoreHistogram(Arrays.copyOf(counts, BUCKETS));
+    }
+
+    /**
+     * 超出 0~100 的分数按边界计入
+     */
+    public ScoreHistogram add(int score) {
+        return add(score, 1);
+    }
+
+    public ScoreHistogram remove(int score) {
+        return add(score, -1);
+    }
+
+    public ScoreHistogram add(int score, long times) {
+        int bucket = bucket(score);
+        counts[bucket] += times;
+        count += times;
+        sum += times * bucket;
+        return this;
+    }
+
+    public ScoreHistogram merge(ScoreHistogram other) {
+        for (int score = MIN_SCORE; score <= MAX_SCORE; score++) {
+            counts[score] += other.counts[score];
+        }
+        count += other.count;
+        sum += other.sum;
+        return this;
+    }
+
+    public ScoreHistogram copy() {
+        ScoreHistogram copy = new ScoreHistogram();
+        return copy.merge(this);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * 某一分值的人数
+     */
+    public long countOf(int score) {
+        return score < MIN_SCORE || score > MAX_SCORE ? 0 : counts[score];
+    }
+
+    /**
+     * 闭区间 [from, to] 内的人数
+     */
+    public long countBetween(int from, int to) {
+        long total = 0;
+        for (int score = Math.max(from, MIN_SCORE); score <= Math.min(to, MAX_SCORE); score++) {
+            total += counts[score];
+        }
+        return total;
+    }
+
+    public Double average() {
+        return count == 0 ? null : sum / (double) count;
+    }
+
+    public Integer min() {
+        return count == 0 ? null : valueAtRank(0);
+    }
+
+    public Integer max() {
+        return count == 0 ? null : valueAtRank(count - 1);
+    }
+
+    public Double median() {
+        return percentile(50);
+    }
+
+    /**
+     * 第 p 百分位数（0~100），在相邻两个排名之间线性插值；p=50 时即偶数个分数取中间两个的平均
+     */
+    public Double percentile(double p) {
+        if (count == 0) {
+            return null;
+        }
+        double position = Math.max(0, Math.min(100, p)) / 100.0 * (count - 1);
+        long lowerRank = (long) Math.floor(position);
+        long upperRank = (long) Math.ceil(position);
+        int lower = valueAtRank(lowerRank);
+        if (upperRank == lowerRank) {
+            return (double) lower;
+        }
+        int upper = valueAtRank(upperRank);
+        return lower + (upper - lower) * (position - lowerRank);
+    }
+
+    /**
+     * 从低到高排名为 rank（从 0 开始）的分数
+     */
+    public int valueAtRank(long rank) {
+        long seen = 0;
+        for (int score = MIN_SCORE; score <= MAX_SCORE; score++) {
+            seen += counts[score];
+            if (seen > rank) {
+                return score;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    long[] counts() {
+        return counts;
+    }
+
+    private static int bucket(int score) {
+        return Math.max(MIN_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof ScoreHistogram histogram && Arrays.equals(counts, histogram.counts));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
@@ -0,0 +1,35 @@
+package fin.c3po.score;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * 分数直方图以逗号分隔的计数保存，第 i 个值为 i 分的人数
+ */
+@Converter
+public class ScoreHistogramConverter implements AttributeConverter<ScoreHistogram, String> {
+
+    @Override
+    public String convertToDatabaseColumn(ScoreHistogram histogram) {
+        if (histogram == null) {
+            return null;
+        }
+        return Arrays.stream(histogram.counts()).mapToObj(Long::toString).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public ScoreHistogram convertToEntityAttribute(String value) {
+        long[] counts = new long[ScoreHistogram.BUCKETS];
+        if (value == null || value.isBlank()) {
+            return ScoreHistogram.fromCounts(counts);
+        }
+        String[] parts = value.split(",");
+        for (int i = 0; i < parts.length && i < ScoreHistogram.BUCKETS; i++) {
+            counts[i] = Long.parseLong(parts[i]);
+        }
+        return ScoreHistogram.fromCounts(counts);
+    }
+}
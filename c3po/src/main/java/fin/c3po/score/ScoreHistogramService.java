@@ -0,0 +1,108 @@
+package fin.c3po.score;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 按 (课程, 组成项) 保存的成绩分布直方图
+ * 由 {@link ScoreService} 在写入成绩的同一事务内差量维护；跨课程、跨组成项的汇总只需合并直方图
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScoreHistogramService {
+
+    private final ComponentScoreHistogramRepository histogramRepository;
+    private final ScoreRepository scoreRepository;
+
+    /**
+     * 取出待更新的直方图，尚不存在的按当前已有成绩整体统计后创建
+     * 调用方需持有课程行锁，并在写入成绩之前调用，之后的变化以差量合并
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, ComponentScoreHistogram> loadForWrite(UUID courseId, Collection<String> components) {
+        Map<String, ComponentScoreHistogram> histograms = new HashMap<>();
+        histogramRepository.findByCourseIdIn(List.of(courseId))
+                .forEach(row -> histograms.put(row.getComponent(), row));
+        for (String component : components) {
+            if (!histograms.containsKey(component)) {
+                ComponentScoreHistogram created = new ComponentScoreHistogram();
+                created.setCourseId(courseId);
+                created.setComponent(component);
+                created.setHistogram(toHistogram(scoreRepository.countValuesByCourseAndComponent(courseId, component)));
+                histograms.put(component, histogramRepository.save(created));
+            }
+        }
+        return histograms;
+    }
+
+    /**
+     * 课程各组成项的分布
+     */
+    @Transactional(readOnly = true)
+    public Map<String, ScoreHistogram> byComponent(UUID courseId) {
+        Map<String, ScoreHistogram> histograms = new LinkedHashMap<>();
+        histogramRepository.findByCourseIdIn(List.of(courseId))
+                .forEach(row -> histograms.put(row.getComponent(), row.getHistogram()));
+        return histograms;
+    }
+
+    /**
+     * 多门课程全部成绩合并后的分布
+     */
+    @Transactional(readOnly = true)
+    public ScoreHistogram merged(Collection<UUID> courseIds) {
+        ScoreHistogram merged = new ScoreHistogram();
+        if (courseIds.isEmpty()) {
+            return merged;
+        }
+        histogramRepository.findByCourseIdIn(courseIds).forEach(row -> merged.merge(row.getHistogram()));
+        return merged;
+    }
+
+    /**
+     * 为直方图上线之前发布的成绩补齐分布
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillHistograms() {
+        Map<UUID, Map<String, List<ScoreValueCount>>> missing = new HashMap<>();
+        for (ScoreValueCount row : scoreRepository.countValuesWithoutHistogram()) {
+            missing.computeIfAbsent(row.getCourseId(), key -> new HashMap<>())
+                    .computeIfAbsent(row.getComponent(), key -> new ArrayList<>())
+                    .add(row);
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<ComponentScoreHistogram> created = new ArrayList<>();
+        missing.forEach((courseId, components) -> components.forEach((component, counts) -> {
+            ComponentScoreHistogram histogram = new ComponentScoreHistogram();
+            histogram.setCourseId(courseId);
+            histogram.setComponent(component);
+            histogram.setHistogram(toHistogram(counts));
+            created.add(histogram);
+        }));
+        histogramRepository.saveAll(created);
+        log.info("Backfilled score histograms for {} course components", created.size());
+    }
+
+    private static ScoreHistogram toHistogram(List<ScoreValueCount> counts) {
+        ScoreHistogram histogram = new ScoreHistogram();
+        counts.forEach(row -> histogram.add(row.getScore(), row.getTotal()));
+        return histogram;
+    }
+}
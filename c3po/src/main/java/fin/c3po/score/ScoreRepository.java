@@ -1,16 +1,38 @@
 package fin.c3po.score;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ScoreRepository extends JpaRepository<Score, UUID> {
+public interface ScoreRepository extends JpaRepository<Score, UUID>, JpaSpecificationExecutor<Score> {
     List<Score> findByStudentId(UUID studentId);
     List<Score> findByCourseId(UUID courseId);
     List<Score> findByStudentIdAndCourseId(UUID studentId, UUID courseId);
     Optional<Score> findByStudentIdAndCourseIdAndComponent(UUID studentId, UUID courseId, String component);
-}
+    List<Score> findByCourseIdAndComponentIn(UUID courseId, Collection<String> components);
+    List<Score> findByCourseIdAndStudentIdIn(UUID courseId, Collection<UUID> studentIds);
+
+    @Query("SELECT DISTINCT s.studentId FROM Score s WHERE s.courseId = :courseId")
+    List<UUID> findStudentIdsByCourseId(@Param("courseId") UUID courseId);
 
+    @Query("SELECT s.courseId AS courseId, s.component AS component, s.value AS score, COUNT(s) AS total "
+            + "FROM Score s WHERE s.courseId = :courseId AND s.component = :component AND s.value IS NOT NULL "
+            + "GROUP BY s.courseId, s.component, s.value")
+    List<ScoreValueCount> countValuesByCourseAndComponent(@Param("courseId") UUID courseId,
+                                                          @Param("component") String component);
 
+    /**
+     * 尚未建立分布直方图的 (课程, 组成项) 的分值计数
+     */
+    @Query("SELECT s.courseId AS courseId, s.component AS component, s.value AS score, COUNT(s) AS total "
+            + "FROM Score s WHERE s.value IS NOT NULL AND NOT EXISTS ("
+            + "SELECT h.id FROM ComponentScoreHistogram h WHERE h.courseId = s.courseId AND h.component = s.component) "
+            + "GROUP BY s.courseId, s.component, s.value")
+    List<ScoreValueCount> countValuesWithoutHistogram();
+}
@@ -0,0 +1,131 @@
+package fin.c3po.score;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.score.dto.PublishScoresResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 成绩发布
+ * 同一课程的发布按课程行锁串行，成绩与组成项分布直方图的差量在同一事务内提交，两者始终一致；
+ * 现有成绩一次查询读入，需要写入的成绩由 {@link ScoreUpsertWriter} 按批 upsert
+ */
+@Service
+@RequiredArgsConstructor
+public class ScoreService {
+
+    private final ScoreRepository scoreRepository;
+    private final CourseRepository courseRepository;
+    private final ScoreHistogramService scoreHistogramService;
+    private final ScoreUpsertWriter scoreUpsertWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 新增或覆盖成绩，返回与请求顺序一致的成绩记录
+     */
+    @Transactional
+    public List<Score> publish(UUID courseId, List<PublishScoresRequest.Entry> entries, Instant releaseTime) {
+        apply(courseId, entries, releaseTime);
+        List<String> components = entries.stream().map(PublishScoresRequest.Entry::getComponent).distinct().toList();
+        Map<String, Map<UUID, Score>> stored = new HashMap<>();
+        for (Score score : scoreRepository.findByCourseIdAndComponentIn(courseId, components)) {
+            stored.computeIfAbsent(score.getComponent(), key -> new HashMap<>()).put(score.getStudentId(), score);
+        }
+        return entries.stream()
+                .map(entry -> stored.get(entry.getComponent()).get(entry.getStudentId()))
+                .toList();
+    }
+
+    /**
+     * 批量新增或覆盖成绩，只返回新建、更新与未变化的条数
+     */
+    @Transactional
+    public PublishScoresResult publishBulk(UUID courseId, List<PublishScoresRequest.Entry> entries,
+                                           Instant releaseTime) {
+        return apply(courseId, entries, releaseTime);
+    }
+
+    private PublishScoresResult apply(UUID courseId, List<PublishScoresRequest.Entry> entries, Instant releaseTime) {
+        courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+
+        // 同一 (组成项, 学生) 以最后一条为准
+        Map<String, Map<UUID, PublishScoresRequest.Entry>> latest = new LinkedHashMap<>();
+        for (PublishScoresRequest.Entry entry : entries) {
+            latest.computeIfAbsent(entry.getComponent(), key -> new LinkedHashMap<>())
+                    .put(entry.getStudentId(), entry);
+        }
+        Map<String, ComponentScoreHistogram> histograms = scoreHistogramService.loadForWrite(courseId,
+                latest.keySet());
+        Map<String, Map<UUID, ScoreUpsertWriter.StoredScore>> existing =
+                scoreUpsertWriter.loadExisting(courseId, latest.keySet());
+        // released_at 只保存到微秒，比较前按相同精度截断，否则每次发布都会被当作变化
+        Instant releasedAt = releaseTime != null ? releaseTime.truncatedTo(ChronoUnit.MICROS) : null;
+
+        List<PublishScoresRequest.Entry> writes = new ArrayList<>();
+        Set<UUID> changedStudents = new LinkedHashSet<>();
+        int total = 0;
+        int created = 0;
+        int updated = 0;
+        for (Map.Entry<String, Map<UUID, PublishScoresRequest.Entry>> component : latest.entrySet()) {
+            Map<UUID, ScoreUpsertWriter.StoredScore> current = existing.getOrDefault(component.getKey(), Map.of());
+            ScoreHistogram delta = new ScoreHistogram();
+            boolean changed = false;
+            for (PublishScoresRequest.Entry entry : component.getValue().values()) {
+                total++;
+                ScoreUpsertWriter.StoredScore stored = current.get(entry.getStudentId());
+                // 分值与发布时间都相同才算未变化；仅发布时间变化时仍需写入，但分布直方图不变
+                boolean sameValue = stored != null && Objects.equals(stored.getValue(), entry.getValue());
+                if (sameValue && Objects.equals(stored.getReleasedAt(), releasedAt)) {
+                    continue;
+                }
+                if (stored != null) {
+                    updated++;
+                } else {
+                    created++;
+                }
+                if (!sameValue) {
+                    if (stored != null && stored.getValue() != null) {
+                        delta.remove(stored.getValue());
+                    }
+                    delta.add(entry.getValue());
+                    changed = true;
+                }
+                writes.add(entry);
+                changedStudents.add(entry.getStudentId());
+            }
+            if (changed) {
+                ComponentScoreHistogram histogram = histograms.get(component.getKey());
+                histogram.setHistogram(histogram.getHistogram().copy().merge(delta));
+            }
+        }
+
+        scoreUpsertWriter.upsert(courseId, writes, releasedAt, Instant.now());
+        if (!changedStudents.isEmpty()) {
+            eventPublisher.publishEvent(new ScoresPublishedEvent(courseId, List.copyOf(changedStudents)));
+        }
+        return PublishScoresResult.builder()
+                .total(total)
+                .created(created)
+                .updated(updated)
+                .unchanged(total - created - updated)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.PublishScoresRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 成绩的批量读取与批量写入
+ * 以 (student_id, course_id, component) 唯一约束为冲突键按批执行 upsert：
+ * PostgreSQL 使用 INSERT ... ON CONFLICT，其余数据库（H2）使用标准 MERGE
+ */
+@Slf4j
+@Component
+public class ScoreUpsertWriter {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String EXISTING_SQL = """
+            SELECT student_id, component, "value", released_at
+            FROM scores
+            WHERE course_id = :courseId AND component IN (:components)
+            """;
+
+    private static final String POSTGRES_UPSERT_SQL = """
+            INSERT INTO scores (id, created_at, updated_at, student_id, course_id, component, "value", released_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (student_id, course_id, component) DO UPDATE
+            SET "value" = EXCLUDED."value", released_at = EXCLUDED.released_at, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String MERGE_UPSERT_SQL = """
+            MERGE INTO scores t
+            USING (VALUES (CAST(? AS UUID), CAST(? AS TIMESTAMP WITH TIME ZONE), CAST(? AS TIMESTAMP WITH TIME ZONE),
+                           CAST(? AS UUID), CAST(? AS UUID), CAST(? AS VARCHAR(64)), CAST(? AS INTEGER),
+                           CAST(? AS TIMESTAMP WITH TIME ZONE)))
+                AS s (id, created_at, updated_at, student_id, course_id, component, score_value, released_at)
+            ON t.student_id = s.student_id AND t.course_id = s.course_id AND t.component = s.component
+            WHEN MATCHED THEN UPDATE
+                SET "value" = s.score_value, released_at = s.released_at, updated_at = s.updated_at
+            WHEN NOT MATCHED THEN INSERT (id, created_at, updated_at, student_id, course_id, component, "value", released_at)
+                VALUES (s.id, s.created_at, s.updated_at, s.student_id, s.course_id, s.component, s.score_value, s.released_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final String upsertSql;
+    private final int batchSize;
+
+    public ScoreUpsertWriter(DataSource dataSource,
+                             @Value("${score.publish.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.upsertSql = isPostgres(dataSource) ? POSTGRES_UPSERT_SQL : MERGE_UPSERT_SQL;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * 课程在给定组成项上的现有成绩与发布时间，按组成项、学生索引；成绩值可能为空
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Map<UUID, StoredScore>> loadExisting(UUID courseId, Collection<String> components) {
+        Map<String, Map<UUID, StoredScore>> existing = new HashMap<>();
+        if (components.isEmpty()) {
+            return existing;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseId", courseId)
+                .addValue("components", components);
+        namedJdbcTemplate.query(EXISTING_SQL, params, rs -> {
+            int value = rs.getInt("value");
+            Integer score = rs.wasNull() ? null : value;
+            OffsetDateTime releasedAt = rs.getObject("released_at", OffsetDateTime.class);
+            existing.computeIfAbsent(rs.getString("component"), key -> new HashMap<>())
+                    .put(rs.getObject("student_id", UUID.class),
+                            new StoredScore(score, releasedAt != null ? releasedAt.toInstant() : null));
+        });
+        return existing;
+    }
+
+    /**
+     * 按批写入成绩，已存在的 (学生, 课程, 组成项) 覆盖分值与发布时间，不存在的新建
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upsert(UUID courseId, List<PublishScoresRequest.Entry> entries, Instant releasedAt, Instant now) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp writtenAt = Timestamp.from(now);
+        Timestamp released = releasedAt != null ? Timestamp.from(releasedAt) : null;
+        jdbcTemplate.batchUpdate(upsertSql, entries, batchSize, (ps, entry) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setTimestamp(2, writtenAt);
+            ps.setTimestamp(3, writtenAt);
+            ps.setObject(4, entry.getStudentId());
+            ps.setObject(5, courseId);
+            ps.setString(6, entry.getComponent());
+            ps.setInt(7, entry.getValue());
+            if (released != null) {
+                ps.setTimestamp(8, released);
+            } else {
+                ps.setNull(8, Types.TIMESTAMP_WITH_TIMEZONE);
+            }
+        });
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            log.warn("Could not detect database product, falling back to MERGE for score upserts: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 已存储的成绩值与发布时间
+     */
+    @lombok.Value
+    static class StoredScore {
+        Integer value;
+        Instant releasedAt;
+    }
+}
@@ -0,0 +1,16 @@
+package fin.c3po.score;
+
+import java.util.UUID;
+
+/**
+ * 按 (课程, 组成项, 分值) 分组的成绩人数
+ */
+public interface ScoreValueCount {
+    UUID getCourseId();
+
+    String getComponent();
+
+    Integer getScore();
+
+    long getTotal();
+}
@@ -0,0 +1,15 @@
+package fin.c3po.score;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程成绩发布（新增或覆盖）后发布的应用事件，供成绩相关的派生数据失效或增量更新
+ */
+@Value
+public class ScoresPublishedEvent {
+    UUID courseId;
+    List<UUID> studentIds;
+}
@@ -0,0 +1,71 @@
+package fin.c3po.score;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 学生学业汇总，每名学生一行，各课程的明细见 {@link StudentCourseSummary}
+ * 成绩与进度只统计有成绩的课程，enrolled 开头的字段只统计已选课程；
+ * 成绩、提交或课程变化后标记为 stale，由 {@link StudentAcademicSummaryUpdater} 后台重建或在读取时重建
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "student_academic_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_student_academic_summaries_student", columnNames = {"student_id"})
+}, indexes = {
+        @Index(name = "idx_student_academic_summaries_stale", columnList = "stale")
+})
+public class StudentAcademicSummary extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    private long scoreCount;
+
+    /**
+     * 全部成绩的平均分、中位数与平均绩点，没有成绩时为 null
+     */
+    private Double averageScore;
+
+    private Double medianScore;
+
+    private Double gpa;
+
+    private int scoredCourses;
+
+    private int totalAssignments;
+
+    private int completedAssignments;
+
+    private int gradedAssignments;
+
+    private int overdueAssignments;
+
+    private int enrolledCourses;
+
+    private int enrolledAssignments;
+
+    private int enrolledCompletedAssignments;
+
+    /**
+     * 未提交作业中最早的未来截止时间，到达后逾期数需要重算
+     */
+    private Instant validUntil;
+
+    private boolean stale;
+
+    @Column(nullable = false)
+    private Instant computedAt;
+}
@@ -0,0 +1,62 @@
+package fin.c3po.score;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 学生学业汇总的读取
+ * 正常情况下按学生一次查询；汇总不存在、已标记为过期或逾期数到期时先同步重建
+ */
+@Slf4j
+@Service
+public class StudentAcademicSummaryEngine {
+
+    private static final int REBUILD_ATTEMPTS = 2;
+
+    private final StudentAcademicSummaryService summaryService;
+    private final StudentAcademicSummaryRepository summaryRepository;
+    private final StudentCourseSummaryRepository courseSummaryRepository;
+
+    public StudentAcademicSummaryEngine(StudentAcademicSummaryService summaryService,
+                                        StudentAcademicSummaryRepository summaryRepository,
+                                        StudentCourseSummaryRepository courseSummaryRepository) {
+        this.summaryService = summaryService;
+        this.summaryRepository = summaryRepository;
+        this.courseSummaryRepository = courseSummaryRepository;
+    }
+
+    public StudentAcademicSummary summary(UUID studentId) {
+        Instant now = Instant.now();
+        Optional<StudentAcademicSummary> summary = summaryRepository.findByStudentId(studentId);
+        for (int attempt = 0; needsRebuild(summary, now) && attempt < REBUILD_ATTEMPTS; attempt++) {
+            try {
+                summaryService.rebuild(studentId, now, true);
+            } catch (DataIntegrityViolationException e) {
+                // 并发请求同时创建了汇总行，读取对方的重建结果
+                log.debug("Concurrent academic summary rebuild for student {}", studentId);
+            }
+            summary = summaryRepository.findByStudentId(studentId);
+        }
+        return summary.orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Academic summary is being rebuilt"));
+    }
+
+    /**
+     * 汇总中的各课程明细，应在 {@link #summary(UUID)} 之后读取
+     */
+    public List<StudentCourseSummary> courses(UUID studentId) {
+        return courseSummaryRepository.findByStudentId(studentId);
+    }
+
+    private static boolean needsRebuild(Optional<StudentAcademicSummary> summary, Instant now) {
+        return summary.isEmpty() || StudentAcademicSummaryService.needsRebuild(summary.get(), now);
+    }
+}
@@ -0,0 +1,85 @@
+package fin.c3po.score;
+
+import fin.c3po.selection.SelectionStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 学生学业汇总的原始数据：按课程、分值分组计数的成绩，已选课程与课程名称
+ * 每个方法一条查询，与学生的成绩、课程数量无关
+ */
+@Component
+public class StudentAcademicSummaryLoader {
+
+    private static final String SCORE_COUNTS_SQL = """
+            SELECT course_id, "value", COUNT(*) AS total
+            FROM scores
+            WHERE student_id = :studentId
+            GROUP BY course_id, "value"
+            """;
+
+    private static final String ENROLLED_COURSES_SQL = """
+            SELECT course_id
+            FROM course_selections
+            WHERE student_id = :studentId AND status = :status
+            """;
+
+    private static final String COURSE_NAMES_SQL = """
+            SELECT id, name
+            FROM courses
+            WHERE id IN (:courseIds)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentAcademicSummaryLoader(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * 学生有成绩记录的课程及各自的分数直方图；分值都为空的课程直方图为空
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, ScoreHistogram> scoreHistograms(UUID studentId) {
+        Map<UUID, ScoreHistogram> histograms = new HashMap<>();
+        jdbcTemplate.query(SCORE_COUNTS_SQL, new MapSqlParameterSource("studentId", studentId), rs -> {
+            ScoreHistogram histogram = histograms.computeIfAbsent(rs.getObject("course_id", UUID.class),
+                    key -> new ScoreHistogram());
+            int value = rs.getInt("value");
+            if (!rs.wasNull()) {
+                histogram.add(value, rs.getLong("total"));
+            }
+        });
+        return histograms;
+    }
+
+    @Transactional(readOnly = true)
+    public Set<UUID> enrolledCourseIds(UUID studentId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("status", SelectionStatus.ENROLLED.name());
+        return new HashSet<>(jdbcTemplate.queryForList(ENROLLED_COURSES_SQL, params, UUID.class));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, String> courseNames(Collection<UUID> courseIds) {
+        Map<UUID, String> names = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return names;
+        }
+        jdbcTemplate.query(COURSE_NAMES_SQL, new MapSqlParameterSource("courseIds", courseIds), rs -> {
+            names.put(rs.getObject("id", UUID.class), rs.getString("name"));
+        });
+        return names;
+    }
+}
@@ -0,0 +1,38 @@
+package fin.c3po.score;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface StudentAcademicSummaryRepository extends JpaRepository<StudentAcademicSummary, UUID> {
+    Optional<StudentAcademicSummary> findByStudentId(UUID studentId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StudentAcademicSummary s WHERE s.studentId = :studentId")
+    Optional<StudentAcademicSummary> findByStudentIdForUpdate(@Param("studentId") UUID studentId);
+
+    @Query("SELECT s.studentId FROM StudentAcademicSummary s WHERE s.stale = true ORDER BY s.updatedAt")
+    List<UUID> findStaleStudentIds(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE StudentAcademicSummary s SET s.stale = true WHERE s.studentId IN :studentIds")
+    int markStale(@Param("studentIds") Collection<UUID> studentIds);
+
+    /**
+     * 标记汇总中包含该课程或选过该课程的学生
+     */
+    @Modifying
+    @Query("UPDATE StudentAcademicSummary s SET s.stale = true "
+            + "WHERE s.studentId IN (SELECT c.studentId FROM StudentCourseSummary c WHERE c.courseId = :courseId) "
+            + "OR s.studentId IN (SELECT cs.studentId FROM CourseSelection cs WHERE cs.courseId = :courseId)")
+    int markCourseStale(@Param("courseId") UUID courseId);
+}
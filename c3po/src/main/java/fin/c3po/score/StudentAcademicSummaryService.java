@@ -0,0 +1,148 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.CourseLearningProgress;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 学生学业汇总的存储
+ * 重建时先锁定学生的汇总行再读取数据，重建期间到达的变更标记会等待重建提交后再写入，不会被重建覆盖；
+ * 在事件监听器中调用，均使用独立事务
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentAcademicSummaryService {
+
+    private final StudentAcademicSummaryRepository summaryRepository;
+    private final StudentCourseSummaryRepository courseSummaryRepository;
+    private final StudentAcademicSummaryLoader summaryLoader;
+    private final StudentProgressLoader studentProgressLoader;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int markStale(Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        return summaryRepository.markStale(studentIds);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int markCourseStale(UUID courseId) {
+        return summaryRepository.markCourseStale(courseId);
+    }
+
+    /**
+     * 重建一名学生的汇总
+     *
+     * @param onlyIfStale 只在汇总不存在、已标记或已过期时重建，供后台任务跳过已被读取请求重建的学生
+     * @return 是否执行了重建
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean rebuild(UUID studentId, Instant now, boolean onlyIfStale) {
+        StudentAcademicSummary summary = summaryRepository.findByStudentIdForUpdate(studentId).orElse(null);
+        if (onlyIfStale && summary != null && !needsRebuild(summary, now)) {
+            return false;
+        }
+        if (summary == null) {
+            summary = new StudentAcademicSummary();
+            summary.setStudentId(studentId);
+        }
+
+        Map<UUID, ScoreHistogram> histograms = summaryLoader.scoreHistograms(studentId);
+        Set<UUID> enrolled = summaryLoader.enrolledCourseIds(studentId);
+        Set<UUID> courseIds = new LinkedHashSet<>(histograms.keySet());
+        courseIds.addAll(enrolled);
+        Map<UUID, String> names = summaryLoader.courseNames(courseIds);
+        StudentProgress progress = studentProgressLoader.load(studentId, courseIds, now);
+
+        ScoreHistogram allScores = new ScoreHistogram();
+        int[] scoredTotals = new int[4];
+        int[] enrolledTotals = new int[2];
+        List<StudentCourseSummary> courses = new ArrayList<>(courseIds.size());
+        for (UUID courseId : courseIds) {
+            ScoreHistogram histogram = histograms.get(courseId);
+            CourseLearningProgress courseProgress = progress.getCourses().get(courseId);
+            StudentCourseSummary course = new StudentCourseSummary();
+            course.setStudentId(studentId);
+            course.setCourseId(courseId);
+            course.setCourseName(names.get(courseId));
+            course.setScored(histogram != null);
+            course.setEnrolled(enrolled.contains(courseId));
+            course.setTotalAssignments(courseProgress.getTotalAssignments());
+            course.setCompletedAssignments(courseProgress.getCompletedAssignments());
+            course.setGradedAssignments(courseProgress.getGradedAssignments());
+            course.setOverdueAssignments(courseProgress.getOverdueAssignments());
+            if (histogram != null) {
+                allScores.merge(histogram);
+                course.setScoreCount((int) histogram.count());
+                course.setAverageScore(roundOrNull(histogram.average()));
+                course.setHighestScore(histogram.max());
+                course.setLowestScore(histogram.min());
+                scoredTotals[0] += courseProgress.getTotalAssignments();
+                scoredTotals[1] += courseProgress.getCompletedAssignments();
+                scoredTotals[2] += courseProgress.getGradedAssignments();
+                scoredTotals[3] += courseProgress.getOverdueAssignments();
+            }
+            if (course.isEnrolled()) {
+                enrolledTotals[0] += courseProgress.getTotalAssignments();
+                enrolledTotals[1] += courseProgress.getCompletedAssignments();
+            }
+            courses.add(course);
+        }
+
+        summary.setScoreCount(allScores.count());
+        summary.setAverageScore(roundOrNull(allScores.average()));
+        summary.setMedianScore(roundOrNull(allScores.median()));
+        summary.setGpa(allScores.isEmpty() ? null : round(averageGradePoint(allScores)));
+        summary.setScoredCourses(histograms.size());
+        summary.setTotalAssignments(scoredTotals[0]);
+        summary.setCompletedAssignments(scoredTotals[1]);
+        summary.setGradedAssignments(scoredTotals[2]);
+        summary.setOverdueAssignments(scoredTotals[3]);
+        summary.setEnrolledCourses(enrolled.size());
+        summary.setEnrolledAssignments(enrolledTotals[0]);
+        summary.setEnrolledCompletedAssignments(enrolledTotals[1]);
+        summary.setValidUntil(progress.getNextDeadline());
+        summary.setStale(false);
+        summary.setComputedAt(now);
+
+        courseSummaryRepository.deleteByStudentId(studentId);
+        courseSummaryRepository.saveAll(courses);
+        summaryRepository.save(summary);
+        return true;
+    }
+
+    static boolean needsRebuild(StudentAcademicSummary summary, Instant now) {
+        return summary.isStale() || (summary.getValidUntil() != null && !summary.getValidUntil().isAfter(now));
+    }
+
+    /**
+     * 每条成绩按 {@link GradePointScale} 换算绩点后取平均
+     */
+    private static double averageGradePoint(ScoreHistogram histogram) {
+        double total = 0;
+        for (int score = ScoreHistogram.MIN_SCORE; score <= ScoreHistogram.MAX_SCORE; score++) {
+            total += histogram.countOf(score) * GradePointScale.of(score);
+        }
+        return total / histogram.count();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static Double roundOrNull(Double value) {
+        return value == null ? null : round(value);
+    }
+}
@@ -0,0 +1,164 @@
+package fin.c3po.score;
+
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.submission.SubmissionChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 成绩发布、提交变更和课程变化后把受影响学生的学业汇总标记为过期，
+ * 短周期任务在 fork-join 线程池中按学生并行重建；标记在数据库中，重启后不会丢失
+ */
+@Slf4j
+@Component
+public class StudentAcademicSummaryUpdater {
+
+    private final StudentAcademicSummaryService summaryService;
+    private final StudentAcademicSummaryRepository summaryRepository;
+    private final int batchSize;
+    private final ForkJoinPool pool;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public StudentAcademicSummaryUpdater(StudentAcademicSummaryService summaryService,
+                                         StudentAcademicSummaryRepository summaryRepository,
+                                         @Value("${score.summary.batch-size:500}") int batchSize,
+                                         @Value("${score.summary.parallelism:4}") int parallelism) {
+        this.summaryService = summaryService;
+        this.summaryRepository = summaryRepository;
+        this.batchSize = Math.max(batchSize, 1);
+        // 每个子任务都会占用数据库连接，并行度不应超过连接池大小
+        this.pool = new ForkJoinPool(Math.max(parallelism, 1));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresPublished(ScoresPublishedEvent event) {
+        markStale(Set.copyOf(event.getStudentIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        markStale(event.getChanges().stream()
+                .map(SubmissionChangedEvent.Change::getStudentId)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * 选退课只影响事件中的学生；作业增删改和课程名称变化影响该课程全部学生的汇总
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() == CourseChangedEvent.Change.CREATED) {
+            return;
+        }
+        if (event.getChange() == CourseChangedEvent.Change.ENROLLMENT_CHANGED && !event.getStudentIds().isEmpty()) {
+            markStale(Set.copyOf(event.getStudentIds()));
+            return;
+        }
+        try {
+            summaryService.markCourseStale(event.getCourseId());
+        } catch (RuntimeException e) {
+            log.warn("Failed to mark academic summaries of course {} stale: {}", event.getCourseId(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * 重建已标记的汇总，每轮最多 batch-size 名学生，上一轮未结束时跳过
+     */
+    @Scheduled(fixedDelayString = "${score.summary.rebuild-interval-ms:5000}")
+    public void rebuildStale() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<UUID> studentIds = summaryRepository.findStaleStudentIds(PageRequest.of(0, batchSize));
+            if (studentIds.isEmpty()) {
+                rebuilding.set(false);
+                return;
+            }
+            pool.execute(new RebuildTask(studentIds));
+        } catch (RuntimeException e) {
+            rebuilding.set(false);
+            log.warn("Failed to start academic summary rebuild: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void markStale(Set<UUID> studentIds) {
+        try {
+            summaryService.markStale(studentIds);
+        } catch (RuntimeException e) {
+            // 未标记的汇总在逾期数到期或下一次变更时重建
+            log.warn("Failed to mark {} academic summaries stale: {}", studentIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 为每名学生派生一个子任务并等待全部完成
+     */
+    private final class RebuildTask extends RecursiveTask<Integer> {
+        private final List<UUID> studentIds;
+
+        private RebuildTask(List<UUID> studentIds) {
+            this.studentIds = studentIds;
+        }
+
+        @Override
+        protected Integer compute() {
+            try {
+                long startedAt = System.nanoTime();
+                Instant now = Instant.now();
+                List<StudentRebuildTask> tasks = studentIds.stream()
+                        .map(studentId -> new StudentRebuildTask(studentId, now))
+                        .toList();
+                invokeAll(tasks);
+                int rebuilt = (int) tasks.stream().filter(StudentRebuildTask::join).count();
+                log.debug("Academic summaries rebuilt: {}/{} students in {} ms", rebuilt, studentIds.size(),
+                        (System.nanoTime() - startedAt) / 1_000_000);
+                return rebuilt;
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private final class StudentRebuildTask extends RecursiveTask<Boolean> {
+        private final UUID studentId;
+        private final Instant now;
+
+        private StudentRebuildTask(UUID studentId, Instant now) {
+            this.studentId = studentId;
+            this.now = now;
+        }
+
+        @Override
+        protected Boolean compute() {
+            try {
+                return summaryService.rebuild(studentId, now, true);
+            } catch (RuntimeException e) {
+                // 仍保持过期标记，下一轮重试
+                log.warn("Academic summary rebuild for student {} failed: {}", studentId, e.getMessage());
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package fin.c3po.score;
+
+import fin.c3po.common.domain.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * 学生学业汇总中的一门课程，覆盖有成绩或已选的课程，随 {@link StudentAcademicSummary} 整体替换
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "student_course_summaries", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_student_course_summaries_student_course", columnNames = {"student_id", "course_id"})
+}, indexes = {
+        @Index(name = "idx_student_course_summaries_course", columnList = "course_id")
+})
+public class StudentCourseSummary extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    private String courseName;
+
+    /**
+     * 学生在该课程有成绩记录（分值可能为空）
+     */
+    private boolean scored;
+
+    private boolean enrolled;
+
+    private int scoreCount;
+
+    private Double averageScore;
+
+    private Integer highestScore;
+
+    private Integer lowestScore;
+
+    private int totalAssignments;
+
+    private int completedAssignments;
+
+    private int gradedAssignments;
+
+    private int overdueAssignments;
+}
@@ -0,0 +1,17 @@
+package fin.c3po.score;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface StudentCourseSummaryRepository extends JpaRepository<StudentCourseSummary, UUID> {
+    List<StudentCourseSummary> findByStudentId(UUID studentId);
+
+    @Modifying
+    @Query("DELETE FROM StudentCourseSummary c WHERE c.studentId = :studentId")
+    int deleteByStudentId(@Param("studentId") UUID studentId);
+}
@@ -0,0 +1,22 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.CourseLearningProgress;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 一名学生在多门课程上的作业完成进度
+ */
+@Value
+@Builder
+public class StudentProgress {
+    Map<UUID, CourseLearningProgress> courses;
+    /**
+     * 尚未提交的作业中最早的未来截止时间；到达后逾期数会变化，没有时为 null
+     */
+    Instant nextDeadline;
+}
@@ -0,0 +1,122 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.CourseLearningProgress;
+import fin.c3po.submission.SubmissionStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 一名学生在多门课程上的作业完成进度
+ * 不论课程与作业数量，只执行两条查询：课程的全部作业、学生在这些作业上的最新一条提交
+ * （最新一条的口径与课程学情一致：按提交时间，缺失时按更新、创建时间）
+ */
+@Component
+public class StudentProgressLoader {
+
+    private static final String ASSIGNMENTS_SQL = """
+            SELECT id, course_id, deadline
+            FROM assignments
+            WHERE course_id IN (:courseIds)
+            """;
+
+    private static final String LATEST_SUBMISSIONS_SQL = """
+            SELECT assignment_id, status, submitted_at
+            FROM (
+                SELECT s.assignment_id, s.status, s.submitted_at,
+                       ROW_NUMBER() OVER (
+                           PARTITION BY s.assignment_id
+                           ORDER BY COALESCE(s.submitted_at, s.updated_at, s.created_at) DESC, s.id DESC
+                       ) AS rn
+                FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                WHERE s.student_id = :studentId AND a.course_id IN (:courseIds)
+            ) latest
+            WHERE latest.rn = 1
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public StudentProgressLoader(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * 按课程返回学习进度；没有作业的课程进度全为 0
+     */
+    @Transactional(readOnly = true)
+    public StudentProgress load(UUID studentId, Collection<UUID> courseIds, Instant now) {
+        Map<UUID, CourseLearningProgress> progress = new HashMap<>();
+        if (courseIds.isEmpty()) {
+            return StudentProgress.builder().courses(progress).build();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("studentId", studentId)
+                .addValue("courseIds", courseIds);
+
+        Map<UUID, Instant> submittedAt = new HashMap<>();
+        Set<UUID> submitted = new HashSet<>();
+        Set<UUID> graded = new HashSet<>();
+        jdbcTemplate.query(LATEST_SUBMISSIONS_SQL, params, rs -> {
+            UUID assignmentId = rs.getObject("assignment_id", UUID.class);
+            submitted.add(assignmentId);
+            if (SubmissionStatus.GRADED.name().equals(rs.getString("status"))) {
+                graded.add(assignmentId);
+            }
+            Timestamp at = rs.getTimestamp("submitted_at");
+            if (at != null) {
+                submittedAt.put(assignmentId, at.toInstant());
+            }
+        });
+
+        Map<UUID, int[]> counters = new HashMap<>();
+        Instant[] nextDeadline = new Instant[1];
+        jdbcTemplate.query(ASSIGNMENTS_SQL, params, rs -> {
+            UUID assignmentId = rs.getObject("id", UUID.class);
+            Timestamp deadlineAt = rs.getTimestamp("deadline");
+            Instant deadline = deadlineAt != null ? deadlineAt.toInstant() : null;
+            // total, completed, graded, overdue
+            int[] counter = counters.computeIfAbsent(rs.getObject("course_id", UUID.class), key -> new int[4]);
+            counter[0]++;
+            if (submitted.contains(assignmentId)) {
+                counter[1]++;
+                if (graded.contains(assignmentId)) {
+                    counter[2]++;
+                }
+                Instant at = submittedAt.get(assignmentId);
+                if (deadline != null && (at == null || at.isAfter(deadline))) {
+                    counter[3]++;
+                }
+            } else if (deadline != null && deadline.isBefore(now)) {
+                counter[3]++;
+            } else if (deadline != null && (nextDeadline[0] == null || deadline.isBefore(nextDeadline[0]))) {
+                nextDeadline[0] = deadline;
+            }
+        });
+
+        for (UUID courseId : courseIds) {
+            int[] counter = counters.getOrDefault(courseId, new int[4]);
+            progress.put(courseId, CourseLearningProgress.builder()
+                    .totalAssignments(counter[0])
+                    .completedAssignments(counter[1])
+                    .gradedAssignments(counter[2])
+                    .overdueAssignments(counter[3])
+                    .build());
+        }
+        return StudentProgress.builder()
+                .courses(progress)
+                .nextDeadline(nextDeadline[0])
+                .build();
+    }
+}
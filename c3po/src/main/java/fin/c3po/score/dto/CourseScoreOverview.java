@@ -8,10 +8,15 @@ import lombok.Value;
 public class CourseScoreOverview {
     Double average;
     Double median;
+    Double p25;
+    Double p75;
+    Double p90;
     Integer highest;
     Integer lowest;
     int scoreCount;
     int studentCount;
+    /** 平均分低于 60 的学生总数，needsAttention 只列出其中平均分最低的一部分 */
+    int needsAttentionCount;
     Double completionRate;
 }
 
@@ -11,7 +11,10 @@ import java.util.UUID;
 @Builder
 public class CourseScoresResponse {
     UUID courseId;
+    /** 当前页的成绩记录 */
     List<ScoreResponse> items;
+    /** 符合筛选条件的成绩记录总数 */
+    long totalItems;
     CourseScoreOverview overview;
     List<ScoreDistributionBucket> distribution;
     Map<String, Double> componentAverages;
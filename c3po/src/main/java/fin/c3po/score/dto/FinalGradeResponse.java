@@ -0,0 +1,19 @@
+package fin.c3po.score.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Value
+@Builder
+public class FinalGradeResponse {
+    UUID courseId;
+    UUID studentId;
+    Double finalScore;
+    Double gradePoint;
+    double gradedWeight;
+    boolean complete;
+    Instant computedAt;
+}
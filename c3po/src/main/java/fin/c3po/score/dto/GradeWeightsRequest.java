@@ -0,0 +1,38 @@
+package fin.c3po.score.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 整体替换课程组成项权重；空列表表示取消总评
+ */
+@Getter
+@Setter
+public class GradeWeightsRequest {
+
+    @NotNull
+    @Size(max = 64)
+    @Valid
+    private List<Entry> weights = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Entry {
+        @NotBlank
+        @Size(max = 64)
+        private String component;
+        @NotNull
+        @DecimalMin(value = "0", inclusive = false)
+        @DecimalMax("100")
+        private Double weight;
+    }
+}
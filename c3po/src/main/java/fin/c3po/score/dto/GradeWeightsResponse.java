@@ -0,0 +1,17 @@
+package fin.c3po.score.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Value
+@Builder
+public class GradeWeightsResponse {
+    UUID courseId;
+    /** 组成项到权重，按组成项名称排序 */
+    Map<String, Double> weights;
+    /** 本次修改后总评有变化的学生数，查询时为 null */
+    Integer recomputedStudents;
+}
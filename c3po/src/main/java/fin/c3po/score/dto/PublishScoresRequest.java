@@ -1,8 +1,11 @@
 package fin.c3po.score.dto;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,6 +21,7 @@ public class PublishScoresRequest {
     private Instant publishAt;
 
     @NotEmpty
+    @Size(max = 50000)
     @Valid
     private List<Entry> scores = new ArrayList<>();
 
@@ -27,8 +31,11 @@ public class PublishScoresRequest {
         @NotNull
         private UUID studentId;
         @NotNull
+        @Size(max = 64)
         private String component;
         @NotNull
+        @Min(0)
+        @Max(100)
         private Integer value;
     }
 }
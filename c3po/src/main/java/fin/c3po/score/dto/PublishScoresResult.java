@@ -0,0 +1,17 @@
+package fin.c3po.score.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 批量发布成绩的结果；同一 (学生, 组成项) 在请求中出现多次时以最后一条为准，只计一次
+ */
+@Value
+@Builder
+public class PublishScoresResult {
+    int total;
+    int created;
+    int updated;
+    /** 分值与现有成绩相同，未写入 */
+    int unchanged;
+}
@@ -1,8 +1,12 @@
 package fin.c3po.score.dto;
 
+import fin.c3po.score.ScoreHistogram;
 import lombok.Builder;
 import lombok.Value;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Value
 @Builder
 public class ScoreDistributionBucket {
@@ -10,6 +14,25 @@ public class ScoreDistributionBucket {
     int from;
     int to;
     long count;
-}
 
+    private static final int[] RANGES = {0, 60, 70, 80, 90, 101};
+    private static final String[] LABELS = {"0-59", "60-69", "70-79", "80-89", "90-100"};
 
+    /**
+     * 按 0-59 / 60-69 / 70-79 / 80-89 / 90-100 分段统计直方图
+     */
+    public static List<ScoreDistributionBucket> standard(ScoreHistogram histogram) {
+        List<ScoreDistributionBucket> buckets = new ArrayList<>(LABELS.length);
+        for (int i = 0; i < LABELS.length; i++) {
+            int from = RANGES[i];
+            int to = RANGES[i + 1] - 1;
+            buckets.add(ScoreDistributionBucket.builder()
+                    .label(LABELS[i])
+                    .from(from)
+                    .to(to)
+                    .count(histogram.countBetween(from, to))
+                    .build());
+        }
+        return buckets;
+    }
+}
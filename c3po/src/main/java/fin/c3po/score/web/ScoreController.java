@@ -1,18 +1,34 @@
 package fin.c3po.score.web;
 
+import fin.c3po.common.cache.SingleFlightCache;
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.PageMeta;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
-import fin.c3po.assignment.Assignment;
-import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.score.CourseScoreAggregate;
+import fin.c3po.score.CourseGradeWeight;
+import fin.c3po.score.CourseScoreAggregateLoader;
+import fin.c3po.score.FinalGrade;
+import fin.c3po.score.FinalGradeEngine;
+import fin.c3po.score.FinalGradeRepository;
+import fin.c3po.score.FinalGradeService;
 import fin.c3po.score.Score;
+import fin.c3po.score.ScoreHistogram;
 import fin.c3po.score.ScoreRepository;
+import fin.c3po.score.ScoreService;
+import fin.c3po.score.StudentAcademicSummary;
+import fin.c3po.score.StudentAcademicSummaryEngine;
+import fin.c3po.score.StudentCourseSummary;
 import fin.c3po.score.dto.CourseScoreOverview;
 import fin.c3po.score.dto.CourseScoreSummary;
 import fin.c3po.score.dto.CourseScoresResponse;
 import fin.c3po.score.dto.CourseLearningProgress;
 import fin.c3po.score.dto.CourseProgressOverview;
+import fin.c3po.score.dto.FinalGradeResponse;
+import fin.c3po.score.dto.GradeWeightsRequest;
+import fin.c3po.score.dto.GradeWeightsResponse;
 import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.score.dto.PublishScoresResult;
 import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserRole;
 import fin.c3po.score.dto.ScoreDistributionBucket;
@@ -23,12 +39,15 @@ import fin.c3po.score.dto.StudentScoreSummary;
 import fin.c3po.score.dto.StudentScoresResponse;
 import fin.c3po.selection.CourseSelectionRepository;
 import fin.c3po.selection.SelectionStatus;
-import fin.c3po.submission.Submission;
-import fin.c3po.submission.SubmissionRepository;
-import fin.c3po.submission.SubmissionStatus;
 import fin.c3po.report.ReportJobType;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -37,6 +56,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -46,12 +66,12 @@ import org.springframework.web.server.ResponseStatusException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -61,11 +81,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ScoreController {
 
+    private static final Sort COURSE_SCORES_SORT = Sort.by("component", "studentId", "id");
+    private static final String COURSE_SCORES_SORT_LABEL = "component,asc;studentId,asc";
+    private static final int TOP_PERFORMER_LIMIT = 5;
+    /** needsAttention 名单的最大条数，总人数见 overview.needsAttentionCount */
+    private static final int NEEDS_ATTENTION_LIMIT = 50;
+    private static final Sort FINAL_GRADES_SORT = Sort.by("studentId");
+
     private final ScoreRepository scoreRepository;
     private final CourseRepository courseRepository;
     private final CourseSelectionRepository courseSelectionRepository;
-    private final AssignmentRepository assignmentRepository;
-    private final SubmissionRepository submissionRepository;
+    private final ScoreService scoreService;
+    private final StudentAcademicSummaryEngine academicSummaryEngine;
+    private final CourseScoreAggregateLoader scoreAggregateLoader;
+    private final FinalGradeService finalGradeService;
+    private final FinalGradeEngine finalGradeEngine;
+    private final FinalGradeRepository finalGradeRepository;
+    private final SingleFlightCache<CourseScoresResponse> courseScoresCache;
+    private final SingleFlightCache<StudentScoresResponse> studentScoresCache;
 
     @GetMapping("/students/{studentId}/scores")
     public ApiResponse<StudentScoresResponse> studentScores(
@@ -73,28 +106,36 @@ public class ScoreController {
             @AuthenticationPrincipal UserAccount currentUser) {
 
         ensureViewPermission(studentId, currentUser);
-        List<Score> scores = scoreRepository.findByStudentId(studentId);
-        StudentScoresResponse response = buildStudentScoresResponse(studentId, scores);
+        StudentScoresResponse response = studentScoresCache.get(studentId, "all",
+                () -> buildStudentScoresResponse(studentId, scoreRepository.findByStudentId(studentId)));
         return ApiResponse.success(response);
     }
 
+    /**
+     * 课程成绩列表：筛选条件在数据库端执行，成绩记录分页返回，统计部分由数据库分组聚合
+     */
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
     @GetMapping("/courses/{courseId}/scores")
     public ApiResponse<CourseScoresResponse> courseScores(
             @PathVariable UUID courseId,
             @RequestParam(name = "component", required = false) String component,
             @RequestParam(name = "studentId", required = false) UUID studentFilter,
+            @RequestParam(name = "page", defaultValue = "1") @Min(1) int page,
+            @RequestParam(name = "pageSize", defaultValue = "50") @Min(1) @Max(200) int pageSize,
             @AuthenticationPrincipal UserAccount currentUser) {
 
         ensureCoursePermission(currentUser, courseId);
-        List<Score> scores = scoreRepository.findByCourseId(courseId);
-        List<Score> filtered = scores.stream()
-                .filter(score -> component == null || component.equalsIgnoreCase(score.getComponent()))
-                .filter(score -> studentFilter == null || studentFilter.equals(score.getStudentId()))
-                .toList();
-
-        CourseScoresResponse response = buildCourseScoresResponse(courseId, filtered);
-        return ApiResponse.success(response);
+        String key = "component=" + (component == null ? "" : component.toLowerCase(Locale.ROOT))
+                + "|student=" + (studentFilter == null ? "" : studentFilter)
+                + "|page=" + page + "|size=" + pageSize;
+        CourseScoresResponse response = courseScoresCache.get(courseId, key,
+                () -> buildCourseScoresResponse(courseId, component, studentFilter, page, pageSize));
+        return ApiResponse.success(response, PageMeta.builder()
+                .page(page)
+                .pageSize(pageSize)
+                .total(response.getTotalItems())
+                .sort(COURSE_SCORES_SORT_LABEL)
+                .build());
     }
 
     @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
@@ -107,14 +148,92 @@ public class ScoreController {
         ensureCoursePermission(currentUser, courseId);
         Instant releaseTime = request.getPublishAt() != null ? request.getPublishAt() : Instant.now();
 
-        List<ScoreResponse> responses = request.getScores().stream()
-                .map(entry -> upsertScore(courseId, entry.getStudentId(), entry.getComponent(), entry.getValue(), releaseTime))
+        List<ScoreResponse> responses = scoreService.publish(courseId, request.getScores(), releaseTime).stream()
                 .map(this::toResponse)
                 .toList();
 
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(responses));
     }
 
+    /**
+     * 大批量发布：按批 upsert，只返回新建、更新与未变化的条数
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PostMapping("/courses/{courseId}/scores/publish/bulk")
+    public ApiResponse<PublishScoresResult> publishScoresBulk(
+            @PathVariable UUID courseId,
+            @Valid @RequestBody PublishScoresRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        ensureCoursePermission(currentUser, courseId);
+        Instant releaseTime = request.getPublishAt() != null ? request.getPublishAt() : Instant.now();
+        return ApiResponse.success(scoreService.publishBulk(courseId, request.getScores(), releaseTime));
+    }
+
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/courses/{courseId}/grade-weights")
+    public ApiResponse<GradeWeightsResponse> gradeWeights(
+            @PathVariable UUID courseId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        ensureCoursePermission(currentUser, courseId);
+        return ApiResponse.success(toWeightsResponse(courseId, finalGradeService.weights(courseId), null));
+    }
+
+    /**
+     * 整体替换组成项权重，并在返回前重算课程内所有有成绩的学生的总评
+     */
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @PutMapping("/courses/{courseId}/grade-weights")
+    public ApiResponse<GradeWeightsResponse> updateGradeWeights(
+            @PathVariable UUID courseId,
+            @Valid @RequestBody GradeWeightsRequest request,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        ensureCoursePermission(currentUser, courseId);
+        Map<String, Double> weights = new LinkedHashMap<>();
+        for (GradeWeightsRequest.Entry entry : request.getWeights()) {
+            if (weights.put(entry.getComponent(), entry.getWeight()) != null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Duplicate component: " + entry.getComponent());
+            }
+        }
+        int recomputed = finalGradeEngine.updateWeights(courseId, weights);
+        return ApiResponse.success(toWeightsResponse(courseId, finalGradeService.weights(courseId), recomputed));
+    }
+
+    @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+    @GetMapping("/courses/{courseId}/final-grades")
+    public ApiResponse<List<FinalGradeResponse>> finalGrades(
+            @PathVariable UUID courseId,
+            @RequestParam(name = "page", defaultValue = "1") @Min(1) int page,
+            @RequestParam(name = "pageSize", defaultValue = "50") @Min(1) @Max(200) int pageSize,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        ensureCoursePermission(currentUser, courseId);
+        Page<FinalGrade> grades = finalGradeRepository.findByCourseId(courseId,
+                PageRequest.of(page - 1, pageSize, FINAL_GRADES_SORT));
+        return ApiResponse.success(grades.getContent().stream().map(this::toFinalGradeResponse).toList(),
+                PageMeta.builder()
+                        .page(page)
+                        .pageSize(pageSize)
+                        .total(grades.getTotalElements())
+                        .sort("studentId,asc")
+                        .build());
+    }
+
+    @GetMapping("/courses/{courseId}/final-grades/{studentId}")
+    public ApiResponse<FinalGradeResponse> finalGrade(
+            @PathVariable UUID courseId,
+            @PathVariable UUID studentId,
+            @AuthenticationPrincipal UserAccount currentUser) {
+
+        ensureViewPermission(studentId, currentUser);
+        FinalGrade grade = finalGradeRepository.findByCourseIdAndStudentId(courseId, studentId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Final grade not found"));
+        return ApiResponse.success(toFinalGradeResponse(grade));
+    }
+
     private void ensureViewPermission(UUID studentId, UserAccount currentUser) {
         if (currentUser == null) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Not authenticated");
@@ -145,17 +264,6 @@ public class ScoreController {
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to access course scores");
     }
 
-    private Score upsertScore(UUID courseId, UUID studentId, String component, Integer value, Instant releaseTime) {
-        Score score = scoreRepository.findByStudentIdAndCourseIdAndComponent(studentId, courseId, component)
-                .orElseGet(Score::new);
-        score.setCourseId(courseId);
-        score.setStudentId(studentId);
-        score.setComponent(component);
-        score.setValue(value);
-        score.setReleasedAt(releaseTime);
-        return scoreRepository.save(score);
-    }
-
     private ScoreResponse toResponse(Score score) {
         return ScoreResponse.builder()
                 .id(score.getId())
@@ -169,6 +277,29 @@ public class ScoreController {
                 .build();
     }
 
+    private GradeWeightsResponse toWeightsResponse(UUID courseId, List<CourseGradeWeight> weights,
+                                                   Integer recomputed) {
+        Map<String, Double> byComponent = new LinkedHashMap<>();
+        weights.forEach(weight -> byComponent.put(weight.getComponent(), weight.getWeight()));
+        return GradeWeightsResponse.builder()
+                .courseId(courseId)
+                .weights(byComponent)
+                .recomputedStudents(recomputed)
+                .build();
+    }
+
+    private FinalGradeResponse toFinalGradeResponse(FinalGrade grade) {
+        return FinalGradeResponse.builder()
+                .courseId(grade.getCourseId())
+                .studentId(grade.getStudentId())
+                .finalScore(grade.getFinalScore())
+                .gradePoint(grade.getGradePoint())
+                .gradedWeight(grade.getGradedWeight())
+                .complete(grade.isComplete())
+                .computedAt(grade.getComputedAt())
+                .build();
+    }
+
     private StudentScoresResponse buildStudentScoresResponse(UUID studentId, List<Score> scores) {
         List<ScoreResponse> items = scores.stream()
                 .map(this::toResponse)
@@ -177,79 +308,58 @@ public class ScoreController {
         Map<UUID, List<Score>> scoresByCourse = scores.stream()
                 .collect(Collectors.groupingBy(Score::getCourseId));
 
-        Map<UUID, Course> courseMap = courseRepository.findAllById(scoresByCourse.keySet())
-                .stream()
-                .collect(Collectors.toMap(Course::getId, course -> course));
+        // 平均分、绩点与完成进度读取物化的学业汇总，只有组成项均分由本次读取的成绩计算
+        StudentAcademicSummary academicSummary = academicSummaryEngine.summary(studentId);
+        List<StudentCourseSummary> scoredCourses = academicSummaryEngine.courses(studentId).stream()
+                .filter(StudentCourseSummary::isScored)
+                .toList();
+        Map<UUID, String> courseNames = new HashMap<>();
+        scoredCourses.forEach(course -> courseNames.put(course.getCourseId(), course.getCourseName()));
 
         List<CourseScoreSummary> courseSummaries = new ArrayList<>();
-        int totalAssignments = 0;
-        int completedAssignments = 0;
-        int gradedAssignments = 0;
-        int overdueAssignments = 0;
-        List<Integer> allScoreValues = new ArrayList<>();
-
-        for (Map.Entry<UUID, List<Score>> entry : scoresByCourse.entrySet()) {
-            UUID courseId = entry.getKey();
-            List<Score> courseScores = entry.getValue();
-            Course course = courseMap.get(courseId);
-
-            DoubleSummaryStatistics stats = courseScores.stream()
-                    .map(Score::getValue)
-                    .filter(Objects::nonNull)
-                    .mapToDouble(Integer::doubleValue)
-                    .summaryStatistics();
-
-            courseScores.stream()
-                    .map(Score::getValue)
-                    .filter(Objects::nonNull)
-                    .forEach(allScoreValues::add);
-
-            Map<String, Double> componentAverages = averageByComponent(courseScores);
-            CourseLearningProgress progress = computeCourseLearningProgress(courseId, studentId);
-
-            totalAssignments += progress.getTotalAssignments();
-            completedAssignments += progress.getCompletedAssignments();
-            gradedAssignments += progress.getGradedAssignments();
-            overdueAssignments += progress.getOverdueAssignments();
-
+        for (StudentCourseSummary course : scoredCourses) {
             courseSummaries.add(CourseScoreSummary.builder()
-                    .courseId(courseId)
-                    .courseName(course != null ? course.getName() : null)
-                    .average(stats.getCount() > 0 ? round(stats.getAverage()) : null)
-                    .highest(stats.getCount() > 0 ? (int) Math.round(stats.getMax()) : null)
-                    .lowest(stats.getCount() > 0 ? (int) Math.round(stats.getMin()) : null)
-                    .scoreCount((int) stats.getCount())
-                    .componentAverages(componentAverages)
-                    .progress(progress)
+                    .courseId(course.getCourseId())
+                    .courseName(course.getCourseName())
+                    .average(course.getAverageScore())
+                    .highest(course.getHighestScore())
+                    .lowest(course.getLowestScore())
+                    .scoreCount(course.getScoreCount())
+                    .componentAverages(averageByComponent(
+                            scoresByCourse.getOrDefault(course.getCourseId(), List.of())))
+                    .progress(CourseLearningProgress.builder()
+                            .totalAssignments(course.getTotalAssignments())
+                            .completedAssignments(course.getCompletedAssignments())
+                            .gradedAssignments(course.getGradedAssignments())
+                            .overdueAssignments(course.getOverdueAssignments())
+                            .build())
                     .build());
         }
 
         CourseProgressOverview progressOverview = CourseProgressOverview.builder()
-                .totalCourses(scoresByCourse.size())
-                .totalAssignments(totalAssignments)
-                .completedAssignments(completedAssignments)
-                .gradedAssignments(gradedAssignments)
-                .overdueAssignments(overdueAssignments)
+                .totalCourses(academicSummary.getScoredCourses())
+                .totalAssignments(academicSummary.getTotalAssignments())
+                .completedAssignments(academicSummary.getCompletedAssignments())
+                .gradedAssignments(academicSummary.getGradedAssignments())
+                .overdueAssignments(academicSummary.getOverdueAssignments())
                 .build();
 
         StudentScoreSummary summary = StudentScoreSummary.builder()
-                .overallAverage(allScoreValues.isEmpty() ? null : round(allScoreValues.stream().mapToDouble(Integer::doubleValue).average().orElse(0)))
-                .median(allScoreValues.isEmpty() ? null : computeMedian(allScoreValues))
-                .gpa(allScoreValues.isEmpty() ? null : round(allScoreValues.stream().mapToDouble(this::convertScoreToGpa).average().orElse(0)))
+                .overallAverage(academicSummary.getAverageScore())
+                .median(academicSummary.getMedianScore())
+                .gpa(academicSummary.getGpa())
                 .progress(progressOverview)
                 .courses(courseSummaries.stream()
                         .sorted(Comparator.comparing(CourseScoreSummary::getAverage, Comparator.nullsLast(Comparator.reverseOrder())))
                         .toList())
-                .insights(generateInsights(progressOverview, allScoreValues, courseSummaries))
+                .insights(generateInsights(progressOverview, academicSummary.getAverageScore(), courseSummaries))
                 .build();
 
         List<ScoreTrendPoint> trend = scores.stream()
                 .filter(score -> score.getValue() != null)
                 .sorted(Comparator.comparing(this::resolveTimestamp))
                 .map(score -> ScoreTrendPoint.builder()
-                        .courseName(Optional.ofNullable(courseMap.get(score.getCourseId()))
-                                .map(Course::getName)
-                                .orElse(null))
+                        .courseName(courseNames.get(score.getCourseId()))
                         .component(score.getComponent())
                         .value(score.getValue().doubleValue())
                         .timestamp(resolveTimestamp(score))
@@ -261,7 +371,7 @@ public class ScoreController {
                 .suggestedJobType(ReportJobType.SCORE_EXPORT.name())
                 .suggestedParams(Map.of(
                         "studentId", studentId.toString(),
-                        "courseIds", scoresByCourse.keySet().stream().map(UUID::toString).toList()
+                        "courseIds", courseNames.keySet().stream().map(UUID::toString).toList()
                 ))
                 .instructions("调用 POST /api/v1/jobs/reports 并传入建议参数即可生成成绩导出任务。")
                 .build();
@@ -275,63 +385,59 @@ public class ScoreController {
                 .build();
     }
 
-    private CourseScoresResponse buildCourseScoresResponse(UUID courseId, List<Score> scores) {
-        List<ScoreResponse> items = scores.stream()
-                .map(this::toResponse)
-                .toList();
-
-        List<Integer> values = scores.stream()
-                .map(Score::getValue)
-                .filter(Objects::nonNull)
-                .toList();
-
-        DoubleSummaryStatistics stats = values.stream()
-                .mapToDouble(Integer::doubleValue)
-                .summaryStatistics();
-
-        Map<UUID, DoubleSummaryStatistics> statisticsByStudent = scores.stream()
-                .filter(score -> score.getValue() != null)
-                .collect(Collectors.groupingBy(
-                        Score::getStudentId,
-                        Collectors.summarizingDouble(score -> score.getValue().doubleValue())
-                ));
-
-        List<String> topPerformers = statisticsByStudent.entrySet().stream()
-                .sorted(Map.Entry.<UUID, DoubleSummaryStatistics>comparingByValue(Comparator.comparingDouble(DoubleSummaryStatistics::getAverage)).reversed())
-                .limit(5)
-                .map(entry -> entry.getKey().toString())
-                .toList();
+    private CourseScoresResponse buildCourseScoresResponse(UUID courseId, String component, UUID studentFilter,
+                                                           int page, int pageSize) {
+        // 组成项按名称不区分大小写匹配，先换算成课程中实际存在的名称，查询时即可走索引上的等值匹配
+        List<String> components = component == null ? null
+                : scoreAggregateLoader.matchingComponents(courseId, component);
+
+        Page<Score> items;
+        if (components != null && components.isEmpty()) {
+            items = Page.empty(PageRequest.of(page - 1, pageSize, COURSE_SCORES_SORT));
+        } else {
+            Specification<Score> specification = (root, query, cb) -> cb.equal(root.get("courseId"), courseId);
+            if (components != null) {
+                specification = specification.and((root, query, cb) -> root.get("component").in(components));
+            }
+            if (studentFilter != null) {
+                specification = specification.and((root, query, cb) -> cb.equal(root.get("studentId"), studentFilter));
+            }
+            items = scoreRepository.findAll(specification, PageRequest.of(page - 1, pageSize, COURSE_SCORES_SORT));
+        }
 
-        List<String> needsAttention = statisticsByStudent.entrySet().stream()
-                .filter(entry -> entry.getValue().getCount() > 0 && entry.getValue().getAverage() < 60)
-                .map(entry -> entry.getKey().toString())
-                .toList();
+        CourseScoreAggregate aggregate = scoreAggregateLoader.load(courseId, components, studentFilter,
+                TOP_PERFORMER_LIMIT, NEEDS_ATTENTION_LIMIT);
+        ScoreHistogram histogram = aggregate.getHistogram();
 
         long enrolledCount = courseSelectionRepository.countByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED);
-        double completionRate = enrolledCount == 0 ? 0.0 : round(statisticsByStudent.size() / (double) enrolledCount);
+        double completionRate = enrolledCount == 0 ? 0.0 : round(aggregate.getStudentCount() / (double) enrolledCount);
 
         CourseScoreOverview overview = CourseScoreOverview.builder()
-                .average(values.isEmpty() ? null : round(stats.getAverage()))
-                .median(values.isEmpty() ? null : computeMedian(values))
-                .highest(values.isEmpty() ? null : values.stream().max(Integer::compareTo).orElse(null))
-                .lowest(values.isEmpty() ? null : values.stream().min(Integer::compareTo).orElse(null))
-                .scoreCount(values.size())
-                .studentCount(statisticsByStudent.size())
+                .average(roundOrNull(histogram.average()))
+                .median(roundOrNull(histogram.median()))
+                .p25(roundOrNull(histogram.percentile(25)))
+                .p75(roundOrNull(histogram.percentile(75)))
+                .p90(roundOrNull(histogram.percentile(90)))
+                .highest(histogram.max())
+                .lowest(histogram.min())
+                .scoreCount((int) histogram.count())
+                .studentCount(aggregate.getStudentCount())
+                .needsAttentionCount(aggregate.getNeedsAttentionCount())
                 .completionRate(completionRate)
                 .build();
 
-        List<ScoreDistributionBucket> distribution = buildDistribution(values);
-
-        Map<String, Double> componentAverages = averageByComponent(scores);
+        Map<String, Double> componentAverages = new LinkedHashMap<>();
+        aggregate.getComponentAverages().forEach((name, average) -> componentAverages.put(name, round(average)));
 
         return CourseScoresResponse.builder()
                 .courseId(courseId)
-                .items(items)
+                .items(items.getContent().stream().map(this::toResponse).toList())
+                .totalItems(items.getTotalElements())
                 .overview(overview)
-                .distribution(distribution)
+                .distribution(ScoreDistributionBucket.standard(histogram))
                 .componentAverages(componentAverages)
-                .topPerformers(topPerformers)
-                .needsAttention(needsAttention)
+                .topPerformers(aggregate.getTopPerformers().stream().map(UUID::toString).toList())
+                .needsAttention(aggregate.getNeedsAttention().stream().map(UUID::toString).toList())
                 .build();
     }
 
@@ -349,29 +455,6 @@ public class ScoreController {
         return rounded;
     }
 
-    private List<ScoreDistributionBucket> buildDistribution(List<Integer> values) {
-        int[] ranges = {0, 60, 70, 80, 90, 101};
-        String[] labels = {"0-59", "60-69", "70-79", "80-89", "90-100"};
-        List<ScoreDistributionBucket> buckets = new ArrayList<>();
-
-        for (int i = 0; i < labels.length; i++) {
-            int from = ranges[i];
-            int to = ranges[i + 1] - 1;
-            long count = values.stream()
-                    .filter(value -> value >= from && value <= to)
-                    .count();
-
-            buckets.add(ScoreDistributionBucket.builder()
-                    .label(labels[i])
-                    .from(from)
-                    .to(to)
-                    .count(count)
-                    .build());
-        }
-
-        return buckets;
-    }
-
     private Instant resolveTimestamp(Score score) {
         if (score.getReleasedAt() != null) {
             return score.getReleasedAt();
@@ -382,100 +465,20 @@ public class ScoreController {
         return score.getCreatedAt();
     }
 
-    private Double computeMedian(List<Integer> values) {
-        if (values.isEmpty()) {
-            return null;
-        }
-        List<Integer> sorted = values.stream()
-                .sorted()
-                .toList();
-        int size = sorted.size();
-        if (size % 2 == 1) {
-            return sorted.get(size / 2).doubleValue();
-        }
-        double left = sorted.get(size / 2 - 1);
-        double right = sorted.get(size / 2);
-        return round((left + right) / 2.0);
-    }
-
-    private double convertScoreToGpa(double score) {
-        if (score >= 90) {
-            return 4.0;
-        } else if (score >= 85) {
-            return 3.7;
-        } else if (score >= 80) {
-            return 3.3;
-        } else if (score >= 75) {
-            return 3.0;
-        } else if (score >= 70) {
-            return 2.7;
-        } else if (score >= 65) {
-            return 2.3;
-        } else if (score >= 60) {
-            return 2.0;
-        } else if (score >= 50) {
-            return 1.0;
-        }
-        return 0.0;
-    }
-
     private double round(double value) {
         return Math.round(value * 100.0) / 100.0;
     }
 
-    private CourseLearningProgress computeCourseLearningProgress(UUID courseId, UUID studentId) {
-        List<Assignment> assignments = assignmentRepository.findByCourseId(courseId);
-        if (assignments.isEmpty()) {
-            return CourseLearningProgress.builder()
-                    .totalAssignments(0)
-                    .completedAssignments(0)
-                    .gradedAssignments(0)
-                    .overdueAssignments(0)
-                    .build();
-        }
-
-        int completed = 0;
-        int graded = 0;
-        int overdue = 0;
-        Instant now = Instant.now();
-
-        for (Assignment assignment : assignments) {
-            Optional<Submission> submissionOpt = submissionRepository.findTopByAssignmentIdAndStudentIdOrderBySubmittedAtDesc(
-                    assignment.getId(), studentId);
-            Instant deadline = assignment.getDeadline();
-
-            if (submissionOpt.isPresent()) {
-                Submission submission = submissionOpt.get();
-                completed++;
-                if (submission.getStatus() == SubmissionStatus.GRADED) {
-                    graded++;
-                }
-                if (deadline != null) {
-                    Instant submittedAt = submission.getSubmittedAt();
-                    if (submittedAt == null || submittedAt.isAfter(deadline)) {
-                        overdue++;
-                    }
-                }
-            } else if (deadline != null && deadline.isBefore(now)) {
-                overdue++;
-            }
-        }
-
-        return CourseLearningProgress.builder()
-                .totalAssignments(assignments.size())
-                .completedAssignments(completed)
-                .gradedAssignments(graded)
-                .overdueAssignments(overdue)
-                .build();
+    private Double roundOrNull(Double value) {
+        return value == null ? null : round(value);
     }
 
     private List<String> generateInsights(CourseProgressOverview progressOverview,
-                                          List<Integer> allScores,
+                                          Double average,
                                           List<CourseScoreSummary> courseSummaries) {
         List<String> insights = new ArrayList<>();
 
-        if (!allScores.isEmpty()) {
-            double average = allScores.stream().mapToDouble(Integer::doubleValue).average().orElse(0);
+        if (average != null) {
             if (average >= 90) {
                 insights.add("整体表现优秀，继续保持。");
             } else if (average >= 75) {
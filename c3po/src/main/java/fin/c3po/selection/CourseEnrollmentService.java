@@ -0,0 +1,251 @@
+package fin.c3po.selection;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 选课 / 退课 / 候补
+ * 名额通过课程计数的条件更新原子占用，(course_id, student_id) 唯一约束兜底重复选课；
+ * 任一步失败都会抛出异常回滚整个事务，因此计数与选课记录始终一致，高并发下也不会超卖。
+ * 课程满员（或已有人候补）时进入候补队列，空出的名额由 {@link WaitlistPromoter} 按候补顺序批量递补
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseEnrollmentService {
+
+    private final CourseRepository courseRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 选课；返回的记录状态为 ENROLLED 或 WAITLISTED
+     */
+    @Transactional
+    public CourseSelection enroll(UUID courseId, UUID studentId) {
+        Optional<CourseSelection> existing = courseSelectionRepository.findByCourseIdAndStudentId(courseId, studentId);
+        if (existing.isPresent() && existing.get().getStatus() == SelectionStatus.ENROLLED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already enrolled");
+        }
+        if (existing.isPresent() && existing.get().getStatus() == SelectionStatus.WAITLISTED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already on the waitlist");
+        }
+
+        SelectionStatus status = SelectionStatus.ENROLLED;
+        if (courseRepository.reserveSeat(courseId, CourseStatus.PUBLISHED, SelectionStatus.WAITLISTED) == 0) {
+            ensureOpenForEnrollment(courseId);
+            status = SelectionStatus.WAITLISTED;
+        }
+
+        Instant now = Instant.now();
+        CourseSelection selection;
+        if (existing.isPresent()) {
+            // 之前退过课：条件更新防止同一学生的并发请求重复占位
+            selection = existing.get();
+            if (courseSelectionRepository.transitionStatusById(
+                    selection.getId(), selection.getStatus(), status, now) == 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Already enrolled");
+            }
+            selection.setStatus(status);
+            selection.setSelectedAt(now);
+        } else {
+            selection = new CourseSelection();
+            selection.setCourseId(courseId);
+            selection.setStudentId(studentId);
+            selection.setStatus(status);
+            selection.setSelectedAt(now);
+            try {
+                selection = courseSelectionRepository.saveAndFlush(selection);
+            } catch (DataIntegrityViolationException e) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Already enrolled");
+            }
+        }
+
+        if (status == SelectionStatus.ENROLLED) {
+            eventPublisher.publishEvent(CourseChangedEvent.enrollmentChanged(courseId, List.of(studentId)));
+        }
+        return selection;
+    }
+
+    /**
+     * 抢课模式的批量选课：锁定课程行后按提交顺序依次分配剩余名额，名额用完后其余学生进入候补，
+     * 一次查询已有选课记录、一次批量写入、一次计数更新
+     *
+     * @return 与 studentIds 顺序一致的处理结果
+     */
+    @Transactional
+    public List<EnrollmentOutcome> enrollBatch(UUID courseId, List<UUID> studentIds) {
+        Course course = courseRepository.findByIdForUpdate(courseId).orElse(null);
+        if (course == null || course.getStatus() != CourseStatus.PUBLISHED) {
+            String reason = course == null ? "Course not found" : "Course is not open for enrollment";
+            return studentIds.stream()
+                    .map(studentId -> EnrollmentOutcome.rejected(studentId, reason))
+                    .toList();
+        }
+
+        Map<UUID, CourseSelection> existing = courseSelectionRepository
+                .findByCourseIdAndStudentIdIn(courseId, studentIds)
+                .stream()
+                .collect(Collectors.toMap(CourseSelection::getStudentId, selection -> selection));
+        int available = availableSeats(course);
+
+        Instant now = Instant.now();
+        Set<UUID> seen = new HashSet<>();
+        List<CourseSelection> changed = new ArrayList<>();
+        List<EnrollmentOutcome> outcomes = new ArrayList<>(studentIds.size());
+        int enrolled = 0;
+        for (UUID studentId : studentIds) {
+            CourseSelection selection = existing.get(studentId);
+            String rejection = rejectionReason(selection, !seen.add(studentId));
+            if (rejection != null) {
+                outcomes.add(EnrollmentOutcome.rejected(studentId, rejection));
+                continue;
+            }
+            if (selection == null) {
+                selection = new CourseSelection();
+                selection.setCourseId(courseId);
+                selection.setStudentId(studentId);
+            }
+            if (enrolled < available) {
+                selection.setStatus(SelectionStatus.ENROLLED);
+                enrolled++;
+            } else {
+                selection.setStatus(SelectionStatus.WAITLISTED);
+            }
+            selection.setSelectedAt(now);
+            changed.add(selection);
+            outcomes.add(EnrollmentOutcome.admitted(selection));
+        }
+
+        if (!changed.isEmpty()) {
+            courseSelectionRepository.saveAll(changed);
+        }
+        if (enrolled > 0) {
+            courseRepository.addEnrolledCount(courseId, enrolled);
+            eventPublisher.publishEvent(CourseChangedEvent.enrollmentChanged(courseId, changed.stream()
+                    .filter(selection -> selection.getStatus() == SelectionStatus.ENROLLED)
+                    .map(CourseSelection::getStudentId)
+                    .toList()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * 按候补顺序把空出的名额分配给候补学生，单次最多递补 maxBatch 人
+     *
+     * @return 本次递补成功的学生ID
+     */
+    @Transactional
+    public List<UUID> promoteWaitlisted(UUID courseId, int maxBatch) {
+        Course course = courseRepository.findByIdForUpdate(courseId).orElse(null);
+        if (course == null || course.getStatus() != CourseStatus.PUBLISHED) {
+            return List.of();
+        }
+        int limit = Math.min(course.getEnrollLimit() == null
+                ? Integer.MAX_VALUE
+                : course.getEnrollLimit() - course.getEnrolledCount(), maxBatch);
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        List<CourseSelection> promoted = courseSelectionRepository.findByCourseIdAndStatusOrderBySelectedAtAscIdAsc(
+                courseId, SelectionStatus.WAITLISTED, PageRequest.of(0, limit));
+        if (promoted.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        promoted.forEach(selection -> {
+            selection.setStatus(SelectionStatus.ENROLLED);
+            selection.setSelectedAt(now);
+        });
+        courseSelectionRepository.saveAll(promoted);
+        courseRepository.addEnrolledCount(courseId, promoted.size());
+        List<UUID> promotedStudents = promoted.stream().map(CourseSelection::getStudentId).toList();
+        eventPublisher.publishEvent(CourseChangedEvent.enrollmentChanged(courseId, promotedStudents));
+        return promotedStudents;
+    }
+
+    /**
+     * 候补中的学生排在第几位（从 1 开始）
+     */
+    public long waitlistPosition(CourseSelection selection) {
+        return courseSelectionRepository.countQueuedBefore(selection.getCourseId(), SelectionStatus.WAITLISTED,
+                selection.getSelectedAt(), selection.getId()) + 1;
+    }
+
+    /**
+     * 退课或退出候补；只有退掉已选课程才会释放名额
+     */
+    @Transactional
+    public void drop(UUID courseId, UUID studentId) {
+        Instant now = Instant.now();
+        int dropped = courseSelectionRepository.transitionStatus(courseId, studentId,
+                SelectionStatus.ENROLLED, SelectionStatus.DROPPED, now);
+        if (dropped > 0) {
+            courseRepository.decrementEnrolledCount(courseId);
+            eventPublisher.publishEvent(CourseChangedEvent.enrollmentChanged(courseId, List.of(studentId)));
+            return;
+        }
+
+        if (courseSelectionRepository.transitionStatus(courseId, studentId,
+                SelectionStatus.WAITLISTED, SelectionStatus.DROPPED, now) > 0) {
+            return;
+        }
+        if (courseSelectionRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Enrollment is not active");
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Enrollment not found");
+    }
+
+    private String rejectionReason(CourseSelection existing, boolean duplicateInBatch) {
+        if (duplicateInBatch) {
+            return "Duplicate enrollment request";
+        }
+        if (existing == null) {
+            return null;
+        }
+        return switch (existing.getStatus()) {
+            case ENROLLED -> "Already enrolled";
+            case WAITLISTED -> "Already on the waitlist";
+            default -> null;
+        };
+    }
+
+    private int availableSeats(Course course) {
+        // 已有学生候补时，新请求一律排到候补队列末尾
+        if (courseSelectionRepository.existsByCourseIdAndStatus(course.getId(), SelectionStatus.WAITLISTED)) {
+            return 0;
+        }
+        return course.getEnrollLimit() == null
+                ? Integer.MAX_VALUE
+                : Math.max(course.getEnrollLimit() - course.getEnrolledCount(), 0);
+    }
+
+    private void ensureOpenForEnrollment(UUID courseId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
+        if (course.getStatus() != CourseStatus.PUBLISHED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Course is not open for enrollment");
+        }
+    }
+}
@@ -5,7 +5,9 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -17,7 +19,11 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "course_selections")
+@Table(name = "course_selections", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_selections_course_student", columnNames = {"course_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_course_selections_course_status_selected_at", columnList = "course_id, status, selected_at")
+})
 public class CourseSelection extends BaseEntity {
 
     @Column(nullable = false)
@@ -1,7 +1,13 @@
 package fin.c3po.selection;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,6 +19,49 @@ public interface CourseSelectionRepository extends JpaRepository<CourseSelection
     List<CourseSelection> findByCourseIdAndStatus(UUID courseId, SelectionStatus status);
     long countByCourseIdAndStatus(UUID courseId, SelectionStatus status);
     Optional<CourseSelection> findByCourseIdAndStudentId(UUID courseId, UUID studentId);
-}
+    List<CourseSelection> findByCourseIdAndStudentIdIn(UUID courseId, Collection<UUID> studentIds);
+
+    boolean existsByCourseIdAndStatus(UUID courseId, SelectionStatus status);
+
+    /**
+     * 候补队列：按加入候补的时间先后排序
+     */
+    List<CourseSelection> findByCourseIdAndStatusOrderBySelectedAtAscIdAsc(UUID courseId, SelectionStatus status,
+                                                                          Pageable pageable);
 
+    @Query("SELECT DISTINCT s.courseId FROM CourseSelection s WHERE s.status = :status")
+    List<UUID> findCourseIdsByStatus(@Param("status") SelectionStatus status);
 
+    /**
+     * 排在指定记录之前的记录数，与候补队列一致按 (selected_at, id) 排序，同一批次写入的相同时间也能区分先后
+     */
+    @Query("SELECT COUNT(s) FROM CourseSelection s WHERE s.courseId = :courseId AND s.status = :status "
+            + "AND (s.selectedAt < :selectedAt OR (s.selectedAt = :selectedAt AND s.id < :id))")
+    long countQueuedBefore(@Param("courseId") UUID courseId,
+                           @Param("status") SelectionStatus status,
+                           @Param("selectedAt") Instant selectedAt,
+                           @Param("id") UUID id);
+
+    /**
+     * 条件更新选课状态，仅当记录当前状态为 expected 时生效，返回受影响行数
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseSelection s SET s.status = :status, s.selectedAt = :at, s.updatedAt = :at "
+            + "WHERE s.id = :id AND s.status = :expected")
+    int transitionStatusById(@Param("id") UUID id,
+                             @Param("expected") SelectionStatus expected,
+                             @Param("status") SelectionStatus status,
+                             @Param("at") Instant at);
+
+    /**
+     * 条件更新选课状态，仅当当前状态为 expected 时生效，返回受影响行数
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CourseSelection s SET s.status = :status, s.selectedAt = :at, s.updatedAt = :at "
+            + "WHERE s.courseId = :courseId AND s.studentId = :studentId AND s.status = :expected")
+    int transitionStatus(@Param("courseId") UUID courseId,
+                         @Param("studentId") UUID studentId,
+                         @Param("expected") SelectionStatus expected,
+                         @Param("status") SelectionStatus status,
+                         @Param("at") Instant at);
+}
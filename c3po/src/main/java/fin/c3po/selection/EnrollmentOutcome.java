@@ -0,0 +1,27 @@
+package fin.c3po.selection;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * 批量选课中单个学生的处理结果，selection 为空表示被拒绝
+ */
+@Value
+public class EnrollmentOutcome {
+    UUID studentId;
+    CourseSelection selection;
+    String rejectReason;
+
+    public static EnrollmentOutcome admitted(CourseSelection selection) {
+        return new EnrollmentOutcome(selection.getStudentId(), selection, null);
+    }
+
+    public static EnrollmentOutcome rejected(UUID studentId, String reason) {
+        return new EnrollmentOutcome(studentId, null, reason);
+    }
+
+    public boolean isAdmitted() {
+        return selection != null;
+    }
+}
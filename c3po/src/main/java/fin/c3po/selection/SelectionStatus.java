@@ -3,7 +3,8 @@ package fin.c3po.selection;
 public enum SelectionStatus {
     ENROLLED,
     DROPPED,
-    PENDING_APPROVAL
+    PENDING_APPROVAL,
+    WAITLISTED
 }
 
 
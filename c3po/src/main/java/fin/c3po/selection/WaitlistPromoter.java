@@ -0,0 +1,107 @@
+package fin.c3po.selection;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.notify.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 候补递补：退课等操作只记录"该课程可能有空位"，由后台定时任务统一处理，
+ * 每门课程按批递补并合并为一条通知，不占用退课请求线程
+ */
+@Slf4j
+@Component
+public class WaitlistPromoter {
+
+    private final CourseEnrollmentService courseEnrollmentService;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final CourseRepository courseRepository;
+    private final NotificationService notificationService;
+    private final int batchSize;
+
+    private final Set<UUID> pendingCourses = ConcurrentHashMap.newKeySet();
+
+    public WaitlistPromoter(CourseEnrollmentService courseEnrollmentService,
+                            CourseSelectionRepository courseSelectionRepository,
+                            CourseRepository courseRepository,
+                            NotificationService notificationService,
+                            @Value("${course.waitlist.batch-size:200}") int batchSize) {
+        this.courseEnrollmentService = courseEnrollmentService;
+        this.courseSelectionRepository = courseSelectionRepository;
+        this.courseRepository = courseRepository;
+        this.notificationService = notificationService;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        // 退课释放名额、教师调高容量都可能产生空位
+        if (event.getChange() == CourseChangedEvent.Change.ENROLLMENT_CHANGED
+                || event.getChange() == CourseChangedEvent.Change.UPDATED) {
+            pendingCourses.add(event.getCourseId());
+        }
+    }
+
+    /**
+     * 定期（含启动时）补查所有存在候补的课程，覆盖重启前未递补以及候补写入与退课并发时错过的空位
+     */
+    @Scheduled(fixedDelayString = "${course.waitlist.sweep-interval-ms:60000}")
+    public void scheduleExistingWaitlists() {
+        pendingCourses.addAll(courseSelectionRepository.findCourseIdsByStatus(SelectionStatus.WAITLISTED));
+    }
+
+    @Scheduled(fixedDelayString = "${course.waitlist.promote-interval-ms:1000}")
+    public void promotePending() {
+        if (pendingCourses.isEmpty()) {
+            return;
+        }
+        for (UUID courseId : new ArrayList<>(pendingCourses)) {
+            pendingCourses.remove(courseId);
+            try {
+                promote(courseId);
+            } catch (RuntimeException e) {
+                log.warn("Waitlist promotion for course {} failed: {}", courseId, e.getMessage());
+                pendingCourses.add(courseId);
+            }
+        }
+    }
+
+    /**
+     * 递补指定课程直到名额用完或候补清空
+     *
+     * @return 递补成功的学生ID
+     */
+    public List<UUID> promote(UUID courseId) {
+        if (!courseSelectionRepository.existsByCourseIdAndStatus(courseId, SelectionStatus.WAITLISTED)) {
+            return List.of();
+        }
+        List<UUID> promoted = new ArrayList<>();
+        List<UUID> batch;
+        do {
+            batch = courseEnrollmentService.promoteWaitlisted(courseId, batchSize);
+            promoted.addAll(batch);
+        } while (batch.size() == batchSize);
+
+        if (!promoted.isEmpty()) {
+            String courseName = courseRepository.findById(courseId)
+                    .map(Course::getName)
+                    .orElse("课程");
+            notificationService.notifyStudents(promoted, "waitlist",
+                    "候补选课成功",
+                    "你已从候补名单递补选上《" + courseName + "》");
+            log.info("Promoted {} waitlisted students in course {}", promoted.size(), courseId);
+        }
+        return promoted;
+    }
+}
@@ -0,0 +1,170 @@
+package fin.c3po.selection.rush;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 抢课排队：选课请求写入凭证后立即返回，由工作线程按提交顺序分批处理
+ * 凭证保存在数据库中，任一实例都能查询；提交的实例立即开始处理，
+ * 其他实例与重启后的实例由定时扫描接手。每个实例内同一课程同一时刻最多一个工作线程，不同课程之间并行
+ */
+@Slf4j
+@Component
+public class EnrollmentAdmissionQueue {
+
+    private final EnrollmentTicketRepository enrollmentTicketRepository;
+    private final EnrollmentTicketProcessor enrollmentTicketProcessor;
+    private final int batchSize;
+    private final int maxQueuedPerCourse;
+    private final Duration ticketRetention;
+    private final ExecutorService workers;
+
+    private final Set<UUID> draining = ConcurrentHashMap.newKeySet();
+
+    public EnrollmentAdmissionQueue(EnrollmentTicketRepository enrollmentTicketRepository,
+                                    EnrollmentTicketProcessor enrollmentTicketProcessor,
+                                    @Value("${course.rush.workers:4}") int workers,
+                                    @Value("${course.rush.batch-size:200}") int batchSize,
+                                    @Value("${course.rush.max-queued-per-course:20000}") int maxQueuedPerCourse,
+                                    @Value("${course.rush.ticket-retention-minutes:30}") long retentionMinutes) {
+        this.enrollmentTicketRepository = enrollmentTicketRepository;
+        this.enrollmentTicketProcessor = enrollmentTicketProcessor;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxQueuedPerCourse = Math.max(maxQueuedPerCourse, 1);
+        this.ticketRetention = Duration.ofMinutes(Math.max(retentionMinutes, 1));
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(workers, 1), runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-queue-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 提交选课请求；同一学生对同一课程仍在排队时返回原凭证
+     * 队列容量按提交时的排队数判断，多个实例同时提交时可能略微超出
+     */
+    public EnrollmentTicket submit(UUID courseId, UUID studentId) {
+        Optional<EnrollmentTicket> queued = enrollmentTicketRepository.findByCourseIdAndQueuedStudentId(courseId, studentId);
+        if (queued.isPresent()) {
+            return queued.get();
+        }
+        if (enrollmentTicketRepository.countByCourseIdAndStatus(courseId, EnrollmentTicketStatus.QUEUED)
+                >= maxQueuedPerCourse) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Enrollment queue is full, please retry later");
+        }
+        EnrollmentTicket ticket;
+        try {
+            ticket = enrollmentTicketRepository.saveAndFlush(EnrollmentTicket.queued(courseId, studentId));
+        } catch (DataIntegrityViolationException e) {
+            // 同一学生的并发请求已写入排队中的凭证
+            return enrollmentTicketRepository.findByCourseIdAndQueuedStudentId(courseId, studentId).orElseThrow(() -> e);
+        }
+        schedule(courseId);
+        return ticket;
+    }
+
+    public Optional<EnrollmentTicket> find(UUID ticketId) {
+        return enrollmentTicketRepository.findById(ticketId);
+    }
+
+    /**
+     * 排队中的凭证前面还有多少个请求，已处理的凭证返回 0
+     */
+    public long position(EnrollmentTicket ticket) {
+        if (ticket.getStatus() != EnrollmentTicketStatus.QUEUED) {
+            return 0;
+        }
+        return enrollmentTicketRepository.countQueuedBefore(ticket.getCourseId(), EnrollmentTicketStatus.QUEUED,
+                ticket.getSubmittedAt(), ticket.getId());
+    }
+
+    /**
+     * 定期（含启动时）接手所有仍有排队凭证的课程，覆盖其他实例提交以及重启前未处理完的凭证
+     */
+    @Scheduled(fixedDelayString = "${course.rush.sweep-interval-ms:1000}")
+    public void scheduleQueuedCourses() {
+        enrollmentTicketRepository.findCourseIdsByStatus(EnrollmentTicketStatus.QUEUED).forEach(this::schedule);
+    }
+
+    @Scheduled(fixedDelayString = "${course.rush.ticket-cleanup-interval-ms:60000}")
+    public void purgeExpiredTickets() {
+        enrollmentTicketRepository.deleteProcessedBefore(Instant.now().minus(ticketRetention));
+    }
+
+    /**
+     * 按提交顺序处理指定课程的排队凭证，直到队列清空
+     *
+     * @return 本实例处理的凭证数
+     */
+    public int drain(UUID courseId) {
+        int processed = 0;
+        while (true) {
+            List<UUID> batch = enrollmentTicketRepository.findIdsInQueueOrder(courseId, EnrollmentTicketStatus.QUEUED,
+                    PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return processed;
+            }
+            processed += process(courseId, batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void schedule(UUID courseId) {
+        // 已在处理的课程不重复提交，新凭证由正在运行的循环或下一次定时扫描接手
+        if (!draining.add(courseId)) {
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                drain(courseId);
+            } catch (RuntimeException e) {
+                log.warn("Draining enrollment queue of course {} failed: {}", courseId, e.getMessage());
+            } finally {
+                draining.remove(courseId);
+            }
+        });
+    }
+
+    private int process(UUID courseId, List<UUID> batch) {
+        try {
+            return enrollmentTicketProcessor.process(courseId, batch);
+        } catch (RuntimeException e) {
+            // 整批事务失败（例如与普通选课并发写入同一学生）时逐个重试，保证每张凭证都有结果
+            log.warn("Enrollment batch for course {} failed, retrying individually: {}", courseId, e.getMessage());
+            int processed = 0;
+            for (UUID ticketId : batch) {
+                try {
+                    processed += enrollmentTicketProcessor.process(courseId, List.of(ticketId));
+                } catch (RuntimeException ex) {
+                    log.error("Enrollment ticket {} in course {} failed", ticketId, courseId, ex);
+                    enrollmentTicketProcessor.reject(courseId, ticketId, "Enrollment failed, please retry");
+                    processed++;
+                }
+            }
+            return processed;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package fin.c3po.selection.rush;
+
+import fin.c3po.common.domain.BaseEntity;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.SelectionStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * 抢课排队凭证，保存在数据库中，任一实例都能查询和处理，重启后仍会继续处理
+ * 排队期间 queuedStudentId 等于 studentId，同一学生对同一课程因此最多只有一张排队中的凭证；处理后清空
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "enrollment_tickets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_enrollment_tickets_course_queued_student",
+                columnNames = {"course_id", "queued_student_id"})
+}, indexes = {
+        @Index(name = "idx_enrollment_tickets_course_status_submitted_at",
+                columnList = "course_id, status, submitted_at"),
+        @Index(name = "idx_enrollment_tickets_processed_at", columnList = "processed_at")
+})
+public class EnrollmentTicket extends BaseEntity {
+
+    @Column(nullable = false)
+    private UUID courseId;
+
+    @Column(nullable = false)
+    private UUID studentId;
+
+    private UUID queuedStudentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private EnrollmentTicketStatus status = EnrollmentTicketStatus.QUEUED;
+
+    @Column(nullable = false)
+    private Instant submittedAt;
+
+    private UUID selectionId;
+
+    @Column(length = 255)
+    private String reason;
+
+    private Instant processedAt;
+
+    static EnrollmentTicket queued(UUID courseId, UUID studentId) {
+        EnrollmentTicket ticket = new EnrollmentTicket();
+        ticket.setCourseId(courseId);
+        ticket.setStudentId(studentId);
+        ticket.setQueuedStudentId(studentId);
+        // 与数据库列精度一致，排位比较时凭证本身不会被算作排在自己之前
+        ticket.setSubmittedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        return ticket;
+    }
+
+    void admit(CourseSelection selection) {
+        this.selectionId = selection.getId();
+        this.status = selection.getStatus() == SelectionStatus.WAITLISTED
+                ? EnrollmentTicketStatus.WAITLISTED
+                : EnrollmentTicketStatus.ENROLLED;
+        finish();
+    }
+
+    void reject(String reason) {
+        this.reason = reason;
+        this.status = EnrollmentTicketStatus.REJECTED;
+        finish();
+    }
+
+    private void finish() {
+        this.queuedStudentId = null;
+        this.processedAt = Instant.now();
+    }
+}
@@ -0,0 +1,67 @@
+package fin.c3po.selection.rush;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.selection.CourseEnrollmentService;
+import fin.c3po.selection.EnrollmentOutcome;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 在一个事务中处理一批排队凭证：先锁定课程行，多个实例同时处理同一课程时串行执行，
+ * 锁定后重新读取凭证，已被其他实例处理的凭证直接跳过
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrollmentTicketProcessor {
+
+    private final EnrollmentTicketRepository enrollmentTicketRepository;
+    private final CourseEnrollmentService courseEnrollmentService;
+    private final CourseRepository courseRepository;
+
+    /**
+     * @return 本次处理的凭证数
+     */
+    @Transactional
+    public int process(UUID courseId, Collection<UUID> ticketIds) {
+        courseRepository.findByIdForUpdate(courseId);
+        List<EnrollmentTicket> batch = enrollmentTicketRepository.findAllById(ticketIds).stream()
+                .filter(ticket -> ticket.getStatus() == EnrollmentTicketStatus.QUEUED)
+                .sorted(Comparator.comparing(EnrollmentTicket::getSubmittedAt).thenComparing(EnrollmentTicket::getId))
+                .toList();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<EnrollmentOutcome> outcomes = courseEnrollmentService.enrollBatch(courseId,
+                batch.stream().map(EnrollmentTicket::getStudentId).toList());
+        for (int i = 0; i < batch.size(); i++) {
+            EnrollmentOutcome outcome = outcomes.get(i);
+            if (outcome.isAdmitted()) {
+                batch.get(i).admit(outcome.getSelection());
+            } else {
+                batch.get(i).reject(outcome.getRejectReason());
+            }
+        }
+        enrollmentTicketRepository.saveAll(batch);
+        return batch.size();
+    }
+
+    /**
+     * 处理失败时拒绝仍在排队的凭证，保证每张凭证都有结果
+     */
+    @Transactional
+    public void reject(UUID courseId, UUID ticketId, String reason) {
+        courseRepository.findByIdForUpdate(courseId);
+        enrollmentTicketRepository.findById(ticketId)
+                .filter(ticket -> ticket.getStatus() == EnrollmentTicketStatus.QUEUED)
+                .ifPresent(ticket -> {
+                    ticket.reject(reason);
+                    enrollmentTicketRepository.save(ticket);
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package fin.c3po.selection.rush;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface EnrollmentTicketRepository extends JpaRepository<EnrollmentTicket, UUID> {
+
+    Optional<EnrollmentTicket> findByCourseIdAndQueuedStudentId(UUID courseId, UUID queuedStudentId);
+
+    long countByCourseIdAndStatus(UUID courseId, EnrollmentTicketStatus status);
+
+    /**
+     * 排队中的凭证按提交顺序排列
+     */
+    @Query("SELECT t.id FROM EnrollmentTicket t WHERE t.courseId = :courseId AND t.status = :status "
+            + "ORDER BY t.submittedAt ASC, t.id ASC")
+    List<UUID> findIdsInQueueOrder(@Param("courseId") UUID courseId,
+                                   @Param("status") EnrollmentTicketStatus status,
+                                   Pageable pageable);
+
+    @Query("SELECT DISTINCT t.courseId FROM EnrollmentTicket t WHERE t.status = :status")
+    List<UUID> findCourseIdsByStatus(@Param("status") EnrollmentTicketStatus status);
+
+    /**
+     * 排在指定凭证之前的凭证数，按 (submitted_at, id) 排序，与处理顺序一致
+     */
+    @Query("SELECT COUNT(t) FROM EnrollmentTicket t WHERE t.courseId = :courseId AND t.status = :status "
+            + "AND (t.submittedAt < :submittedAt OR (t.submittedAt = :submittedAt AND t.id < :id))")
+    long countQueuedBefore(@Param("courseId") UUID courseId,
+                           @Param("status") EnrollmentTicketStatus status,
+                           @Param("submittedAt") Instant submittedAt,
+                           @Param("id") UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EnrollmentTicket t WHERE t.processedAt < :cutoff")
+    int deleteProcessedBefore(@Param("cutoff") Instant cutoff);
+}
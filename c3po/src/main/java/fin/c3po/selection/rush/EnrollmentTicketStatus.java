@@ -0,0 +1,8 @@
+package fin.c3po.selection.rush;
+
+public enum EnrollmentTicketStatus {
+    QUEUED,
+    ENROLLED,
+    WAITLISTED,
+    REJECTED
+}
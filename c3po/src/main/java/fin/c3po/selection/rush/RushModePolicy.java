@@ -0,0 +1,75 @@
+package fin.c3po.selection.rush;
+
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.system.SystemSettingsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 判断选课请求是否走抢课排队：课程单独开启了抢课模式，或当前处于系统设置中的全局抢课窗口
+ * 判断结果短暂缓存，避免抢课高峰时每个请求都查询数据库
+ */
+@Component
+public class RushModePolicy {
+
+    private final CourseRepository courseRepository;
+    private final SystemSettingsService systemSettingsService;
+    private final long ttlNanos;
+
+    private final Map<UUID, CachedFlag> courseFlags = new ConcurrentHashMap<>();
+    private volatile CachedFlag windowFlag;
+
+    public RushModePolicy(CourseRepository courseRepository,
+                          SystemSettingsService systemSettingsService,
+                          @Value("${course.rush.policy-cache-seconds:5}") long cacheSeconds) {
+        this.courseRepository = courseRepository;
+        this.systemSettingsService = systemSettingsService;
+        this.ttlNanos = Duration.ofSeconds(Math.max(cacheSeconds, 0)).toNanos();
+    }
+
+    public boolean isActive(UUID courseId) {
+        return isWindowOpen() || isCourseRushMode(courseId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.getChange() != CourseChangedEvent.Change.ENROLLMENT_CHANGED
+                && event.getChange() != CourseChangedEvent.Change.ASSIGNMENTS_CHANGED) {
+            courseFlags.remove(event.getCourseId());
+        }
+    }
+
+    private boolean isWindowOpen() {
+        long now = System.nanoTime();
+        CachedFlag cached = windowFlag;
+        if (cached == null || now - cached.getLoadedAt() >= ttlNanos) {
+            cached = new CachedFlag(systemSettingsService.isSelectionRushWindowOpen(Instant.now()), now);
+            windowFlag = cached;
+        }
+        return cached.isValue();
+    }
+
+    private boolean isCourseRushMode(UUID courseId) {
+        long now = System.nanoTime();
+        CachedFlag cached = courseFlags.get(courseId);
+        if (cached == null || now - cached.getLoadedAt() >= ttlNanos) {
+            cached = new CachedFlag(courseRepository.findRushModeById(courseId).orElse(false), now);
+            courseFlags.put(courseId, cached);
+        }
+        return cached.isValue();
+    }
+
+    @lombok.Value
+    private static class CachedFlag {
+        boolean value;
+        long loadedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package fin.c3po.submission;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 某个学生在某个作业上最近一次提交的摘要，只包含统计需要的列
+ */
+@Value
+public class LatestSubmission {
+    UUID id;
+    UUID assignmentId;
+    UUID courseId;
+    UUID studentId;
+    SubmissionStatus status;
+    Integer score;
+    Instant submittedAt;
+}
@@ -0,0 +1,65 @@
+package fin.c3po.submission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量加载每个 (作业, 学生) 最近一次提交
+ * 用窗口函数在数据库内取每组最新一行，一条语句覆盖任意数量的课程，替代逐个作业的 findTop...OrderBySubmittedAtDesc
+ */
+@Component
+@RequiredArgsConstructor
+public class LatestSubmissionLoader {
+
+    private static final String LATEST_BY_COURSES_SQL = """
+            SELECT id, assignment_id, course_id, student_id, status, score, submitted_at
+            FROM (
+                SELECT s.id, s.assignment_id, a.course_id, s.student_id, s.status, s.score, s.submitted_at,
+                       ROW_NUMBER() OVER (
+                           PARTITION BY s.assignment_id, s.student_id
+                           ORDER BY s.submitted_at DESC NULLS LAST, s.id DESC
+                       ) AS rn
+                FROM submissions s
+                JOIN assignments a ON a.id = s.assignment_id
+                WHERE a.course_id IN (:courseIds)
+                  AND s.student_id IN (:studentIds)
+            ) latest
+            WHERE latest.rn = 1
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * 指定课程下指定学生的最新提交，没有提交过的作业不会出现在结果中
+     */
+    public List<LatestSubmission> loadByCourses(Collection<UUID> courseIds, Collection<UUID> studentIds) {
+        if (courseIds.isEmpty() || studentIds.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("courseIds", courseIds)
+                .addValue("studentIds", studentIds);
+        return jdbcTemplate.query(LATEST_BY_COURSES_SQL, params, LatestSubmissionLoader::mapRow);
+    }
+
+    private static LatestSubmission mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp submittedAt = rs.getTimestamp("submitted_at");
+        return new LatestSubmission(
+                rs.getObject("id", UUID.class),
+                rs.getObject("assignment_id", UUID.class),
+                rs.getObject("course_id", UUID.class),
+                rs.getObject("student_id", UUID.class),
+                SubmissionStatus.valueOf(rs.getString("status")),
+                (Integer) rs.getObject("score"),
+                submittedAt != null ? submittedAt.toInstant() : null);
+    }
+}
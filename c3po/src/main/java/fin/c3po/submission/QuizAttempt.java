@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,7 +18,9 @@ import java.util.UUID;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "quiz_attempts")
+@Table(name = "quiz_attempts", indexes = {
+        @Index(name = "idx_quiz_attempts_assignment", columnList = "assignment_id")
+})
 public class QuizAttempt extends BaseEntity {
 
     @Column(nullable = false)
@@ -43,6 +46,12 @@ public class QuizAttempt extends BaseEntity {
 
     @Column(length = 2048)
     private String feedback;
+
+    /**
+     * 已计入逐题分析的作答版本，即计入时这一行的 updatedAt，未计入时为空；只由逐题分析更新，业务写入不覆盖
+     */
+    @Column(insertable = false, updatable = false)
+    private Instant analyzedAt;
 }
 
 
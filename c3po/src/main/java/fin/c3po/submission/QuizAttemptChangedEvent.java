@@ -0,0 +1,25 @@
+package fin.c3po.submission;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 测验作答被修改或评分后发布的应用事件，携带修改前的版本；
+ * 监听方据此撤销此前计入的内容，再按作答的当前状态重新计算差量
+ */
+@Value
+public class QuizAttemptChangedEvent {
+    UUID assignmentId;
+    UUID attemptId;
+    /**
+     * 修改前这一行的 updatedAt
+     */
+    Instant previousUpdatedAt;
+    /**
+     * 修改前已评分时的作答内容，修改前未评分时为空
+     */
+    String previousAnswers;
+
+}
@@ -0,0 +1,53 @@
+package fin.c3po.submission;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 提交记录被创建、重交、评分或申诉后发布的应用事件
+ * 同一次请求中同一作业下的多条变更合并为一个事件；每条变更带有修改前后的状态，供统计数据按差量更新
+ */
+@Value
+public class SubmissionChangedEvent {
+    UUID courseId;
+    UUID assignmentId;
+    List<Change> changes;
+
+    public static SubmissionChangedEvent of(UUID courseId, UUID assignmentId, State before, Submission after) {
+        return new SubmissionChangedEvent(courseId, assignmentId, List.of(Change.of(before, after)));
+    }
+
+    @Value
+    public static class Change {
+        UUID submissionId;
+        UUID studentId;
+        /**
+         * 修改前的状态，新建提交时为空
+         */
+        State before;
+        State after;
+
+        public static Change of(State before, Submission after) {
+            return new Change(after.getId(), after.getStudentId(), before, State.of(after));
+        }
+    }
+
+    /**
+     * 统计相关字段的快照
+     */
+    @Value
+    public static class State {
+        SubmissionStatus status;
+        Integer score;
+        Instant submittedAt;
+        Instant updatedAt;
+
+        public static State of(Submission submission) {
+            return new State(submission.getStatus(), submission.getScore(),
+                    submission.getSubmittedAt(), submission.getUpdatedAt());
+        }
+    }
+}
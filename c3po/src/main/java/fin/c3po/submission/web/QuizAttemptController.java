@@ -10,6 +10,7 @@ import fin.c3po.common.web.ApiResponse;
 import fin.c3po.course.Course;
 import fin.c3po.course.CourseRepository;
 import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptChangedEvent;
 import fin.c3po.submission.QuizAttemptRepository;
 import fin.c3po.submission.QuizAttemptStatus;
 import fin.c3po.submission.dto.CreateQuizAttemptRequest;
@@ -20,6 +21,7 @@ import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserRole;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -48,6 +50,7 @@ public class QuizAttemptController {
     private final AssignmentRepository assignmentRepository;
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final TypeReference<List<CreateQuizAttemptRequest.Answer>> ANSWER_TYPE =
             new TypeReference<>() {};
@@ -88,6 +91,8 @@ public class QuizAttemptController {
         if (!attempt.getStudentId().equals(currentUser.getId())) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to modify this quiz attempt");
         }
+        Instant previousUpdatedAt = attempt.getUpdatedAt();
+        String previousAnswers = gradedAnswers(attempt);
 
         if (request.getAnswers() != null) {
             attempt.setAnswers(toJson(request.getAnswers()));
@@ -107,6 +112,8 @@ public class QuizAttemptController {
         }
 
         QuizAttempt saved = quizAttemptRepository.save(attempt);
+        eventPublisher.publishEvent(new QuizAttemptChangedEvent(saved.getAssignmentId(), saved.getId(),
+                previousUpdatedAt, previousAnswers));
         return ApiResponse.success(toResponse(saved));
     }
 
@@ -180,6 +187,8 @@ public class QuizAttemptController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Assignment not found"));
         ensureQuizAssignment(assignment);
         ensureCourseAccess(currentUser, assignment.getCourseId());
+        Instant previousUpdatedAt = attempt.getUpdatedAt();
+        String previousAnswers = gradedAnswers(attempt);
 
         attempt.setScore(request.getScore());
         attempt.setFeedback(request.getFeedback());
@@ -189,6 +198,8 @@ public class QuizAttemptController {
         }
 
         QuizAttempt saved = quizAttemptRepository.save(attempt);
+        eventPublisher.publishEvent(new QuizAttemptChangedEvent(saved.getAssignmentId(), saved.getId(),
+                previousUpdatedAt, previousAnswers));
         return ApiResponse.success(toResponse(saved));
     }
 
@@ -215,6 +226,16 @@ public class QuizAttemptController {
         throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to access quiz attempts");
     }
 
+    /**
+     * 已评分作答计入逐题分析的内容，没有作答内容时记为空数组；未评分时为空
+     */
+    private static String gradedAnswers(QuizAttempt attempt) {
+        if (attempt.getStatus() != QuizAttemptStatus.GRADED) {
+            return null;
+        }
+        return attempt.getAnswers() != null ? attempt.getAnswers() : "[]";
+    }
+
     private QuizAttemptResponse toResponse(QuizAttempt attempt) {
         List<CreateQuizAttemptRequest.Answer> answers = fromJson(attempt.getAnswers());
         return QuizAttemptResponse.builder()
@@ -10,6 +10,7 @@ import fin.c3po.course.CourseRepository;
 import fin.c3po.common.web.ApiResponse;
 import fin.c3po.notify.NotificationService;
 import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionChangedEvent;
 import fin.c3po.submission.SubmissionRepository;
 import fin.c3po.submission.SubmissionStatus;
 import fin.c3po.submission.dto.AppealSubmissionRequest;
@@ -22,6 +23,7 @@ import fin.c3po.user.UserAccount;
 import fin.c3po.user.UserRole;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -52,6 +54,7 @@ public class SubmissionController {
     private final CourseRepository courseRepository;
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final TypeReference<List<GradeSubmissionRequest.RubricScore>> RUBRIC_TYPE = new TypeReference<>() {
     };
@@ -131,6 +134,7 @@ public class SubmissionController {
         submission.setResubmitCount(0);
 
         Submission saved = submissionRepository.save(submission);
+        eventPublisher.publishEvent(SubmissionChangedEvent.of(assignment.getCourseId(), assignmentId, null, saved));
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success(toResponse(saved)));
     }
 
@@ -163,6 +167,7 @@ public class SubmissionController {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Resubmission limit reached");
         }
 
+        SubmissionChangedEvent.State before = SubmissionChangedEvent.State.of(submission);
         submission.setAttachments(new ArrayList<>(request.getAttachments()));
         submission.setStatus(SubmissionStatus.RESUBMITTED);
         submission.setSubmittedAt(now);
@@ -174,6 +179,8 @@ public class SubmissionController {
         submission.setAppealReason(null);
         submission.setAppealedAt(null);
         Submission saved = submissionRepository.save(submission);
+        eventPublisher.publishEvent(SubmissionChangedEvent.of(
+                assignment.getCourseId(), assignment.getId(), before, saved));
         return ApiResponse.success(toResponse(saved));
     }
 
@@ -212,6 +219,7 @@ public class SubmissionController {
 
         ensureCourseAccess(currentUser, assignment.getCourseId());
 
+        SubmissionChangedEvent.State before = SubmissionChangedEvent.State.of(submission);
         submission.setScore(request.getScore());
         submission.setFeedback(request.getFeedback());
         submission.setRubricScores(toJson(request.getRubricScores()));
@@ -222,6 +230,8 @@ public class SubmissionController {
         submission.setAppealReason(null);
         submission.setAppealedAt(null);
         Submission saved = submissionRepository.save(submission);
+        eventPublisher.publishEvent(SubmissionChangedEvent.of(
+                assignment.getCourseId(), assignment.getId(), before, saved));
 
         // 如果发布评分，通知学生
         if (request.isPublish()) {
@@ -281,12 +291,14 @@ public class SubmissionController {
                         item -> item));
 
         // 批量更新评分
+        java.util.Map<UUID, SubmissionChangedEvent.State> before = new java.util.HashMap<>();
         for (Submission submission : submissions) {
             BatchGradeSubmissionRequest.GradeItem gradeItem = gradeMap.get(submission.getId());
             if (gradeItem == null) {
                 continue;
             }
 
+            before.put(submission.getId(), SubmissionChangedEvent.State.of(submission));
             submission.setScore(gradeItem.getScore());
             submission.setFeedback(gradeItem.getFeedback());
             submission.setRubricScores(toJson(gradeItem.getRubricScores()));
@@ -300,6 +312,10 @@ public class SubmissionController {
 
         // 批量保存
         List<Submission> saved = submissionRepository.saveAll(submissions);
+        eventPublisher.publishEvent(new SubmissionChangedEvent(assignment.getCourseId(), assignmentId, saved.stream()
+                .filter(s -> before.containsKey(s.getId()))
+                .map(s -> SubmissionChangedEvent.Change.of(before.get(s.getId()), s))
+                .toList()));
 
         // 如果发布评分，通知所有被评分的学生
         List<Submission> publishedSubmissions = saved.stream()
@@ -345,6 +361,7 @@ public class SubmissionController {
         if (submission.getAppealReason() != null) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Submission already appealed");
         }
+        SubmissionChangedEvent.State before = SubmissionChangedEvent.State.of(submission);
         submission.setStatus(SubmissionStatus.APPEALED);
         submission.setAppealReason(request.getReason());
         submission.setAppealedAt(Instant.now());
@@ -357,6 +374,9 @@ public class SubmissionController {
         Course course = courseRepository.findById(assignment.getCourseId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
 
+        eventPublisher.publishEvent(SubmissionChangedEvent.of(
+                assignment.getCourseId(), assignment.getId(), before, saved));
+
         String title = "作业申诉通知";
         String content = String.format("学生已对作业《%s》提出申诉，请及时处理。申诉理由：%s",
                 assignment.getTitle(), request.getReason());
@@ -49,6 +49,13 @@ public class SystemSettings extends BaseEntity {
 
     @Column(nullable = false)
     private int alertJobQueueDelayMinutes = 10;
+
+    /**
+     * 全局抢课时间窗口，窗口内所有课程的选课请求都进入排队队列
+     */
+    private Instant selectionRushStart;
+
+    private Instant selectionRushEnd;
 }
 
 
@@ -79,10 +79,34 @@ public class SystemSettingsService {
             }
         }
 
+        if (request.getSelectionRushWindow() != null) {
+            UpdateSystemSettingsRequest.SelectionRushWindow rush = request.getSelectionRushWindow();
+            if (rush.getStartAt() != null && rush.getEndAt() != null && rush.getStartAt().isAfter(rush.getEndAt())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "selectionRushWindow.startAt must be before endAt");
+            }
+            // 抢课窗口整体替换，两端都为空表示关闭
+            settings.setSelectionRushStart(rush.getStartAt());
+            settings.setSelectionRushEnd(rush.getEndAt());
+        }
+
         SystemSettings saved = repository.save(settings);
         return toResponse(saved);
     }
 
+    /**
+     * 当前时间是否处于全局抢课窗口内
+     */
+    @Transactional
+    public boolean isSelectionRushWindowOpen(Instant now) {
+        SystemSettings settings = getOrCreate();
+        Instant start = settings.getSelectionRushStart();
+        Instant end = settings.getSelectionRushEnd();
+        if (start == null && end == null) {
+            return false;
+        }
+        return (start == null || !now.isBefore(start)) && (end == null || now.isBefore(end));
+    }
+
     private SystemSettings getOrCreate() {
         return repository.findFirstByOrderByCreatedAtAsc()
                 .orElseGet(() -> repository.save(new SystemSettings()));
@@ -108,6 +132,10 @@ public class SystemSettingsService {
                         .storageUsagePercent(settings.getAlertStorageUsagePercent())
                         .jobQueueDelayMinutes(settings.getAlertJobQueueDelayMinutes())
                         .build())
+                .selectionRushWindow(SystemSettingsResponse.SelectionRushWindow.builder()
+                        .startAt(settings.getSelectionRushStart())
+                        .endAt(settings.getSelectionRushEnd())
+                        .build())
                 .build();
     }
 }
@@ -12,6 +12,7 @@ public class SystemSettingsResponse {
     MaintenanceWindow maintenanceWindow;
     PasswordPolicy passwordPolicy;
     AlertThresholds alertThresholds;
+    SelectionRushWindow selectionRushWindow;
 
     @Value
     @Builder
@@ -39,6 +40,13 @@ public class SystemSettingsResponse {
         int storageUsagePercent;
         int jobQueueDelayMinutes;
     }
+
+    @Value
+    @Builder
+    public static class SelectionRushWindow {
+        Instant startAt;
+        Instant endAt;
+    }
 }
 
 
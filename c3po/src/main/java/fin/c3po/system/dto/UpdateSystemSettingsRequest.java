@@ -22,6 +22,9 @@ public class UpdateSystemSettingsRequest {
     @Valid
     private AlertThresholds alertThresholds;
 
+    @Valid
+    private SelectionRushWindow selectionRushWindow;
+
     @Getter
     @Setter
     public static class MaintenanceWindow {
@@ -66,6 +69,13 @@ public class UpdateSystemSettingsRequest {
         @Max(1440)
         private Integer jobQueueDelayMinutes;
     }
+
+    @Getter
+    @Setter
+    public static class SelectionRushWindow {
+        private Instant startAt;
+        private Instant endAt;
+    }
 }
 
 
@@ -1,6 +1,8 @@
 package fin.c3po.user.web;
 
 import fin.c3po.common.web.ApiResponse;
+import fin.c3po.common.web.KeysetPagination;
+import fin.c3po.common.web.KeysetSlice;
 import fin.c3po.common.web.PageMeta;
 import fin.c3po.profile.StudentProfile;
 import fin.c3po.profile.StudentProfileRepository;
@@ -75,7 +77,9 @@ public class AdminUserController {
             @RequestParam(name = "status", required = false) UserStatus status,
             @RequestParam(name = "keyword", required = false) String keyword,
             @RequestParam(name = "department", required = false) String department,
-            @RequestParam(name = "sort", required = false) String sort) {
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
 
         Pageable pageable = buildPageable(page, pageSize, sort);
         Specification<UserAccount> specification = (root, query, cb) -> cb.conjunction();
@@ -99,13 +103,20 @@ public class AdminUserController {
                     .map(TeacherProfile::getUserId)
                     .toList();
             if (teacherUserIds.isEmpty()) {
-                Page<UserAccount> empty = Page.empty(pageable);
-                return ApiResponse.success(List.of(), toPageMeta(empty, pageable));
+                return ApiResponse.success(List.of(), toPageMeta(
+                        new KeysetSlice<>(List.of(), null, cursor == null || withTotal ? 0L : null), pageable, cursor));
             }
             specification = specification.and((root, query, cb) -> root.get("id").in(teacherUserIds));
         }
 
-        Page<UserAccount> result = userAccountRepository.findAll(specification, pageable);
+        KeysetSlice<UserAccount> result;
+        if (cursor != null) {
+            result = KeysetPagination.fetch(userAccountRepository, specification, pageable.getSort(),
+                    ALLOWED_SORT_PROPERTIES, cursor, pageable.getPageSize(), withTotal);
+        } else {
+            Page<UserAccount> offsetPage = userAccountRepository.findAll(specification, pageable);
+            result = new KeysetSlice<>(offsetPage.getContent(), null, offsetPage.getTotalElements());
+        }
         List<UserAccount> users = result.getContent();
         Map<UUID, StudentProfile> studentProfiles = loadStudentProfiles(users);
         Map<UUID, TeacherProfile> teacherProfiles = loadTeacherProfiles(users);
@@ -114,7 +125,7 @@ public class AdminUserController {
                 .map(user -> toResponse(user, studentProfiles.get(user.getId()), teacherProfiles.get(user.getId())))
                 .toList();
 
-        return ApiResponse.success(responses, toPageMeta(result, pageable));
+        return ApiResponse.success(responses, toPageMeta(result, pageable, cursor));
     }
 
     @PostMapping
@@ -380,15 +391,16 @@ public class AdminUserController {
         return Sort.by(direction, property);
     }
 
-    private PageMeta toPageMeta(Page<?> page, Pageable pageable) {
+    private PageMeta toPageMeta(KeysetSlice<?> page, Pageable pageable, String cursor) {
         String sort = pageable.getSort().stream()
                 .map(order -> order.getProperty() + "," + order.getDirection().name().toLowerCase(Locale.ROOT))
                 .collect(Collectors.joining(";"));
         return PageMeta.builder()
-                .page(pageable.getPageNumber() + 1)
+                .page(cursor == null ? pageable.getPageNumber() + 1 : null)
                 .pageSize(pageable.getPageSize())
-                .total(page.getTotalElements())
+                .total(page.getTotal())
                 .sort(sort)
+                .nextCursor(page.getNextCursor())
                 .build();
     }
 
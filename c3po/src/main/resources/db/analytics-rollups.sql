@@ -0,0 +1,4 @@
+-- 全校学情汇总按课程分片扫描作业与最新提交所需的索引
+
+CREATE INDEX IF NOT EXISTS idx_assignments_course ON assignments (course_id);
+CREATE INDEX IF NOT EXISTS idx_submissions_assignment_student ON submissions (assignment_id, student_id);
@@ -0,0 +1,12 @@
+-- 回填 courses.enrolled_count 冗余选课计数
+-- 在 enrolled_count 列上线后执行一次，之后由选课/退课接口原子维护
+
+UPDATE courses c
+SET enrolled_count = (
+    SELECT COUNT(*)
+    FROM course_selections s
+    WHERE s.course_id = c.id
+      AND s.status = 'ENROLLED'
+);
+
+CREATE INDEX IF NOT EXISTS idx_courses_status_enrolled_count ON courses (status, enrolled_count);
@@ -0,0 +1,51 @@
+-- 课程学情物化表：提交事件差量维护，定时对账修复偏差
+
+CREATE TABLE IF NOT EXISTS course_analytics (
+    id                    UUID PRIMARY KEY,
+    created_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id             UUID NOT NULL,
+    enrolled_students     INTEGER NOT NULL,
+    total_assignments     INTEGER NOT NULL,
+    submitted_cells       INTEGER NOT NULL,
+    graded_submissions    INTEGER NOT NULL,
+    missing_past_deadline INTEGER NOT NULL,
+    score_histogram       VARCHAR(1024),
+    next_deadline_at      TIMESTAMP(6) WITH TIME ZONE,
+    stale                 BOOLEAN NOT NULL,
+    refreshed_at          TIMESTAMP(6) WITH TIME ZONE,
+    source_watermark      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_course_analytics_course UNIQUE (course_id)
+);
+ALTER TABLE course_analytics ADD COLUMN IF NOT EXISTS source_watermark TIMESTAMP(6) WITH TIME ZONE;
+
+CREATE TABLE IF NOT EXISTS assignment_analytics (
+    id              UUID PRIMARY KEY,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id       UUID NOT NULL,
+    assignment_id   UUID NOT NULL,
+    ordinal         INTEGER NOT NULL,
+    title           VARCHAR(128),
+    deadline        TIMESTAMP(6) WITH TIME ZONE,
+    submitted_count INTEGER NOT NULL,
+    graded_count    INTEGER NOT NULL,
+    score_histogram VARCHAR(1024),
+    CONSTRAINT uk_assignment_analytics_assignment UNIQUE (assignment_id)
+);
+CREATE INDEX IF NOT EXISTS idx_assignment_analytics_course ON assignment_analytics (course_id, ordinal);
+
+CREATE TABLE IF NOT EXISTS course_student_analytics (
+    id                  UUID PRIMARY KEY,
+    created_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id           UUID NOT NULL,
+    student_id          UUID NOT NULL,
+    ordinal             INTEGER NOT NULL,
+    submitted_count     INTEGER NOT NULL,
+    score_count         INTEGER NOT NULL,
+    score_sum           BIGINT NOT NULL,
+    overdue_assignments VARCHAR(2048),
+    CONSTRAINT uk_course_student_analytics UNIQUE (course_id, student_id)
+);
+CREATE INDEX IF NOT EXISTS idx_course_student_analytics_course ON course_student_analytics (course_id, ordinal);
@@ -0,0 +1,19 @@
+-- 课程每日学情快照，每门课程每天一行
+
+CREATE TABLE IF NOT EXISTS course_daily_snapshots (
+    id                 UUID PRIMARY KEY,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id          UUID NOT NULL,
+    snapshot_date      DATE NOT NULL,
+    enrolled_students  INTEGER NOT NULL,
+    total_assignments  INTEGER NOT NULL,
+    graded_submissions INTEGER NOT NULL,
+    completion_rate    DOUBLE PRECISION NOT NULL,
+    average_score      DOUBLE PRECISION,
+    median_score       DOUBLE PRECISION,
+    overdue_students   INTEGER NOT NULL,
+    at_risk_students   INTEGER NOT NULL,
+    captured_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_course_daily_snapshots_course_date UNIQUE (course_id, snapshot_date)
+);
@@ -0,0 +1,15 @@
+-- 课程成绩组成项的分数分布直方图（逗号分隔的 0~100 分计数），应用启动时为历史成绩补齐
+
+CREATE TABLE IF NOT EXISTS course_score_histograms (
+    id         UUID PRIMARY KEY,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id  UUID NOT NULL,
+    component  VARCHAR(64) NOT NULL,
+    histogram  VARCHAR(2048),
+    CONSTRAINT uk_course_score_histograms_course_component UNIQUE (course_id, component)
+);
+
+-- 分数范围校验（发布接口同样限制为 0~100）
+ALTER TABLE scores DROP CONSTRAINT IF EXISTS scores_value_range_check;
+ALTER TABLE scores ADD CONSTRAINT scores_value_range_check CHECK ("value" BETWEEN 0 AND 100) NOT VALID;
@@ -0,0 +1,10 @@
+-- 课程名检索索引（PostgreSQL）
+-- search_tokens 由应用在保存课程时生成，启动时会为历史数据补齐
+
+-- 默认的 LIKE 关键字筛选：trigram GIN 索引避免全表扫描
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_courses_name_trgm ON courses USING gin (lower(name) gin_trgm_ops);
+
+-- sort=relevance 相关度检索：对分词结果建立 tsvector GIN 索引
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_tokens VARCHAR(2048);
+CREATE INDEX IF NOT EXISTS idx_courses_search_tokens ON courses USING gin (CAST(search_tokens AS tsvector));
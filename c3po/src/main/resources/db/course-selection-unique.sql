@@ -0,0 +1,19 @@
+-- 选课记录 (course_id, student_id) 唯一约束
+-- 上线前先清理历史重复记录：每个学生每门课只保留最近更新的一条，然后按 ENROLLED 记录重算课程冗余计数
+
+DELETE FROM course_selections s
+USING course_selections newer
+WHERE s.course_id = newer.course_id
+  AND s.student_id = newer.student_id
+  AND (s.updated_at, s.id) < (newer.updated_at, newer.id);
+
+ALTER TABLE course_selections
+    ADD CONSTRAINT uk_course_selections_course_student UNIQUE (course_id, student_id);
+
+UPDATE courses c
+SET enrolled_count = (
+    SELECT COUNT(*)
+    FROM course_selections s
+    WHERE s.course_id = c.id
+      AND s.status = 'ENROLLED'
+);
@@ -0,0 +1,10 @@
+-- 选课候补：新增 WAITLISTED 状态与候补队列索引
+-- Hibernate 自动建表时会为枚举列生成 CHECK 约束，需要先放开才能写入新状态
+
+ALTER TABLE course_selections DROP CONSTRAINT IF EXISTS course_selections_status_check;
+ALTER TABLE course_selections
+    ADD CONSTRAINT course_selections_status_check
+        CHECK (status IN ('ENROLLED', 'DROPPED', 'PENDING_APPROVAL', 'WAITLISTED'));
+
+CREATE INDEX IF NOT EXISTS idx_course_selections_course_status_selected_at
+    ON course_selections (course_id, status, selected_at);
@@ -0,0 +1,22 @@
+-- 抢课排队凭证：保存在数据库中，多实例共享，重启后继续处理
+-- 排队期间 queued_student_id 等于 student_id，处理后清空；唯一约束保证同一学生对同一课程最多一张排队中的凭证
+
+CREATE TABLE IF NOT EXISTS enrollment_tickets (
+    id                UUID PRIMARY KEY,
+    created_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at        TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id         UUID NOT NULL,
+    student_id        UUID NOT NULL,
+    queued_student_id UUID,
+    status            VARCHAR(32) NOT NULL,
+    submitted_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    selection_id      UUID,
+    reason            VARCHAR(255),
+    processed_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_enrollment_tickets_course_queued_student UNIQUE (course_id, queued_student_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_enrollment_tickets_course_status_submitted_at
+    ON enrollment_tickets (course_id, status, submitted_at);
+
+CREATE INDEX IF NOT EXISTS idx_enrollment_tickets_processed_at ON enrollment_tickets (processed_at);
@@ -0,0 +1,26 @@
+-- 课程组成项权重与按权重计算的学生总评，总评由服务在修改权重或发布成绩后重算
+
+CREATE TABLE IF NOT EXISTS course_grade_weights (
+    id         UUID PRIMARY KEY,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id  UUID NOT NULL,
+    component  VARCHAR(64) NOT NULL,
+    weight     DOUBLE PRECISION NOT NULL,
+    CONSTRAINT uk_course_grade_weights_course_component UNIQUE (course_id, component)
+);
+
+CREATE TABLE IF NOT EXISTS final_grades (
+    id            UUID PRIMARY KEY,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id     UUID NOT NULL,
+    student_id    UUID NOT NULL,
+    final_score   DOUBLE PRECISION,
+    grade_point   DOUBLE PRECISION,
+    graded_weight DOUBLE PRECISION NOT NULL,
+    complete      BOOLEAN NOT NULL,
+    computed_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_final_grades_course_student UNIQUE (course_id, student_id)
+);
+CREATE INDEX IF NOT EXISTS idx_final_grades_student ON final_grades (student_id);
@@ -0,0 +1,32 @@
+-- 测验逐题分析：每份测验一行汇总，每道题一行统计；作答上记录已计入分析的版本（计入时的 updated_at）
+
+ALTER TABLE quiz_attempts ADD COLUMN IF NOT EXISTS analyzed_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE quiz_attempts DROP COLUMN IF EXISTS analyzed_answers;
+
+CREATE INDEX IF NOT EXISTS idx_quiz_attempts_assignment ON quiz_attempts (assignment_id);
+
+CREATE TABLE IF NOT EXISTS quiz_item_analyses (
+    id              UUID PRIMARY KEY,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    assignment_id   UUID NOT NULL,
+    graded_attempts BIGINT NOT NULL,
+    rebuilt_at      TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_quiz_item_analyses_assignment UNIQUE (assignment_id)
+);
+
+CREATE TABLE IF NOT EXISTS quiz_item_stats (
+    id             UUID PRIMARY KEY,
+    created_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    assignment_id  UUID NOT NULL,
+    question_id    VARCHAR(64) NOT NULL,
+    ordinal        INTEGER NOT NULL,
+    answered_count BIGINT NOT NULL,
+    scored_count   BIGINT NOT NULL,
+    correct_count  BIGINT NOT NULL,
+    score_sum      DOUBLE PRECISION NOT NULL,
+    option_counts  VARCHAR(4096),
+    other_count    BIGINT NOT NULL,
+    CONSTRAINT uk_quiz_item_stats_assignment_question UNIQUE (assignment_id, question_id)
+);
@@ -0,0 +1,3 @@
+-- 课程成绩列表按 (课程, 组成项, 学生) 筛选与分页
+
+CREATE INDEX IF NOT EXISTS idx_scores_course_component_student ON scores (course_id, component, student_id);
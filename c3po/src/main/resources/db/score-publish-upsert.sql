@@ -0,0 +1,23 @@
+-- 成绩 (student_id, course_id, component) 唯一约束，批量发布以它为 ON CONFLICT 冲突键
+-- 上线前先清理历史重复记录：每个学生每门课每个组成项只保留最近更新的一条；
+-- 受影响的分布直方图一并删除，应用启动时按清理后的成绩重新补齐
+
+DELETE FROM course_score_histograms h
+WHERE EXISTS (
+    SELECT 1
+    FROM scores s
+    WHERE s.course_id = h.course_id
+      AND s.component = h.component
+    GROUP BY s.student_id
+    HAVING COUNT(*) > 1
+);
+
+DELETE FROM scores s
+USING scores newer
+WHERE s.student_id = newer.student_id
+  AND s.course_id = newer.course_id
+  AND s.component = newer.component
+  AND (s.updated_at, s.id) < (newer.updated_at, newer.id);
+
+ALTER TABLE scores
+    ADD CONSTRAINT uk_scores_student_course_component UNIQUE (student_id, course_id, component);
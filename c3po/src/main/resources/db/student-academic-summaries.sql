@@ -0,0 +1,46 @@
+-- 物化的学生学业汇总：每名学生一行汇总与每门课程一行明细，变更事件标记过期后由后台或读取时重建
+
+CREATE TABLE IF NOT EXISTS student_academic_summaries (
+    id                             UUID PRIMARY KEY,
+    created_at                     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at                     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    student_id                     UUID NOT NULL,
+    score_count                    BIGINT NOT NULL,
+    average_score                  DOUBLE PRECISION,
+    median_score                   DOUBLE PRECISION,
+    gpa                            DOUBLE PRECISION,
+    scored_courses                 INTEGER NOT NULL,
+    total_assignments              INTEGER NOT NULL,
+    completed_assignments          INTEGER NOT NULL,
+    graded_assignments             INTEGER NOT NULL,
+    overdue_assignments            INTEGER NOT NULL,
+    enrolled_courses               INTEGER NOT NULL,
+    enrolled_assignments           INTEGER NOT NULL,
+    enrolled_completed_assignments INTEGER NOT NULL,
+    valid_until                    TIMESTAMP(6) WITH TIME ZONE,
+    stale                          BOOLEAN NOT NULL,
+    computed_at                    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_student_academic_summaries_student UNIQUE (student_id)
+);
+CREATE INDEX IF NOT EXISTS idx_student_academic_summaries_stale ON student_academic_summaries (stale);
+
+CREATE TABLE IF NOT EXISTS student_course_summaries (
+    id                    UUID PRIMARY KEY,
+    created_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    student_id            UUID NOT NULL,
+    course_id             UUID NOT NULL,
+    course_name           VARCHAR(255),
+    scored                BOOLEAN NOT NULL,
+    enrolled              BOOLEAN NOT NULL,
+    score_count           INTEGER NOT NULL,
+    average_score         DOUBLE PRECISION,
+    highest_score         INTEGER,
+    lowest_score          INTEGER,
+    total_assignments     INTEGER NOT NULL,
+    completed_assignments INTEGER NOT NULL,
+    graded_assignments    INTEGER NOT NULL,
+    overdue_assignments   INTEGER NOT NULL,
+    CONSTRAINT uk_student_course_summaries_student_course UNIQUE (student_id, course_id)
+);
+CREATE INDEX IF NOT EXISTS idx_student_course_summaries_course ON student_course_summaries (course_id);
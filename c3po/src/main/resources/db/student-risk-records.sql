@@ -0,0 +1,18 @@
+-- 后台检测出的学业风险 / 逾期学生，按课程整体替换
+
+CREATE TABLE IF NOT EXISTS student_risk_records (
+    id                    UUID PRIMARY KEY,
+    created_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at            TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    course_id             UUID NOT NULL,
+    student_id            UUID NOT NULL,
+    at_risk               BOOLEAN NOT NULL,
+    overdue               BOOLEAN NOT NULL,
+    average_score         DOUBLE PRECISION,
+    submitted_assignments INTEGER NOT NULL,
+    total_assignments     INTEGER NOT NULL,
+    overdue_assignments   INTEGER NOT NULL,
+    detected_at           TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_student_risk_records_course_student UNIQUE (course_id, student_id)
+);
+CREATE INDEX IF NOT EXISTS idx_student_risk_records_student ON student_risk_records (student_id);
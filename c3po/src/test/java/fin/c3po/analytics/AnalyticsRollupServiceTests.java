@@ -0,0 +1,139 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.AnalyticsRollupEntry;
+import fin.c3po.analytics.dto.AnalyticsRollupResponse;
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.profile.TeacherProfile;
+import fin.c3po.profile.TeacherProfileRepository;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AnalyticsRollupServiceTests {
+
+    @Autowired
+    private AnalyticsRollupService analyticsRollupService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private CourseSelectionRepository courseSelectionRepository;
+    @Autowired
+    private SubmissionRepository submissionRepository;
+    @Autowired
+    private TeacherProfileRepository teacherProfileRepository;
+
+    @Test
+    void mergesCoursePartialsBySemesterAndDepartment() {
+        String semester = "ROLLUP-" + UUID.randomUUID();
+        String department = "Dept-" + UUID.randomUUID();
+        UUID teacherId = UUID.randomUUID();
+        TeacherProfile profile = new TeacherProfile();
+        profile.setUserId(teacherId);
+        profile.setTeacherNo("T" + System.nanoTime() % 1_000_000);
+        profile.setDepartment(department);
+        teacherProfileRepository.save(profile);
+
+        Instant deadline = Instant.now().minus(Duration.ofDays(1));
+        // 第一门课：两名学生，一人按时提交并评分 90，一人缺交
+        UUID first = seedCourse(semester, teacherId, CourseStatus.PUBLISHED, 2);
+        UUID firstAssignment = seedAssignment(first, deadline);
+        List<UUID> firstStudents = courseSelectionRepository.findByCourseId(first).stream()
+                .map(CourseSelection::getStudentId)
+                .toList();
+        submit(firstAssignment, firstStudents.get(0), deadline.minus(Duration.ofHours(1)), 90);
+        // 同一学生较早的一次提交不计入
+        submit(firstAssignment, firstStudents.get(0), deadline.minus(Duration.ofHours(5)), 10);
+        // 第二门课：没有院系，一名学生迟交且未评分
+        UUID second = seedCourse(semester, UUID.randomUUID(), CourseStatus.ARCHIVED, 1);
+        UUID secondAssignment = seedAssignment(second, deadline);
+        UUID lateStudent = courseSelectionRepository.findByCourseId(second).stream()
+                .map(CourseSelection::getStudentId)
+                .findFirst()
+                .orElseThrow();
+        submit(secondAssignment, lateStudent, deadline.plus(Duration.ofHours(1)), null);
+        // 草稿课程不参与汇总
+        seedAssignment(seedCourse(semester, teacherId, CourseStatus.DRAFT, 3), deadline);
+
+        Instant refreshedAt = analyticsRollupService.refresh();
+        AnalyticsRollupResponse response = analyticsRollupService.rollups(semester, null);
+
+        assertThat(response.getRefreshedAt()).isEqualTo(refreshedAt);
+        AnalyticsRollupEntry total = response.getTotal();
+        assertThat(total.getCourseCount()).isEqualTo(2);
+        assertThat(total.getEnrolledStudents()).isEqualTo(3);
+        assertThat(total.getExpectedSubmissions()).isEqualTo(3);
+        assertThat(total.getSubmittedSubmissions()).isEqualTo(2);
+        assertThat(total.getGradedSubmissions()).isEqualTo(1);
+        assertThat(total.getCompletionRate()).isEqualTo(0.3333);
+        // 缺交一份、迟交一份
+        assertThat(total.getOverdueRate()).isEqualTo(0.6667);
+        assertThat(total.getSubmissionScores().getCount()).isEqualTo(1);
+        assertThat(total.getSubmissionScores().getAverage()).isEqualTo(90.0);
+
+        assertThat(response.getSemesters()).extracting(AnalyticsRollupEntry::getSemester).containsExactly(semester);
+        assertThat(response.getDepartments())
+                .extracting(AnalyticsRollupEntry::getDepartment)
+                .containsExactlyInAnyOrder(department, AnalyticsRollupService.UNASSIGNED);
+
+        AnalyticsRollupEntry byDepartment = analyticsRollupService.rollups(semester, department).getTotal();
+        assertThat(byDepartment.getCourseCount()).isEqualTo(1);
+        assertThat(byDepartment.getOverdueRate()).isEqualTo(0.5);
+        assertThat(byDepartment.getCompletionRate()).isEqualTo(0.5);
+    }
+
+    private UUID seedCourse(String semester, UUID teacherId, CourseStatus status, int students) {
+        Course course = new Course();
+        course.setName("Rollup " + UUID.randomUUID());
+        course.setSemester(semester);
+        course.setCredit(2);
+        course.setStatus(status);
+        course.setTeacherId(teacherId);
+        UUID courseId = courseRepository.save(course).getId();
+        for (int i = 0; i < students; i++) {
+            CourseSelection selection = new CourseSelection();
+            selection.setCourseId(courseId);
+            selection.setStudentId(UUID.randomUUID());
+            selection.setSelectedAt(Instant.now());
+            courseSelectionRepository.save(selection);
+        }
+        return courseId;
+    }
+
+    private UUID seedAssignment(UUID courseId, Instant deadline) {
+        Assignment assignment = new Assignment();
+        assignment.setCourseId(courseId);
+        assignment.setTitle("汇总作业");
+        assignment.setPublished(true);
+        assignment.setDeadline(deadline);
+        return assignmentRepository.save(assignment).getId();
+    }
+
+    private void submit(UUID assignmentId, UUID studentId, Instant submittedAt, Integer score) {
+        Submission submission = new Submission();
+        submission.setAssignmentId(assignmentId);
+        submission.setStudentId(studentId);
+        submission.setStatus(score != null ? SubmissionStatus.GRADED : SubmissionStatus.SUBMITTED);
+        submission.setScore(score);
+        submission.setSubmittedAt(submittedAt);
+        submissionRepository.save(submission);
+    }
+}
@@ -0,0 +1,342 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CourseAnalyticsResponse;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.selection.SelectionStatus;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 对比单次扫描的 {@link CourseAnalyticsEngine} 与原先逐作业查询、装箱计算中位数的实现：
+ * 结果必须完全一致；打上 benchmark 标签的用例在 500 名学生 × 60 项作业的课程上输出耗时与内存分配
+ * （./gradlew benchmark 运行）
+ */
+@SpringBootTest
+class CourseAnalyticsEngineBenchmarkTests {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Autowired
+    private CourseAnalyticsEngine courseAnalyticsEngine;
+    @Autowired
+    private CourseAnalyticsMaterializer courseAnalyticsMaterializer;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private CourseSelectionRepository courseSelectionRepository;
+    @Autowired
+    private SubmissionRepository submissionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void matchesPreviousImplementation() {
+        UUID courseId = seedCourse(40, 8, 7L);
+
+        assertThat(courseAnalyticsEngine.analyze(courseId)).isEqualTo(legacyAnalytics(courseId));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkLargeCourse() {
+        UUID courseId = seedCourse(500, 60, 42L);
+        assertThat(courseAnalyticsEngine.analyze(courseId)).isEqualTo(legacyAnalytics(courseId));
+
+        Measurement before = measure(() -> legacyAnalytics(courseId));
+        Measurement rebuild = measure(() -> {
+            courseAnalyticsMaterializer.rebuild(courseId);
+            return courseAnalyticsEngine.analyze(courseId);
+        });
+        Measurement after = measure(() -> courseAnalyticsEngine.analyze(courseId));
+
+        System.out.printf("course analytics 500x60 before:  %.1f ms, %.1f MB allocated per call%n",
+                before.millis, before.megabytes);
+        System.out.printf("course analytics 500x60 rebuild: %.1f ms, %.1f MB allocated per call%n",
+                rebuild.millis, rebuild.megabytes);
+        System.out.printf("course analytics 500x60 after:   %.1f ms, %.1f MB allocated per call%n",
+                after.millis, after.megabytes);
+    }
+
+    private Measurement measure(Supplier<CourseAnalyticsResponse> action) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            action.get();
+        }
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            action.get();
+            nanos[i] = System.nanoTime() - start;
+            allocated += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        Arrays.sort(nanos);
+        Measurement measurement = new Measurement();
+        measurement.millis = nanos[MEASURED_ROUNDS / 2] / 1_000_000.0;
+        measurement.megabytes = allocated / (double) MEASURED_ROUNDS / (1024 * 1024);
+        return measurement;
+    }
+
+    private UUID seedCourse(int students, int assignments, long seed) {
+        Random random = new Random(seed);
+        Instant now = Instant.now();
+
+        Course course = new Course();
+        course.setName("Analytics benchmark " + UUID.randomUUID());
+        course.setSemester("2025-FALL");
+        course.setCredit(3);
+        course.setStatus(CourseStatus.PUBLISHED);
+        course.setTeacherId(UUID.randomUUID());
+        UUID courseId = courseRepository.save(course).getId();
+
+        List<UUID> studentIds = new ArrayList<>();
+        List<CourseSelection> selections = new ArrayList<>();
+        for (int s = 0; s < students; s++) {
+            CourseSelection selection = new CourseSelection();
+            selection.setCourseId(courseId);
+            selection.setStudentId(UUID.randomUUID());
+            selection.setStatus(SelectionStatus.ENROLLED);
+            selection.setSelectedAt(now);
+            selections.add(selection);
+            studentIds.add(selection.getStudentId());
+        }
+        courseSelectionRepository.saveAll(selections);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int a = 0; a < assignments; a++) {
+            Assignment assignment = new Assignment();
+            assignment.setCourseId(courseId);
+            assignment.setTitle("作业 " + a);
+            // 截止时间远离当前时间，避免两次计算之间跨过截止点
+            Instant deadline = switch (a % 3) {
+                case 0 -> now.minus(Duration.ofDays(10));
+                case 1 -> now.plus(Duration.ofDays(10));
+                default -> null;
+            };
+            assignment.setDeadline(deadline);
+            UUID assignmentId = assignmentRepository.save(assignment).getId();
+            Instant reference = deadline != null ? deadline : now.minus(Duration.ofDays(5));
+
+            for (UUID studentId : studentIds) {
+                int attempts = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(2);
+                for (int i = 0; i < attempts; i++) {
+                    boolean graded = random.nextInt(10) < 7;
+                    Instant submittedAt = random.nextInt(20) == 0
+                            ? null
+                            : reference.plus(Duration.ofMinutes(random.nextInt(4 * 24 * 60) - 3 * 24 * 60));
+                    // 每行的 updated_at 不同，未填写提交时间的记录也有确定的先后
+                    Timestamp writtenAt = Timestamp.from(now.plusMillis(rows.size()));
+                    rows.add(new Object[]{
+                            UUID.randomUUID(), writtenAt, writtenAt,
+                            assignmentId, studentId,
+                            (graded ? SubmissionStatus.GRADED : SubmissionStatus.SUBMITTED).name(),
+                            graded ? 30 + random.nextInt(71) : null,
+                            submittedAt != null ? Timestamp.from(submittedAt) : null
+                    });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO submissions "
+                + "(id, created_at, updated_at, assignment_id, student_id, status, score, submitted_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        return courseId;
+    }
+
+    /**
+     * 原 CourseController.courseAnalytics 的实现，作为结果一致性与性能对比的基线
+     */
+    private CourseAnalyticsResponse legacyAnalytics(UUID courseId) {
+        List<UUID> enrolledStudents = courseSelectionRepository.findByCourseIdAndStatus(courseId,
+                        SelectionStatus.ENROLLED).stream()
+                .map(CourseSelection::getStudentId)
+                .toList();
+        List<Assignment> assignments = assignmentRepository.findByCourseId(courseId);
+        int totalAssignments = assignments.size();
+        int enrolledCount = enrolledStudents.size();
+
+        Instant now = Instant.now();
+        int gradedSubmissions = 0;
+        int pendingSubmissions = 0;
+        List<Double> allScores = new ArrayList<>();
+        List<String> difficultAssignments = new ArrayList<>();
+        List<String> insights = new ArrayList<>();
+        Set<UUID> overdueStudents = new LinkedHashSet<>();
+        Map<UUID, DoubleSummaryStatistics> scoreStatsByStudent = new HashMap<>();
+        Map<UUID, Integer> missingAssignmentsByStudent = new HashMap<>();
+
+        for (Assignment assignment : assignments) {
+            List<Submission> assignmentSubmissions = submissionRepository.findByAssignmentId(assignment.getId());
+            Map<UUID, Submission> latestByStudent = new HashMap<>();
+            for (Submission submission : assignmentSubmissions) {
+                Submission current = latestByStudent.get(submission.getStudentId());
+                if (current == null || isLater(submission, current)) {
+                    latestByStudent.put(submission.getStudentId(), submission);
+                }
+            }
+
+            double assignmentScoreTotal = 0;
+            int assignmentScoreCount = 0;
+            for (UUID studentId : enrolledStudents) {
+                Submission submission = latestByStudent.get(studentId);
+                DoubleSummaryStatistics studentStats = scoreStatsByStudent
+                        .computeIfAbsent(studentId, key -> new DoubleSummaryStatistics());
+                if (submission != null) {
+                    if (submission.getStatus() == SubmissionStatus.GRADED) {
+                        gradedSubmissions++;
+                    } else {
+                        pendingSubmissions++;
+                    }
+                    Integer score = submission.getScore();
+                    if (score != null) {
+                        studentStats.accept(score);
+                        assignmentScoreTotal += score;
+                        assignmentScoreCount++;
+                        allScores.add(score.doubleValue());
+                    }
+                    Instant deadline = assignment.getDeadline();
+                    if (deadline != null) {
+                        Instant submittedAt = submission.getSubmittedAt();
+                        if (submittedAt == null || submittedAt.isAfter(deadline)) {
+                            overdueStudents.add(studentId);
+                        }
+                    }
+                } else {
+                    missingAssignmentsByStudent.merge(studentId, 1, Integer::sum);
+                    Instant deadline = assignment.getDeadline();
+                    if (deadline != null && deadline.isBefore(now)) {
+                        overdueStudents.add(studentId);
+                        pendingSubmissions++;
+                    }
+                }
+            }
+
+            if (assignmentScoreCount > 0) {
+                if (assignmentScoreTotal / assignmentScoreCount < 60) {
+                    difficultAssignments.add(assignment.getTitle() != null
+                            ? assignment.getTitle()
+                            : "Assignment-" + assignment.getId());
+                }
+            } else if (assignment.getDeadline() != null && assignment.getDeadline().isBefore(now)) {
+                difficultAssignments.add(assignment.getTitle() != null
+                        ? assignment.getTitle()
+                        : "Assignment-" + assignment.getId());
+            }
+        }
+
+        Set<UUID> atRiskStudents = new LinkedHashSet<>();
+        for (UUID studentId : enrolledStudents) {
+            DoubleSummaryStatistics stats = scoreStatsByStudent.get(studentId);
+            double average = stats != null && stats.getCount() > 0 ? stats.getAverage() : 0;
+            int missing = missingAssignmentsByStudent.getOrDefault(studentId, 0);
+            if (average < 60 || missing > Math.max(1, totalAssignments / 3)) {
+                atRiskStudents.add(studentId);
+            }
+        }
+
+        double completionRate = round(gradedSubmissions / (double) (enrolledCount * totalAssignments));
+        if (!allScores.isEmpty()) {
+            double avg = allScores.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            if (avg >= 90) {
+                insights.add("整体得分表现优异，建议进一步挖掘拔尖内容。");
+            } else if (avg < 65) {
+                insights.add("整体得分偏低，可适当安排跟进辅导。");
+            }
+        }
+        if (!overdueStudents.isEmpty()) {
+            insights.add("存在 " + overdueStudents.size() + " 名学生存在逾期或延迟提交，建议发送提醒。");
+        }
+        if (!difficultAssignments.isEmpty()) {
+            insights.add("建议复盘以下难度较高的作业：" + String.join("、", difficultAssignments));
+        }
+        if (!atRiskStudents.isEmpty()) {
+            insights.add("共 " + atRiskStudents.size() + " 名学生处于学业风险区间。");
+        }
+
+        return CourseAnalyticsResponse.builder()
+                .completionRate(completionRate)
+                .averageScore(allScores.isEmpty() ? null
+                        : round(allScores.stream().mapToDouble(Double::doubleValue).average().orElse(0)))
+                .medianScore(allScores.isEmpty() ? null : median(allScores))
+                .enrolledStudents(enrolledCount)
+                .totalAssignments(totalAssignments)
+                .gradedSubmissions(gradedSubmissions)
+                .pendingSubmissions(pendingSubmissions)
+                .overdueStudents(overdueStudents.stream().map(UUID::toString).toList())
+                .difficultAssignments(difficultAssignments)
+                .atRiskStudents(atRiskStudents.stream().map(UUID::toString).toList())
+                .insights(insights)
+                .build();
+    }
+
+    private boolean isLater(Submission candidate, Submission current) {
+        Instant candidateTs = timestamp(candidate);
+        Instant currentTs = timestamp(current);
+        if (candidateTs == null) {
+            return false;
+        }
+        return currentTs == null || candidateTs.isAfter(currentTs);
+    }
+
+    private Instant timestamp(Submission submission) {
+        if (submission.getSubmittedAt() != null) {
+            return submission.getSubmittedAt();
+        }
+        if (submission.getUpdatedAt() != null) {
+            return submission.getUpdatedAt();
+        }
+        return submission.getCreatedAt();
+    }
+
+    private Double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        int size = sorted.size();
+        if (size % 2 == 1) {
+            return round(sorted.get(size / 2));
+        }
+        return round((sorted.get(size / 2 - 1) + sorted.get(size / 2)) / 2.0);
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static class Measurement {
+        private double millis;
+        private double megabytes;
+    }
+}
@@ -0,0 +1,174 @@
+package fin.c3po.analytics;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CourseAnalyticsResponse;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.dto.BatchGradeSubmissionRequest;
+import fin.c3po.submission.dto.CreateSubmissionRequest;
+import fin.c3po.submission.dto.GradeSubmissionRequest;
+import fin.c3po.submission.dto.UpdateSubmissionRequest;
+import fin.c3po.submission.web.SubmissionController;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 验证提交接口触发的差量更新与整体重建结果一致，并由对账修复绕过事件的直接修改
+ */
+@SpringBootTest
+@WithMockUser(roles = {"STUDENT", "TEACHER"})
+class CourseAnalyticsMaterializationTests {
+
+    @Autowired
+    private CourseAnalyticsEngine courseAnalyticsEngine;
+    @Autowired
+    private CourseAnalyticsMaterializer courseAnalyticsMaterializer;
+    @Autowired
+    private SubmissionController submissionController;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private CourseSelectionRepository courseSelectionRepository;
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Test
+    void submissionEventsKeepMaterializationEqualToRebuild() {
+        Fixture fixture = seed();
+        courseAnalyticsEngine.analyze(fixture.courseId);
+
+        UUID first = submit(fixture.assignments.get(0), fixture.students.get(0));
+        UUID second = submit(fixture.assignments.get(0), fixture.students.get(1));
+        UUID resubmitted = submit(fixture.assignments.get(1), fixture.students.get(0));
+        submit(fixture.assignments.get(1), fixture.students.get(2));
+
+        GradeSubmissionRequest grade = new GradeSubmissionRequest();
+        grade.setScore(85);
+        submissionController.gradeSubmission(first, grade, fixture.teacher);
+
+        BatchGradeSubmissionRequest batch = new BatchGradeSubmissionRequest();
+        BatchGradeSubmissionRequest.GradeItem item = new BatchGradeSubmissionRequest.GradeItem();
+        item.setSubmissionId(second);
+        item.setScore(40);
+        batch.getGrades().add(item);
+        submissionController.batchGradeSubmissions(fixture.assignments.get(0), batch, fixture.teacher);
+
+        GradeSubmissionRequest draft = new GradeSubmissionRequest();
+        draft.setScore(55);
+        draft.setPublish(false);
+        submissionController.gradeSubmission(resubmitted, draft, fixture.teacher);
+
+        UpdateSubmissionRequest update = new UpdateSubmissionRequest();
+        update.setAttachments(List.of("v2.pdf"));
+        submissionController.updateSubmission(resubmitted, update,
+                account(fixture.students.get(0), UserRole.STUDENT));
+
+        CourseAnalyticsResponse incremental = courseAnalyticsEngine.analyze(fixture.courseId);
+        courseAnalyticsMaterializer.rebuild(fixture.courseId);
+        CourseAnalyticsResponse rebuilt = courseAnalyticsEngine.analyze(fixture.courseId);
+
+        assertThat(incremental).isEqualTo(rebuilt);
+        assertThat(incremental.getGradedSubmissions()).isEqualTo(2);
+        assertThat(incremental.getAverageScore()).isEqualTo(62.5);
+        assertThat(courseAnalyticsMaterializer.reconcile(fixture.courseId)).isFalse();
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        Fixture fixture = seed();
+        UUID submissionId = submit(fixture.assignments.get(0), fixture.students.get(0));
+        CourseAnalyticsResponse before = courseAnalyticsEngine.analyze(fixture.courseId);
+        assertThat(before.getAverageScore()).isNull();
+
+        // 绕过接口直接改库，不会发布事件
+        Submission submission = submissionRepository.findById(submissionId).orElseThrow();
+        submission.setScore(90);
+        submissionRepository.save(submission);
+        assertThat(courseAnalyticsEngine.analyze(fixture.courseId).getAverageScore()).isNull();
+
+        assertThat(courseAnalyticsMaterializer.reconcile(fixture.courseId)).isTrue();
+        assertThat(courseAnalyticsEngine.analyze(fixture.courseId).getAverageScore()).isEqualTo(90.0);
+    }
+
+    @Test
+    void rebuildWatermarkComesFromScannedSubmissions() {
+        Fixture fixture = seed();
+        courseAnalyticsMaterializer.rebuild(fixture.courseId);
+        assertThat(courseAnalyticsMaterializer.read(fixture.courseId).orElseThrow().getCourse().getSourceWatermark())
+                .isNull();
+
+        submit(fixture.assignments.get(0), fixture.students.get(0));
+        UUID latest = submit(fixture.assignments.get(1), fixture.students.get(1));
+        courseAnalyticsMaterializer.rebuild(fixture.courseId);
+
+        assertThat(courseAnalyticsMaterializer.read(fixture.courseId).orElseThrow().getCourse().getSourceWatermark())
+                .isEqualTo(submissionRepository.findById(latest).orElseThrow().getUpdatedAt());
+    }
+
+    private UUID submit(UUID assignmentId, UUID studentId) {
+        CreateSubmissionRequest request = new CreateSubmissionRequest();
+        request.setAttachments(new ArrayList<>(List.of("answer.pdf")));
+        return submissionController.createSubmission(assignmentId, request, account(studentId, UserRole.STUDENT))
+                .getBody().getData().getId();
+    }
+
+    private Fixture seed() {
+        Fixture fixture = new Fixture();
+        fixture.teacher = account(UserRole.TEACHER);
+
+        Course course = new Course();
+        course.setName("Materialized analytics " + UUID.randomUUID());
+        course.setSemester("2025-FALL");
+        course.setCredit(2);
+        course.setStatus(CourseStatus.PUBLISHED);
+        course.setTeacherId(fixture.teacher.getId());
+        fixture.courseId = courseRepository.save(course).getId();
+
+        for (int i = 0; i < 3; i++) {
+            Assignment assignment = new Assignment();
+            assignment.setCourseId(fixture.courseId);
+            assignment.setTitle("作业 " + i);
+            assignment.setPublished(true);
+            assignment.setAllowResubmit(true);
+            assignment.setDeadline(i < 2 ? Instant.now().plus(Duration.ofDays(3)) : null);
+            fixture.assignments.add(assignmentRepository.save(assignment).getId());
+        }
+        for (int i = 0; i < 4; i++) {
+            CourseSelection selection = new CourseSelection();
+            selection.setCourseId(fixture.courseId);
+            selection.setStudentId(UUID.randomUUID());
+            selection.setSelectedAt(Instant.now());
+            fixture.students.add(courseSelectionRepository.save(selection).getStudentId());
+        }
+        return fixture;
+    }
+
+
+    private static class Fixture {
+        private UUID courseId;
+        private UserAccount teacher;
+        private final List<UUID> assignments = new ArrayList<>();
+        private final List<UUID> students = new ArrayList<>();
+    }
+}
@@ -0,0 +1,79 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.CourseDailyMetricsResponse;
+import fin.c3po.analytics.web.CourseSnapshotController;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@WithMockUser(roles = "TEACHER")
+class CourseSnapshotJobTests {
+
+    @Autowired
+    private CourseSnapshotJob courseSnapshotJob;
+    @Autowired
+    private CourseSnapshotController courseSnapshotController;
+    @Autowired
+    private TestFixtures fixtures;
+    @Autowired
+    private CourseDailySnapshotRepository courseDailySnapshotRepository;
+
+    @Test
+    void writesOneSnapshotPerCoursePerDayAndServesRange() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        UUID courseId = fixtures.courseWithOverdueAssignment(teacher.getId(), CourseStatus.PUBLISHED,
+                UUID.randomUUID(), 80, UUID.randomUUID());
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate today = LocalDate.now();
+
+        CourseDailySnapshot earlier = new CourseDailySnapshot();
+        earlier.setCourseId(courseId);
+        earlier.setSnapshotDate(yesterday);
+        earlier.setCapturedAt(Instant.now().minus(Duration.ofDays(1)));
+        courseDailySnapshotRepository.save(earlier);
+
+        Instant before = Instant.now();
+        assertThat(courseSnapshotJob.snapshotAll()).isGreaterThanOrEqualTo(1);
+        // 同一天重复执行覆盖已有快照
+        courseSnapshotJob.snapshotAll();
+
+        List<CourseDailyMetricsResponse> series = courseSnapshotController
+                .dailyMetrics(courseId, yesterday, today, teacher)
+                .getData();
+        assertThat(series).extracting(CourseDailyMetricsResponse::getDate).containsExactly(yesterday, today);
+        CourseDailyMetricsResponse latest = series.get(1);
+        // 快照按实际读取时刻记日期
+        assertThat(latest.getCapturedAt()).isAfterOrEqualTo(before);
+        assertThat(latest.getEnrolledStudents()).isEqualTo(2);
+        assertThat(latest.getGradedSubmissions()).isEqualTo(1);
+        assertThat(latest.getCompletionRate()).isEqualTo(0.5);
+        assertThat(latest.getAverageScore()).isEqualTo(80.0);
+        assertThat(latest.getOverdueStudents()).isEqualTo(1);
+        assertThat(courseDailySnapshotRepository
+                .findByCourseIdAndSnapshotDateBetweenOrderBySnapshotDateAsc(courseId, today, today)).hasSize(1);
+
+        assertThatThrownBy(() -> courseSnapshotController.dailyMetrics(courseId, null, null,
+                account(UserRole.TEACHER))).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> courseSnapshotController.dailyMetrics(courseId, today, yesterday, teacher))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
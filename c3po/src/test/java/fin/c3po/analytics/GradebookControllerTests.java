@@ -0,0 +1,130 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.GradebookResponse;
+import fin.c3po.analytics.web.GradebookController;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static fin.c3po.support.TestFixtures.submissionRow;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 成绩册的列式布局与 CSV 导出；打上 benchmark 标签的用例在 1000 名学生 × 100 项作业的课程上输出耗时
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+@WithMockUser(roles = "TEACHER")
+class GradebookControllerTests {
+
+    @Autowired
+    private GradebookController gradebookController;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void returnsLatestSubmissionPerCellInColumnarLayoutAndCsv() throws Exception {
+        UserAccount teacher = account(UserRole.TEACHER);
+        Instant now = Instant.now();
+        UUID courseId = fixtures.course(teacher.getId());
+        UUID early = fixtures.assignment(courseId, "第一次作业", now.minus(Duration.ofDays(2)));
+        UUID late = fixtures.assignment(courseId, "第二次, \"综合\"", now.plus(Duration.ofDays(2)));
+        List<UUID> students = fixtures.enroll(courseId, 2);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(submissionRow(early, students.get(0), SubmissionStatus.GRADED, 55, now.minus(Duration.ofDays(4))));
+        rows.add(submissionRow(early, students.get(0), SubmissionStatus.GRADED, 88, now.minus(Duration.ofDays(3))));
+        rows.add(submissionRow(late, students.get(1), SubmissionStatus.SUBMITTED, null,
+                now.minus(Duration.ofHours(1))));
+        fixtures.insertSubmissions(rows);
+
+        GradebookResponse response = gradebookController.gradebook(courseId, teacher).getData();
+        assertThat(response.getAssignmentIds()).containsExactly(early, late);
+        assertThat(response.getStudentIds()).containsExactlyInAnyOrderElementsOf(students);
+        int first = response.getStudentIds().indexOf(students.get(0));
+        int second = response.getStudentIds().indexOf(students.get(1));
+        assertThat(response.getScores()).hasSize(4);
+        assertThat(response.getScores()[first * 2]).isEqualTo(88);
+        assertThat(response.getScores()[first * 2 + 1]).isEqualTo(GradebookResponse.MISSING);
+        assertThat(response.getStatuses()[first * 2 + 1]).isEqualTo(GradebookResponse.MISSING);
+        assertThat(response.getScores()[second * 2 + 1]).isEqualTo(GradebookResponse.MISSING);
+        assertThat(response.getStatusValues().get(response.getStatuses()[second * 2 + 1])).isEqualTo("SUBMITTED");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gradebookController.exportGradebook(courseId, teacher).getBody().writeTo(out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).substring(1).split("\r\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("student_id,student_name,第一次作业,\"第二次, \"\"综合\"\"\"");
+        assertThat(lines[1 + first]).isEqualTo(students.get(0) + ",,88,");
+        assertThat(lines[1 + second]).isEqualTo(students.get(1) + ",,,SUBMITTED");
+
+        assertThatThrownBy(() -> gradebookController.gradebook(courseId, account(UserRole.TEACHER)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void csvNeutralizesFormulaPrefixesIncludingTabAndCarriageReturn() throws Exception {
+        UserAccount teacher = account(UserRole.TEACHER);
+        Instant now = Instant.now();
+        UUID courseId = fixtures.course(teacher.getId());
+        fixtures.assignment(courseId, "=SUM(A1)", now.plus(Duration.ofDays(1)));
+        fixtures.assignment(courseId, "\t=SUM(A1)", now.plus(Duration.ofDays(2)));
+        fixtures.assignment(courseId, "\r=1+1", now.plus(Duration.ofDays(3)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gradebookController.exportGradebook(courseId, teacher).getBody().writeTo(out);
+        String header = out.toString(StandardCharsets.UTF_8).substring(1).split("\r\n")[0];
+
+        assertThat(header).isEqualTo("student_id,student_name,'=SUM(A1),'\t=SUM(A1),\"'\r=1+1\"");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkLargeCourse() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        Random random = new Random(42L);
+        Instant now = Instant.now();
+        UUID courseId = fixtures.course(teacher.getId());
+        List<UUID> students = fixtures.enroll(courseId, 1000);
+        List<Object[]> rows = new ArrayList<>();
+        for (int a = 0; a < 100; a++) {
+            UUID assignmentId = fixtures.assignment(courseId, "作业 " + a, now.minus(Duration.ofDays(100 - a)));
+            for (UUID studentId : students) {
+                if (random.nextInt(10) > 0) {
+                    rows.add(submissionRow(assignmentId, studentId, SubmissionStatus.GRADED,
+                            random.nextInt(101), now.minus(Duration.ofMinutes(rows.size()))));
+                }
+            }
+        }
+        fixtures.insertSubmissions(rows);
+
+        for (int i = 0; i < 3; i++) {
+            gradebookController.gradebook(courseId, teacher);
+        }
+        long start = System.nanoTime();
+        int rounds = 10;
+        for (int i = 0; i < rounds; i++) {
+            assertThat(gradebookController.gradebook(courseId, teacher).getData().getScores()).hasSize(100_000);
+        }
+        System.out.printf("gradebook 1000x100: %.1f ms per call%n", (System.nanoTime() - start) / 1e6 / rounds);
+    }
+}
@@ -0,0 +1,160 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.QuizItemAnalysisResponse;
+import fin.c3po.analytics.dto.QuizItemResponse;
+import fin.c3po.analytics.web.QuizItemAnalysisController;
+import fin.c3po.submission.QuizAttempt;
+import fin.c3po.submission.QuizAttemptRepository;
+import fin.c3po.submission.QuizAttemptStatus;
+import fin.c3po.submission.dto.CreateQuizAttemptRequest;
+import fin.c3po.submission.dto.GradeQuizAttemptRequest;
+import fin.c3po.submission.dto.UpdateQuizAttemptRequest;
+import fin.c3po.submission.web.QuizAttemptController;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 测验逐题分析：评分与改答的差量更新结果应与全量重建一致
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+@WithMockUser(roles = {"TEACHER", "STUDENT"})
+class QuizItemAnalysisServiceTests {
+
+    @Autowired
+    private QuizItemAnalysisController quizItemAnalysisController;
+    @Autowired
+    private QuizItemAnalysisService quizItemAnalysisService;
+    @Autowired
+    private QuizAttemptController quizAttemptController;
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        UUID assignmentId = fixtures.quiz(fixtures.course(teacher.getId()));
+        UserAccount first = account(UserRole.STUDENT);
+        UserAccount second = account(UserRole.STUDENT);
+        UserAccount third = account(UserRole.STUDENT);
+        UUID firstAttempt = attempt(assignmentId, first, "[{\"questionId\":\"q1\",\"answer\":\"A\",\"score\":5},"
+                + "{\"questionId\":\"q2\",\"answer\":\"C\",\"score\":0}]");
+        UUID secondAttempt = attempt(assignmentId, second, "[{\"questionId\":\"q1\",\"answer\":\"A\",\"score\":5},"
+                + "{\"questionId\":\"q2\",\"answer\":\"B\",\"score\":5}]");
+        UUID thirdAttempt = attempt(assignmentId, third, "[{\"questionId\":\"q1\",\"answer\":\" B \",\"score\":0}]");
+
+        // 首次读取时还没有已评分的作答
+        QuizItemAnalysisResponse empty = quizItemAnalysisController.itemAnalysis(assignmentId, teacher).getData();
+        assertThat(empty.getGradedAttempts()).isZero();
+        assertThat(empty.getItems()).isEmpty();
+
+        grade(firstAttempt, teacher);
+        grade(secondAttempt, teacher);
+        grade(thirdAttempt, teacher);
+        grade(thirdAttempt, teacher);
+
+        QuizItemAnalysisResponse graded = quizItemAnalysisController.itemAnalysis(assignmentId, teacher).getData();
+        assertThat(graded.getGradedAttempts()).isEqualTo(3);
+        assertThat(graded.getItems()).extracting(QuizItemResponse::getQuestionId).containsExactly("q1", "q2");
+        QuizItemResponse q1 = graded.getItems().get(0);
+        assertThat(q1.getAnsweredCount()).isEqualTo(3);
+        assertThat(q1.getCorrectCount()).isEqualTo(2);
+        assertThat(q1.getCorrectRate()).isEqualTo(0.6667);
+        assertThat(q1.getAverageScore()).isEqualTo(3.33);
+        assertThat(q1.getOptions().get(0).getAnswer()).isEqualTo("A");
+        assertThat(q1.getOptions().get(0).getCount()).isEqualTo(2);
+        assertThat(q1.getOptions().get(1).getAnswer()).isEqualTo("B");
+        assertThat(graded.getMostMissed()).containsExactly("q2", "q1");
+
+        // 已评分的作答被修改后撤销旧内容、计入新内容
+        UpdateQuizAttemptRequest update = new UpdateQuizAttemptRequest();
+        update.setAnswers(List.of(answer("q2", "B", 5.0), answer("q3", "D", 0.0)));
+        quizAttemptController.updateQuizAttempt(firstAttempt, update, first);
+
+        QuizItemAnalysisResponse incremental = quizItemAnalysisController.itemAnalysis(assignmentId, teacher).getData();
+        assertThat(incremental.getGradedAttempts()).isEqualTo(3);
+        assertThat(incremental.getItems()).extracting(QuizItemResponse::getQuestionId).containsExactly("q1", "q2", "q3");
+        QuizItemResponse q2 = incremental.getItems().get(1);
+        assertThat(q2.getAnsweredCount()).isEqualTo(2);
+        assertThat(q2.getCorrectRate()).isEqualTo(1.0);
+        assertThat(q2.getOptions()).hasSize(1);
+
+        quizItemAnalysisService.rebuild(assignmentId);
+        QuizItemAnalysisResponse rebuilt = quizItemAnalysisController.itemAnalysis(assignmentId, teacher).getData();
+        assertThat(rebuilt.getGradedAttempts()).isEqualTo(incremental.getGradedAttempts());
+        assertThat(rebuilt.getItems()).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(incremental.getItems());
+
+        assertThatThrownBy(() -> quizItemAnalysisController.itemAnalysis(assignmentId, account(UserRole.TEACHER)))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void scheduledRebuildOnlyPicksDriftedQuizzes() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        UUID assignmentId = fixtures.quiz(fixtures.course(teacher.getId()));
+        UUID attemptId = attempt(assignmentId, account(UserRole.STUDENT),
+                "[{\"questionId\":\"q1\",\"answer\":\"A\",\"score\":5}]");
+        grade(attemptId, teacher);
+        Instant dayAgo = Instant.now().minus(Duration.ofDays(1));
+        assertThat(quizItemAnalysisService.findDrifted(dayAgo)).doesNotContain(assignmentId);
+
+        // 绕过事件直接修改已评分作答，计入的版本随之过期
+        QuizAttempt attempt = quizAttemptRepository.findById(attemptId).orElseThrow();
+        attempt.setAnswers("[{\"questionId\":\"q1\",\"answer\":\"B\",\"score\":0}]");
+        quizAttemptRepository.save(attempt);
+        assertThat(quizItemAnalysisService.findDrifted(dayAgo)).contains(assignmentId);
+
+        quizItemAnalysisService.rebuild(assignmentId);
+        assertThat(quizItemAnalysisService.findDrifted(dayAgo)).doesNotContain(assignmentId);
+        QuizItemResponse q1 = quizItemAnalysisController.itemAnalysis(assignmentId, teacher).getData()
+                .getItems().get(0);
+        assertThat(q1.getCorrectCount()).isZero();
+
+        // 超过最长间隔未重建的测验也会被选中
+        assertThat(quizItemAnalysisService.findDrifted(Instant.now().plusSeconds(1))).contains(assignmentId);
+    }
+
+    private UUID attempt(UUID assignmentId, UserAccount student, String answers) {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setAssignmentId(assignmentId);
+        attempt.setStudentId(student.getId());
+        attempt.setStatus(QuizAttemptStatus.SUBMITTED);
+        attempt.setStartedAt(Instant.now());
+        attempt.setSubmittedAt(Instant.now());
+        attempt.setAnswers(answers);
+        return quizAttemptRepository.save(attempt).getId();
+    }
+
+    private void grade(UUID attemptId, UserAccount teacher) {
+        GradeQuizAttemptRequest request = new GradeQuizAttemptRequest();
+        request.setScore(80);
+        quizAttemptController.gradeQuizAttempt(attemptId, request, teacher);
+    }
+
+    private CreateQuizAttemptRequest.Answer answer(String questionId, String value, Double score) {
+        CreateQuizAttemptRequest.Answer answer = new CreateQuizAttemptRequest.Answer();
+        answer.setQuestionId(questionId);
+        answer.setAnswer(value);
+        answer.setScore(score);
+        return answer;
+    }
+}
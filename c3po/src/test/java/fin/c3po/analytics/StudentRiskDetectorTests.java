@@ -0,0 +1,65 @@
+package fin.c3po.analytics;
+
+import fin.c3po.analytics.dto.StudentRiskResponse;
+import fin.c3po.analytics.web.StudentRiskController;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+@WithMockUser(roles = "TEACHER")
+class StudentRiskDetectorTests {
+
+    @Autowired
+    private StudentRiskDetector studentRiskDetector;
+    @Autowired
+    private StudentRiskController studentRiskController;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void detectsRiskAcrossPublishedCoursesAndScopesListingToTeacher() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        UUID strong = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID courseId = fixtures.courseWithOverdueAssignment(teacher.getId(), CourseStatus.PUBLISHED, strong, 92,
+                missing);
+        UUID draftCourseId = fixtures.courseWithOverdueAssignment(teacher.getId(), CourseStatus.DRAFT, strong, 92,
+                missing);
+
+        assertThat(studentRiskDetector.detectAll()).isGreaterThanOrEqualTo(1);
+        // 事件触发的单课程检测：未发布课程不产生结果
+        assertThat(studentRiskDetector.detect(draftCourseId)).isTrue();
+
+        List<StudentRiskResponse> risks = studentRiskController
+                .listStudentRisks(1, 20, null, null, teacher)
+                .getData();
+        assertThat(risks).extracting(StudentRiskResponse::getStudentId).containsExactly(missing);
+        StudentRiskResponse risk = risks.get(0);
+        assertThat(risk.getCourseId()).isEqualTo(courseId);
+        assertThat(risk.isAtRisk()).isTrue();
+        assertThat(risk.isOverdue()).isTrue();
+        assertThat(risk.getOverdueAssignments()).isEqualTo(1);
+        assertThat(risk.getSubmittedAssignments()).isZero();
+
+        assertThat(studentRiskController.listStudentRisks(1, 20, courseId, null, account(UserRole.ADMIN))
+                .getData()).hasSize(1);
+        assertThatThrownBy(() -> studentRiskController.listStudentRisks(1, 20, courseId, null,
+                account(UserRole.TEACHER))).isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package fin.c3po.common.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTests {
+
+    @Test
+    void concurrentIdenticalRequestsShareOneComputation() throws Exception {
+        SingleFlightCache<String> cache = new SingleFlightCache<>("test", Duration.ofSeconds(30), 16);
+        UUID courseId = UUID.randomUUID();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> cache.get(courseId, "overview", () -> {
+                    computations.incrementAndGet();
+                    awaitQuietly(release);
+                    return "result";
+                })));
+            }
+            // 等所有请求都进入等待后再放行计算
+            while (cache.stats().getMisses() + cache.stats().getCoalesced() < callers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo("result");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(computations).hasValue(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+        assertThat(cache.stats().getCoalesced()).isEqualTo(callers - 1);
+
+        assertThat(cache.get(courseId, "overview", () -> "recomputed")).isEqualTo("result");
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void failuresAreNotCachedAndInvalidationIsPerGroup() {
+        SingleFlightCache<String> cache = new SingleFlightCache<>("test", Duration.ofSeconds(30), 16);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertThatThrownBy(() -> cache.get(first, "k", () -> {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        })).isInstanceOf(ResponseStatusException.class);
+        assertThat(cache.get(first, "k", () -> "v1")).isEqualTo("v1");
+        assertThat(cache.get(second, "k", () -> "v1")).isEqualTo("v1");
+
+        cache.invalidate(first);
+
+        assertThat(cache.get(first, "k", () -> "v2")).isEqualTo("v2");
+        assertThat(cache.get(second, "k", () -> "v2")).isEqualTo("v1");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fin.c3po.course;
+
+import fin.c3po.course.dto.CoursePlazaFacetsResponse;
+import fin.c3po.course.dto.CoursePlazaFacetsResponse.FacetCount;
+import fin.c3po.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 分面计数：每个分面忽略自身筛选条件、应用其余条件，未发布课程不参与统计
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class CoursePlazaFacetServiceTests {
+
+    @Autowired
+    private CoursePlazaFacetService coursePlazaFacetService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void countsPublishedCoursesPerDimension() {
+        String keyword = "facet-" + UUID.randomUUID();
+        UUID cs = fixtures.teacher("CS");
+        UUID math = fixtures.teacher("Math");
+        seed(keyword, cs, "2025-FALL", 2, CourseStatus.PUBLISHED, 3);
+        seed(keyword, cs, "2026-SPRING", 3, CourseStatus.PUBLISHED, 1);
+        seed(keyword, math, "2025-FALL", 2, CourseStatus.PUBLISHED, 2);
+        seed(keyword, math, "2025-FALL", 2, CourseStatus.DRAFT, 4);
+        seed(keyword, UUID.randomUUID(), "2025-FALL", 4, CourseStatus.PUBLISHED, 1);
+
+        CoursePlazaFacetsResponse facets = coursePlazaFacetService.facets(keyword, null, null, null);
+
+        assertThat(facets.getDepartments()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("CS", 4L), tuple("Math", 2L), tuple(null, 1L));
+        assertThat(facets.getSemesters()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("2025-FALL", 6L), tuple("2026-SPRING", 1L));
+        assertThat(facets.getCredits()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("2", 5L), tuple("3", 1L), tuple("4", 1L));
+    }
+
+    @Test
+    void eachFacetAppliesOnlyTheOtherFilters() {
+        String keyword = "facet-" + UUID.randomUUID();
+        UUID cs = fixtures.teacher("Computer Science");
+        UUID math = fixtures.teacher("Math");
+        seed(keyword, cs, "2025-FALL", 2, CourseStatus.PUBLISHED, 2);
+        seed(keyword, cs, "2026-SPRING", 3, CourseStatus.PUBLISHED, 1);
+        seed(keyword, math, "2025-FALL", 3, CourseStatus.PUBLISHED, 4);
+
+        CoursePlazaFacetsResponse facets = coursePlazaFacetService.facets(keyword, "2025-FALL", null, "science");
+
+        // 院系分面只受学期筛选影响
+        assertThat(facets.getDepartments()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("Math", 4L), tuple("Computer Science", 2L));
+        // 学期分面只受院系筛选影响
+        assertThat(facets.getSemesters()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("2025-FALL", 2L), tuple("2026-SPRING", 1L));
+        // 学分分面同时受学期和院系筛选影响
+        assertThat(facets.getCredits()).extracting(FacetCount::getValue, FacetCount::getCount)
+                .containsExactly(tuple("2", 2L));
+    }
+
+    private void seed(String namePrefix, UUID teacherId, String semester, int credit,
+                      CourseStatus status, int count) {
+        for (int i = 0; i < count; i++) {
+            String name = namePrefix + "-" + semester + "-" + i;
+            fixtures.course(course -> {
+                course.setName(name);
+                course.setSemester(semester);
+                course.setCredit(credit);
+                course.setStatus(status);
+                course.setTeacherId(teacherId);
+            });
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package fin.c3po.course.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CoursePlazaPage;
+import fin.c3po.course.dto.CoursePlazaResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 使用进程内存储代替 Redis 验证缓存命中、键规范化与事件失效
+ */
+class CoursePlazaCacheTests {
+
+    private final InMemoryCoursePlazaPageStore store = new InMemoryCoursePlazaPageStore();
+    private final CoursePlazaCache cache = new CoursePlazaCache(
+            store, new ObjectMapper().findAndRegisterModules(), Duration.ofMinutes(1));
+
+    @Test
+    void keyUsesFilterValuesVerbatim() {
+        // 规范化由控制器在构造查询之前完成，缓存键不再另行处理，保证键与查询取值一致
+        String first = CoursePlazaCache.key("java", "2025-FALL", 2, "cs", "enrolledCount,desc", 0, 20, null, false);
+        String same = CoursePlazaCache.key("java", "2025-FALL", 2, "cs", "enrolledCount,desc", 0, 20, null, false);
+        String otherSemester = CoursePlazaCache.key("java", " 2025-FALL ", 2, "cs", "enrolledCount,desc", 0, 20, null, false);
+        String otherPage = CoursePlazaCache.key("java", "2025-FALL", 2, "cs", "enrolledCount,desc", 1, 20, null, false);
+
+        assertThat(same).isEqualTo(first);
+        assertThat(otherSemester).isNotEqualTo(first);
+        assertThat(otherPage).isNotEqualTo(first);
+    }
+
+    @Test
+    void secondRequestIsServedFromStore() {
+        AtomicInteger loads = new AtomicInteger();
+        CoursePlazaPage page = samplePage();
+
+        CoursePlazaPage miss = cache.getOrLoad("k", () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        CoursePlazaPage hit = cache.getOrLoad("k", () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(miss).isEqualTo(page);
+        assertThat(hit).isEqualTo(page);
+    }
+
+    @Test
+    void courseChangeInvalidatesAllPages() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("a", () -> {
+            loads.incrementAndGet();
+            return samplePage();
+        });
+
+        cache.onCourseChanged(new CourseChangedEvent(UUID.randomUUID(), CourseChangedEvent.Change.ENROLLMENT_CHANGED));
+
+        assertThat(store.get(store.generation().getAsLong(), "a")).isEmpty();
+        cache.getOrLoad("a", () -> {
+            loads.incrementAndGet();
+            return samplePage();
+        });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void assignmentChangesKeepCachedPages() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.getOrLoad("a", () -> {
+            loads.incrementAndGet();
+            return samplePage();
+        });
+
+        cache.onCourseChanged(new CourseChangedEvent(UUID.randomUUID(), CourseChangedEvent.Change.ASSIGNMENTS_CHANGED));
+        cache.getOrLoad("a", () -> {
+            loads.incrementAndGet();
+            return samplePage();
+        });
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void pageLoadedAcrossAnInvalidationIsNotStored() {
+        cache.getOrLoad("racy", () -> {
+            cache.onCourseChanged(new CourseChangedEvent(UUID.randomUUID(), CourseChangedEvent.Change.UPDATED));
+            return samplePage();
+        });
+
+        assertThat(store.get(store.generation().getAsLong(), "racy")).isEmpty();
+    }
+
+    private CoursePlazaPage samplePage() {
+        CoursePlazaResponse item = CoursePlazaResponse.builder()
+                .id(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .name("Java")
+                .semester("2025-FALL")
+                .credit(2)
+                .status(CourseStatus.PUBLISHED)
+                .enrollLimit(30)
+                .enrolledCount(12)
+                .assignments(3)
+                .modules(4)
+                .teacher(CoursePlazaResponse.TeacherInfo.builder()
+                        .id(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                        .username("teacher")
+                        .department("CS")
+                        .build())
+                .createdAt(Instant.parse("2025-09-01T00:00:00Z"))
+                .updatedAt(Instant.parse("2025-09-02T00:00:00Z"))
+                .build();
+        return CoursePlazaPage.builder()
+                .items(List.of(item))
+                .total(1L)
+                .build();
+    }
+}
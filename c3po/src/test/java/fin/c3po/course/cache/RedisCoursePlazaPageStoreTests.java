@@ -0,0 +1,114 @@
+package fin.c3po.course.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.dto.CoursePlazaPage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在真实 Redis（Testcontainers）上验证分页存储：读写、每个页面独立的 ttl、按代次失效，
+ * 以及两个实例共享代次时加载期间的失效不会被旧页面覆盖；没有 Docker 时跳过
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisCoursePlazaPageStoreTests {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final RedisCoursePlazaPageStore store = new RedisCoursePlazaPageStore(redisTemplate);
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void flush() {
+        redisTemplate.delete(redisTemplate.keys("c3po:*"));
+    }
+
+    @Test
+    void storesAndReadsPagesOfTheCurrentGeneration() {
+        long generation = store.generation().orElseThrow();
+
+        store.put(generation, "k", "{\"total\":1}", Duration.ofMinutes(1));
+
+        assertThat(generation).isZero();
+        assertThat(store.get(generation, "k")).contains("{\"total\":1}");
+        assertThat(store.get(generation, "other")).isEmpty();
+    }
+
+    @Test
+    void eachPageKeepsItsOwnTtl() throws InterruptedException {
+        long generation = store.generation().orElseThrow();
+        store.put(generation, "long", "a", Duration.ofMinutes(1));
+        store.put(generation, "short", "b", Duration.ofMillis(300));
+
+        assertThat(redisTemplate.getExpire(RedisCoursePlazaPageStore.pageKey(generation, "long"), TimeUnit.MILLISECONDS))
+                .isBetween(50_000L, 60_000L);
+        assertThat(redisTemplate.getExpire(RedisCoursePlazaPageStore.pageKey(generation, "short"), TimeUnit.MILLISECONDS))
+                .isBetween(1L, 300L);
+
+        Thread.sleep(600);
+        assertThat(store.get(generation, "short")).isEmpty();
+        assertThat(store.get(generation, "long")).contains("a");
+    }
+
+    @Test
+    void invalidationAdvancesTheGenerationAndRejectsOlderWrites() {
+        long before = store.generation().orElseThrow();
+        store.put(before, "k", "old", Duration.ofMinutes(1));
+
+        store.invalidateAll();
+        long after = store.generation().orElseThrow();
+        store.put(before, "late", "stale", Duration.ofMinutes(1));
+
+        assertThat(after).isEqualTo(before + 1);
+        assertThat(store.get(after, "k")).isEmpty();
+        assertThat(redisTemplate.hasKey(RedisCoursePlazaPageStore.pageKey(before, "late"))).isFalse();
+        assertThat(redisTemplate.hasKey(RedisCoursePlazaPageStore.pageKey(after, "late"))).isFalse();
+    }
+
+    @Test
+    void invalidationOnAnotherInstanceDuringLoadIsNotOverwritten() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        CoursePlazaCache instanceA = new CoursePlazaCache(store, objectMapper, Duration.ofMinutes(1));
+        CoursePlazaCache instanceB = new CoursePlazaCache(new RedisCoursePlazaPageStore(redisTemplate),
+                objectMapper, Duration.ofMinutes(1));
+
+        instanceA.getOrLoad("racy", () -> {
+            instanceB.onCourseChanged(new CourseChangedEvent(UUID.randomUUID(), CourseChangedEvent.Change.UPDATED));
+            return CoursePlazaPage.builder().items(List.of()).total(0L).build();
+        });
+
+        assertThat(store.get(store.generation().orElseThrow(), "racy")).isEmpty();
+        assertThat(redisTemplate.keys(RedisCoursePlazaPageStore.PAGE_KEY_PREFIX + "*")).isEmpty();
+    }
+}
@@ -0,0 +1,135 @@
+package fin.c3po.course.search;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 使用 H2 下的进程内索引验证相关度排序、筛选条件与分页
+ */
+@SpringBootTest
+class CourseSearchServiceTests {
+
+    private static final Specification<Course> ANY = (root, query, cb) -> cb.conjunction();
+
+    @Autowired
+    private CourseSearchService courseSearchService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void exactMatchRanksBeforePrefixMatchBeforeOtherHits() {
+        String word = token();
+        Course other = save("Advanced " + word, "2025-FALL");
+        Course prefixLong = save(word + " Laboratory Practice", "2025-FALL");
+        Course prefixShort = save(word + " Lab", "2025-FALL");
+        Course exact = save(word, "2025-FALL");
+
+        Page<Course> page = courseSearchService.search(word, ANY, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(Course::getId)
+                .containsExactly(exact.getId(), prefixShort.getId(), prefixLong.getId(), other.getId());
+    }
+
+    @Test
+    void filtersAreAppliedBeforePaging() {
+        String word = token();
+        for (int i = 0; i < 3; i++) {
+            save(word + " fall " + i, "2025-FALL");
+            save(word + " spring " + i, "2026-SPRING");
+        }
+
+        Specification<Course> fall = (root, query, cb) -> cb.equal(root.get("semester"), "2025-FALL");
+        Page<Course> page = courseSearchService.search(word, fall, PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(3)
+                .allSatisfy(course -> assertThat(course.getSemester()).isEqualTo("2025-FALL"));
+    }
+
+    @Test
+    void pagesFollowRelevanceOrderAndReportTotal() {
+        String word = token();
+        for (int i = 0; i < 5; i++) {
+            save(word + " " + "x".repeat(i + 1), "2025-FALL");
+        }
+
+        Page<Course> all = courseSearchService.search(word, ANY, PageRequest.of(0, 10));
+        Page<Course> second = courseSearchService.search(word, ANY, PageRequest.of(1, 2));
+        Page<Course> beyond = courseSearchService.search(word, ANY, PageRequest.of(5, 2));
+
+        assertThat(second.getTotalElements()).isEqualTo(5);
+        assertThat(second.getContent()).extracting(Course::getId)
+                .containsExactlyElementsOf(all.getContent().subList(2, 4).stream().map(Course::getId).toList());
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(beyond.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void filtersReachMatchesRankedBeyondTheFirstBatch() {
+        String word = token();
+        for (int i = 0; i < CourseSearchService.FILTER_BATCH_SIZE + 5; i++) {
+            save(word + " " + i, "2025-FALL");
+        }
+        // 词元更多、名称更长，相关度排在所有秋季课程之后
+        for (int i = 0; i < 3; i++) {
+            save(word + " spring elective seminar " + i, "2026-SPRING");
+        }
+
+        Specification<Course> spring = (root, query, cb) -> cb.equal(root.get("semester"), "2026-SPRING");
+        Page<Course> first = courseSearchService.search(word, spring, PageRequest.of(0, 2));
+        Page<Course> second = courseSearchService.search(word, spring, PageRequest.of(1, 2));
+        Page<Course> all = courseSearchService.search(word, ANY, PageRequest.of(0, 1));
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).hasSize(2)
+                .allSatisfy(course -> assertThat(course.getSemester()).isEqualTo("2026-SPRING"));
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(all.getTotalElements()).isEqualTo(CourseSearchService.FILTER_BATCH_SIZE + 8L);
+    }
+
+    @Test
+    void keywordWithoutHitsReturnsEmptyPage() {
+        Page<Course> page = courseSearchService.search(token(), ANY, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isZero();
+    }
+
+    /**
+     * 每个用例使用独立的字母词，避免与其它测试写入的课程互相命中
+     */
+    private String token() {
+        StringBuilder word = new StringBuilder("q");
+        for (char c : UUID.randomUUID().toString().replace("-", "").substring(0, 10).toCharArray()) {
+            word.append(Character.isDigit(c) ? (char) ('g' + (c - '0')) : c);
+        }
+        return word.toString();
+    }
+
+    private Course save(String name, String semester) {
+        Course course = new Course();
+        course.setName(name);
+        course.setSemester(semester);
+        course.setCredit(2);
+        course.setStatus(CourseStatus.PUBLISHED);
+        course.setTeacherId(UUID.randomUUID());
+        Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), CourseChangedEvent.Change.CREATED));
+        return saved;
+    }
+}
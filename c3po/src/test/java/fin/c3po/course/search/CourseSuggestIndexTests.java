@@ -0,0 +1,120 @@
+package fin.c3po.course.search;
+
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CourseSuggestion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 前缀树联想：按选课人数排序、只收录已发布课程，并随课程事件增量更新
+ */
+@SpringBootTest
+class CourseSuggestIndexTests {
+
+    @Autowired
+    private CourseSuggestIndex courseSuggestIndex;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void suggestionsAreOrderedByEnrollmentThenName() {
+        String prefix = prefix();
+        save(prefix + " Beta", 10, CourseStatus.PUBLISHED);
+        save(prefix + " Alpha", 10, CourseStatus.PUBLISHED);
+        save(prefix + " Gamma", 30, CourseStatus.PUBLISHED);
+        save(prefix + " Delta", 5, CourseStatus.PUBLISHED);
+
+        List<CourseSuggestion> suggestions = courseSuggestIndex.suggest(prefix, 3);
+
+        assertThat(suggestions).extracting(CourseSuggestion::getName)
+                .containsExactly(prefix + " Gamma", prefix + " Alpha", prefix + " Beta");
+        assertThat(suggestions).extracting(CourseSuggestion::getEnrolledCount)
+                .containsExactly(30, 10, 10);
+    }
+
+    @Test
+    void prefixMatchIgnoresCaseAndSurroundingWhitespace() {
+        String prefix = prefix();
+        Course course = save(prefix + " Compilers", 1, CourseStatus.PUBLISHED);
+
+        assertThat(courseSuggestIndex.suggest("  " + prefix.toUpperCase() + " COMP ", 5))
+                .extracting(CourseSuggestion::getId)
+                .containsExactly(course.getId());
+        assertThat(courseSuggestIndex.suggest(prefix + " compx", 5)).isEmpty();
+        assertThat(courseSuggestIndex.suggest("   ", 5)).isEmpty();
+    }
+
+    @Test
+    void onlyPublishedCoursesAreSuggested() {
+        String prefix = prefix();
+        save(prefix + " Draft", 50, CourseStatus.DRAFT);
+        Course published = save(prefix + " Published", 1, CourseStatus.PUBLISHED);
+
+        assertThat(courseSuggestIndex.suggest(prefix, 5)).extracting(CourseSuggestion::getId)
+                .containsExactly(published.getId());
+    }
+
+    @Test
+    void courseEventsUpdateTheIndexIncrementally() {
+        String prefix = prefix();
+        Course course = save(prefix + " Old Name", 3, CourseStatus.PUBLISHED);
+
+        course.setName(prefix + " New Name");
+        course.setEnrolledCount(7);
+        publish(courseRepository.save(course), CourseChangedEvent.Change.UPDATED);
+
+        assertThat(courseSuggestIndex.suggest(prefix + " old", 5)).isEmpty();
+        assertThat(courseSuggestIndex.suggest(prefix + " new", 5))
+                .singleElement()
+                .satisfies(suggestion -> assertThat(suggestion.getEnrolledCount()).isEqualTo(7));
+
+        course.setStatus(CourseStatus.ARCHIVED);
+        publish(courseRepository.save(course), CourseChangedEvent.Change.STATUS_CHANGED);
+
+        assertThat(courseSuggestIndex.suggest(prefix, 5)).isEmpty();
+    }
+
+    @Test
+    void limitIsClampedToMaximum() {
+        String prefix = prefix();
+        for (int i = 0; i < CourseSuggestIndex.MAX_SUGGESTIONS + 5; i++) {
+            save(prefix + " " + i, i, CourseStatus.PUBLISHED);
+        }
+
+        assertThat(courseSuggestIndex.suggest(prefix, 100)).hasSize(CourseSuggestIndex.MAX_SUGGESTIONS);
+        assertThat(courseSuggestIndex.suggest(prefix, 0)).hasSize(1);
+    }
+
+    private String prefix() {
+        return "suggest-" + UUID.randomUUID();
+    }
+
+    private Course save(String name, int enrolledCount, CourseStatus status) {
+        Course course = new Course();
+        course.setName(name);
+        course.setSemester("2025-FALL");
+        course.setCredit(2);
+        course.setStatus(status);
+        course.setTeacherId(UUID.randomUUID());
+        course.setEnrolledCount(enrolledCount);
+        Course saved = courseRepository.save(course);
+        publish(saved, CourseChangedEvent.Change.CREATED);
+        return saved;
+    }
+
+    private void publish(Course course, CourseChangedEvent.Change change) {
+        eventPublisher.publishEvent(new CourseChangedEvent(course.getId(), change));
+    }
+}
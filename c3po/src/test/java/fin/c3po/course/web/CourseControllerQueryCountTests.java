@@ -0,0 +1,204 @@
+package fin.c3po.course.web;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseModule;
+import fin.c3po.course.CourseModuleRepository;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.course.dto.CoursePlazaResponse;
+import fin.c3po.course.dto.CourseResponse;
+import fin.c3po.course.dto.StudentCourseResponse;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.support.StatementCounter;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(StatementCounter.class)
+class CourseControllerQueryCountTests {
+
+    @Autowired
+    private CourseController courseController;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+    @Autowired
+    private CourseModuleRepository courseModuleRepository;
+    @Autowired
+    private CourseSelectionRepository courseSelectionRepository;
+    @Autowired
+    private SubmissionRepository submissionRepository;
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void listCoursesIssuesFixedNumberOfStatementsPerPage() {
+        UUID smallTeacher = seedCourses(2, CourseStatus.DRAFT, "list-small");
+        UUID largeTeacher = seedCourses(12, CourseStatus.DRAFT, "list-large");
+
+        AtomicReference<ApiResponse<List<CourseResponse>>> small = new AtomicReference<>();
+        AtomicReference<ApiResponse<List<CourseResponse>>> large = new AtomicReference<>();
+        long smallStatements = statementCounter.count(() ->
+                small.set(courseController.listCourses(1, 50, null, smallTeacher, null, "createdAt,desc", null, false)));
+        long largeStatements = statementCounter.count(() ->
+                large.set(courseController.listCourses(1, 50, null, largeTeacher, null, "createdAt,desc", null, false)));
+
+        assertThat(small.get().getData()).hasSize(2);
+        assertThat(large.get().getData()).hasSize(12);
+        assertThat(large.get().getData())
+                .allSatisfy(course -> {
+                    assertThat(course.getMetrics().getEnrolledCount()).isEqualTo(3);
+                    assertThat(course.getMetrics().getAssignments()).isEqualTo(2);
+                    assertThat(course.getMetrics().getModules()).isEqualTo(2);
+                });
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void coursePlazaIssuesFixedNumberOfStatementsPerPage() {
+        String smallKeyword = "plaza-small-" + UUID.randomUUID();
+        String largeKeyword = "plaza-large-" + UUID.randomUUID();
+        seedCourses(2, CourseStatus.PUBLISHED, smallKeyword);
+        seedCourses(12, CourseStatus.PUBLISHED, largeKeyword);
+
+        AtomicReference<ApiResponse<List<CoursePlazaResponse>>> small = new AtomicReference<>();
+        AtomicReference<ApiResponse<List<CoursePlazaResponse>>> large = new AtomicReference<>();
+        long smallStatements = statementCounter.count(() -> small.set(courseController.coursePlaza(
+                1, 50, smallKeyword, null, null, null, "createdAt,desc", null, false, null)));
+        long largeStatements = statementCounter.count(() -> large.set(courseController.coursePlaza(
+                1, 50, largeKeyword, null, null, null, "createdAt,desc", null, false, null)));
+
+        assertThat(small.get().getData()).hasSize(2);
+        assertThat(large.get().getData()).hasSize(12);
+        assertThat(large.get().getData())
+                .allSatisfy(course -> assertThat(course.getEnrolledCount()).isEqualTo(3));
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    void studentCoursesIssuesFixedNumberOfStatementsRegardlessOfCourseCount() {
+        UUID lightStudent = UUID.randomUUID();
+        UUID heavyStudent = UUID.randomUUID();
+        seedStudentCourses(lightStudent, 1, 2);
+        seedStudentCourses(heavyStudent, 8, 20);
+
+        UserAccount lightAccount = account(lightStudent, UserRole.STUDENT);
+        UserAccount heavyAccount = account(heavyStudent, UserRole.STUDENT);
+        AtomicReference<ApiResponse<List<StudentCourseResponse>>> light = new AtomicReference<>();
+        AtomicReference<ApiResponse<List<StudentCourseResponse>>> heavy = new AtomicReference<>();
+        long lightStatements = statementCounter.count(() ->
+                light.set(courseController.studentCourses(lightStudent, lightAccount)));
+        long heavyStatements = statementCounter.count(() ->
+                heavy.set(courseController.studentCourses(heavyStudent, heavyAccount)));
+
+        assertThat(light.get().getData()).hasSize(1);
+        assertThat(heavy.get().getData()).hasSize(8)
+                .allSatisfy(course -> {
+                    assertThat(course.getTotalAssignments()).isEqualTo(20);
+                    // 作业 0 最新一次提交是重交后的 SUBMITTED，只有作业 1~4 计为已批改
+                    assertThat(course.getCompletedAssignments()).isEqualTo(4);
+                    assertThat(course.getPendingAssignments()).isEqualTo(16);
+                });
+        assertThat(heavyStatements).isEqualTo(lightStatements).isLessThanOrEqualTo(4);
+    }
+
+    private void seedStudentCourses(UUID studentId, int courses, int assignmentsPerCourse) {
+        Instant now = Instant.now();
+        for (int i = 0; i < courses; i++) {
+            Course course = new Course();
+            course.setName("student-courses-" + i);
+            course.setSemester("2025-FALL");
+            course.setCredit(2);
+            course.setStatus(CourseStatus.PUBLISHED);
+            course.setTeacherId(UUID.randomUUID());
+            Course saved = courseRepository.save(course);
+
+            CourseSelection selection = new CourseSelection();
+            selection.setCourseId(saved.getId());
+            selection.setStudentId(studentId);
+            selection.setSelectedAt(now);
+            courseSelectionRepository.save(selection);
+
+            for (int j = 0; j < assignmentsPerCourse; j++) {
+                Assignment assignment = new Assignment();
+                assignment.setCourseId(saved.getId());
+                assignment.setTitle("Assignment " + j);
+                UUID assignmentId = assignmentRepository.save(assignment).getId();
+                if (j == 0) {
+                    saveSubmission(assignmentId, studentId, SubmissionStatus.GRADED, now.minus(Duration.ofDays(2)));
+                    saveSubmission(assignmentId, studentId, SubmissionStatus.SUBMITTED, now.minus(Duration.ofDays(1)));
+                } else if (j < 5) {
+                    saveSubmission(assignmentId, studentId, SubmissionStatus.GRADED, now.minus(Duration.ofDays(1)));
+                } else if (j < 8) {
+                    saveSubmission(assignmentId, studentId, SubmissionStatus.SUBMITTED, now.minus(Duration.ofDays(1)));
+                }
+            }
+        }
+    }
+
+    private void saveSubmission(UUID assignmentId, UUID studentId, SubmissionStatus status, Instant submittedAt) {
+        Submission submission = new Submission();
+        submission.setAssignmentId(assignmentId);
+        submission.setStudentId(studentId);
+        submission.setStatus(status);
+        submission.setSubmittedAt(submittedAt);
+        submissionRepository.save(submission);
+    }
+
+
+    private UUID seedCourses(int count, CourseStatus status, String namePrefix) {
+        UUID teacherId = UUID.randomUUID();
+        for (int i = 0; i < count; i++) {
+            Course course = new Course();
+            course.setName(namePrefix + "-" + i);
+            course.setSemester("2025-FALL");
+            course.setCredit(2);
+            course.setStatus(status);
+            course.setTeacherId(teacherId);
+            course.setEnrolledCount(3);
+            Course saved = courseRepository.save(course);
+
+            for (int j = 0; j < 2; j++) {
+                Assignment assignment = new Assignment();
+                assignment.setCourseId(saved.getId());
+                assignment.setTitle("Assignment " + j);
+                assignmentRepository.save(assignment);
+
+                CourseModule module = new CourseModule();
+                module.setCourseId(saved.getId());
+                module.setTitle("Module " + j);
+                module.setDisplayOrder(j);
+                courseModuleRepository.save(module);
+            }
+            for (int j = 0; j < 3; j++) {
+                CourseSelection selection = new CourseSelection();
+                selection.setCourseId(saved.getId());
+                selection.setStudentId(UUID.randomUUID());
+                selection.setSelectedAt(Instant.now());
+                courseSelectionRepository.save(selection);
+            }
+        }
+        return teacherId;
+    }
+}
@@ -0,0 +1,89 @@
+package fin.c3po.course.web;
+
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.dto.CoursePlazaResponse;
+import fin.c3po.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 课程广场院系筛选：筛选在数据库侧完成，分页和总数只统计匹配的课程
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class CoursePlazaQueryTests {
+
+    @Autowired
+    private CourseController courseController;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void departmentFilterPagesAndCountsOnlyMatchingCourses() {
+        String keyword = "plaza-dept-" + UUID.randomUUID();
+        String department = "Physics-" + UUID.randomUUID();
+        seedCourses(keyword, fixtures.teacher(department), 5);
+        seedCourses(keyword, fixtures.teacher("Chemistry-" + UUID.randomUUID()), 4);
+        seedCourses(keyword, UUID.randomUUID(), 3);
+
+        ApiResponse<List<CoursePlazaResponse>> first = courseController.coursePlaza(
+                1, 2, keyword, null, null, department.toLowerCase(), "createdAt,desc", null, false, null);
+        ApiResponse<List<CoursePlazaResponse>> last = courseController.coursePlaza(
+                3, 2, keyword, null, null, department.toLowerCase(), "createdAt,desc", null, false, null);
+
+        assertThat(first.getMeta().getTotal()).isEqualTo(5);
+        assertThat(first.getData()).hasSize(2);
+        assertThat(last.getData()).hasSize(1);
+    }
+
+    @Test
+    void departmentFilterMatchesSubstringCaseInsensitively() {
+        String keyword = "plaza-dept-" + UUID.randomUUID();
+        String marker = UUID.randomUUID().toString();
+        seedCourses(keyword, fixtures.teacher("School of Math " + marker), 2);
+        seedCourses(keyword, fixtures.teacher("Math Education " + marker), 1);
+        seedCourses(keyword, fixtures.teacher("History"), 2);
+
+        ApiResponse<List<CoursePlazaResponse>> response = courseController.coursePlaza(
+                1, 20, keyword, null, null, "MATH", "createdAt,desc", null, false, null);
+
+        assertThat(response.getMeta().getTotal()).isEqualTo(3);
+        assertThat(response.getData()).hasSize(3);
+    }
+
+    @Test
+    void paddedFiltersReturnTheSameCoursesAsTrimmedOnes() {
+        String keyword = "plaza-trim-" + UUID.randomUUID();
+        String department = "Biology-" + UUID.randomUUID();
+        seedCourses(keyword, fixtures.teacher(department), 3);
+
+        // 先用带空白的条件填充缓存，再用规范写法请求，两者必须对应同一份查询结果
+        ApiResponse<List<CoursePlazaResponse>> padded = courseController.coursePlaza(
+                1, 20, "  " + keyword.toUpperCase() + " ", " 2025-FALL ", null, " " + department + "  ",
+                "createdAt,desc", null, false, null);
+        ApiResponse<List<CoursePlazaResponse>> trimmed = courseController.coursePlaza(
+                1, 20, keyword, "2025-FALL", null, department, "createdAt,desc", null, false, null);
+
+        assertThat(padded.getMeta().getTotal()).isEqualTo(3);
+        assertThat(padded.getData()).hasSize(3);
+        assertThat(trimmed.getData()).extracting(CoursePlazaResponse::getId)
+                .containsExactlyElementsOf(padded.getData().stream().map(CoursePlazaResponse::getId).toList());
+    }
+
+    private void seedCourses(String namePrefix, UUID teacherId, int count) {
+        for (int i = 0; i < count; i++) {
+            String name = namePrefix + "-" + i;
+            fixtures.course(course -> {
+                course.setName(name);
+                course.setTeacherId(teacherId);
+            });
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.scoreEntry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 总评：发布成绩只重算变化的学生，修改权重后分片并行重算全部学生（分片大小调小以走 fork-join 路径）
+ */
+@SpringBootTest(properties = "score.final-grade.partition-size=2")
+@Import(TestFixtures.class)
+class FinalGradeEngineTests {
+
+    @Autowired
+    private FinalGradeEngine finalGradeEngine;
+    @Autowired
+    private FinalGradeRepository finalGradeRepository;
+    @Autowired
+    private ScoreService scoreService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void recomputesChangedStudentsAndWholeCourseOnWeightChange() {
+        UUID courseId = fixtures.course();
+        Map<String, Double> weights = new LinkedHashMap<>();
+        weights.put("期中", 40.0);
+        weights.put("期末", 60.0);
+        assertThat(finalGradeEngine.updateWeights(courseId, weights)).isZero();
+
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        List<PublishScoresRequest.Entry> entries = new ArrayList<>(List.of(
+                scoreEntry(alice, "期中", 80), scoreEntry(alice, "期末", 90),
+                scoreEntry(bob, "期中", 70), scoreEntry(bob, "作业", 100)));
+        List<UUID> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            UUID studentId = UUID.randomUUID();
+            others.add(studentId);
+            entries.add(scoreEntry(studentId, "期末", 60 + i));
+        }
+        scoreService.publishBulk(courseId, entries, Instant.now());
+
+        FinalGrade aliceGrade = grade(courseId, alice);
+        assertThat(aliceGrade.getFinalScore()).isEqualTo(86.0);
+        assertThat(aliceGrade.getGradePoint()).isEqualTo(3.7);
+        assertThat(aliceGrade.isComplete()).isTrue();
+        // 没有权重的组成项不计入，缺少的组成项不计入分母
+        FinalGrade bobGrade = grade(courseId, bob);
+        assertThat(bobGrade.getFinalScore()).isEqualTo(70.0);
+        assertThat(bobGrade.getGradedWeight()).isEqualTo(0.4);
+        assertThat(bobGrade.isComplete()).isFalse();
+
+        scoreService.publishBulk(courseId, List.of(scoreEntry(alice, "期末", 100)), Instant.now());
+        assertThat(grade(courseId, alice).getFinalScore()).isEqualTo(92.0);
+        assertThat(grade(courseId, bob).getComputedAt()).isEqualTo(bobGrade.getComputedAt());
+
+        weights.put("期中", 50.0);
+        weights.put("期末", 50.0);
+        assertThat(finalGradeEngine.updateWeights(courseId, weights)).isEqualTo(6);
+        assertThat(grade(courseId, alice).getFinalScore()).isEqualTo(90.0);
+        assertThat(grade(courseId, bob).getGradedWeight()).isEqualTo(0.5);
+        assertThat(grade(courseId, others.get(3)).getFinalScore()).isEqualTo(63.0);
+
+        assertThat(finalGradeEngine.updateWeights(courseId, Map.of())).isZero();
+        assertThat(finalGradeRepository.findByCourseIdAndStudentId(courseId, alice)).isEmpty();
+    }
+
+    private FinalGrade grade(UUID courseId, UUID studentId) {
+        return finalGradeRepository.findByCourseIdAndStudentId(courseId, studentId).orElseThrow();
+    }
+}
@@ -0,0 +1,71 @@
+package fin.c3po.score;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreHistogramTests {
+
+    @Test
+    void matchesSortedListStatistics() {
+        Random random = new Random(11);
+        for (int size = 1; size <= 60; size++) {
+            List<Integer> values = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                values.add(random.nextInt(101));
+            }
+            ScoreHistogram histogram = ScoreHistogram.of(values);
+            List<Integer> sorted = values.stream().sorted().toList();
+
+            assertThat(histogram.count()).isEqualTo(size);
+            assertThat(histogram.min()).isEqualTo(sorted.get(0));
+            assertThat(histogram.max()).isEqualTo(sorted.get(size - 1));
+            assertThat(histogram.average())
+                    .isCloseTo(values.stream().mapToInt(Integer::intValue).average().orElseThrow(), within(1e-9));
+            for (double p : new double[]{25, 50, 75, 90}) {
+                assertThat(histogram.percentile(p)).isCloseTo(percentile(sorted, p), within(1e-9));
+            }
+            assertThat(histogram.countBetween(60, 69))
+                    .isEqualTo(values.stream().filter(value -> value >= 60 && value <= 69).count());
+        }
+    }
+
+    @Test
+    void mergeAndRemoveAreExact() {
+        ScoreHistogram left = ScoreHistogram.of(List.of(10, 20, 30));
+        ScoreHistogram right = ScoreHistogram.of(List.of(40, 50));
+
+        ScoreHistogram merged = left.copy().merge(right);
+        assertThat(merged).isEqualTo(ScoreHistogram.of(List.of(10, 20, 30, 40, 50)));
+        assertThat(merged.median()).isEqualTo(30.0);
+        assertThat(left.count()).isEqualTo(3);
+
+        merged.remove(50).remove(40);
+        assertThat(merged).isEqualTo(left);
+        assertThat(merged.median()).isEqualTo(20.0);
+        assertThat(new ScoreHistogram().median()).isNull();
+    }
+
+    @Test
+    void survivesConverterRoundTrip() {
+        ScoreHistogramConverter converter = new ScoreHistogramConverter();
+        ScoreHistogram histogram = ScoreHistogram.of(List.of(0, 59, 60, 100, 100));
+
+        ScoreHistogram restored = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(histogram));
+
+        assertThat(restored).isEqualTo(histogram);
+        assertThat(restored.sum()).isEqualTo(319);
+    }
+
+    private static double percentile(List<Integer> sorted, double p) {
+        double position = p / 100.0 * (sorted.size() - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        return sorted.get(lower) + (sorted.get(upper) - sorted.get(lower)) * (position - lower);
+    }
+}
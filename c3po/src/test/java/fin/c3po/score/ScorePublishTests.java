@@ -0,0 +1,129 @@
+package fin.c3po.score;
+
+import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.score.dto.PublishScoresResult;
+import fin.c3po.support.TestFixtures;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.scoreEntry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 成绩批量 upsert：新建、覆盖、未变化的计数与分布直方图保持一致；
+ * 打上 benchmark 标签的用例一次发布 50000 条成绩并输出耗时
+ */
+@SpringBootTest
+@Import(TestFixtures.class)
+class ScorePublishTests {
+
+    @Autowired
+    private ScoreService scoreService;
+    @Autowired
+    private ScoreHistogramService scoreHistogramService;
+    @Autowired
+    private ScoreRepository scoreRepository;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void upsertsScoresAndKeepsHistogramsInSync() {
+        UUID courseId = fixtures.course();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        Instant releasedAt = Instant.now();
+
+        PublishScoresResult first = scoreService.publishBulk(courseId, List.of(
+                scoreEntry(alice, "期中", 70), scoreEntry(bob, "期中", 80), scoreEntry(alice, "期末", 90)),
+                releasedAt);
+        assertThat(first.getCreated()).isEqualTo(3);
+        assertThat(first.getUpdated()).isZero();
+
+        // bob 的成绩在同一请求中出现两次，以最后一条为准
+        PublishScoresResult second = scoreService.publishBulk(courseId, List.of(
+                scoreEntry(alice, "期中", 70), scoreEntry(bob, "期中", 60), scoreEntry(bob, "期中", 85),
+                scoreEntry(bob, "期末", 75)), releasedAt);
+        assertThat(second.getTotal()).isEqualTo(3);
+        assertThat(second.getCreated()).isEqualTo(1);
+        assertThat(second.getUpdated()).isEqualTo(1);
+        assertThat(second.getUnchanged()).isEqualTo(1);
+
+        List<Score> scores = scoreRepository.findByCourseId(courseId);
+        assertThat(scores).hasSize(4);
+        assertThat(scoreRepository.findByStudentIdAndCourseIdAndComponent(bob, courseId, "期中"))
+                .get().extracting(Score::getValue).isEqualTo(85);
+
+        Map<String, ScoreHistogram> histograms = scoreHistogramService.byComponent(courseId);
+        assertThat(histograms.get("期中")).isEqualTo(ScoreHistogram.of(List.of(70, 85)));
+        assertThat(histograms.get("期末")).isEqualTo(ScoreHistogram.of(List.of(90, 75)));
+
+        List<Score> published = scoreService.publish(courseId, List.of(scoreEntry(alice, "期末", 95)), Instant.now());
+        assertThat(published).singleElement().satisfies(score -> {
+            assertThat(score.getId()).isNotNull();
+            assertThat(score.getValue()).isEqualTo(95);
+        });
+    }
+
+    @Test
+    void republishingWithNewReleaseTimeUpdatesReleasedAt() {
+        UUID courseId = fixtures.course();
+        UUID alice = UUID.randomUUID();
+        Instant firstRelease = Instant.parse("2025-01-10T08:00:00Z");
+        Instant secondRelease = Instant.parse("2025-01-17T08:00:00Z");
+        scoreService.publishBulk(courseId, List.of(scoreEntry(alice, "期中", 70)), firstRelease);
+
+        List<PublishScoresRequest.Entry> entries = List.of(scoreEntry(alice, "期中", 70));
+        PublishScoresResult same = scoreService.publishBulk(courseId, entries, firstRelease);
+        PublishScoresResult moved = scoreService.publishBulk(courseId, entries, secondRelease);
+
+        assertThat(same.getUnchanged()).isEqualTo(1);
+        assertThat(moved.getUpdated()).isEqualTo(1);
+        assertThat(scoreRepository.findByStudentIdAndCourseIdAndComponent(alice, courseId, "期中"))
+                .get().extracting(Score::getReleasedAt).isEqualTo(secondRelease);
+        // 只改发布时间不影响分布
+        assertThat(scoreHistogramService.byComponent(courseId).get("期中")).isEqualTo(ScoreHistogram.of(List.of(70)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkFiftyThousandEntries() {
+        UUID courseId = fixtures.course();
+        Random random = new Random(42L);
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            students.add(UUID.randomUUID());
+        }
+        List<PublishScoresRequest.Entry> entries = new ArrayList<>();
+        for (int c = 0; c < 5; c++) {
+            for (UUID studentId : students) {
+                entries.add(scoreEntry(studentId, "组成项 " + c, random.nextInt(101)));
+            }
+        }
+
+        Instant releasedAt = Instant.now();
+        long start = System.nanoTime();
+        PublishScoresResult created = scoreService.publishBulk(courseId, entries, releasedAt);
+        long createdAt = System.nanoTime();
+        entries.replaceAll(entry -> random.nextBoolean() ? scoreEntry(entry.getStudentId(), entry.getComponent(),
+                (entry.getValue() + 1) % 101) : entry);
+        PublishScoresResult republished = scoreService.publishBulk(courseId, entries, releasedAt);
+        long end = System.nanoTime();
+
+        assertThat(created.getCreated()).isEqualTo(50_000);
+        assertThat(republished.getCreated()).isZero();
+        assertThat(republished.getUpdated() + republished.getUnchanged()).isEqualTo(50_000);
+        assertThat(scoreHistogramService.merged(List.of(courseId)).count()).isEqualTo(50_000);
+        System.out.printf("publish 50000 scores: create %.1f ms, republish %.1f ms%n",
+                (createdAt - start) / 1e6, (end - createdAt) / 1e6);
+    }
+}
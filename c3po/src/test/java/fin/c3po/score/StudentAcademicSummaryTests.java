@@ -0,0 +1,109 @@
+package fin.c3po.score;
+
+import fin.c3po.profile.ProfileService;
+import fin.c3po.profile.dto.ProfileStatsResponse;
+import fin.c3po.score.dto.StudentScoreSummary;
+import fin.c3po.score.web.ScoreController;
+import fin.c3po.selection.CourseEnrollmentService;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static fin.c3po.support.TestFixtures.scoreEntry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 学业汇总：成绩页与个人统计读取同一份汇总，成绩发布后标记过期并在下一次读取时重建
+ */
+@SpringBootTest(properties = "score.summary.rebuild-interval-ms=3600000")
+@Import(TestFixtures.class)
+class StudentAcademicSummaryTests {
+
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private ScoreController scoreController;
+    @Autowired
+    private ScoreService scoreService;
+    @Autowired
+    private StudentAcademicSummaryRepository summaryRepository;
+    @Autowired
+    private CourseEnrollmentService courseEnrollmentService;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void bothEndpointsReadTheSameSummaryAndRefreshAfterPublish() {
+        UserAccount student = account(UserRole.STUDENT);
+        Instant now = Instant.now();
+
+        UUID courseId = fixtures.course();
+        fixtures.enroll(courseId, List.of(student.getId()));
+        UUID submitted = fixtures.assignment(courseId, "作业", now.minus(Duration.ofDays(1)));
+        fixtures.assignment(courseId, "作业", now.plus(Duration.ofDays(7)));
+        fixtures.submission(submitted, student.getId(), SubmissionStatus.RESUBMITTED, null,
+                now.minus(Duration.ofDays(2)));
+
+        scoreService.publishBulk(courseId, List.of(scoreEntry(student.getId(), "期中", 95),
+                scoreEntry(student.getId(), "期末", 55)), now);
+
+        ProfileStatsResponse stats = profileService.getProfileStats(student.getId(), UserRole.STUDENT);
+        assertThat(stats.getEnrolledCoursesCount()).isEqualTo(1);
+        assertThat(stats.getCompletedAssignmentsCount()).isEqualTo(1);
+        assertThat(stats.getPendingAssignmentsCount()).isEqualTo(1);
+        assertThat(stats.getAverageScore()).isEqualTo(75.0);
+        // 逐条换算绩点后取平均：(4.0 + 1.0) / 2
+        assertThat(stats.getGpa()).isEqualTo(2.5);
+
+        StudentScoreSummary summary = scoreController.studentScores(student.getId(), student).getData().getSummary();
+        assertThat(summary.getGpa()).isEqualTo(stats.getGpa());
+        assertThat(summary.getOverallAverage()).isEqualTo(stats.getAverageScore());
+        assertThat(summary.getCourses()).singleElement().satisfies(course -> {
+            assertThat(course.getHighest()).isEqualTo(95);
+            assertThat(course.getComponentAverages()).containsEntry("期末", 55.0);
+            assertThat(course.getProgress().getTotalAssignments()).isEqualTo(2);
+        });
+        assertThat(summaryRepository.findByStudentId(student.getId())).get()
+                .satisfies(stored -> assertThat(stored.getValidUntil()).isAfter(now));
+
+        scoreService.publishBulk(courseId, List.of(scoreEntry(student.getId(), "期末", 85)), now);
+        assertThat(summaryRepository.findByStudentId(student.getId())).get()
+                .extracting(StudentAcademicSummary::isStale).isEqualTo(true);
+
+        ProfileStatsResponse refreshed = profileService.getProfileStats(student.getId(), UserRole.STUDENT);
+        assertThat(refreshed.getAverageScore()).isEqualTo(90.0);
+        assertThat(refreshed.getGpa()).isEqualTo(3.85);
+        assertThat(scoreController.studentScores(student.getId(), student).getData().getSummary().getGpa())
+                .isEqualTo(3.85);
+    }
+
+    @Test
+    void enrollmentChangesMarkOnlyTheAffectedStudent() {
+        UUID courseId = fixtures.course();
+        UUID staying = UUID.randomUUID();
+        UUID leaving = UUID.randomUUID();
+        courseEnrollmentService.enroll(courseId, staying);
+        courseEnrollmentService.enroll(courseId, leaving);
+        profileService.getProfileStats(staying, UserRole.STUDENT);
+        profileService.getProfileStats(leaving, UserRole.STUDENT);
+
+        courseEnrollmentService.enroll(courseId, UUID.randomUUID());
+        courseEnrollmentService.drop(courseId, leaving);
+
+        assertThat(summaryRepository.findByStudentId(staying)).get()
+                .extracting(StudentAcademicSummary::isStale).isEqualTo(false);
+        assertThat(summaryRepository.findByStudentId(leaving)).get()
+                .extracting(StudentAcademicSummary::isStale).isEqualTo(true);
+    }
+}
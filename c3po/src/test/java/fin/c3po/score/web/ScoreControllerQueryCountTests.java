@@ -0,0 +1,141 @@
+package fin.c3po.score.web;
+
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.score.ScoreService;
+import fin.c3po.score.dto.CourseLearningProgress;
+import fin.c3po.score.dto.CourseScoresResponse;
+import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.score.dto.StudentScoresResponse;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.support.StatementCounter;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static fin.c3po.support.TestFixtures.account;
+import static fin.c3po.support.TestFixtures.scoreEntry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 后台不重建学业汇总，计数只包含读取请求本身的语句
+@SpringBootTest(properties = "score.summary.rebuild-interval-ms=3600000")
+@Import({StatementCounter.class, TestFixtures.class})
+class ScoreControllerQueryCountTests {
+
+    @Autowired
+    private ScoreController scoreController;
+    @Autowired
+    private ScoreService scoreService;
+    @Autowired
+    private StatementCounter statementCounter;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void studentScoresIssueFixedNumberOfStatementsAndAreInvalidatedByChanges() {
+        UserAccount small = account(UserRole.STUDENT);
+        UserAccount large = account(UserRole.STUDENT);
+        List<UUID> smallCourses = seed(small.getId(), 1, 1);
+        seed(large.getId(), 5, 4);
+
+        AtomicReference<StudentScoresResponse> smallResponse = new AtomicReference<>();
+        AtomicReference<StudentScoresResponse> largeResponse = new AtomicReference<>();
+        long smallStatements = statementCounter.count(() ->
+                smallResponse.set(scoreController.studentScores(small.getId(), small).getData()));
+        long largeStatements = statementCounter.count(() ->
+                largeResponse.set(scoreController.studentScores(large.getId(), large).getData()));
+
+        assertThat(largeResponse.get().getSummary().getCourses()).hasSize(5);
+        CourseLearningProgress progress = largeResponse.get().getSummary().getCourses().get(0).getProgress();
+        assertThat(progress.getTotalAssignments()).isEqualTo(4);
+        // 每门课程第一份作业按时提交并评分，第二份迟交，其余未交且已过截止时间
+        assertThat(progress.getCompletedAssignments()).isEqualTo(2);
+        assertThat(progress.getGradedAssignments()).isEqualTo(1);
+        assertThat(progress.getOverdueAssignments()).isEqualTo(3);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+
+        // 结果按学生缓存，数据不变时不再查询
+        assertThat(statementCounter.count(() -> scoreController.studentScores(large.getId(), large))).isZero();
+
+        scoreService.publishBulk(smallCourses.get(0), List.of(scoreEntry(small.getId(), "期末", 40)), Instant.now());
+        StudentScoresResponse refreshed = scoreController.studentScores(small.getId(), small).getData();
+        assertThat(refreshed.getItems()).hasSize(2);
+        assertThat(refreshed).isNotSameAs(smallResponse.get());
+        assertThat(statementCounter.count(() -> scoreController.studentScores(large.getId(), large))).isZero();
+    }
+
+    @Test
+    @WithMockUser(roles = "TEACHER")
+    void courseScoresArePagedAndAggregatedInTheDatabase() {
+        UserAccount teacher = account(UserRole.TEACHER);
+        UUID smallCourse = fixtures.course(teacher.getId());
+        UUID largeCourse = fixtures.course(teacher.getId());
+        List<PublishScoresRequest.Entry> smallEntries = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            smallEntries.add(scoreEntry(UUID.randomUUID(), "Midterm", 90));
+        }
+        scoreService.publishBulk(smallCourse, smallEntries, Instant.now());
+        List<PublishScoresRequest.Entry> largeEntries = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            UUID studentId = UUID.randomUUID();
+            largeEntries.add(scoreEntry(studentId, "Midterm", i % 100));
+            largeEntries.add(scoreEntry(studentId, "Final", 100 - i % 100));
+        }
+        scoreService.publishBulk(largeCourse, largeEntries, Instant.now());
+
+        AtomicReference<ApiResponse<CourseScoresResponse>> small = new AtomicReference<>();
+        AtomicReference<ApiResponse<CourseScoresResponse>> large = new AtomicReference<>();
+        long smallStatements = statementCounter.count(() ->
+                small.set(scoreController.courseScores(smallCourse, "midterm", null, 1, 20, teacher)));
+        long largeStatements = statementCounter.count(() ->
+                large.set(scoreController.courseScores(largeCourse, "midterm", null, 2, 20, teacher)));
+
+        assertThat(small.get().getData().getItems()).hasSize(20);
+        CourseScoresResponse page = large.get().getData();
+        assertThat(page.getItems()).hasSize(20).allMatch(item -> item.getComponent().equals("Midterm"));
+        assertThat(page.getTotalItems()).isEqualTo(300);
+        assertThat(large.get().getMeta().getTotal()).isEqualTo(300);
+        assertThat(page.getOverview().getScoreCount()).isEqualTo(300);
+        assertThat(page.getOverview().getStudentCount()).isEqualTo(300);
+        assertThat(page.getOverview().getAverage()).isEqualTo(49.5);
+        assertThat(page.getComponentAverages()).containsOnlyKeys("Midterm");
+        assertThat(page.getTopPerformers()).hasSize(5);
+        assertThat(page.getOverview().getNeedsAttentionCount()).isEqualTo(180);
+        assertThat(page.getNeedsAttention()).hasSize(50);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+
+        CourseScoresResponse unknown = scoreController.courseScores(largeCourse, "quiz", null, 1, 20, teacher).getData();
+        assertThat(unknown.getItems()).isEmpty();
+        assertThat(unknown.getOverview().getScoreCount()).isZero();
+    }
+
+    private List<UUID> seed(UUID studentId, int courses, int assignmentsPerCourse) {
+        Instant now = Instant.now();
+        List<UUID> courseIds = new ArrayList<>();
+        for (int c = 0; c < courses; c++) {
+            UUID courseId = fixtures.course();
+            courseIds.add(courseId);
+            for (int a = 0; a < assignmentsPerCourse; a++) {
+                UUID assignmentId = fixtures.assignment(courseId, "作业 " + a, now.minus(Duration.ofDays(1)));
+                if (a < 2) {
+                    fixtures.submission(assignmentId, studentId,
+                            a == 0 ? SubmissionStatus.GRADED : SubmissionStatus.SUBMITTED, null,
+                            a == 0 ? now.minus(Duration.ofDays(2)) : now);
+                }
+            }
+            scoreService.publishBulk(courseId, List.of(scoreEntry(studentId, "期中", 70 + c)), now);
+        }
+        return courseIds;
+    }
+}
@@ -0,0 +1,242 @@
+package fin.c3po.selection;
+
+import fin.c3po.course.CourseRepository;
+import fin.c3po.support.TestFixtures;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestFixtures.class)
+class CourseEnrollmentServiceConcurrencyTests {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private CourseEnrollmentService courseEnrollmentService;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private CourseSelectionRepository courseSelectionRepository;
+    @Autowired
+    private WaitlistPromoter waitlistPromoter;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void concurrentEnrollmentsNeverExceedLimitAndWaitlistTheRest() throws Exception {
+        int enrollLimit = 50;
+        int attempts = 1000;
+        UUID courseId = publishedCourse(enrollLimit);
+
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            students.add(UUID.randomUUID());
+        }
+        Outcome outcome = race(students.stream()
+                .map(studentId -> (Runnable) () -> courseEnrollmentService.enroll(courseId, studentId))
+                .toList());
+
+        assertThat(outcome.unexpected.get()).isZero();
+        assertThat(outcome.successes.get()).isEqualTo(attempts);
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(enrollLimit);
+        assertThat(courseSelectionRepository.countByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED))
+                .isEqualTo(enrollLimit);
+        assertThat(courseSelectionRepository.countByCourseIdAndStatus(courseId, SelectionStatus.WAITLISTED))
+                .isEqualTo(attempts - enrollLimit);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void benchmarkEnrollmentRace() throws Exception {
+        int attempts = 1000;
+        UUID courseId = publishedCourse(50);
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            students.add(UUID.randomUUID());
+        }
+
+        Outcome outcome = race(students.stream()
+                .map(studentId -> (Runnable) () -> courseEnrollmentService.enroll(courseId, studentId))
+                .toList());
+
+        assertThat(outcome.unexpected.get()).isZero();
+        System.out.printf("enrollment race: %d attempts, %d accepted, %d rejected in %d ms (%.0f attempts/s)%n",
+                attempts, outcome.successes.get(), outcome.conflicts.get(), outcome.elapsedMillis,
+                attempts * 1000.0 / Math.max(outcome.elapsedMillis, 1));
+    }
+
+    @Test
+    void sameStudentEnrollingConcurrentlyTakesOneSeat() throws Exception {
+        UUID courseId = publishedCourse(10);
+        UUID studentId = UUID.randomUUID();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(() -> courseEnrollmentService.enroll(courseId, studentId));
+        }
+        Outcome outcome = race(tasks);
+
+        assertThat(outcome.unexpected.get()).isZero();
+        assertThat(outcome.successes.get()).isEqualTo(1);
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dropReleasesSeatExactlyOnce() throws Exception {
+        UUID courseId = publishedCourse(1);
+        UUID studentId = UUID.randomUUID();
+        courseEnrollmentService.enroll(courseId, studentId);
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> courseEnrollmentService.drop(courseId, studentId));
+        }
+        Outcome outcome = race(tasks);
+
+        assertThat(outcome.successes.get()).isEqualTo(1);
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isZero();
+
+        courseEnrollmentService.enroll(courseId, UUID.randomUUID());
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void droppedSeatsArePromotedInWaitlistOrder() {
+        UUID courseId = publishedCourse(2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        courseEnrollmentService.enroll(courseId, first);
+        courseEnrollmentService.enroll(courseId, second);
+
+        List<UUID> waitlisted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID studentId = UUID.randomUUID();
+            CourseSelection selection = courseEnrollmentService.enroll(courseId, studentId);
+            assertThat(selection.getStatus()).isEqualTo(SelectionStatus.WAITLISTED);
+            waitlisted.add(studentId);
+        }
+
+        courseEnrollmentService.drop(courseId, first);
+        courseEnrollmentService.drop(courseId, second);
+        // 名额空出但仍有候补时，新来的学生不能插队
+        assertThat(courseEnrollmentService.enroll(courseId, UUID.randomUUID()).getStatus())
+                .isEqualTo(SelectionStatus.WAITLISTED);
+
+        waitlistPromoter.promote(courseId);
+
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(2);
+        assertThat(courseSelectionRepository.findByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED))
+                .extracting(CourseSelection::getStudentId)
+                .containsExactlyInAnyOrder(waitlisted.get(0), waitlisted.get(1));
+        assertThat(courseSelectionRepository.countByCourseIdAndStatus(courseId, SelectionStatus.WAITLISTED))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void batchWaitlistPositionsAreDistinctAndFollowPromotionOrder() {
+        UUID courseId = publishedCourse(1);
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            students.add(UUID.randomUUID());
+        }
+
+        List<EnrollmentOutcome> outcomes = courseEnrollmentService.enrollBatch(courseId, students);
+
+        // 同一批次共用一个时间戳，位次必须靠 id 决胜才能各不相同
+        List<UUID> byPosition = new ArrayList<>(new TreeMap<>(outcomes.stream()
+                .map(EnrollmentOutcome::getSelection)
+                .filter(selection -> selection.getStatus() == SelectionStatus.WAITLISTED)
+                .collect(Collectors.toMap(courseEnrollmentService::waitlistPosition,
+                        CourseSelection::getStudentId))).values());
+        assertThat(byPosition).hasSize(4);
+
+        courseEnrollmentService.drop(courseId, students.get(0));
+        waitlistPromoter.promote(courseId);
+
+        assertThat(courseSelectionRepository.findByCourseIdAndStatus(courseId, SelectionStatus.ENROLLED))
+                .extracting(CourseSelection::getStudentId)
+                .containsExactly(byPosition.get(0));
+    }
+
+    @Test
+    void batchRejectionsNameTheExistingState() {
+        UUID courseId = publishedCourse(1);
+        UUID enrolled = UUID.randomUUID();
+        UUID waitlisted = UUID.randomUUID();
+        courseEnrollmentService.enroll(courseId, enrolled);
+        courseEnrollmentService.enroll(courseId, waitlisted);
+        UUID fresh = UUID.randomUUID();
+
+        List<EnrollmentOutcome> outcomes = courseEnrollmentService.enrollBatch(courseId,
+                List.of(enrolled, waitlisted, fresh, fresh));
+
+        assertThat(outcomes).extracting(EnrollmentOutcome::getRejectReason)
+                .containsExactly("Already enrolled", "Already on the waitlist", null, "Duplicate enrollment request");
+    }
+
+    private UUID publishedCourse(int enrollLimit) {
+        return fixtures.course(course -> course.setEnrollLimit(enrollLimit));
+    }
+
+    private Outcome race(List<Runnable> tasks) throws Exception {
+        Outcome outcome = new Outcome();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.run();
+                        outcome.successes.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        if (e.getStatusCode() == HttpStatus.CONFLICT) {
+                            outcome.conflicts.incrementAndGet();
+                        } else {
+                            outcome.unexpected.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        outcome.unexpected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            outcome.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcome;
+    }
+
+    private static class Outcome {
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final AtomicInteger unexpected = new AtomicInteger();
+        private long elapsedMillis;
+    }
+}
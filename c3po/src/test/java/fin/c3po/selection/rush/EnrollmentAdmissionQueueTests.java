@@ -0,0 +1,142 @@
+package fin.c3po.selection.rush;
+
+import fin.c3po.common.web.ApiResponse;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseChangedEvent;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.dto.CourseEnrollmentResponse;
+import fin.c3po.course.dto.EnrollmentTicketResponse;
+import fin.c3po.course.web.CourseController;
+import fin.c3po.support.TestFixtures;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static fin.c3po.support.TestFixtures.account;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 抢课排队：凭证保存在数据库中，按提交顺序处理，同一学生排队中只有一张凭证，队列满时拒绝新请求
+ * 关闭定时扫描，直接写入的凭证只在测试显式处理时才会被处理
+ */
+@SpringBootTest(properties = {
+        "course.rush.sweep-interval-ms=3600000",
+        "course.rush.max-queued-per-course=3"
+})
+@Import(TestFixtures.class)
+@WithMockUser(roles = "STUDENT")
+class EnrollmentAdmissionQueueTests {
+
+    @Autowired
+    private EnrollmentAdmissionQueue enrollmentAdmissionQueue;
+    @Autowired
+    private EnrollmentTicketRepository enrollmentTicketRepository;
+    @Autowired
+    private CourseController courseController;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void storedTicketsAreProcessedInSubmissionOrder() {
+        UUID courseId = fixtures.course(course -> course.setEnrollLimit(2));
+        Instant base = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<EnrollmentTicket> tickets = new ArrayList<>();
+        // 倒序写入，处理顺序只取决于提交时间；直接写库相当于其他实例或重启前接收的请求
+        for (int i = 3; i >= 0; i--) {
+            EnrollmentTicket ticket = EnrollmentTicket.queued(courseId, UUID.randomUUID());
+            ticket.setSubmittedAt(base.plusMillis(i));
+            tickets.add(0, enrollmentTicketRepository.save(ticket));
+        }
+        assertThat(tickets).extracting(enrollmentAdmissionQueue::position).containsExactly(0L, 1L, 2L, 3L);
+
+        assertThat(enrollmentAdmissionQueue.drain(courseId)).isEqualTo(4);
+
+        List<EnrollmentTicket> processed = tickets.stream()
+                .map(ticket -> enrollmentAdmissionQueue.find(ticket.getId()).orElseThrow())
+                .toList();
+        assertThat(processed).extracting(EnrollmentTicket::getStatus).containsExactly(
+                EnrollmentTicketStatus.ENROLLED, EnrollmentTicketStatus.ENROLLED,
+                EnrollmentTicketStatus.WAITLISTED, EnrollmentTicketStatus.WAITLISTED);
+        assertThat(processed).allSatisfy(ticket -> {
+            assertThat(ticket.getSelectionId()).isNotNull();
+            assertThat(ticket.getQueuedStudentId()).isNull();
+            assertThat(enrollmentAdmissionQueue.position(ticket)).isZero();
+        });
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicateSubmissionsShareTheQueuedTicket() {
+        UUID courseId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        EnrollmentTicket queued = enrollmentTicketRepository.save(EnrollmentTicket.queued(courseId, studentId));
+
+        assertThat(enrollmentAdmissionQueue.submit(courseId, studentId).getId()).isEqualTo(queued.getId());
+        // 数据库唯一约束兜底，不同实例的并发请求也不会写入第二张排队中的凭证
+        assertThatThrownBy(() -> enrollmentTicketRepository.saveAndFlush(EnrollmentTicket.queued(courseId, studentId)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void fullQueueRejectsNewRequests() {
+        UUID courseId = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            enrollmentTicketRepository.save(EnrollmentTicket.queued(courseId, UUID.randomUUID()));
+        }
+
+        assertThatThrownBy(() -> enrollmentAdmissionQueue.submit(courseId, UUID.randomUUID()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    @Test
+    void rushModeSwitchRoutesEnrollmentThroughTheQueue() throws InterruptedException {
+        UUID courseId = fixtures.course(course -> course.setEnrollLimit(5));
+
+        ResponseEntity<ApiResponse<CourseEnrollmentResponse>> direct = courseController.enrollCourse(courseId,
+                account(UserRole.STUDENT));
+        assertThat(direct.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(direct.getBody().getData().getTicketId()).isNull();
+        assertThat(direct.getBody().getData().getSelectionId()).isNotNull();
+
+        Course course = courseRepository.findById(courseId).orElseThrow();
+        course.setRushMode(true);
+        courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, CourseChangedEvent.Change.UPDATED));
+
+        UserAccount student = account(UserRole.STUDENT);
+        ResponseEntity<ApiResponse<CourseEnrollmentResponse>> queued = courseController.enrollCourse(courseId, student);
+        assertThat(queued.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        UUID ticketId = queued.getBody().getData().getTicketId();
+        assertThat(ticketId).isNotNull();
+
+        EnrollmentTicketResponse ticket = courseController.enrollmentTicket(courseId, ticketId, student).getData();
+        for (int i = 0; i < 200 && ticket.getStatus() == EnrollmentTicketStatus.QUEUED; i++) {
+            Thread.sleep(50);
+            ticket = courseController.enrollmentTicket(courseId, ticketId, student).getData();
+        }
+        assertThat(ticket.getStatus()).isEqualTo(EnrollmentTicketStatus.ENROLLED);
+        assertThat(ticket.getSelectionId()).isNotNull();
+        assertThat(courseRepository.findById(courseId).orElseThrow().getEnrolledCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,211 @@
+package fin.c3po.support;
+
+import fin.c3po.assignment.Assignment;
+import fin.c3po.assignment.AssignmentRepository;
+import fin.c3po.assignment.AssignmentType;
+import fin.c3po.course.Course;
+import fin.c3po.course.CourseRepository;
+import fin.c3po.course.CourseStatus;
+import fin.c3po.profile.TeacherProfile;
+import fin.c3po.profile.TeacherProfileRepository;
+import fin.c3po.score.dto.PublishScoresRequest;
+import fin.c3po.selection.CourseSelection;
+import fin.c3po.selection.CourseSelectionRepository;
+import fin.c3po.submission.Submission;
+import fin.c3po.submission.SubmissionRepository;
+import fin.c3po.submission.SubmissionStatus;
+import fin.c3po.user.UserAccount;
+import fin.c3po.user.UserRole;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Shared builders for test data. Every entity gets random ids and names so tests can share the H2 database
+ * without seeing each other's rows. Import it with {@code @Import(TestFixtures.class)}.
+ */
+@TestConfiguration
+public class TestFixtures {
+
+    private static final String INSERT_SUBMISSION_SQL = "INSERT INTO submissions "
+            + "(id, created_at, updated_at, assignment_id, student_id, status, score, submitted_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CourseRepository courseRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final CourseSelectionRepository courseSelectionRepository;
+    private final SubmissionRepository submissionRepository;
+    private final TeacherProfileRepository teacherProfileRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestFixtures(CourseRepository courseRepository,
+                        AssignmentRepository assignmentRepository,
+                        CourseSelectionRepository courseSelectionRepository,
+                        SubmissionRepository submissionRepository,
+                        TeacherProfileRepository teacherProfileRepository,
+                        DataSource dataSource) {
+        this.courseRepository = courseRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.courseSelectionRepository = courseSelectionRepository;
+        this.submissionRepository = submissionRepository;
+        this.teacherProfileRepository = teacherProfileRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public static UserAccount account(UserRole role) {
+        return account(UUID.randomUUID(), role);
+    }
+
+    public static UserAccount account(UUID id, UserRole role) {
+        UserAccount account = new UserAccount();
+        account.setId(id);
+        account.setRole(role);
+        return account;
+    }
+
+    public static PublishScoresRequest.Entry scoreEntry(UUID studentId, String component, int value) {
+        PublishScoresRequest.Entry entry = new PublishScoresRequest.Entry();
+        entry.setStudentId(studentId);
+        entry.setComponent(component);
+        entry.setValue(value);
+        return entry;
+    }
+
+    /**
+     * A published 2025-FALL course with two credits, a random name and a random teacher;
+     * {@code customizer} adjusts it before it is saved.
+     */
+    public UUID course(Consumer<Course> customizer) {
+        Course course = new Course();
+        course.setName("Course " + UUID.randomUUID());
+        course.setSemester("2025-FALL");
+        course.setCredit(2);
+        course.setStatus(CourseStatus.PUBLISHED);
+        course.setTeacherId(UUID.randomUUID());
+        customizer.accept(course);
+        return courseRepository.save(course).getId();
+    }
+
+    public UUID course(UUID teacherId) {
+        return course(course -> course.setTeacherId(teacherId));
+    }
+
+    public UUID course() {
+        return course(course -> {
+        });
+    }
+
+    /**
+     * A published assignment; {@code deadline} may be null.
+     */
+    public UUID assignment(UUID courseId, String title, Instant deadline) {
+        Assignment assignment = new Assignment();
+        assignment.setCourseId(courseId);
+        assignment.setTitle(title);
+        assignment.setPublished(true);
+        assignment.setDeadline(deadline);
+        return assignmentRepository.save(assignment).getId();
+    }
+
+    public UUID quiz(UUID courseId) {
+        Assignment assignment = new Assignment();
+        assignment.setCourseId(courseId);
+        assignment.setTitle("随堂测验");
+        assignment.setType(AssignmentType.QUIZ);
+        assignment.setPublished(true);
+        return assignmentRepository.save(assignment).getId();
+    }
+
+    public void enroll(UUID courseId, Collection<UUID> studentIds) {
+        Instant now = Instant.now();
+        List<CourseSelection> selections = new ArrayList<>(studentIds.size());
+        for (UUID studentId : studentIds) {
+            CourseSelection selection = new CourseSelection();
+            selection.setCourseId(courseId);
+            selection.setStudentId(studentId);
+            selection.setSelectedAt(now);
+            selections.add(selection);
+        }
+        courseSelectionRepository.saveAll(selections);
+    }
+
+    /**
+     * Enrolls {@code count} new students and returns their ids.
+     */
+    public List<UUID> enroll(UUID courseId, int count) {
+        List<UUID> studentIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            studentIds.add(UUID.randomUUID());
+        }
+        enroll(courseId, studentIds);
+        return studentIds;
+    }
+
+    public UUID submission(UUID assignmentId, UUID studentId, SubmissionStatus status, Integer score,
+                           Instant submittedAt) {
+        Submission submission = new Submission();
+        submission.setAssignmentId(assignmentId);
+        submission.setStudentId(studentId);
+        submission.setStatus(status);
+        submission.setScore(score);
+        submission.setSubmittedAt(submittedAt);
+        return submissionRepository.save(submission).getId();
+    }
+
+    /**
+     * A row for {@link #insertSubmissions} written at {@code submittedAt}.
+     */
+    public static Object[] submissionRow(UUID assignmentId, UUID studentId, SubmissionStatus status, Integer score,
+                                         Instant submittedAt) {
+        Timestamp writtenAt = Timestamp.from(submittedAt);
+        return new Object[]{UUID.randomUUID(), writtenAt, writtenAt, assignmentId, studentId, status.name(), score,
+                writtenAt};
+    }
+
+    /**
+     * Batch-inserts submission rows laid out as
+     * (id, created_at, updated_at, assignment_id, student_id, status, score, submitted_at).
+     */
+    public void insertSubmissions(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(INSERT_SUBMISSION_SQL, rows);
+    }
+
+    /**
+     * A teacher with a profile in {@code department}.
+     */
+    public UUID teacher(String department) {
+        UUID teacherId = UUID.randomUUID();
+        TeacherProfile profile = new TeacherProfile();
+        profile.setUserId(teacherId);
+        profile.setTeacherNo("T" + teacherId.toString().substring(0, 8));
+        profile.setDepartment(department);
+        teacherProfileRepository.save(profile);
+        return teacherId;
+    }
+
+    /**
+     * A course whose only assignment passed its deadline a day ago. Two students are enrolled:
+     * {@code submitted} handed it in two hours early and got {@code score}, {@code missing} never submitted.
+     */
+    public UUID courseWithOverdueAssignment(UUID teacherId, CourseStatus status, UUID submitted, int score,
+                                            UUID missing) {
+        UUID courseId = course(course -> {
+            course.setTeacherId(teacherId);
+            course.setStatus(status);
+        });
+        Instant deadline = Instant.now().minus(Duration.ofDays(1));
+        UUID assignmentId = assignment(courseId, "已截止的作业", deadline);
+        enroll(courseId, List.of(submitted, missing));
+        submission(assignmentId, submitted, SubmissionStatus.GRADED, score, deadline.minus(Duration.ofHours(2)));
+        return courseId;
+    }
+}